@@ -9,16 +9,27 @@ module ideaslabut.aws.lambda.core {
     requires transitive java.net.http;
     requires transitive com.fasterxml.jackson.databind;
 
-    requires org.apache.commons.lang3;
     requires org.slf4j;
+    requires software.amazon.awssdk.auth;
     requires software.amazon.awssdk.core;
     requires software.amazon.awssdk.services.apigatewaymanagementapi;
+    requires software.amazon.awssdk.services.dynamodb;
+    requires software.amazon.awssdk.services.sqs;
     requires software.amazon.awssdk.regions;
     requires software.amazon.awssdk.http.urlconnection;
 
     exports org.ideaslabut.aws.lambda.domain.elasticsearch;
     exports org.ideaslabut.aws.lambda.domain.elasticsearch.request;
+    exports org.ideaslabut.aws.lambda.domain.json;
+    exports org.ideaslabut.aws.lambda.domain.queue;
+    exports org.ideaslabut.aws.lambda.domain.text;
     exports org.ideaslabut.aws.lambda.domain.websocket;
     exports org.ideaslabut.aws.lambda.service;
+    exports org.ideaslabut.aws.lambda.service.concurrent;
+    exports org.ideaslabut.aws.lambda.service.connection;
+    exports org.ideaslabut.aws.lambda.service.metrics;
+    exports org.ideaslabut.aws.lambda.service.payload;
+    exports org.ideaslabut.aws.lambda.service.queue;
+    exports org.ideaslabut.aws.lambda.service.transport;
     exports org.ideaslabut.aws.lambda.domain.sneaky;
 }
\ No newline at end of file
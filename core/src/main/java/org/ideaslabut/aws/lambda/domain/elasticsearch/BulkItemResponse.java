@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.elasticsearch;
+
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+
+/**
+ * Pojo that mimics the result of a single action of Elasticsearch bulk api response
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 25, 2022
+ */
+public class BulkItemResponse {
+    @JsonAlias("_index")
+    private String index;
+
+    @JsonAlias("_id")
+    private String id;
+
+    private int status;
+    private String result;
+
+    public String getIndex() {
+        return index;
+    }
+
+    public void setIndex(String index) {
+        this.index = index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("index", index)
+            .append("id", id)
+            .append("status", status)
+            .append("result", result)
+            .build();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.elasticsearch;
+
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that mimics Elasticsearch bulk api response, each item maps its action name to its result and items are in
+ * the same order as the actions
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 25, 2022
+ */
+public class BulkResponse {
+    private long took;
+    private boolean errors;
+    private List<Map<String, BulkItemResponse>> items;
+
+    public long getTook() {
+        return took;
+    }
+
+    public void setTook(long took) {
+        this.took = took;
+    }
+
+    public boolean isErrors() {
+        return errors;
+    }
+
+    public void setErrors(boolean errors) {
+        this.errors = errors;
+    }
+
+    public List<Map<String, BulkItemResponse>> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Map<String, BulkItemResponse>> items) {
+        this.items = items;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("took", took)
+            .append("errors", errors)
+            .append("items", items)
+            .build();
+    }
+}
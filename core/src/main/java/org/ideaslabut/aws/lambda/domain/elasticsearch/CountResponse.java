@@ -0,0 +1,34 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.elasticsearch;
+
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Class that mimics Elasticsearch count api response
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 30, 2022
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CountResponse {
+    private long count;
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("count", count)
+            .build();
+    }
+}
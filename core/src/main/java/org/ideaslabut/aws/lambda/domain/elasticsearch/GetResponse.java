@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.elasticsearch;
+
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Class that mimics Elasticsearch get document api response where source is bound to the given type. Sequence
+ * number and primary term identify the version of document read, so that a later write can be made conditional on
+ * nobody else having written it since.
+ *
+ * @param <S> a type of document source
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 31, 2022
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GetResponse<S> {
+    @JsonAlias("_id")
+    private String id;
+    @JsonAlias("_seq_no")
+    private Long seqNo;
+    @JsonAlias("_primary_term")
+    private Long primaryTerm;
+    private boolean found;
+    @JsonAlias("_source")
+    private S source;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getSeqNo() {
+        return seqNo;
+    }
+
+    public void setSeqNo(Long seqNo) {
+        this.seqNo = seqNo;
+    }
+
+    public Long getPrimaryTerm() {
+        return primaryTerm;
+    }
+
+    public void setPrimaryTerm(Long primaryTerm) {
+        this.primaryTerm = primaryTerm;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public void setFound(boolean found) {
+        this.found = found;
+    }
+
+    public S getSource() {
+        return source;
+    }
+
+    public void setSource(S source) {
+        this.source = source;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("id", id)
+            .append("seqNo", seqNo)
+            .append("primaryTerm", primaryTerm)
+            .append("found", found)
+            .append("source", source)
+            .build();
+    }
+}
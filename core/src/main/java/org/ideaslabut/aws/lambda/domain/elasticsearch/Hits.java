@@ -3,8 +3,10 @@
  */
 package org.ideaslabut.aws.lambda.domain.elasticsearch;
 
-import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
+import org.ideaslabut.aws.lambda.domain.json.HitsDeserializer;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import java.util.List;
 
@@ -14,6 +16,7 @@ import java.util.List;
  * @author Prakash Khadka <br>
  *         Created on: Jan 30, 2022
  */
+@JsonDeserialize(using = HitsDeserializer.class)
 public class Hits {
     private HitsTotal total;
     private List<SourceHits> hits;
@@ -36,6 +39,9 @@ public class Hits {
 
     @Override
     public String toString() {
-        return ReflectionToStringBuilder.toString(this, ToStringStyle.JSON_STYLE);
+        return BoundedToString.builder()
+            .append("total", total)
+            .append("hits", hits)
+            .build();
     }
 }
@@ -3,8 +3,10 @@
  */
 package org.ideaslabut.aws.lambda.domain.elasticsearch;
 
-import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
+import org.ideaslabut.aws.lambda.domain.json.HitsTotalDeserializer;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 /**
  * A pojo representing Elasticsearch search response hits total node
@@ -12,6 +14,7 @@ import org.apache.commons.lang3.builder.ToStringStyle;
  * @author Prakash Khadka <br>
  *     Created On: Jun 27, 2022
  */
+@JsonDeserialize(using = HitsTotalDeserializer.class)
 public class HitsTotal {
     private long value;
 
@@ -25,6 +28,8 @@ public class HitsTotal {
 
     @Override
     public String toString() {
-        return ReflectionToStringBuilder.toString(this, ToStringStyle.JSON_STYLE);
+        return BoundedToString.builder()
+            .append("value", value)
+            .build();
     }
 }
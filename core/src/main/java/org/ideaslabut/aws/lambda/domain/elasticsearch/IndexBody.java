@@ -3,9 +3,9 @@
  */
 package org.ideaslabut.aws.lambda.domain.elasticsearch;
 
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * Pojo holding an elasticsearch document body for this index
@@ -27,6 +27,8 @@ public class IndexBody {
 
     @Override
     public String toString() {
-        return ReflectionToStringBuilder.toString(this, ToStringStyle.JSON_STYLE);
+        return BoundedToString.builder()
+            .append("id", id)
+            .build();
     }
 }
\ No newline at end of file
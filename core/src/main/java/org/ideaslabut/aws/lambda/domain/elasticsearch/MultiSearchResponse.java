@@ -0,0 +1,33 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.elasticsearch;
+
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import java.util.List;
+
+/**
+ * Class that mimics Elasticsearch multi search api response, responses are in the same order as the searches
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 20, 2022
+ */
+public class MultiSearchResponse {
+    private List<Response> responses;
+
+    public List<Response> getResponses() {
+        return responses;
+    }
+
+    public void setResponses(List<Response> responses) {
+        this.responses = responses;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("responses", responses)
+            .build();
+    }
+}
@@ -3,20 +3,25 @@
  */
 package org.ideaslabut.aws.lambda.domain.elasticsearch;
 
+import org.ideaslabut.aws.lambda.domain.json.ResponseDeserializer;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
 import com.fasterxml.jackson.annotation.JsonAlias;
-import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 /**
- * Class that mimics Elasticsearch search api response with hits value only
+ * Class that mimics Elasticsearch search api response with hits value only, a failed search of multi search api
+ * holds the type of its error instead of hits
  *
  * @author Prakash Khadka <br>
  *     Created on: Jan 30, 2022
  */
+@JsonDeserialize(using = ResponseDeserializer.class)
 public class Response {
     @JsonAlias("_scroll_id")
     private String scrollId;
     private Hits hits;
+    private String errorType;
 
     public String getScrollId() {
         return scrollId;
@@ -34,8 +39,20 @@ public class Response {
         this.hits = hits;
     }
 
+    public String getErrorType() {
+        return errorType;
+    }
+
+    public void setErrorType(String errorType) {
+        this.errorType = errorType;
+    }
+
     @Override
     public String toString() {
-        return ReflectionToStringBuilder.toString(this, ToStringStyle.JSON_STYLE);
+        return BoundedToString.builder()
+            .append("scrollId", scrollId)
+            .append("hits", hits)
+            .append("errorType", errorType)
+            .build();
     }
 }
@@ -3,9 +3,11 @@
  */
 package org.ideaslabut.aws.lambda.domain.elasticsearch;
 
+import org.ideaslabut.aws.lambda.domain.json.ScrollSerializer;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 /**
  * A pojo that mimics elasticsearch scroll response json node
@@ -13,6 +15,7 @@ import org.apache.commons.lang3.builder.ToStringStyle;
  * @author Prakash Khadka <br>
  *     Created on: Jan 30, 2022
  */
+@JsonSerialize(using = ScrollSerializer.class)
 public class Scroll {
     @JsonProperty("scroll_id")
     private String scrollId;
@@ -27,6 +30,8 @@ public class Scroll {
 
     @Override
     public String toString() {
-        return ReflectionToStringBuilder.toString(this, ToStringStyle.JSON_STYLE);
+        return BoundedToString.builder()
+            .append("scrollId", scrollId)
+            .build();
     }
 }
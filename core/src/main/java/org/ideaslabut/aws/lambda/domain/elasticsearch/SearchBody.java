@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.elasticsearch;
+
+import org.ideaslabut.aws.lambda.domain.json.SearchBodySerializer;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A pojo that mimics elasticsearch search api request body with size, query and sort node only
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 18, 2022
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonSerialize(using = SearchBodySerializer.class)
+public class SearchBody {
+    private Long size;
+    @JsonProperty("track_total_hits")
+    private Boolean trackTotalHits;
+    private Map<String, Object> query;
+    private List<Map<String, Object>> sort;
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public Boolean getTrackTotalHits() {
+        return trackTotalHits;
+    }
+
+    public void setTrackTotalHits(Boolean trackTotalHits) {
+        this.trackTotalHits = trackTotalHits;
+    }
+
+    public Map<String, Object> getQuery() {
+        return query;
+    }
+
+    public void setQuery(Map<String, Object> query) {
+        this.query = query;
+    }
+
+    public List<Map<String, Object>> getSort() {
+        return sort;
+    }
+
+    public void setSort(List<Map<String, Object>> sort) {
+        this.sort = sort;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("size", size)
+            .append("trackTotalHits", trackTotalHits)
+            .append("query", query)
+            .append("sort", sort)
+            .build();
+    }
+}
@@ -3,9 +3,11 @@
  */
 package org.ideaslabut.aws.lambda.domain.elasticsearch;
 
+import org.ideaslabut.aws.lambda.domain.json.SourceHitsDeserializer;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
 import com.fasterxml.jackson.annotation.JsonAlias;
-import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import java.util.Map;
 
@@ -15,6 +17,7 @@ import java.util.Map;
  * @author Prakash Khadka <br>
  *     Created on: Jan 30, 2022
  */
+@JsonDeserialize(using = SourceHitsDeserializer.class)
 public class SourceHits {
     @JsonAlias("_source")
     private Map<String, String> source;
@@ -29,6 +32,8 @@ public class SourceHits {
 
     @Override
     public String toString() {
-        return ReflectionToStringBuilder.toString(this, ToStringStyle.JSON_STYLE);
+        return BoundedToString.builder()
+            .append("source", source)
+            .build();
     }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.elasticsearch;
+
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import java.util.List;
+
+/**
+ * A pojo representing Elasticsearch response json hits node with typed document source
+ *
+ * @param <S> a type of document source
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 19, 2022
+ */
+public class TypedHits<S> {
+    private HitsTotal total;
+    private List<TypedSourceHits<S>> hits;
+
+    public HitsTotal getTotal() {
+        return total;
+    }
+
+    public void setTotal(HitsTotal total) {
+        this.total = total;
+    }
+
+    public List<TypedSourceHits<S>> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<TypedSourceHits<S>> hits) {
+        this.hits = hits;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("total", total)
+            .append("hits", hits)
+            .build();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.elasticsearch;
+
+import org.ideaslabut.aws.lambda.domain.json.TypedResponseDeserializer;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+/**
+ * Class that mimics Elasticsearch search api response with hits value only where each hit source is
+ * deserialized directly into the given source type instead of string map
+ *
+ * @param <S> a type of document source
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 19, 2022
+ */
+@JsonDeserialize(using = TypedResponseDeserializer.class)
+public class TypedResponse<S> {
+    @JsonAlias("_scroll_id")
+    private String scrollId;
+    private TypedHits<S> hits;
+
+    public String getScrollId() {
+        return scrollId;
+    }
+
+    public void setScrollId(String scrollId) {
+        this.scrollId = scrollId;
+    }
+
+    public TypedHits<S> getHits() {
+        return hits;
+    }
+
+    public void setHits(TypedHits<S> hits) {
+        this.hits = hits;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("scrollId", scrollId)
+            .append("hits", hits)
+            .build();
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.elasticsearch;
+
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+
+/**
+ * Pojo that mimics Elasticsearch search hits source json node where source is bound to the given type
+ *
+ * @param <S> a type of document source
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 19, 2022
+ */
+public class TypedSourceHits<S> {
+    @JsonAlias("_source")
+    private S source;
+
+    public S getSource() {
+        return source;
+    }
+
+    public void setSource(S source) {
+        this.source = source;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("source", source)
+            .build();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.elasticsearch.request;
+
+import static java.util.Objects.requireNonNull;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.IndexBody;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An elasticsearch bulk api request which batches several document actions of an index into a single round trip
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 25, 2022
+ */
+public class BulkRequest extends Indexable {
+    public static final String INDEX_ACTION = "index";
+    public static final String DELETE_ACTION = "delete";
+
+    /**
+     * A single document action of bulk request
+     */
+    public static class Action {
+        private final String name;
+        private final String id;
+        private final IndexBody body;
+
+        /**
+         * Creates a new instance of bulk {@link Action}
+         *
+         * @param name a name of action to set
+         * @param id a document id to set
+         * @param body a document body to set, null for delete action
+         */
+        private Action(String name, String id, IndexBody body) {
+            this.name = name;
+            this.id = id;
+            this.body = body;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public IndexBody getBody() {
+            return body;
+        }
+
+        @Override
+        public String toString() {
+            return BoundedToString.builder().append("name", name).append("id", id).append("body", body).build();
+        }
+    }
+
+    /**
+     * A builder for {@link BulkRequest}
+     */
+    public static class Builder extends Indexable.Builder<BulkRequest, Builder> {
+        private final List<Action> actions;
+
+        /**
+         * Creates a new instance of bulk request {@link Builder}
+         */
+        private Builder() {
+            super();
+            this.actions = new ArrayList<>();
+        }
+
+        /**
+         * Adds an action which indexes the given document, replacing the existing one with same id
+         *
+         * @param body a document body to index
+         *
+         * @return a reference of this bulk request builder
+         */
+        public Builder index(IndexBody body) {
+            actions.add(new Action(INDEX_ACTION, requireNonNull(body.getId()), body));
+            return this;
+        }
+
+        /**
+         * Adds an action which deletes the document of given id
+         *
+         * @param id a document id to delete
+         *
+         * @return a reference of this bulk request builder
+         */
+        public Builder delete(String id) {
+            actions.add(new Action(DELETE_ACTION, requireNonNull(id), null));
+            return this;
+        }
+
+        /**
+         * Builds a new instance of {@link BulkRequest}
+         *
+         * @return a newly created bulk request
+         */
+        @Override
+        public BulkRequest build() {
+            return new BulkRequest(this);
+        }
+    }
+
+    /**
+     * Creates a new instance of bulk request {@link Builder}
+     *
+     * @return a newly created bulk request builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private List<Action> actions;
+
+    /**
+     * Creates a new instance of {@link BulkRequest}
+     *
+     * @param builder a bulk request builder to use
+     */
+    private BulkRequest(Builder builder) {
+        super(builder);
+        setActions(List.copyOf(builder.actions));
+    }
+
+    public List<Action> getActions() {
+        return actions;
+    }
+
+    public void setActions(List<Action> actions) {
+        this.actions = actions;
+    }
+
+    @Override
+    protected BoundedToString appendFields(BoundedToString builder) {
+        return super.appendFields(builder).append("actions", getActions());
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.elasticsearch.request;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.IndexBody;
+
+/**
+ * Elasticsearch get document from index api request
+ *
+ * @param <I> A type of body hold by this request
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 31, 2022
+ */
+public class GetRequest<I extends IndexBody> extends IndexableBodyRequest<I> {
+    /**
+     * Elasticsearch get request builder
+     *
+     * @param <I> a type of body holds by this builder
+     */
+    public static class Builder<I extends IndexBody> extends IndexableBodyRequest.Builder<I, GetRequest<I>, Builder<I>> {
+
+        /**
+         * Builds a new instance of {@link GetRequest}
+         *
+         * @return a newly created {@link GetRequest}
+         */
+        @Override
+        public GetRequest<I> build() {
+            return new GetRequest<>(this);
+        }
+    }
+
+    /**
+     * Creates a new instance of elasticsearch get document from index request {@link Builder}
+     *
+     * @param <I> a type of body holds by this builder
+     *
+     * @return a newly created elasticsearch get document request {@link Builder}
+     */
+    public static <I extends IndexBody> Builder<I> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Creates a new instance of {@link GetRequest}
+     *
+     * @param builder a get request builder to create {@link GetRequest}
+     */
+    private GetRequest(Builder<I> builder) {
+        super(builder);
+    }
+}
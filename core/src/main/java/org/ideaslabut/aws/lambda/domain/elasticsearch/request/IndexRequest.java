@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.elasticsearch.request;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.IndexBody;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+/**
+ * Elasticsearch request to index a document, creating it or replacing the existing one with same id. If both
+ * sequence number and primary term are set, the document is only replaced if it hasn't changed since it was read
+ * with them, otherwise elasticsearch rejects the request with <code>409</code>.
+ *
+ * @param <I> a type of body hold by this request
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 26, 2022
+ */
+public class IndexRequest<I extends IndexBody> extends IndexableBodyRequest<I> {
+    /**
+     * Elasticsearch index request builder
+     *
+     * @param <I> a type of body hold by this builder
+     */
+    public static class Builder<I extends IndexBody> extends IndexableBodyRequest.Builder<I, IndexRequest<I>, Builder<I>> {
+        private Long ifSeqNo;
+        private Long ifPrimaryTerm;
+
+        /**
+         * Sets the sequence number the document must still have for this builder
+         *
+         * @param ifSeqNo a sequence number to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder<I> withIfSeqNo(Long ifSeqNo) {
+            this.ifSeqNo = ifSeqNo;
+            return this;
+        }
+
+        /**
+         * Sets the primary term the document must still have for this builder
+         *
+         * @param ifPrimaryTerm a primary term to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder<I> withIfPrimaryTerm(Long ifPrimaryTerm) {
+            this.ifPrimaryTerm = ifPrimaryTerm;
+            return this;
+        }
+
+        /**
+         * Builds a new instance of {@link IndexRequest}
+         *
+         * @return a newly created {@link IndexRequest}
+         */
+        @Override
+        public IndexRequest<I> build() {
+            return new IndexRequest<>(this);
+        }
+    }
+
+    private Long ifSeqNo;
+    private Long ifPrimaryTerm;
+
+    /**
+     * Creates a new instance of elasticsearch index request {@link Builder}
+     *
+     * @param <I> a type of body hold by this builder
+     *
+     * @return a newly created builder
+     */
+    public static <I extends IndexBody> Builder<I> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Creates a new instance of {@link IndexRequest}
+     *
+     * @param builder an index request builder to create {@link IndexRequest}
+     */
+    private IndexRequest(Builder<I> builder) {
+        super(builder);
+        setIfSeqNo(builder.ifSeqNo);
+        setIfPrimaryTerm(builder.ifPrimaryTerm);
+    }
+
+    public Long getIfSeqNo() {
+        return ifSeqNo;
+    }
+
+    public void setIfSeqNo(Long ifSeqNo) {
+        this.ifSeqNo = ifSeqNo;
+    }
+
+    public Long getIfPrimaryTerm() {
+        return ifPrimaryTerm;
+    }
+
+    public void setIfPrimaryTerm(Long ifPrimaryTerm) {
+        this.ifPrimaryTerm = ifPrimaryTerm;
+    }
+
+    @Override
+    protected BoundedToString appendFields(BoundedToString builder) {
+        return super.appendFields(builder)
+            .append("ifSeqNo", getIfSeqNo())
+            .append("ifPrimaryTerm", getIfPrimaryTerm());
+    }
+}
@@ -5,6 +5,8 @@ package org.ideaslabut.aws.lambda.domain.elasticsearch.request;
 
 import static java.util.Objects.requireNonNull;
 
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
 import java.util.Objects;
 
 /**
@@ -63,4 +65,9 @@ public abstract class Indexable extends Request {
     public void setIndex(String index) {
         Index = index;
     }
+
+    @Override
+    protected BoundedToString appendFields(BoundedToString builder) {
+        return super.appendFields(builder).append("index", getIndex());
+    }
 }
@@ -6,6 +6,7 @@ package org.ideaslabut.aws.lambda.domain.elasticsearch.request;
 import static java.util.Objects.requireNonNull;
 
 import org.ideaslabut.aws.lambda.domain.elasticsearch.IndexBody;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
 
 import java.util.Objects;
 
@@ -76,4 +77,9 @@ public abstract class IndexableBodyRequest<I extends IndexBody> extends Indexabl
     public void setBody(I body) {
         this.body = body;
     }
+
+    @Override
+    protected BoundedToString appendFields(BoundedToString builder) {
+        return super.appendFields(builder).append("body", getBody());
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.elasticsearch.request;
+
+import static java.util.Objects.requireNonNull;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.Response;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An elasticsearch multi search api request which batches several search requests into a single round trip
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 20, 2022
+ */
+public class MultiSearchRequest extends Request {
+    /**
+     * A single search of multi search request along with the consumer of its own response
+     */
+    public static class Item {
+        private final SearchRequest searchRequest;
+        private final Consumer<Response> responseConsumer;
+
+        /**
+         * Creates a new instance of multi search {@link Item}
+         *
+         * @param searchRequest a search request to set
+         * @param responseConsumer a consumer of search response to set
+         */
+        private Item(SearchRequest searchRequest, Consumer<Response> responseConsumer) {
+            this.searchRequest = searchRequest;
+            this.responseConsumer = responseConsumer;
+        }
+
+        public SearchRequest getSearchRequest() {
+            return searchRequest;
+        }
+
+        public Consumer<Response> getResponseConsumer() {
+            return responseConsumer;
+        }
+
+        @Override
+        public String toString() {
+            return BoundedToString.builder().append("searchRequest", searchRequest).build();
+        }
+    }
+
+    /**
+     * A builder for {@link MultiSearchRequest}
+     */
+    public static class Builder extends Request.BaseBuilder<MultiSearchRequest, Builder> {
+        private final List<Item> items;
+
+        /**
+         * Creates a new instance of multi search request {@link Builder}
+         */
+        private Builder() {
+            super();
+            this.items = new ArrayList<>();
+        }
+
+        /**
+         * Adds the given search request to this multi search request builder
+         *
+         * @param searchRequest a search request to add
+         * @param responseConsumer a consumer to be invoked with the response of given search request
+         *
+         * @return a reference of this multi search request builder
+         */
+        public Builder add(SearchRequest searchRequest, Consumer<Response> responseConsumer) {
+            items.add(new Item(requireNonNull(searchRequest), requireNonNull(responseConsumer)));
+            return this;
+        }
+
+        /**
+         * Builds a new instance of {@link MultiSearchRequest}
+         *
+         * @return a newly created multi search request
+         */
+        @Override
+        public MultiSearchRequest build() {
+            return new MultiSearchRequest(this);
+        }
+    }
+
+    /**
+     * Creates a new instance of multi search request {@link Builder}
+     *
+     * @return a newly created multi search request builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private List<Item> items;
+
+    /**
+     * Creates a new instance of {@link MultiSearchRequest}
+     *
+     * @param builder a multi search request builder to use
+     */
+    private MultiSearchRequest(Builder builder) {
+        super(builder);
+        setItems(List.copyOf(builder.items));
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    @Override
+    protected BoundedToString appendFields(BoundedToString builder) {
+        return super.appendFields(builder).append("items", getItems());
+    }
+}
@@ -3,8 +3,7 @@
  */
 package org.ideaslabut.aws.lambda.domain.elasticsearch.request;
 
-import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
 
 import java.net.http.HttpResponse;
 import java.util.function.Consumer;
@@ -118,8 +117,20 @@ public abstract class Request {
         this.successConsumer = successConsumer;
     }
 
+    /**
+     * Appends the fields describing this request to given builder, consumers are left out as they describe nothing
+     * but the caller. Subclasses append their own fields after the fields of their parent.
+     *
+     * @param builder a bounded to string builder to append to
+     *
+     * @return a reference of given builder
+     */
+    protected BoundedToString appendFields(BoundedToString builder) {
+        return builder;
+    }
+
     @Override
     public String toString() {
-        return ReflectionToStringBuilder.toString(this, ToStringStyle.JSON_STYLE);
+        return appendFields(BoundedToString.builder()).build();
     }
 }
@@ -5,6 +5,8 @@ package org.ideaslabut.aws.lambda.domain.elasticsearch.request;
 
 import static java.util.Objects.requireNonNull;
 
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
 /**
  * An elasticsearch request which helps to perform scroll request
  *
@@ -75,4 +77,9 @@ public class ScrollRequest extends Scrollable {
     public void setScrollId(String scrollId) {
         this.scrollId = scrollId;
     }
+
+    @Override
+    protected BoundedToString appendFields(BoundedToString builder) {
+        return super.appendFields(builder).append("scrollId", getScrollId());
+    }
 }
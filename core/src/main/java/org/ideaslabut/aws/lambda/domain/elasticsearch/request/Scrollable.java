@@ -5,6 +5,8 @@ package org.ideaslabut.aws.lambda.domain.elasticsearch.request;
 
 import static java.util.Objects.requireNonNull;
 
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
 import java.util.Objects;
 
 /**
@@ -42,6 +44,18 @@ public abstract class Scrollable extends Indexable {
             this.scroll = requireNonNull(scroll);
             return (B) this;
         }
+
+        /**
+         * Clears the scroll of this scrollable builder so that the request reads a single page without opening a
+         * scroll context
+         *
+         * @return a reference of this builder {@link B}
+         */
+        @SuppressWarnings("unchecked")
+        public B withoutScroll() {
+            this.scroll = null;
+            return (B) this;
+        }
     }
 
     private String scroll;
@@ -63,4 +77,9 @@ public abstract class Scrollable extends Indexable {
     public void setScroll(String scroll) {
         this.scroll = scroll;
     }
+
+    @Override
+    protected BoundedToString appendFields(BoundedToString builder) {
+        return super.appendFields(builder).append("scroll", getScroll());
+    }
 }
@@ -3,6 +3,11 @@
  */
 package org.ideaslabut.aws.lambda.domain.elasticsearch.request;
 
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import java.util.List;
+import java.util.Map;
+
 /**
  * An elasticsearch search document from index api request
  *
@@ -15,6 +20,8 @@ public class SearchRequest extends Scrollable {
      */
     public static class Builder extends Scrollable.Builder<SearchRequest, Builder> {
         private long size;
+        private Map<String, Object> query;
+        private List<Map<String, Object>> sort;
 
         /**
          * Creates a new instance of an elasticsearch search request builder
@@ -36,6 +43,32 @@ public class SearchRequest extends Scrollable {
             return this;
         }
 
+        /**
+         * Sets the elasticsearch query DSL node for this search request builder i.e. the value of
+         * <code>query</code> in the search request body
+         *
+         * @param query a query DSL node to set
+         *
+         * @return a reference of this elasticsearch search request builder
+         */
+        public Builder withQuery(Map<String, Object> query) {
+            this.query = query;
+            return this;
+        }
+
+        /**
+         * Sets the elasticsearch sort node for this search request builder i.e. the value of
+         * <code>sort</code> in the search request body
+         *
+         * @param sort a list of sort clauses to set
+         *
+         * @return a reference of this elasticsearch search request builder
+         */
+        public Builder withSort(List<Map<String, Object>> sort) {
+            this.sort = sort;
+            return this;
+        }
+
         /**
          * Builds a new instance of {@link SearchRequest}
          *
@@ -57,6 +90,8 @@ public class SearchRequest extends Scrollable {
     }
 
     private long size;
+    private Map<String, Object> query;
+    private List<Map<String, Object>> sort;
 
     /**
      * Creates a new instance of {@link SearchRequest}
@@ -66,6 +101,8 @@ public class SearchRequest extends Scrollable {
     private SearchRequest(Builder builder) {
         super(builder);
         setSize(builder.size);
+        setQuery(builder.query);
+        setSort(builder.sort);
     }
 
     public long getSize() {
@@ -75,4 +112,28 @@ public class SearchRequest extends Scrollable {
     public void setSize(long size) {
         this.size = size;
     }
+
+    public Map<String, Object> getQuery() {
+        return query;
+    }
+
+    public void setQuery(Map<String, Object> query) {
+        this.query = query;
+    }
+
+    public List<Map<String, Object>> getSort() {
+        return sort;
+    }
+
+    public void setSort(List<Map<String, Object>> sort) {
+        this.sort = sort;
+    }
+
+    @Override
+    protected BoundedToString appendFields(BoundedToString builder) {
+        return super.appendFields(builder)
+            .append("size", getSize())
+            .append("query", getQuery())
+            .append("sort", getSort());
+    }
 }
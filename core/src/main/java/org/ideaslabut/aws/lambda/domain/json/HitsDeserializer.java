@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.json;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.Hits;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.SourceHits;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A deserializer of {@link Hits}, reading every hit with {@link SourceHitsDeserializer} directly
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 03, 2022
+ */
+public class HitsDeserializer extends ObjectDeserializer<Hits> {
+    static final HitsDeserializer INSTANCE = new HitsDeserializer();
+
+    /**
+     * Creates a new instance of {@link HitsDeserializer}
+     */
+    public HitsDeserializer() {
+        super(Hits.class);
+    }
+
+    @Override
+    protected Hits newInstance() {
+        return new Hits();
+    }
+
+    @Override
+    protected void readField(Hits value, String fieldName, JsonParser parser, DeserializationContext context)
+        throws IOException {
+        switch (fieldName) {
+            case "total":
+                value.setTotal(parser.currentToken() == JsonToken.VALUE_NULL ?
+                    null :
+                    HitsTotalDeserializer.INSTANCE.deserialize(parser, context)
+                );
+                break;
+            case "hits":
+                value.setHits(readHits(parser, context));
+                break;
+            default:
+                parser.skipChildren();
+        }
+    }
+
+    /**
+     * Reads the array of hits
+     *
+     * @param parser a parser pointing at an array
+     * @param context a deserialization context
+     *
+     * @return a list of hits, null if value is json null
+     *
+     * @throws IOException if value is not an array or cannot be read
+     */
+    private List<SourceHits> readHits(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            context.reportWrongTokenException(List.class, JsonToken.START_ARRAY, "Expected an array of hits");
+        }
+
+        var hits = new ArrayList<SourceHits>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            hits.add(parser.currentToken() == JsonToken.VALUE_NULL ?
+                null :
+                SourceHitsDeserializer.INSTANCE.deserialize(parser, context)
+            );
+        }
+        return hits;
+    }
+}
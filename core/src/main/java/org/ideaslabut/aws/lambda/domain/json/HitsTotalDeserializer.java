@@ -0,0 +1,55 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.json;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.HitsTotal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+
+/**
+ * A deserializer of {@link HitsTotal}, which also accepts the plain number total of elasticsearch 6 responses
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 03, 2022
+ */
+public class HitsTotalDeserializer extends ObjectDeserializer<HitsTotal> {
+    static final HitsTotalDeserializer INSTANCE = new HitsTotalDeserializer();
+
+    /**
+     * Creates a new instance of {@link HitsTotalDeserializer}
+     */
+    public HitsTotalDeserializer() {
+        super(HitsTotal.class);
+    }
+
+    @Override
+    public HitsTotal deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            var hitsTotal = newInstance();
+            hitsTotal.setValue(parser.getLongValue());
+            return hitsTotal;
+        }
+        return super.deserialize(parser, context);
+    }
+
+    @Override
+    protected HitsTotal newInstance() {
+        return new HitsTotal();
+    }
+
+    @Override
+    protected void readField(HitsTotal value, String fieldName, JsonParser parser, DeserializationContext context)
+        throws IOException {
+        if ("value".equals(fieldName)) {
+            value.setValue(parser.getValueAsLong());
+        }
+        else {
+            parser.skipChildren();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A base deserializer of a json object which walks the fields of object with the streaming parser and hands each
+ * one to {@link #readField(Object, String, JsonParser, DeserializationContext)}. A domain class deserialized this
+ * way is never introspected for its bean properties, so there is neither first call introspection cost nor per
+ * property setter dispatch. Fields a subclass doesn't know are skipped.
+ *
+ * @param <T> a type of object to deserialize
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 03, 2022
+ */
+public abstract class ObjectDeserializer<T> extends StdDeserializer<T> {
+    /**
+     * Creates a new instance of {@link ObjectDeserializer}
+     *
+     * @param valueType a type of object to deserialize
+     */
+    protected ObjectDeserializer(Class<?> valueType) {
+        super(valueType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        var token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        }
+        else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (T) context.handleUnexpectedToken(handledType(), parser);
+        }
+
+        var value = newInstance();
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            var fieldName = parser.currentName();
+            parser.nextToken();
+            readField(value, fieldName, parser, context);
+        }
+        return value;
+    }
+
+    /**
+     * Creates a new empty object to read fields into
+     *
+     * @return a newly created object
+     */
+    protected abstract T newInstance();
+
+    /**
+     * Reads the value of given field into given object. Parser points at the first token of field value and must be
+     * left at its last token, unknown fields should be passed over with {@link JsonParser#skipChildren()}.
+     *
+     * @param value an object being deserialized
+     * @param fieldName a name of field
+     * @param parser a parser pointing at field value
+     * @param context a deserialization context
+     *
+     * @throws IOException if field value cannot be read
+     */
+    protected abstract void readField(T value, String fieldName, JsonParser parser, DeserializationContext context)
+        throws IOException;
+
+    /**
+     * Reads the current value as a string, containers are read as their json text
+     *
+     * @param parser a parser pointing at a value
+     *
+     * @return a string value, null if value is json null
+     *
+     * @throws IOException if value cannot be read
+     */
+    protected static String readString(JsonParser parser) throws IOException {
+        var token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getValueAsString();
+        }
+        return parser.readValueAsTree().toString();
+    }
+
+    /**
+     * Reads the current object as a map of string values
+     *
+     * @param parser a parser pointing at an object
+     * @param context a deserialization context
+     *
+     * @return a map of string values, null if value is json null
+     *
+     * @throws IOException if value is not an object or cannot be read
+     */
+    protected static Map<String, String> readStringMap(JsonParser parser, DeserializationContext context)
+        throws IOException {
+        var token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            context.reportWrongTokenException(Map.class, JsonToken.START_OBJECT, "Expected an object of strings");
+        }
+
+        var map = new HashMap<String, String>();
+        for (var fieldName = parser.nextFieldName(); fieldName != null; fieldName = parser.nextFieldName()) {
+            parser.nextToken();
+            map.put(fieldName, readString(parser));
+        }
+        return map;
+    }
+}
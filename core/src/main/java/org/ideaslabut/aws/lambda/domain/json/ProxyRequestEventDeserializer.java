@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.json;
+
+import org.ideaslabut.aws.lambda.domain.websocket.ProxyRequestEvent;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+
+/**
+ * A deserializer of websocket {@link ProxyRequestEvent}. Body is kept as the string api gateway sends, a body which
+ * is not a string is read as untyped maps and lists the same way the bean deserializer of an object field does.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 03, 2022
+ */
+public class ProxyRequestEventDeserializer extends ObjectDeserializer<ProxyRequestEvent> {
+    /**
+     * Creates a new instance of {@link ProxyRequestEventDeserializer}
+     */
+    public ProxyRequestEventDeserializer() {
+        super(ProxyRequestEvent.class);
+    }
+
+    @Override
+    protected ProxyRequestEvent newInstance() {
+        return new ProxyRequestEvent();
+    }
+
+    @Override
+    protected void readField(
+        ProxyRequestEvent value,
+        String fieldName,
+        JsonParser parser,
+        DeserializationContext context
+    ) throws IOException {
+        switch (fieldName) {
+            case "requestContext":
+                value.setRequestContext(parser.currentToken() == JsonToken.VALUE_NULL ?
+                    null :
+                    RequestContextDeserializer.INSTANCE.deserialize(parser, context)
+                );
+                break;
+            case "queryStringParameters":
+                value.setQueryStringParameters(readStringMap(parser, context));
+                break;
+            case "body":
+                value.setBody(parser.currentToken() == JsonToken.VALUE_STRING ?
+                    parser.getText() :
+                    context.readValue(parser, Object.class)
+                );
+                break;
+            default:
+                parser.skipChildren();
+        }
+    }
+}
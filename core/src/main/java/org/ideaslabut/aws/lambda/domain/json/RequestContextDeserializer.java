@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.json;
+
+import org.ideaslabut.aws.lambda.domain.websocket.RequestContext;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+
+/**
+ * A deserializer of websocket {@link RequestContext}, the many other fields api gateway sends are skipped
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 03, 2022
+ */
+public class RequestContextDeserializer extends ObjectDeserializer<RequestContext> {
+    static final RequestContextDeserializer INSTANCE = new RequestContextDeserializer();
+
+    /**
+     * Creates a new instance of {@link RequestContextDeserializer}
+     */
+    public RequestContextDeserializer() {
+        super(RequestContext.class);
+    }
+
+    @Override
+    protected RequestContext newInstance() {
+        return new RequestContext();
+    }
+
+    @Override
+    protected void readField(RequestContext value, String fieldName, JsonParser parser, DeserializationContext context)
+        throws IOException {
+        switch (fieldName) {
+            case "connectionId":
+                value.setConnectionId(readString(parser));
+                break;
+            case "routeKey":
+                value.setRouteKey(readString(parser));
+                break;
+            case "domainName":
+                value.setDomainName(readString(parser));
+                break;
+            case "stage":
+                value.setStage(readString(parser));
+                break;
+            default:
+                parser.skipChildren();
+        }
+    }
+}
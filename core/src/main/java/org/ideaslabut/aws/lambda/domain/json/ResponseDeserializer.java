@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.json;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.Response;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+
+/**
+ * A deserializer of elasticsearch search and scroll {@link Response}, fields other than scroll id, hits and error type
+ * such as <code>took</code>, <code>_shards</code> or aggregations are skipped without being materialized
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 03, 2022
+ */
+public class ResponseDeserializer extends ObjectDeserializer<Response> {
+    /**
+     * Creates a new instance of {@link ResponseDeserializer}
+     */
+    public ResponseDeserializer() {
+        super(Response.class);
+    }
+
+    @Override
+    protected Response newInstance() {
+        return new Response();
+    }
+
+    @Override
+    protected void readField(Response value, String fieldName, JsonParser parser, DeserializationContext context)
+        throws IOException {
+        switch (fieldName) {
+            case "_scroll_id":
+            case "scrollId":
+                value.setScrollId(readString(parser));
+                break;
+            case "hits":
+                value.setHits(parser.currentToken() == JsonToken.VALUE_NULL ?
+                    null :
+                    HitsDeserializer.INSTANCE.deserialize(parser, context)
+                );
+                break;
+            case "error":
+                value.setErrorType(readErrorType(parser, context));
+                break;
+            default:
+                parser.skipChildren();
+        }
+    }
+
+    /**
+     * Reads the type of an elasticsearch error, which is an object holding the type or a plain reason string
+     *
+     * @param parser a parser pointing at the error value
+     * @param context a deserialization context
+     *
+     * @return a type of error, the reason itself if error is a plain string
+     *
+     * @throws IOException if error cannot be read
+     */
+    private static String readErrorType(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return readString(parser);
+        }
+        return readStringMap(parser, context).get("type");
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.json;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.Scroll;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * A serializer of scroll request body {@link Scroll}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 03, 2022
+ */
+public class ScrollSerializer extends StdSerializer<Scroll> {
+    private static final SerializableString SCROLL_ID = new SerializedString("scroll_id");
+
+    /**
+     * Creates a new instance of {@link ScrollSerializer}
+     */
+    public ScrollSerializer() {
+        super(Scroll.class);
+    }
+
+    @Override
+    public void serialize(Scroll scroll, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(scroll);
+        generator.writeFieldName(SCROLL_ID);
+        generator.writeString(scroll.getScrollId());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.json;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.SearchBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * A serializer of search request body {@link SearchBody}, fields which are not set are left out
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 03, 2022
+ */
+public class SearchBodySerializer extends StdSerializer<SearchBody> {
+    private static final SerializableString SIZE = new SerializedString("size");
+    private static final SerializableString TRACK_TOTAL_HITS = new SerializedString("track_total_hits");
+    private static final SerializableString QUERY = new SerializedString("query");
+    private static final SerializableString SORT = new SerializedString("sort");
+
+    /**
+     * Creates a new instance of {@link SearchBodySerializer}
+     */
+    public SearchBodySerializer() {
+        super(SearchBody.class);
+    }
+
+    @Override
+    public void serialize(SearchBody searchBody, JsonGenerator generator, SerializerProvider provider)
+        throws IOException {
+        generator.writeStartObject(searchBody);
+        if (searchBody.getSize() != null) {
+            generator.writeFieldName(SIZE);
+            generator.writeNumber(searchBody.getSize());
+        }
+        if (searchBody.getTrackTotalHits() != null) {
+            generator.writeFieldName(TRACK_TOTAL_HITS);
+            generator.writeBoolean(searchBody.getTrackTotalHits());
+        }
+        if (searchBody.getQuery() != null) {
+            generator.writeFieldName(QUERY);
+            provider.defaultSerializeValue(searchBody.getQuery(), generator);
+        }
+        if (searchBody.getSort() != null) {
+            generator.writeFieldName(SORT);
+            provider.defaultSerializeValue(searchBody.getSort(), generator);
+        }
+        generator.writeEndObject();
+    }
+}
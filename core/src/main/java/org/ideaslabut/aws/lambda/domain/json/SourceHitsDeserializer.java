@@ -0,0 +1,44 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.json;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.SourceHits;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+
+/**
+ * A deserializer of {@link SourceHits}, document fields holding an object or an array are kept as their json text
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 03, 2022
+ */
+public class SourceHitsDeserializer extends ObjectDeserializer<SourceHits> {
+    static final SourceHitsDeserializer INSTANCE = new SourceHitsDeserializer();
+
+    /**
+     * Creates a new instance of {@link SourceHitsDeserializer}
+     */
+    public SourceHitsDeserializer() {
+        super(SourceHits.class);
+    }
+
+    @Override
+    protected SourceHits newInstance() {
+        return new SourceHits();
+    }
+
+    @Override
+    protected void readField(SourceHits value, String fieldName, JsonParser parser, DeserializationContext context)
+        throws IOException {
+        if ("_source".equals(fieldName) || "source".equals(fieldName)) {
+            value.setSource(readStringMap(parser, context));
+        }
+        else {
+            parser.skipChildren();
+        }
+    }
+}
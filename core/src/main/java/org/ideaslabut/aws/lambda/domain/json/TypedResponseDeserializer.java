@@ -0,0 +1,147 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.json;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.TypedHits;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.TypedResponse;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.TypedSourceHits;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A deserializer of {@link TypedResponse}. The deserializer of document source is resolved once when the reader of
+ * a parameterized typed response is created, after that every hit is handed straight to it.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 03, 2022
+ */
+public class TypedResponseDeserializer extends ObjectDeserializer<TypedResponse<Object>>
+    implements ContextualDeserializer {
+    private final JsonDeserializer<Object> sourceDeserializer;
+
+    /**
+     * Creates a new instance of {@link TypedResponseDeserializer} which is yet to be contextualized
+     */
+    public TypedResponseDeserializer() {
+        this(null);
+    }
+
+    /**
+     * Creates a new instance of {@link TypedResponseDeserializer} with given source deserializer
+     *
+     * @param sourceDeserializer a deserializer of document source
+     */
+    private TypedResponseDeserializer(JsonDeserializer<Object> sourceDeserializer) {
+        super(TypedResponse.class);
+        this.sourceDeserializer = sourceDeserializer;
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext context, BeanProperty property)
+        throws JsonMappingException {
+        var type = property == null ? context.getContextualType() : property.getType();
+        var sourceType = type == null || type.containedTypeCount() == 0 ?
+            context.constructType(Object.class) :
+            type.containedType(0);
+        return new TypedResponseDeserializer(context.findContextualValueDeserializer(sourceType, property));
+    }
+
+    @Override
+    protected TypedResponse<Object> newInstance() {
+        return new TypedResponse<>();
+    }
+
+    @Override
+    protected void readField(
+        TypedResponse<Object> value,
+        String fieldName,
+        JsonParser parser,
+        DeserializationContext context
+    ) throws IOException {
+        switch (fieldName) {
+            case "_scroll_id":
+            case "scrollId":
+                value.setScrollId(readString(parser));
+                break;
+            case "hits":
+                value.setHits(parser.currentToken() == JsonToken.VALUE_NULL ? null : readHits(parser, context));
+                break;
+            default:
+                parser.skipChildren();
+        }
+    }
+
+    /**
+     * Reads the hits object of typed response
+     *
+     * @param parser a parser pointing at an object
+     * @param context a deserialization context
+     *
+     * @return a typed hits
+     *
+     * @throws IOException if value is not an object or cannot be read
+     */
+    private TypedHits<Object> readHits(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            context.reportWrongTokenException(TypedHits.class, JsonToken.START_OBJECT, "Expected hits object");
+        }
+
+        var typedHits = new TypedHits<>();
+        for (var fieldName = parser.nextFieldName(); fieldName != null; fieldName = parser.nextFieldName()) {
+            var token = parser.nextToken();
+            if ("total".equals(fieldName) && token != JsonToken.VALUE_NULL) {
+                typedHits.setTotal(HitsTotalDeserializer.INSTANCE.deserialize(parser, context));
+            }
+            else if ("hits".equals(fieldName) && token == JsonToken.START_ARRAY) {
+                typedHits.setHits(readHitList(parser, context));
+            }
+            else {
+                parser.skipChildren();
+            }
+        }
+        return typedHits;
+    }
+
+    /**
+     * Reads the array of typed hits
+     *
+     * @param parser a parser pointing at an array
+     * @param context a deserialization context
+     *
+     * @return a list of typed hits
+     *
+     * @throws IOException if hits cannot be read
+     */
+    private List<TypedSourceHits<Object>> readHitList(JsonParser parser, DeserializationContext context)
+        throws IOException {
+        var hits = new ArrayList<TypedSourceHits<Object>>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            var hit = new TypedSourceHits<>();
+            for (var fieldName = parser.nextFieldName(); fieldName != null; fieldName = parser.nextFieldName()) {
+                var token = parser.nextToken();
+                if (("_source".equals(fieldName) || "source".equals(fieldName)) && token != JsonToken.VALUE_NULL) {
+                    hit.setSource(sourceDeserializer.deserialize(parser, context));
+                }
+                else {
+                    parser.skipChildren();
+                }
+            }
+            hits.add(hit);
+        }
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            context.reportWrongTokenException(TypedSourceHits.class, JsonToken.START_OBJECT, "Expected hit object");
+        }
+        return hits;
+    }
+}
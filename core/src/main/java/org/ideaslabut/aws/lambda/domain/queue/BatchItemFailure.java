@@ -0,0 +1,31 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.queue;
+
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+/**
+ * Pojo of a single failed message of a partial batch response
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 29, 2022
+ */
+public class BatchItemFailure {
+    private String itemIdentifier;
+
+    public String getItemIdentifier() {
+        return itemIdentifier;
+    }
+
+    public void setItemIdentifier(String itemIdentifier) {
+        this.itemIdentifier = itemIdentifier;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("itemIdentifier", itemIdentifier)
+            .build();
+    }
+}
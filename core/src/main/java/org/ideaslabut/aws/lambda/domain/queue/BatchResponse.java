@@ -0,0 +1,34 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.queue;
+
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import java.util.List;
+
+/**
+ * Pojo of a partial batch response telling the sqs event source which messages failed so that only
+ * those are delivered again
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 29, 2022
+ */
+public class BatchResponse {
+    private List<BatchItemFailure> batchItemFailures;
+
+    public List<BatchItemFailure> getBatchItemFailures() {
+        return batchItemFailures;
+    }
+
+    public void setBatchItemFailures(List<BatchItemFailure> batchItemFailures) {
+        this.batchItemFailures = batchItemFailures;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("batchItemFailures", batchItemFailures)
+            .build();
+    }
+}
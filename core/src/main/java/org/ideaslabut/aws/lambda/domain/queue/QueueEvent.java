@@ -0,0 +1,37 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.queue;
+
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+
+import java.util.List;
+
+/**
+ * Pojo of an sqs event which invokes a lambda function with a batch of queue messages, the runtime maps
+ * its <code>Records</code> json field case insensitively
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 29, 2022
+ */
+public class QueueEvent {
+    @JsonAlias("Records")
+    private List<QueueMessage> records;
+
+    public List<QueueMessage> getRecords() {
+        return records;
+    }
+
+    public void setRecords(List<QueueMessage> records) {
+        this.records = records;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("records", records)
+            .build();
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.queue;
+
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+/**
+ * Pojo of a single message of an sqs event
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 29, 2022
+ */
+public class QueueMessage {
+    private String messageId;
+    private String body;
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public void setMessageId(String messageId) {
+        this.messageId = messageId;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("messageId", messageId)
+            .append("body", body)
+            .build();
+    }
+}
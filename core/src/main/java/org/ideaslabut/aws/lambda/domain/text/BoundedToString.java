@@ -0,0 +1,230 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.text;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Builds json style string of an object from its fields without reflection, same shape as
+ * <code>ToStringStyle.JSON_STYLE</code> of commons lang gives. Every value is bounded so that string of
+ * a large message body or of a response with thousands of hits stays small: strings are cut after
+ * {@value #MAX_STRING_LENGTH} characters, collections and maps after {@value #MAX_ITEMS} items, byte arrays are
+ * only described by their length and nesting deeper than {@value #MAX_DEPTH} levels is elided.
+ * <p>
+ * Nested objects other than strings, numbers, booleans, collections, maps and arrays are rendered with their own
+ * <code>toString</code>, which is expected to be bounded as well.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 02, 2022
+ */
+public final class BoundedToString {
+    public static final int MAX_STRING_LENGTH = 256;
+    public static final int MAX_ITEMS = 10;
+    public static final int MAX_DEPTH = 4;
+
+    private final StringBuilder builder;
+    private boolean empty;
+
+    /**
+     * Creates a new instance of {@link BoundedToString}
+     */
+    private BoundedToString() {
+        this.builder = new StringBuilder(64).append('{');
+        this.empty = true;
+    }
+
+    /**
+     * Creates a new instance of {@link BoundedToString} to append fields to
+     *
+     * @return a newly created bounded to string
+     */
+    public static BoundedToString builder() {
+        return new BoundedToString();
+    }
+
+    /**
+     * Wraps the given value so that it is rendered bounded only when its <code>toString</code> is called, i.e. only
+     * when a logger actually writes it
+     *
+     * @param value a value to wrap
+     *
+     * @return a wrapper whose <code>toString</code> is the bounded string of given value
+     */
+    public static Object lazy(Object value) {
+        return new Object() {
+            @Override
+            public String toString() {
+                var builder = new StringBuilder();
+                appendValue(builder, value, 0);
+                return builder.toString();
+            }
+        };
+    }
+
+    /**
+     * Appends the given field to this builder
+     *
+     * @param name a name of field
+     * @param value a value of field, may be null
+     *
+     * @return a reference of this builder
+     */
+    public BoundedToString append(String name, Object value) {
+        if (!empty) {
+            builder.append(',');
+        }
+        empty = false;
+        appendString(builder, name);
+        builder.append(':');
+        appendValue(builder, value, 0);
+        return this;
+    }
+
+    /**
+     * Builds the json style string of appended fields
+     *
+     * @return a json style string
+     */
+    public String build() {
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Appends the bounded json style string of given value
+     *
+     * @param builder a builder to append to
+     * @param value a value to append
+     * @param depth a nesting depth of value
+     */
+    private static void appendValue(StringBuilder builder, Object value, int depth) {
+        if (value == null || value instanceof Number || value instanceof Boolean) {
+            builder.append(value);
+        }
+        else if (value instanceof CharSequence || value instanceof Enum || value instanceof Character) {
+            appendString(builder, value.toString());
+        }
+        else if (value instanceof byte[]) {
+            builder.append("\"<").append(((byte[]) value).length).append(" bytes>\"");
+        }
+        else if (depth >= MAX_DEPTH) {
+            builder.append("\"...\"");
+        }
+        else if (value instanceof Map) {
+            var map = (Map<?, ?>) value;
+            builder.append('{');
+            appendItems(builder, map.entrySet().iterator(), map.size(), depth, (entry, itemDepth) -> {
+                appendString(builder, String.valueOf(entry.getKey()));
+                builder.append(':');
+                appendValue(builder, entry.getValue(), itemDepth);
+            });
+            builder.append('}');
+        }
+        else if (value instanceof Collection) {
+            var collection = (Collection<?>) value;
+            builder.append('[');
+            appendItems(builder, collection.iterator(), collection.size(), depth, (item, itemDepth) ->
+                appendValue(builder, item, itemDepth)
+            );
+            builder.append(']');
+        }
+        else if (value instanceof Object[]) {
+            var array = (Object[]) value;
+            builder.append('[');
+            appendItems(builder, Arrays.asList(array).iterator(), array.length, depth, (item, itemDepth) ->
+                appendValue(builder, item, itemDepth)
+            );
+            builder.append(']');
+        }
+        else {
+            builder.append(value);
+        }
+    }
+
+    /**
+     * Appends at most {@value #MAX_ITEMS} items followed by the number of items left out
+     *
+     * @param builder a builder to append to
+     * @param items an iterator of items
+     * @param size a total number of items
+     * @param depth a nesting depth of container
+     * @param itemAppender an appender of single item
+     * @param <T> a type of item
+     */
+    private static <T> void appendItems(
+        StringBuilder builder,
+        Iterator<T> items,
+        int size,
+        int depth,
+        ItemAppender<T> itemAppender
+    ) {
+        for (int index = 0; index < MAX_ITEMS && items.hasNext(); index++) {
+            if (index > 0) {
+                builder.append(',');
+            }
+            itemAppender.append(items.next(), depth + 1);
+        }
+        if (size > MAX_ITEMS) {
+            builder.append(",\"...").append(size - MAX_ITEMS).append(" more\"");
+        }
+    }
+
+    /**
+     * Appends the given string quoted and escaped, cut after {@value #MAX_STRING_LENGTH} characters
+     *
+     * @param builder a builder to append to
+     * @param value a string to append
+     */
+    private static void appendString(StringBuilder builder, String value) {
+        var length = Math.min(value.length(), MAX_STRING_LENGTH);
+        builder.append('"');
+        for (int index = 0; index < length; index++) {
+            var character = value.charAt(index);
+            switch (character) {
+                case '"':
+                case '\\':
+                    builder.append('\\').append(character);
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (character < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) character));
+                    }
+                    else {
+                        builder.append(character);
+                    }
+            }
+        }
+        if (value.length() > length) {
+            builder.append("...(").append(value.length() - length).append(" more chars)");
+        }
+        builder.append('"');
+    }
+
+    /**
+     * An appender of a single item of a collection or a map
+     *
+     * @param <T> a type of item
+     */
+    @FunctionalInterface
+    private interface ItemAppender<T> {
+        /**
+         * Appends the given item
+         *
+         * @param item an item to append
+         * @param depth a nesting depth of item
+         */
+        void append(T item, int depth);
+    }
+}
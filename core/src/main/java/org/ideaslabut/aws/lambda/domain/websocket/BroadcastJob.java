@@ -0,0 +1,52 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.websocket;
+
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+/**
+ * Pojo of a broadcast deferred to a broadcast queue, it holds the already encoded payload so that the worker which
+ * performs the fan-out doesn't need to encode it again
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 29, 2022
+ */
+public class BroadcastJob {
+    private String senderConnectionId;
+    private String room;
+    private byte[] payload;
+
+    public String getSenderConnectionId() {
+        return senderConnectionId;
+    }
+
+    public void setSenderConnectionId(String senderConnectionId) {
+        this.senderConnectionId = senderConnectionId;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public void setRoom(String room) {
+        this.room = room;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("senderConnectionId", senderConnectionId)
+            .append("room", room)
+            .append("payload", payload)
+            .build();
+    }
+}
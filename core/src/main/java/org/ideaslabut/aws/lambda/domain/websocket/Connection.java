@@ -0,0 +1,33 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.websocket;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.IndexBody;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+/**
+ * Pojo holding a websocket connection document along with the room it is a member of
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 26, 2022
+ */
+public class Connection extends IndexBody {
+    private String room;
+
+    public String getRoom() {
+        return room;
+    }
+
+    public void setRoom(String room) {
+        this.room = room;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("id", getId())
+            .append("room", room)
+            .build();
+    }
+}
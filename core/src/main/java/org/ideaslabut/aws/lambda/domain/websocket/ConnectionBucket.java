@@ -0,0 +1,40 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.websocket;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.IndexBody;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pojo holding a bucket document which packs every connection whose id hashes into this bucket. Id of bucket is
+ * only used as the document id, so it isn't part of the document source.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 31, 2022
+ */
+@JsonIgnoreProperties("connectionId")
+public class ConnectionBucket extends IndexBody {
+    private List<Connection> connections = new ArrayList<>();
+
+    public List<Connection> getConnections() {
+        return connections;
+    }
+
+    public void setConnections(List<Connection> connections) {
+        this.connections = connections;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("id", getId())
+            .append("connections", connections)
+            .build();
+    }
+}
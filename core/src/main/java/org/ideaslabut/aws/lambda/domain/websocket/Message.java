@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.websocket;
+
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * Pojo of a websocket message json body e.g. <code>{"action": "unicast", "connectionId": "", "message": {}}</code>.
+ * Only the fields used by the route named by action are expected to be set.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 26, 2022
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Message {
+    private String action;
+    private String room;
+    private String connectionId;
+    private List<String> connectionIds;
+    private Object message;
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public void setRoom(String room) {
+        this.room = room;
+    }
+
+    public String getConnectionId() {
+        return connectionId;
+    }
+
+    public void setConnectionId(String connectionId) {
+        this.connectionId = connectionId;
+    }
+
+    public List<String> getConnectionIds() {
+        return connectionIds;
+    }
+
+    public void setConnectionIds(List<String> connectionIds) {
+        this.connectionIds = connectionIds;
+    }
+
+    public Object getMessage() {
+        return message;
+    }
+
+    public void setMessage(Object message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return BoundedToString.builder()
+            .append("action", action)
+            .append("room", room)
+            .append("connectionId", connectionId)
+            .append("connectionIds", connectionIds)
+            .append("message", message)
+            .build();
+    }
+}
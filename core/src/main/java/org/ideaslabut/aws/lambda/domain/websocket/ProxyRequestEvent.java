@@ -3,8 +3,12 @@
  */
 package org.ideaslabut.aws.lambda.domain.websocket;
 
-import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
+import org.ideaslabut.aws.lambda.domain.json.ProxyRequestEventDeserializer;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.util.Map;
 
 /**
  * Pojo proxy request input for AWS Lambda function handler
@@ -12,8 +16,10 @@ import org.apache.commons.lang3.builder.ToStringStyle;
  * @author Prakash Khadka <br>
  *     Created on: Jan 30, 2022
  */
+@JsonDeserialize(using = ProxyRequestEventDeserializer.class)
 public class ProxyRequestEvent {
     private RequestContext requestContext;
+    private Map<String, String> queryStringParameters;
     private Object body;
 
     public RequestContext getRequestContext() {
@@ -24,6 +30,14 @@ public class ProxyRequestEvent {
         this.requestContext = requestContext;
     }
 
+    public Map<String, String> getQueryStringParameters() {
+        return queryStringParameters;
+    }
+
+    public void setQueryStringParameters(Map<String, String> queryStringParameters) {
+        this.queryStringParameters = queryStringParameters;
+    }
+
     public Object getBody() {
         return body;
     }
@@ -34,6 +48,10 @@ public class ProxyRequestEvent {
 
     @Override
     public String toString() {
-        return ReflectionToStringBuilder.toString(this, ToStringStyle.JSON_STYLE);
+        return BoundedToString.builder()
+            .append("requestContext", requestContext)
+            .append("queryStringParameters", queryStringParameters)
+            .append("body", body)
+            .build();
     }
 }
@@ -3,8 +3,7 @@
  */
 package org.ideaslabut.aws.lambda.domain.websocket;
 
-import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
 
 /**
  * Pojo proxy response for AWS Lambda function handler
@@ -43,6 +42,10 @@ public class ProxyResponseEvent {
 
     @Override
     public String toString() {
-        return ReflectionToStringBuilder.toString(this, ToStringStyle.JSON_STYLE);
+        return BoundedToString.builder()
+            .append("statusCode", statusCode)
+            .append("isBase64Encoded", isBase64Encoded)
+            .append("body", body)
+            .build();
     }
 }
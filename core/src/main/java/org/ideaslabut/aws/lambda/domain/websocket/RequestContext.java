@@ -3,8 +3,10 @@
  */
 package org.ideaslabut.aws.lambda.domain.websocket;
 
-import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
+import org.ideaslabut.aws.lambda.domain.json.RequestContextDeserializer;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 /**
  * Pojo for AWS lambda function proxy request context
@@ -12,6 +14,7 @@ import org.apache.commons.lang3.builder.ToStringStyle;
  * @author Prakash Khadka <br>
  *     Created on: Jan 30, 2022
  */
+@JsonDeserialize(using = RequestContextDeserializer.class)
 public class RequestContext {
     private String connectionId;
     private String routeKey;
@@ -53,6 +56,11 @@ public class RequestContext {
 
     @Override
     public String toString() {
-        return ReflectionToStringBuilder.toString(this, ToStringStyle.JSON_STYLE);
+        return BoundedToString.builder()
+            .append("connectionId", connectionId)
+            .append("routeKey", routeKey)
+            .append("domainName", domainName)
+            .append("stage", stage)
+            .build();
     }
 }
@@ -20,7 +20,10 @@ public enum RouteKey {
     CONNECT("$connect"),
     DISCONNECT("$disconnect"),
     DEFAULT("$default"),
-    SEND_MESSAGE("sendMessage");
+    SEND_MESSAGE("sendMessage"),
+    JOIN_ROOM("joinRoom"),
+    UNICAST("unicast"),
+    MULTICAST("multicast");
 
     private static final Map<String, RouteKey> ACTION_ROUTE_KEY_MAP;
 
@@ -4,31 +4,51 @@
 package org.ideaslabut.aws.lambda.service;
 
 import static com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
 
+import org.ideaslabut.aws.lambda.domain.elasticsearch.BulkResponse;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.CountResponse;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.GetResponse;
 import org.ideaslabut.aws.lambda.domain.elasticsearch.IndexBody;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.MultiSearchResponse;
 import org.ideaslabut.aws.lambda.domain.elasticsearch.Response;
 import org.ideaslabut.aws.lambda.domain.elasticsearch.Scroll;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.SearchBody;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.TypedResponse;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.BulkRequest;
 import org.ideaslabut.aws.lambda.domain.elasticsearch.request.CreateRequest;
 import org.ideaslabut.aws.lambda.domain.elasticsearch.request.DeleteRequest;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.GetRequest;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.IndexRequest;
 import org.ideaslabut.aws.lambda.domain.elasticsearch.request.IndexableBodyRequest;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.MultiSearchRequest;
 import org.ideaslabut.aws.lambda.domain.elasticsearch.request.Request;
 import org.ideaslabut.aws.lambda.domain.elasticsearch.request.ScrollRequest;
 import org.ideaslabut.aws.lambda.domain.elasticsearch.request.SearchRequest;
 import org.ideaslabut.aws.lambda.domain.sneaky.NoArgConsumer;
+import org.ideaslabut.aws.lambda.service.transport.ElasticsearchTransport;
+import org.ideaslabut.aws.lambda.service.transport.JdkHttpTransport;
+import org.ideaslabut.aws.lambda.service.transport.NioTransport;
+import org.ideaslabut.aws.lambda.service.transport.TransportRequest;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpRequest.BodyPublishers;
-import java.net.http.HttpResponse.BodyHandlers;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * Service class as elasticsearch rest client
@@ -41,10 +61,14 @@ public class ElasticsearchService {
 
     private static final String ELASTICSEARCH_URL = "ELASTICSEARCH_URL";
     private static final String ELASTICSEARCH_AUTHENTICATION_KEY = "ELASTICSEARCH_AUTHENTICATION_KEY";
+    private static final String ELASTICSEARCH_TRANSPORT = "ELASTICSEARCH_TRANSPORT";
+    private static final String NIO_TRANSPORT = "nio";
     private static final String CONTENT_TYPE_JSON = "application/json";
+    private static final String CONTENT_TYPE_NDJSON = "application/x-ndjson";
 
     private static final String HTTP_METHOD_GET = "GET";
     private static final String HTTP_METHOD_POST = "POST";
+    private static final String HTTP_METHOD_PUT = "PUT";
     private static final String HTTP_METHOD_DELETE = "DELETE";
 
     private static volatile ElasticsearchService INSTANCE = null;
@@ -66,46 +90,203 @@ public class ElasticsearchService {
     }
 
     /**
-     * Creates a new instance of {@link ElasticsearchService}
+     * Creates a new instance of {@link ElasticsearchService}. The transport is selected by environment variable
+     * <code>ELASTICSEARCH_TRANSPORT</code>, <code>nio</code> selects {@link NioTransport} otherwise
+     * {@link JdkHttpTransport} is used.
      *
      * @return a newly created elasticsearch service
      */
     private static ElasticsearchService buildInstance() {
-        var httpClient = HttpClient.newHttpClient();
-        var objectMapper = new ObjectMapper().configure(FAIL_ON_UNKNOWN_PROPERTIES, false);
-        return new ElasticsearchService(httpClient, objectMapper);
+        var transportName = Optional.ofNullable(System.getenv(ELASTICSEARCH_TRANSPORT)).orElse("");
+        var transport = NIO_TRANSPORT.equals(transportName.toLowerCase(Locale.ROOT)) ?
+            new NioTransport() :
+            new JdkHttpTransport();
+        return builder().withTransport(transport).build();
     }
 
-    private final HttpClient httpClient;
+    /**
+     * A builder for {@link ElasticsearchService}
+     */
+    public static class Builder {
+        private ElasticsearchTransport transport;
+        private ObjectMapper objectMapper;
+        private String url;
+        private String authenticationKey;
+
+        /**
+         * Creates a new instance of elasticsearch service {@link Builder}
+         */
+        private Builder() {
+        }
+
+        /**
+         * Sets the transport for this elasticsearch service builder
+         *
+         * @param transport a transport to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withTransport(ElasticsearchTransport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * Sets the object mapper for this elasticsearch service builder
+         *
+         * @param objectMapper an object mapper to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withObjectMapper(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            return this;
+        }
+
+        /**
+         * Sets the elasticsearch base url for this elasticsearch service builder
+         *
+         * @param url a base url to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withUrl(String url) {
+            this.url = url;
+            return this;
+        }
+
+        /**
+         * Sets the basic authentication key for this elasticsearch service builder
+         *
+         * @param authenticationKey a basic authentication key to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withAuthenticationKey(String authenticationKey) {
+            this.authenticationKey = authenticationKey;
+            return this;
+        }
+
+        /**
+         * Builds a new instance of {@link ElasticsearchService}. Any value not set falls back to its default i.e.
+         * {@link JdkHttpTransport}, lenient object mapper and environment variables for url and authentication key
+         *
+         * @return a newly created elasticsearch service
+         */
+        public ElasticsearchService build() {
+            return new ElasticsearchService(
+                Optional.ofNullable(transport).orElseGet(JdkHttpTransport::new),
+                Optional.ofNullable(objectMapper).orElseGet(() -> new ObjectMapper().configure(FAIL_ON_UNKNOWN_PROPERTIES, false)),
+                Optional.ofNullable(url).orElseGet(() -> System.getenv(ELASTICSEARCH_URL)),
+                Optional.ofNullable(authenticationKey).orElseGet(() -> System.getenv(ELASTICSEARCH_AUTHENTICATION_KEY))
+            );
+        }
+    }
+
+    /**
+     * Creates a new instance of elasticsearch service {@link Builder}
+     *
+     * @return a newly created builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final ElasticsearchTransport transport;
     private final ObjectMapper objectMapper;
+    private final String url;
+    private final String authenticationKey;
+    private final ObjectReader responseReader;
+    private final ObjectReader multiSearchResponseReader;
+    private final ObjectReader bulkResponseReader;
+    private final ObjectReader countResponseReader;
+    private final ObjectWriter metadataWriter;
+    private final Map<Class<?>, ObjectReader> typedResponseReaders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectReader> getResponseReaders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> bodyWriters = new ConcurrentHashMap<>();
 
     /**
-     * Creates a new instance of {@link ElasticsearchService}
+     * Creates a new instance of {@link ElasticsearchService}. Readers and writers of fixed types are created here,
+     * which resolves their deserializers and serializers up front instead of on the first request.
      *
-     * @param httpClient a http client to set
+     * @param transport a transport to set
      * @param objectMapper an object mapper to set
+     * @param url an elasticsearch base url to set
+     * @param authenticationKey a basic authentication key to set
      */
-    private ElasticsearchService(HttpClient httpClient, ObjectMapper objectMapper) {
-        this.httpClient = httpClient;
-        this.objectMapper = objectMapper;
+    private ElasticsearchService(
+        ElasticsearchTransport transport,
+        ObjectMapper objectMapper,
+        String url,
+        String authenticationKey
+    ) {
+        this.transport = requireNonNull(transport);
+        this.objectMapper = requireNonNull(objectMapper);
+        this.url = url;
+        this.authenticationKey = authenticationKey;
+        this.responseReader = objectMapper.readerFor(Response.class);
+        this.multiSearchResponseReader = objectMapper.readerFor(MultiSearchResponse.class);
+        this.bulkResponseReader = objectMapper.readerFor(BulkResponse.class);
+        this.countResponseReader = objectMapper.readerFor(CountResponse.class);
+        this.metadataWriter = objectMapper.writerFor(Map.class);
+        this.bodyWriters.put(SearchBody.class, objectMapper.writerFor(SearchBody.class));
+        this.bodyWriters.put(Scroll.class, objectMapper.writerFor(Scroll.class));
     }
 
     /**
      * Performs an elasticsearch search request for given request details <br>
      * <p>
-     * api path : {@code  GET {indexName}/_search?size={size}&scroll={scrollTime}}
+     * api path : {@code  GET {indexName}/_search?size={size}&scroll={scrollTime}} with optional request body
+     * {"query": {}, "sort": []} if search request holds query or sort
      *
      * @param searchRequest an elasticsearch search request to use
      *
      * @return an optional elasticsearch response
      */
     public Optional<Response> search(SearchRequest searchRequest) {
+        return search(searchRequest, responseReader);
+    }
+
+    /**
+     * Performs an elasticsearch search request for given request details deserializing each hit source
+     * directly into given source type <br>
+     * <p>
+     * api path : {@code  GET {indexName}/_search?size={size}&scroll={scrollTime}}
+     *
+     * @param searchRequest an elasticsearch search request to use
+     * @param sourceType a type of document source to deserialize each hit into
+     * @param <S> a type of document source
+     *
+     * @return an optional typed elasticsearch response
+     */
+    public <S> Optional<TypedResponse<S>> search(SearchRequest searchRequest, Class<S> sourceType) {
+        return search(searchRequest, typedResponseReader(sourceType));
+    }
+
+    /**
+     * Counts the documents of the index matching the query of given search request without fetching any of them,
+     * size, scroll and sort of search request are ignored <br>
+     * <p>
+     * api path : {@code  GET {indexName}/_count} with optional request body {"query": {}}
+     *
+     * @param searchRequest an elasticsearch search request to use
+     *
+     * @return an optional elasticsearch count response
+     */
+    public Optional<CountResponse> count(SearchRequest searchRequest) {
         if (searchRequest == null) {
             return Optional.empty();
         }
-        LOGGER.debug("Performing elasticsearch search request {}", searchRequest);
-        String apiPath = String.format("%s/_search?size=%d&scroll=%s", searchRequest.getIndex(), searchRequest.getSize(), searchRequest.getScroll());
-        return send(httpRequest(HTTP_METHOD_GET, null, apiPath), searchRequest);
+
+        LOGGER.debug("Performing elasticsearch count request {}", searchRequest);
+        var apiPath = String.format("%s/_count", searchRequest.getIndex());
+        if (searchRequest.getQuery() == null) {
+            return send(httpRequest(HTTP_METHOD_GET, null, apiPath), searchRequest, countResponseReader);
+        }
+
+        var searchBody = new SearchBody();
+        searchBody.setQuery(searchRequest.getQuery());
+        return send(httpRequest(HTTP_METHOD_GET, searchBody, apiPath), searchRequest, countResponseReader);
     }
 
     /**
@@ -118,15 +299,84 @@ public class ElasticsearchService {
      * @return an optional elasticsearch response
      */
     public Optional<Response> scroll(ScrollRequest scrollRequest) {
-        if (scrollRequest == null) {
+        return scroll(scrollRequest, responseReader);
+    }
+
+    /**
+     * Performs an elasticsearch scroll request for given scroll request details deserializing each hit source
+     * directly into given source type <br>
+     * <p>
+     * api path : {@code  GET _search/scroll?scroll={scrollValue}} with request body {"_scroll_id": ""}
+     *
+     * @param scrollRequest a scroll request to use
+     * @param sourceType a type of document source to deserialize each hit into
+     * @param <S> a type of document source
+     *
+     * @return an optional typed elasticsearch response
+     */
+    public <S> Optional<TypedResponse<S>> scroll(ScrollRequest scrollRequest, Class<S> sourceType) {
+        return scroll(scrollRequest, typedResponseReader(sourceType));
+    }
+
+    /**
+     * Performs all the search requests of given multi search request in a single round trip and hands each
+     * search response back to the consumer registered with its own search request. Searches which failed on
+     * elasticsearch side are logged and their consumers are not invoked. <br>
+     * <p>
+     * api path : {@code  POST _msearch} with new line delimited request body
+     * {"index": ""}\n{"size": 0, "track_total_hits": true, "query": {}}\n
+     *
+     * @param multiSearchRequest a multi search request to use
+     *
+     * @return an optional elasticsearch multi search response
+     */
+    public Optional<MultiSearchResponse> multiSearch(MultiSearchRequest multiSearchRequest) {
+        if (multiSearchRequest == null || multiSearchRequest.getItems().isEmpty()) {
             return Optional.empty();
         }
 
-        LOGGER.debug("Performing elasticsearch scroll request {}", scrollRequest);
-        var apiPath = String.format("_search/scroll?scroll=%s", scrollRequest.getScroll());
-        var scroll = new Scroll();
-        scroll.setScrollId(scrollRequest.getScrollId());
-        return send(httpRequest(HTTP_METHOD_GET, scroll, apiPath), scrollRequest);
+        LOGGER.debug("Performing elasticsearch multi search request {}", multiSearchRequest);
+        var items = multiSearchRequest.getItems();
+        var ndJsonBody = new StringBuilder();
+        try {
+            for (var item : items) {
+                var searchRequest = item.getSearchRequest();
+                ndJsonBody.append(metadataWriter.writeValueAsString(Map.of("index", searchRequest.getIndex())))
+                    .append('\n');
+
+                var searchBody = new SearchBody();
+                searchBody.setSize(searchRequest.getSize());
+                searchBody.setTrackTotalHits(true);
+                searchBody.setQuery(searchRequest.getQuery());
+                searchBody.setSort(searchRequest.getSort());
+                ndJsonBody.append(writer(searchBody).writeValueAsString(searchBody)).append('\n');
+            }
+        }
+        catch (JsonProcessingException exception) {
+            LOGGER.error("Unable to serialize multi search request {} because of {}", multiSearchRequest, exception);
+            return Optional.empty();
+        }
+
+        var httpRequest = httpRequest(HTTP_METHOD_POST, ndJsonBody.toString(), "_msearch", CONTENT_TYPE_NDJSON);
+        Optional<MultiSearchResponse> multiSearchResponse = send(httpRequest, multiSearchRequest, multiSearchResponseReader);
+
+        multiSearchResponse.map(MultiSearchResponse::getResponses).ifPresent(responses -> {
+            for (int index = 0; index < items.size() && index < responses.size(); index++) {
+                var response = responses.get(index);
+                var searchRequest = items.get(index).getSearchRequest();
+                if (response == null || response.getHits() == null) {
+                    LOGGER.error(
+                        "Multi search failed for search request {} because of {}",
+                        searchRequest,
+                        response == null ? null : response.getErrorType()
+                    );
+                    continue;
+                }
+                items.get(index).getResponseConsumer().accept(response);
+            }
+        });
+
+        return multiSearchResponse;
     }
 
     /**
@@ -139,7 +389,44 @@ public class ElasticsearchService {
         checkRequest(createRequest);
         LOGGER.debug("Performing elasticsearch create document request {}", createRequest);
         var apiPath = String.format("%s/_create/%s", createRequest.getIndex(), createRequest.getBody().getId());
-        send(httpRequest(HTTP_METHOD_POST, createRequest.getBody(), apiPath), createRequest);
+        send(httpRequest(HTTP_METHOD_POST, createRequest.getBody(), apiPath), createRequest, responseReader);
+    }
+
+    /**
+     * Performs index document api request which creates the document or replaces the existing one <br>
+     * api path : {@code  PUT {indexName}/_doc/{uniqueDocumentId}} with request body {"connectionId": ""}
+     *
+     * @param indexRequest an index request to use
+     */
+    public void index(IndexRequest<? extends IndexBody> indexRequest) {
+        checkRequest(indexRequest);
+        LOGGER.debug("Performing elasticsearch index document request {}", indexRequest);
+        var apiPath = String.format("%s/_doc/%s", indexRequest.getIndex(), indexRequest.getBody().getId());
+        if (indexRequest.getIfSeqNo() != null && indexRequest.getIfPrimaryTerm() != null) {
+            apiPath += String.format(
+                "?if_seq_no=%d&if_primary_term=%d",
+                indexRequest.getIfSeqNo(),
+                indexRequest.getIfPrimaryTerm()
+            );
+        }
+        send(httpRequest(HTTP_METHOD_PUT, indexRequest.getBody(), apiPath), indexRequest, responseReader);
+    }
+
+    /**
+     * Performs get document api request deserializing the document source into given source type <br>
+     * api path : {@code  GET {indexName}/_doc/{uniqueDocumentId}}
+     *
+     * @param getRequest a get request to use
+     * @param sourceType a type of document source
+     * @param <S> a type of document source
+     *
+     * @return an optional elasticsearch get response, empty if document is missing or request failed
+     */
+    public <S> Optional<GetResponse<S>> get(GetRequest<? extends IndexBody> getRequest, Class<S> sourceType) {
+        checkRequest(getRequest);
+        LOGGER.debug("Performing elasticsearch get document request {}", getRequest);
+        var apiPath = String.format("%s/_doc/%s", getRequest.getIndex(), getRequest.getBody().getId());
+        return send(httpRequest(HTTP_METHOD_GET, null, apiPath), getRequest, getResponseReader(sourceType));
     }
 
     /**
@@ -152,7 +439,42 @@ public class ElasticsearchService {
         checkRequest(deleteRequest);
         LOGGER.debug("Performing elasticsearch delete document request {}", deleteRequest);
         var apiPath = String.format("%s/_doc/%s", deleteRequest.getIndex(), deleteRequest.getBody().getId());
-        send(httpRequest(HTTP_METHOD_DELETE, null, apiPath), deleteRequest);
+        send(httpRequest(HTTP_METHOD_DELETE, null, apiPath), deleteRequest, responseReader);
+    }
+
+    /**
+     * Performs every action of given bulk request against its index in a single round trip. A failure of single
+     * action doesn't fail the others, check {@link BulkResponse#isErrors()} and status of each item. <br>
+     * api path : {@code  POST _bulk} with new line delimited request body
+     * {"delete": {"_index": "", "_id": ""}}\n{"index": {"_index": "", "_id": ""}}\n{"connectionId": ""}\n
+     *
+     * @param bulkRequest a bulk request to use
+     *
+     * @return an optional elasticsearch bulk response, empty if there is no action to perform
+     */
+    public Optional<BulkResponse> bulk(BulkRequest bulkRequest) {
+        if (bulkRequest == null || bulkRequest.getActions().isEmpty()) {
+            return Optional.empty();
+        }
+
+        LOGGER.debug("Performing elasticsearch bulk request {}", bulkRequest);
+        var ndJsonBody = new StringBuilder();
+        try {
+            for (var action : bulkRequest.getActions()) {
+                var metadata = Map.of(action.getName(), Map.of("_index", bulkRequest.getIndex(), "_id", action.getId()));
+                ndJsonBody.append(metadataWriter.writeValueAsString(metadata)).append('\n');
+                if (action.getBody() != null) {
+                    ndJsonBody.append(writer(action.getBody()).writeValueAsString(action.getBody())).append('\n');
+                }
+            }
+        }
+        catch (JsonProcessingException exception) {
+            LOGGER.error("Unable to serialize bulk request {} because of {}", bulkRequest, exception);
+            return Optional.empty();
+        }
+
+        var httpRequest = httpRequest(HTTP_METHOD_POST, ndJsonBody.toString(), "_bulk", CONTENT_TYPE_NDJSON);
+        return send(httpRequest, bulkRequest, bulkResponseReader);
     }
 
     /**
@@ -168,44 +490,222 @@ public class ElasticsearchService {
      * @param onComplete an on complete consumer to be invoked to finalize search all operation
      */
     public void searchAll(SearchRequest searchRequest, Consumer<Response> responseConsumer, NoArgConsumer onComplete) {
+        searchAll(
+            searchRequest,
+            responseReader,
+            response -> response.getHits().getTotal().getValue(),
+            response -> response.getHits().getHits().size(),
+            Response::getScrollId,
+            responseConsumer,
+            onComplete
+        );
+    }
+
+    /**
+     * Search all the elasticsearch documents in the index based on given search request same as
+     * {@link #searchAll(SearchRequest, Consumer, NoArgConsumer)} except that each hit source is deserialized
+     * directly into given source type, skipping the intermediate string map.
+     *
+     * @param searchRequest an elasticsearch search request to use
+     * @param sourceType a type of document source to deserialize each hit into
+     * @param responseConsumer a response consumer to be invoked for each scroll request completion operation
+     * @param onComplete an on complete consumer to be invoked to finalize search all operation
+     * @param <S> a type of document source
+     */
+    public <S> void searchAll(
+        SearchRequest searchRequest,
+        Class<S> sourceType,
+        Consumer<TypedResponse<S>> responseConsumer,
+        NoArgConsumer onComplete
+    ) {
+        searchAll(
+            searchRequest,
+            typedResponseReader(sourceType),
+            response -> response.getHits().getTotal().getValue(),
+            response -> response.getHits().getHits().size(),
+            TypedResponse::getScrollId,
+            responseConsumer,
+            onComplete
+        );
+    }
+
+    /**
+     * Scrolls through all the documents matching given search request deserializing each page into given response
+     * type, shared by untyped and typed search all
+     *
+     * @param searchRequest an elasticsearch search request to use
+     * @param responseReader a reader of response type to deserialize each page into
+     * @param totalCount a function reading total document count of a page
+     * @param pageSize a function reading number of hits in a page
+     * @param scrollId a function reading scroll id of a page
+     * @param responseConsumer a response consumer to be invoked for each scroll request completion operation
+     * @param onComplete an on complete consumer to be invoked to finalize search all operation
+     * @param <R> a type of response
+     */
+    private <R> void searchAll(
+        SearchRequest searchRequest,
+        ObjectReader responseReader,
+        ToLongFunction<R> totalCount,
+        ToIntFunction<R> pageSize,
+        Function<R, String> scrollId,
+        Consumer<R> responseConsumer,
+        NoArgConsumer onComplete
+    ) {
         if (searchRequest.getScroll() == null) {
             return;
         }
 
-        var searchResponse = search(searchRequest);
+        Optional<R> searchResponse = search(searchRequest, responseReader);
         if (searchResponse.isEmpty()) {
             return;
         }
 
-        var totalCount = searchResponse.get().getHits().getTotal().getValue();
-        if (totalCount == 0L) {
+        var total = totalCount.applyAsLong(searchResponse.get());
+        if (total == 0L) {
             return;
         }
 
         var count = 0L;
-        var scrollRequest = ScrollRequest.builder()
-            .withScroll(searchRequest.getScroll())
-            .onException(searchRequest.getExceptionConsumer())
-            .onHttpError(searchRequest.getErrorConsumer())
-            .onHttpSuccess(searchRequest.getSuccessConsumer())
-            .withIndex(searchRequest.getIndex())
-            .build();
+        var scrollRequest = scrollRequest(searchRequest);
 
         do {
             var response = searchResponse.get();
-            count += response.getHits().getHits().size();
+            count += pageSize.applyAsInt(response);
 
             if (responseConsumer != null) {
                 responseConsumer.accept(response);
             }
 
-            scrollRequest.setScrollId(response.getScrollId());
-            searchResponse = scroll(scrollRequest);
-        } while(searchResponse.isPresent() && count != totalCount);
+            scrollRequest.setScrollId(scrollId.apply(response));
+            searchResponse = scroll(scrollRequest, responseReader);
+        } while(searchResponse.isPresent() && count != total);
 
         Optional.ofNullable(onComplete).ifPresent(NoArgConsumer::accept);
     }
 
+    /**
+     * Performs an elasticsearch search request deserializing the response body into given response type
+     *
+     * @param searchRequest an elasticsearch search request to use
+     * @param responseReader a reader of response type to deserialize into
+     * @param <R> a type of response
+     *
+     * @return an optional elasticsearch response
+     */
+    private <R> Optional<R> search(SearchRequest searchRequest, ObjectReader responseReader) {
+        if (searchRequest == null) {
+            return Optional.empty();
+        }
+        LOGGER.debug("Performing elasticsearch search request {}", searchRequest);
+        String apiPath = searchRequest.getScroll() == null ?
+            String.format("%s/_search?size=%d", searchRequest.getIndex(), searchRequest.getSize()) :
+            String.format("%s/_search?size=%d&scroll=%s", searchRequest.getIndex(), searchRequest.getSize(), searchRequest.getScroll());
+        var searchBody = searchBody(searchRequest);
+        var httpRequest = searchBody == null ?
+            httpRequest(HTTP_METHOD_GET, null, apiPath) :
+            httpRequest(HTTP_METHOD_GET, searchBody, apiPath);
+        return send(httpRequest, searchRequest, responseReader);
+    }
+
+    /**
+     * Performs an elasticsearch scroll request deserializing the response body into given response type
+     *
+     * @param scrollRequest a scroll request to use
+     * @param responseReader a reader of response type to deserialize into
+     * @param <R> a type of response
+     *
+     * @return an optional elasticsearch response
+     */
+    private <R> Optional<R> scroll(ScrollRequest scrollRequest, ObjectReader responseReader) {
+        if (scrollRequest == null) {
+            return Optional.empty();
+        }
+
+        LOGGER.debug("Performing elasticsearch scroll request {}", scrollRequest);
+        var apiPath = String.format("_search/scroll?scroll=%s", scrollRequest.getScroll());
+        var scroll = new Scroll();
+        scroll.setScrollId(scrollRequest.getScrollId());
+        return send(httpRequest(HTTP_METHOD_GET, scroll, apiPath), scrollRequest, responseReader);
+    }
+
+    /**
+     * Builds the scroll request which continues given search request
+     *
+     * @param searchRequest a search request to continue
+     *
+     * @return a newly created scroll request sharing the consumers of given search request
+     */
+    private ScrollRequest scrollRequest(SearchRequest searchRequest) {
+        return ScrollRequest.builder()
+            .withScroll(searchRequest.getScroll())
+            .onException(searchRequest.getExceptionConsumer())
+            .onHttpError(searchRequest.getErrorConsumer())
+            .onHttpSuccess(searchRequest.getSuccessConsumer())
+            .withIndex(searchRequest.getIndex())
+            .build();
+    }
+
+    /**
+     * Gets the cached typed response reader for given source type
+     *
+     * @param sourceType a type of document source
+     *
+     * @return a reader of {@link TypedResponse} parameterized with given source type
+     */
+    private ObjectReader typedResponseReader(Class<?> sourceType) {
+        return typedResponseReaders.computeIfAbsent(
+            sourceType,
+            type -> objectMapper.readerFor(
+                objectMapper.getTypeFactory().constructParametricType(TypedResponse.class, type)
+            )
+        );
+    }
+
+    /**
+     * Gets the reader of get response holding document source of given type, readers are cached per source type
+     *
+     * @param sourceType a type of document source
+     *
+     * @return a reader of {@link GetResponse} parameterized with given source type
+     */
+    private ObjectReader getResponseReader(Class<?> sourceType) {
+        return getResponseReaders.computeIfAbsent(
+            sourceType,
+            type -> objectMapper.readerFor(
+                objectMapper.getTypeFactory().constructParametricType(GetResponse.class, type)
+            )
+        );
+    }
+
+    /**
+     * Gets the cached writer for the type of given request body
+     *
+     * @param body a request body to write
+     *
+     * @return a writer of request body type
+     */
+    private ObjectWriter writer(Object body) {
+        return bodyWriters.computeIfAbsent(body.getClass(), objectMapper::writerFor);
+    }
+
+    /**
+     * Builds the search request body from given search request
+     *
+     * @param searchRequest a search request to use
+     *
+     * @return a newly created search body or null if search request holds neither query nor sort
+     */
+    private SearchBody searchBody(SearchRequest searchRequest) {
+        if (searchRequest.getQuery() == null && searchRequest.getSort() == null) {
+            return null;
+        }
+
+        var searchBody = new SearchBody();
+        searchBody.setQuery(searchRequest.getQuery());
+        searchBody.setSort(searchRequest.getSort());
+        return searchBody;
+    }
+
     /**
      * Checks the validity of this given request
      *
@@ -220,7 +720,7 @@ public class ElasticsearchService {
     }
 
     /**
-     * Send the given http request using underlying http client.
+     * Send the given transport request using underlying transport.
      * This will not throw any exception rather it will catch any underlying exception and notify
      * the sender by using exception consumer.
      * <p>
@@ -228,15 +728,22 @@ public class ElasticsearchService {
      * response doesn't have any body but the request is successful, it will return empty elasticsearch response.
      * For any successful request it will use success consumer to notify sender that underlying http call was a success
      *
-     * @param httpRequest an http request to send
+     * @param transportRequest a transport request to send
      * @param elasticsearchRequest an elasticsearch request to use to perform completion of http request
+     * @param responseReader a reader of response type to deserialize http response body into
      * @param <T> a type of elasticsearch request
+     * @param <R> a type of elasticsearch response
      *
      * @return an optional elasticsearch response
      */
-    private <T extends Request> Optional<Response> send(HttpRequest httpRequest, T elasticsearchRequest) {
+    private <T extends Request, R> Optional<R> send(
+        TransportRequest transportRequest,
+        T elasticsearchRequest,
+        ObjectReader responseReader
+    ) {
         try {
-            var response = httpClient.send(httpRequest, BodyHandlers.ofString());
+            var transportResponse = transport.send(transportRequest);
+            var response = transportResponse.toHttpResponse();
             if (response.statusCode() >= 400) {
                 LOGGER.error("Request with {} failed due to status code {}", elasticsearchRequest, response.statusCode());
 
@@ -255,8 +762,11 @@ public class ElasticsearchService {
 
             LOGGER.debug("Successfully processed request {} with status code {}", elasticsearchRequest, response.statusCode());
 
-            if (response.body() != null) {
-                return Optional.of(objectMapper.readValue(response.body(), Response.class));
+            var body = transportResponse.body();
+            if (body != null) {
+                try (body) {
+                    return Optional.of(responseReader.readValue(body));
+                }
             }
 
             return Optional.empty();
@@ -275,18 +785,18 @@ public class ElasticsearchService {
     }
 
     /**
-     * Builds the http request for given method, body, and api path.
+     * Builds the transport request for given method, body, and api path.
      *
      * @param method a http method to set
      * @param body a request body to set
      * @param apiPath an api path to use
      * @param <T> a type of request body
      *
-     * @return a newly created http request
+     * @return a newly created transport request
      */
-    private <T> HttpRequest httpRequest(String method, T body, String apiPath) {
+    private <T> TransportRequest httpRequest(String method, T body, String apiPath) {
         try {
-            return httpRequest(method, objectMapper.writeValueAsString(body), apiPath);
+            return httpRequest(method, writer(body).writeValueAsString(body), apiPath);
         }
         catch (JsonProcessingException ignored) {
             return httpRequest(method, null, apiPath);
@@ -294,29 +804,42 @@ public class ElasticsearchService {
     }
 
     /**
-     * Builds a http request from given http method, json body and api path.
-     * The base url is get from environment variable. All authentication header
-     * and content type header are also set here.
+     * Builds a transport request from given http method, json body and api path.
      *
      * @param method a http method to set
      * @param jsonBody a string json body to set
      * @param apiPath an api path to be appended to base url
      *
-     * @return a newly created http request
+     * @return a newly created transport request
+     */
+    private TransportRequest httpRequest(String method, String jsonBody, String apiPath) {
+        return httpRequest(method, jsonBody, apiPath, CONTENT_TYPE_JSON);
+    }
+
+    /**
+     * Builds a transport request from given http method, body, api path and content type.
+     * The base url and authentication key are the ones this service was built with. All authentication header
+     * and content type header are also set here.
+     *
+     * @param method a http method to set
+     * @param body a string body to set
+     * @param apiPath an api path to be appended to base url
+     * @param contentType a content type of given body
+     *
+     * @return a newly created transport request
      */
-    private HttpRequest httpRequest(String method, String jsonBody, String apiPath) {
-        var url = System.getenv(ELASTICSEARCH_URL);
+    private TransportRequest httpRequest(String method, String body, String apiPath, String contentType) {
+        var requestUrl = url;
         if (apiPath != null && !apiPath.isEmpty()) {
-            url = String.format("%s/%s", url, apiPath);
+            requestUrl = String.format("%s/%s", url, apiPath);
         }
 
-        var bodyPublisher = Optional.ofNullable(jsonBody)
-            .map(BodyPublishers::ofString)
-            .orElseGet(BodyPublishers::noBody);
-        return HttpRequest.newBuilder().method(method, bodyPublisher)
-            .uri(URI.create(url))
-            .setHeader("Authorization", String.format("Basic %s", System.getenv(ELASTICSEARCH_AUTHENTICATION_KEY)))
-            .setHeader("Content-Type", CONTENT_TYPE_JSON)
+        return TransportRequest.builder()
+            .withMethod(method)
+            .withUri(URI.create(requestUrl))
+            .withHeader("Authorization", String.format("Basic %s", authenticationKey))
+            .withHeader("Content-Type", contentType)
+            .withBody(body == null ? null : body.getBytes(UTF_8))
             .build();
     }
 }
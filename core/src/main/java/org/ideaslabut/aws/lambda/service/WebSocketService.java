@@ -5,28 +5,50 @@ package org.ideaslabut.aws.lambda.service;
 
 import static software.amazon.awssdk.regions.Region.US_EAST_2;
 
-import org.ideaslabut.aws.lambda.domain.elasticsearch.IndexBody;
-import org.ideaslabut.aws.lambda.domain.elasticsearch.Response;
-import org.ideaslabut.aws.lambda.domain.elasticsearch.request.CreateRequest;
-import org.ideaslabut.aws.lambda.domain.elasticsearch.request.DeleteRequest;
-import org.ideaslabut.aws.lambda.domain.elasticsearch.request.SearchRequest;
+import org.ideaslabut.aws.lambda.domain.text.BoundedToString;
+import org.ideaslabut.aws.lambda.domain.websocket.BroadcastJob;
+import org.ideaslabut.aws.lambda.domain.websocket.Connection;
+import org.ideaslabut.aws.lambda.domain.websocket.Message;
 import org.ideaslabut.aws.lambda.domain.websocket.ProxyRequestEvent;
 import org.ideaslabut.aws.lambda.domain.websocket.ProxyResponseEvent;
 import org.ideaslabut.aws.lambda.domain.websocket.RouteKey;
+import org.ideaslabut.aws.lambda.service.concurrent.ExecutorFactory;
+import org.ideaslabut.aws.lambda.service.connection.ConnectionStore;
+import org.ideaslabut.aws.lambda.service.connection.ConnectionStoreException;
+import org.ideaslabut.aws.lambda.service.connection.ConnectionStoreFactory;
+import org.ideaslabut.aws.lambda.service.connection.ElasticsearchConnectionStore;
+import org.ideaslabut.aws.lambda.service.metrics.EmfMetricsPublisher;
+import org.ideaslabut.aws.lambda.service.metrics.InvocationMetrics;
+import org.ideaslabut.aws.lambda.service.metrics.InvocationMetrics.Phase;
+import org.ideaslabut.aws.lambda.service.metrics.MetricsPublisher;
+import org.ideaslabut.aws.lambda.service.payload.MessageCoalescer;
+import org.ideaslabut.aws.lambda.service.payload.PayloadEncoder;
+import org.ideaslabut.aws.lambda.service.payload.PayloadTooLargeException;
+import org.ideaslabut.aws.lambda.service.queue.BroadcastQueue;
+import org.ideaslabut.aws.lambda.service.queue.SqsBroadcastQueue;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.services.apigatewaymanagementapi.ApiGatewayManagementApiClient;
+import software.amazon.awssdk.services.apigatewaymanagementapi.model.GoneException;
 import software.amazon.awssdk.services.apigatewaymanagementapi.model.PostToConnectionRequest;
+import software.amazon.awssdk.services.sqs.SqsClient;
 
 import java.net.URI;
-import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Consumer;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing webSocket request context route
@@ -38,13 +60,37 @@ public class WebSocketService {
     private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketService.class);
 
     private static final int HTTP_OK_STATUS_CODE = 200;
+    private static final int HTTP_CREATED_STATUS_CODE = 201;
+    private static final int HTTP_ACCEPTED_STATUS_CODE = 202;
     private static final int HTTP_BAD_RESPONSE_STATUS_CODE = 400;
     private static final int HTTP_PARTIAL_CONTENT_STATUS_CODE = 206;
+    private static final int HTTP_GONE_STATUS_CODE = 410;
+    private static final int HTTP_PAYLOAD_TOO_LARGE_STATUS_CODE = 413;
+    private static final int HTTP_INTERNAL_ERROR_STATUS_CODE = 500;
+    private static final int MAX_MULTICAST_CONNECTIONS = 100;
     private static final String WEBSOCKET_MANAGEMENT_URL = "WEBSOCKET_MANAGEMENT_URL";
-    private static final String WEB_SOCKET_INDEX_NAME = "socket";
+    private static final String WEBSOCKET_PAYLOAD_COMPRESSION = "WEBSOCKET_PAYLOAD_COMPRESSION";
+    private static final String GZIP_COMPRESSION = "gzip";
+    private static final String WEBSOCKET_COALESCING_WINDOW_MS = "WEBSOCKET_COALESCING_WINDOW_MS";
+    private static final String WEBSOCKET_BROADCAST_QUEUE_URL = "WEBSOCKET_BROADCAST_QUEUE_URL";
+    private static final String WEBSOCKET_METRICS_NAMESPACE = "WEBSOCKET_METRICS_NAMESPACE";
+    private static final String DEFAULT_METRICS_NAMESPACE = "IdeasLab/WebSocket";
+    private static final String BROADCAST_JOB_ROUTE = "broadcastJob";
+    private static final String ROOM = "room";
+    private static final int DEFAULT_BROADCAST_CONCURRENCY = 64;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     private static volatile WebSocketService INSTANCE = null;
 
+    /**
+     * An outcome of posting a message to a single connection
+     */
+    private enum SendStatus {
+        SENT,
+        GONE,
+        FAILED
+    }
+
     /**
      * A threadsafe singleton instance for WebSocketService
      *
@@ -62,26 +108,278 @@ public class WebSocketService {
     }
 
     private static WebSocketService buildInstance() {
-        var apiGatewayManagementClient = ApiGatewayManagementApiClient.builder()
-            .region(US_EAST_2)
-            .httpClientBuilder(UrlConnectionHttpClient.builder())
-            .endpointOverride(URI.create(System.getenv(WEBSOCKET_MANAGEMENT_URL)))
-            .build();
-        return new WebSocketService(apiGatewayManagementClient, ElasticsearchService.getInstance());
+        return builder().build();
     }
 
+    /**
+     * A builder for {@link WebSocketService}
+     */
+    public static class Builder {
+        private String managementUrl;
+        private ElasticsearchService elasticsearchService;
+        private ConnectionStore connectionStore;
+        private ApiGatewayManagementApiClient apiGatewayManagementClient;
+        private AwsCredentialsProvider credentialsProvider;
+        private int broadcastConcurrency;
+        private PayloadEncoder payloadEncoder;
+        private Duration coalescingWindow;
+        private BroadcastQueue broadcastQueue;
+        private MetricsPublisher metricsPublisher;
+
+        /**
+         * Creates a new instance of websocket service {@link Builder}
+         */
+        private Builder() {
+            this.broadcastConcurrency = DEFAULT_BROADCAST_CONCURRENCY;
+        }
+
+        /**
+         * Sets the api gateway management url for this builder
+         *
+         * @param managementUrl a management url to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withManagementUrl(String managementUrl) {
+            this.managementUrl = managementUrl;
+            return this;
+        }
+
+        /**
+         * Sets the elasticsearch service which holds the connections in its <code>socket</code> index for this
+         * builder, ignored if a connection store is set
+         *
+         * @param elasticsearchService an elasticsearch service to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withElasticsearchService(ElasticsearchService elasticsearchService) {
+            this.elasticsearchService = elasticsearchService;
+            return this;
+        }
+
+        /**
+         * Sets the store which holds the connections for this builder
+         *
+         * @param connectionStore a connection store to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withConnectionStore(ConnectionStore connectionStore) {
+            this.connectionStore = connectionStore;
+            return this;
+        }
+
+        /**
+         * Sets the api gateway management client for this builder, management url and credentials provider are
+         * ignored for building the client if this is set
+         *
+         * @param apiGatewayManagementClient an api gateway management client to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withApiGatewayManagementClient(ApiGatewayManagementApiClient apiGatewayManagementClient) {
+            this.apiGatewayManagementClient = apiGatewayManagementClient;
+            return this;
+        }
+
+        /**
+         * Sets the credentials provider of api gateway management client for this builder
+         *
+         * @param credentialsProvider a credentials provider to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withCredentialsProvider(AwsCredentialsProvider credentialsProvider) {
+            this.credentialsProvider = credentialsProvider;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of post to connection requests in flight while broadcasting a message for this
+         * builder
+         *
+         * @param broadcastConcurrency a broadcast concurrency to set
+         *
+         * @return a reference of this builder
+         *
+         * @throws IllegalArgumentException if given concurrency is not positive
+         */
+        public Builder withBroadcastConcurrency(int broadcastConcurrency) {
+            if (broadcastConcurrency <= 0) {
+                throw new IllegalArgumentException("Broadcast concurrency should be positive");
+            }
+            this.broadcastConcurrency = broadcastConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the encoder of message payloads for this builder
+         *
+         * @param payloadEncoder a payload encoder to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withPayloadEncoder(PayloadEncoder payloadEncoder) {
+            this.payloadEncoder = payloadEncoder;
+            return this;
+        }
+
+        /**
+         * Sets the window for which outgoing payloads are buffered per connection and delivered as one json array
+         * frame for this builder, a zero window turns coalescing off
+         *
+         * @param coalescingWindow a coalescing window to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withCoalescingWindow(Duration coalescingWindow) {
+            this.coalescingWindow = coalescingWindow;
+            return this;
+        }
+
+        /**
+         * Sets the queue which broadcasts of sendMessage route are deferred to for this builder
+         *
+         * @param broadcastQueue a broadcast queue to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withBroadcastQueue(BroadcastQueue broadcastQueue) {
+            this.broadcastQueue = broadcastQueue;
+            return this;
+        }
+
+        /**
+         * Sets the publisher of metrics of each invocation for this builder
+         *
+         * @param metricsPublisher a metrics publisher to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withMetricsPublisher(MetricsPublisher metricsPublisher) {
+            this.metricsPublisher = metricsPublisher;
+            return this;
+        }
+
+        /**
+         * Builds a new instance of {@link WebSocketService}. Any value not set falls back to its default i.e.
+         * <code>WEBSOCKET_MANAGEMENT_URL</code> environment variable, connection store selected by
+         * <code>WEBSOCKET_CONNECTION_STORE</code> environment variable, see {@link ConnectionStoreFactory}, and
+         * url connection based api gateway management client with default credentials chain. Payloads are gzip
+         * compressed by default encoder only if <code>WEBSOCKET_PAYLOAD_COMPRESSION</code> environment variable is
+         * <code>gzip</code>. Coalescing is off unless <code>WEBSOCKET_COALESCING_WINDOW_MS</code> environment
+         * variable is set. Broadcasts are deferred to an sqs queue only if <code>WEBSOCKET_BROADCAST_QUEUE_URL</code>
+         * environment variable is set. Metrics of each invocation are printed to standard output in embedded metric
+         * format under the namespace given by <code>WEBSOCKET_METRICS_NAMESPACE</code> environment variable
+         *
+         * @return a newly created websocket service
+         *
+         * @throws IllegalStateException if both coalescing and payload compression are enabled
+         */
+        public WebSocketService build() {
+            var url = Optional.ofNullable(managementUrl).orElseGet(() -> System.getenv(WEBSOCKET_MANAGEMENT_URL));
+            var client = Optional.ofNullable(apiGatewayManagementClient).orElseGet(() -> {
+                var clientBuilder = ApiGatewayManagementApiClient.builder()
+                    .region(US_EAST_2)
+                    .httpClientBuilder(UrlConnectionHttpClient.builder())
+                    .endpointOverride(URI.create(url));
+                Optional.ofNullable(credentialsProvider).ifPresent(clientBuilder::credentialsProvider);
+                return clientBuilder.build();
+            });
+            var encoder = Optional.ofNullable(payloadEncoder).orElseGet(() -> PayloadEncoder.builder()
+                .withObjectMapper(OBJECT_MAPPER)
+                .withGzip(GZIP_COMPRESSION.equalsIgnoreCase(System.getenv(WEBSOCKET_PAYLOAD_COMPRESSION)))
+                .build()
+            );
+            var window = Optional.ofNullable(coalescingWindow).orElseGet(() ->
+                Optional.ofNullable(System.getenv(WEBSOCKET_COALESCING_WINDOW_MS))
+                    .map(millis -> Duration.ofMillis(Long.parseLong(millis)))
+                    .orElse(Duration.ZERO)
+            );
+            if (!window.isZero() && encoder.isGzip()) {
+                throw new IllegalStateException("Coalescing cannot combine compressed payloads into one frame");
+            }
+
+            return new WebSocketService(
+                url,
+                client,
+                Optional.ofNullable(connectionStore).orElseGet(() -> elasticsearchService == null ?
+                    ConnectionStoreFactory.fromEnvironment() :
+                    new ElasticsearchConnectionStore(elasticsearchService, ConnectionStoreFactory.WEB_SOCKET_INDEX_NAME)
+                ),
+                ExecutorFactory.newIoExecutor("websocket-broadcast", broadcastConcurrency),
+                encoder,
+                window,
+                Optional.ofNullable(broadcastQueue).orElseGet(() ->
+                    Optional.ofNullable(System.getenv(WEBSOCKET_BROADCAST_QUEUE_URL))
+                        .map(queueUrl -> new SqsBroadcastQueue(
+                            SqsClient.builder()
+                                .region(US_EAST_2)
+                                .httpClientBuilder(UrlConnectionHttpClient.builder())
+                                .build(),
+                            queueUrl,
+                            OBJECT_MAPPER
+                        ))
+                        .orElse(null)
+                ),
+                Optional.ofNullable(metricsPublisher).orElseGet(() -> new EmfMetricsPublisher(
+                    Optional.ofNullable(System.getenv(WEBSOCKET_METRICS_NAMESPACE)).orElse(DEFAULT_METRICS_NAMESPACE),
+                    System.out,
+                    OBJECT_MAPPER
+                ))
+            );
+        }
+    }
+
+    /**
+     * Creates a new instance of websocket service {@link Builder}
+     *
+     * @return a newly created builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final String managementUrl;
     private final ApiGatewayManagementApiClient apiGatewayManagementClient;
-    private final ElasticsearchService elasticsearchService;
+    private final ConnectionStore connectionStore;
+    private final ExecutorService broadcastExecutor;
+    private final PayloadEncoder payloadEncoder;
+    private final MessageCoalescer<SendStatus> messageCoalescer;
+    private final BroadcastQueue broadcastQueue;
+    private final MetricsPublisher metricsPublisher;
 
-    private WebSocketService(ApiGatewayManagementApiClient apiGatewayManagementClient, ElasticsearchService elasticsearchService) {
-        this.elasticsearchService = elasticsearchService;
+    private WebSocketService(
+        String managementUrl,
+        ApiGatewayManagementApiClient apiGatewayManagementClient,
+        ConnectionStore connectionStore,
+        ExecutorService broadcastExecutor,
+        PayloadEncoder payloadEncoder,
+        Duration coalescingWindow,
+        BroadcastQueue broadcastQueue,
+        MetricsPublisher metricsPublisher
+    ) {
+        this.managementUrl = managementUrl;
+        this.connectionStore = connectionStore;
         this.apiGatewayManagementClient = apiGatewayManagementClient;
+        this.broadcastExecutor = broadcastExecutor;
+        this.payloadEncoder = payloadEncoder;
+        this.broadcastQueue = broadcastQueue;
+        this.metricsPublisher = metricsPublisher;
+        this.messageCoalescer = coalescingWindow.isZero() ?
+            null :
+            new MessageCoalescer<>(coalescingWindow, PayloadEncoder.MAX_MESSAGE_BYTES, this::sendMessage, broadcastExecutor);
     }
 
     /**
      * Process the given websocket proxy event by parsing defined routeKey. Default route key $connect and $disconnect
-     * will do nothing but setting the connection and disconnecting. RouteKey <code>sendMessage</code> will send the
-     * given payload body message to all available connection
+     * will do nothing but setting the connection and disconnecting, $connect joins the room given by <code>room</code>
+     * query string parameter if any. RouteKey <code>joinRoom</code> moves the connection to the <code>room</code> of
+     * its json body. RouteKey <code>sendMessage</code> will send the given payload body message to every connection
+     * of the <code>room</code> of its json body, or to all available connection if body names no room. RouteKey
+     * <code>unicast</code> and <code>multicast</code> send the given payload body message straight to the
+     * <code>connectionId</code> or <code>connectionIds</code> of its json body without looking up connections
      *
      * @param proxyRequestEvent a websocket proxy event to process
      *
@@ -92,143 +390,505 @@ public class WebSocketService {
      *                               as unmatched
      */
     public ProxyResponseEvent processEvent(ProxyRequestEvent proxyRequestEvent) {
-        if (proxyRequestEvent == null || proxyRequestEvent.getRequestContext() == null) {
-            LOGGER.error("Unable to process event");
-            return responseEvent(HTTP_BAD_RESPONSE_STATUS_CODE);
-        }
-
-        var domainName = proxyRequestEvent.getRequestContext().getDomainName();
-        if (domainName == null) {
-            LOGGER.error("Domain name is null for event {}", proxyRequestEvent);
-            return responseEvent(HTTP_BAD_RESPONSE_STATUS_CODE);
+        var invocationMetrics = new InvocationMetrics();
+        ProxyResponseEvent proxyResponseEvent = null;
+        try {
+            proxyResponseEvent = processEvent(proxyRequestEvent, invocationMetrics);
+            return proxyResponseEvent;
         }
-        if (!System.getenv(WEBSOCKET_MANAGEMENT_URL).contains(domainName)) {
-            LOGGER.error("Request domain name {} doesn't match with environment variable {}",
-                domainName,
-                System.getenv(WEBSOCKET_MANAGEMENT_URL)
-            );
-            return responseEvent(HTTP_BAD_RESPONSE_STATUS_CODE);
+        finally {
+            invocationMetrics.complete(proxyResponseEvent == null ? null : proxyResponseEvent.getStatusCode());
+            metricsPublisher.publish(invocationMetrics);
         }
+    }
 
-        var requestContext = proxyRequestEvent.getRequestContext();
-        var routeKey = RouteKey.fromAction(proxyRequestEvent.getRequestContext().getRouteKey());
-
+    /**
+     * Process the given websocket proxy event recording time spent in each phase into given invocation metrics
+     *
+     * @param proxyRequestEvent a websocket proxy event to process
+     * @param invocationMetrics an invocation metrics to record into
+     *
+     * @return an api gateway response event
+     */
+    private ProxyResponseEvent processEvent(ProxyRequestEvent proxyRequestEvent, InvocationMetrics invocationMetrics) {
+        var validationStart = System.nanoTime();
+        var routeKey = routeKey(proxyRequestEvent);
+        invocationMetrics.record(Phase.VALIDATION, validationStart);
         if (routeKey.isEmpty()) {
-            LOGGER.error("Route key: {} is not a valid route key", proxyRequestEvent.getRequestContext().getRouteKey());
             return responseEvent(HTTP_BAD_RESPONSE_STATUS_CODE);
         }
 
+        invocationMetrics.setRoute(routeKey.get().getAction());
+        var requestContext = proxyRequestEvent.getRequestContext();
         switch (routeKey.get()) {
             case CONNECT:
-                return addConnection(requestContext.getConnectionId());
+                var room = Optional.ofNullable(proxyRequestEvent.getQueryStringParameters())
+                    .map(queryStringParameters -> queryStringParameters.get(ROOM))
+                    .orElse(null);
+                return addConnection(requestContext.getConnectionId(), room, invocationMetrics);
             case DISCONNECT:
-                return removeConnection(requestContext.getConnectionId());
+                return removeConnection(requestContext.getConnectionId(), invocationMetrics);
+            case JOIN_ROOM:
+                return joinRoom(requestContext.getConnectionId(), proxyRequestEvent.getBody(), invocationMetrics);
             case SEND_MESSAGE:
-                return sendWebSocketMessage(requestContext.getConnectionId(), proxyRequestEvent.getBody());
+                return sendWebSocketMessage(
+                    requestContext.getConnectionId(),
+                    proxyRequestEvent.getBody(),
+                    invocationMetrics
+                );
+            case UNICAST:
+                return unicast(proxyRequestEvent.getBody(), invocationMetrics);
+            case MULTICAST:
+                return multicast(proxyRequestEvent.getBody(), invocationMetrics);
             default:
                 throw new IllegalStateException("Unsupported routeKey: " + routeKey);
         }
     }
 
     /**
-     * Adds the given connection id to the connected webSocket connection set
+     * Validates the given websocket proxy event and resolves its route key
      *
-     * @param connectionId a connection id to be removed
+     * @param proxyRequestEvent a websocket proxy event to validate
      *
-     * @return an api gateway response event with status code 200
+     * @return an optional route key, empty if event, its domain name or its route key is invalid
      */
-    private ProxyResponseEvent addConnection(String connectionId) {
-        final AtomicInteger statusCode = new AtomicInteger();
-        Consumer<HttpResponse<String>> responseConsumer = httpResponse -> statusCode.set(httpResponse.statusCode());
-
-        elasticsearchService.create(CreateRequest
-            .builder().withIndex(WEB_SOCKET_INDEX_NAME)
-            .withBody(connection(connectionId))
-            .onHttpSuccess(responseConsumer)
-            .onHttpError(responseConsumer)
-            .build()
-        );
+    private Optional<RouteKey> routeKey(ProxyRequestEvent proxyRequestEvent) {
+        if (proxyRequestEvent == null || proxyRequestEvent.getRequestContext() == null) {
+            LOGGER.error("Unable to process event");
+            return Optional.empty();
+        }
+
+        var domainName = proxyRequestEvent.getRequestContext().getDomainName();
+        if (domainName == null) {
+            LOGGER.error("Domain name is null for event {}", proxyRequestEvent);
+            return Optional.empty();
+        }
+        if (!managementUrl.contains(domainName)) {
+            LOGGER.error("Request domain name {} doesn't match with management url {}", domainName, managementUrl);
+            return Optional.empty();
+        }
 
-        return responseEvent(statusCode.get());
+        var routeKey = RouteKey.fromAction(proxyRequestEvent.getRequestContext().getRouteKey());
+        if (routeKey.isEmpty()) {
+            LOGGER.error("Route key: {} is not a valid route key", proxyRequestEvent.getRequestContext().getRouteKey());
+        }
+        return routeKey;
+    }
+
+    /**
+     * Adds the given connection id to the connected webSocket connection set
+     *
+     * @param connectionId a connection id to be added
+     * @param room a room to join, null if none
+     * @param invocationMetrics an invocation metrics to record into
+     *
+     * @return an api gateway response event with status code 201, 500 if connection cannot be stored
+     */
+    private ProxyResponseEvent addConnection(String connectionId, String room, InvocationMetrics invocationMetrics) {
+        var storeStart = System.nanoTime();
+        try {
+            connectionStore.add(connection(connectionId, room));
+            return responseEvent(HTTP_CREATED_STATUS_CODE);
+        }
+        catch (ConnectionStoreException connectionStoreException) {
+            LOGGER.error("Unable to add connection {}", connectionId, connectionStoreException);
+            return responseEvent(HTTP_INTERNAL_ERROR_STATUS_CODE);
+        }
+        finally {
+            invocationMetrics.record(Phase.CONNECTION_STORE, storeStart);
+        }
     }
 
     /**
      * Remove the given connection id from the connected webSocket connection set
      *
      * @param connectionId a connection id to be removed
+     * @param invocationMetrics an invocation metrics to record into
      *
-     * @return an api gateway response event with status code 200
+     * @return an api gateway response event with status code 200, 500 if connection cannot be removed
      */
-    private ProxyResponseEvent removeConnection(String connectionId) {
-        final AtomicInteger statusCode = new AtomicInteger();
-        Consumer<HttpResponse<String>> responseConsumer = response -> statusCode.set(response.statusCode());
+    private ProxyResponseEvent removeConnection(String connectionId, InvocationMetrics invocationMetrics) {
+        var storeStart = System.nanoTime();
+        try {
+            connectionStore.remove(connectionId);
+            return responseEvent(HTTP_OK_STATUS_CODE);
+        }
+        catch (ConnectionStoreException connectionStoreException) {
+            LOGGER.error("Unable to remove connection {}", connectionId, connectionStoreException);
+            return responseEvent(HTTP_INTERNAL_ERROR_STATUS_CODE);
+        }
+        finally {
+            invocationMetrics.record(Phase.CONNECTION_STORE, storeStart);
+        }
+    }
 
-        elasticsearchService.delete(DeleteRequest
-            .builder()
-            .withBody(connection(connectionId))
-            .onHttpError(responseConsumer)
-            .onHttpSuccess(responseConsumer)
-            .withIndex(WEB_SOCKET_INDEX_NAME)
-            .build()
-        );
+    /**
+     * Moves the given connection to the room named by given message body, replacing any room it was in
+     *
+     * @param connectionId a connection id to move
+     * @param body a message body holding the room to join
+     * @param invocationMetrics an invocation metrics to record into
+     *
+     * @return an api gateway response event with status code 200, 400 if message body names no room and 500 if
+     *     connection cannot be stored
+     */
+    private ProxyResponseEvent joinRoom(String connectionId, Object body, InvocationMetrics invocationMetrics) {
+        var room = message(body).map(Message::getRoom).orElse(null);
+        if (room == null) {
+            LOGGER.error("Connection {} cannot join room without a room name", connectionId);
+            return responseEvent(HTTP_BAD_RESPONSE_STATUS_CODE);
+        }
 
-        return responseEvent(statusCode.get());
+        var storeStart = System.nanoTime();
+        try {
+            connectionStore.add(connection(connectionId, room));
+            return responseEvent(HTTP_OK_STATUS_CODE);
+        }
+        catch (ConnectionStoreException connectionStoreException) {
+            LOGGER.error("Connection {} unable to join room {}", connectionId, room, connectionStoreException);
+            return responseEvent(HTTP_INTERNAL_ERROR_STATUS_CODE);
+        }
+        finally {
+            invocationMetrics.record(Phase.CONNECTION_STORE, storeStart);
+        }
     }
 
     /**
-     * Sends the given message body to all available webSocket connections by filtering
-     * current sender
+     * Sends the given message body to all webSocket connections of the room named by message body by filtering
+     * current sender, or to all available connections if message body names no room. The payload is encoded right
+     * away, if a broadcast queue is configured the fan-out is deferred to the worker draining that queue so that the
+     * sender doesn't wait for it, otherwise it is broadcast before returning.
      *
      * @param senderConnectionId a connection id of the sender to be filtered out
-     * @param body a message body to be sent to all available connection
+     * @param body a message body to be sent to connections of its room
+     * @param invocationMetrics an invocation metrics to record into
      *
-     * @return an api gateway response event with status code 200 if successful
+     * @return an api gateway response event with status code 200 if every live connection got the message, 202 if
+     *     broadcast is queued, 413 if message is too large and 500 if connections cannot be looked up
      */
-    private ProxyResponseEvent sendWebSocketMessage(String senderConnectionId, final Object body) {
+    private ProxyResponseEvent sendWebSocketMessage(
+        String senderConnectionId,
+        final Object body,
+        InvocationMetrics invocationMetrics
+    ) {
         if (body == null) {
             throw new NullPointerException("A valid message body is required");
         }
 
-        final AtomicBoolean status = new AtomicBoolean(true);
-        Consumer<Response> responseConsumer = response -> {
-            var sendStatus = response.getHits().getHits().stream()
-                .map(hit -> hit.getSource().get("connectionId"))
-                .filter(connectionId -> !Objects.equals(connectionId, senderConnectionId))
-                .map(connectionId -> sendMessage(connectionId, body))
-                .reduce(true, (partial, sendMessageStatus) -> partial && sendMessageStatus);
-            status.set(status.get() && sendStatus);
-        };
-
-        elasticsearchService.searchAll(
-            SearchRequest.builder().withSize(10)
-                .withIndex(WEB_SOCKET_INDEX_NAME)
-                .withScroll("1m")
-                .build(),
-            responseConsumer,
-            null
+        var payload = payload(body);
+        if (payload.isEmpty()) {
+            return responseEvent(HTTP_PAYLOAD_TOO_LARGE_STATUS_CODE);
+        }
+
+        var broadcastJob = new BroadcastJob();
+        broadcastJob.setSenderConnectionId(senderConnectionId);
+        broadcastJob.setRoom(message(body).map(Message::getRoom).orElse(null));
+        broadcastJob.setPayload(payload.get().asByteArrayUnsafe());
+
+        if (broadcastQueue != null) {
+            try {
+                broadcastQueue.enqueue(broadcastJob);
+                return responseEvent(HTTP_ACCEPTED_STATUS_CODE);
+            }
+            catch (RuntimeException exception) {
+                LOGGER.error("Unable to queue broadcast, broadcasting right away", exception);
+            }
+        }
+
+        try {
+            var delivered = broadcast(broadcastJob, invocationMetrics);
+            return responseEvent(delivered ? HTTP_OK_STATUS_CODE : HTTP_PARTIAL_CONTENT_STATUS_CODE);
+        }
+        catch (ConnectionStoreException connectionStoreException) {
+            LOGGER.error("Unable to broadcast message of {}", senderConnectionId, connectionStoreException);
+            return responseEvent(HTTP_INTERNAL_ERROR_STATUS_CODE);
+        }
+    }
+
+    /**
+     * Performs the fan-out of given broadcast job. Only the members of the room of given job are read from
+     * connection store so that a message only costs as many posts as its room has members. Every post to connection
+     * is submitted to broadcast executor as soon as its connection is read, so the rest of connections are read while
+     * earlier posts are still in flight, and all of them are awaited before returning. Connections reported as gone
+     * by api gateway are removed from connection store at once after the broadcast, so later broadcasts don't pay a
+     * failed post for them. Metrics of the broadcast are published as those of a single invocation.
+     *
+     * @param broadcastJob a broadcast job to perform
+     *
+     * @return true if every live connection got the message otherwise false, also false if connection lookup failed
+     *     after some posts were already submitted so that the broadcast is not repeated to those connections
+     *
+     * @throws ConnectionStoreException if connections cannot be read before any post is submitted
+     */
+    public boolean broadcast(BroadcastJob broadcastJob) {
+        var invocationMetrics = new InvocationMetrics();
+        invocationMetrics.setRoute(BROADCAST_JOB_ROUTE);
+        Integer statusCode = null;
+        try {
+            var delivered = broadcast(broadcastJob, invocationMetrics);
+            statusCode = delivered ? HTTP_OK_STATUS_CODE : HTTP_PARTIAL_CONTENT_STATUS_CODE;
+            return delivered;
+        }
+        finally {
+            invocationMetrics.complete(statusCode);
+            metricsPublisher.publish(invocationMetrics);
+        }
+    }
+
+    /**
+     * Performs the fan-out of given broadcast job recording connection lookup and fan-out time into given
+     * invocation metrics
+     *
+     * @param broadcastJob a broadcast job to perform
+     * @param invocationMetrics an invocation metrics to record into
+     *
+     * @return true if every live connection got the message otherwise false, also false if message doesn't fit a
+     *     coalesced frame or connection lookup failed after some posts were already submitted, those posts are
+     *     awaited first
+     *
+     * @throws ConnectionStoreException if connections cannot be read before any post is submitted
+     */
+    private boolean broadcast(BroadcastJob broadcastJob, InvocationMetrics invocationMetrics) {
+        var coalescablePayload = coalescable(SdkBytes.fromByteArrayUnsafe(broadcastJob.getPayload()));
+        if (coalescablePayload.isEmpty()) {
+            return false;
+        }
+
+        var payload = coalescablePayload.get();
+
+        final Map<String, CompletableFuture<SendStatus>> sendStatuses = new LinkedHashMap<>();
+        var fanOutStart = new long[1];
+        var storeStart = System.nanoTime();
+        try {
+            connectionStore.forEach(broadcastJob.getRoom(), connection -> {
+                if (!Objects.equals(connection.getId(), broadcastJob.getSenderConnectionId())) {
+                    if (sendStatuses.isEmpty()) {
+                        fanOutStart[0] = System.nanoTime();
+                    }
+                    sendStatuses.put(connection.getId(), deliver(connection.getId(), payload));
+                }
+            });
+        }
+        catch (ConnectionStoreException connectionStoreException) {
+            invocationMetrics.record(Phase.CONNECTION_STORE, storeStart);
+            if (sendStatuses.isEmpty()) {
+                throw connectionStoreException;
+            }
+
+            // Repeating the broadcast would send the message twice to connections which already got it
+            LOGGER.error(
+                "Connection lookup failed after {} posts of broadcast, rest of the room is not reached",
+                sendStatuses.size(),
+                connectionStoreException
+            );
+            awaitAll(sendStatuses, invocationMetrics, fanOutStart[0]);
+            return false;
+        }
+        invocationMetrics.record(Phase.CONNECTION_STORE, storeStart);
+
+        return !awaitAll(sendStatuses, invocationMetrics, fanOutStart[0]).containsKey(SendStatus.FAILED);
+    }
+
+    /**
+     * Sends the given message body to the single <code>connectionId</code> of its json body with one post to
+     * connection request
+     *
+     * @param body a message body naming its recipient
+     * @param invocationMetrics an invocation metrics to record into
+     *
+     * @return an api gateway response event with status code 200 if sent, 410 if recipient is gone, 400 if
+     *     message body names no recipient and 413 if message is too large
+     */
+    private ProxyResponseEvent unicast(Object body, InvocationMetrics invocationMetrics) {
+        var connectionId = message(body).map(Message::getConnectionId).orElse(null);
+        if (connectionId == null) {
+            LOGGER.error("Unicast message body has no connectionId {}", BoundedToString.lazy(body));
+            return responseEvent(HTTP_BAD_RESPONSE_STATUS_CODE);
+        }
+
+        var payload = payload(body).flatMap(this::coalescable);
+        if (payload.isEmpty()) {
+            return responseEvent(HTTP_PAYLOAD_TOO_LARGE_STATUS_CODE);
+        }
+
+        var fanOutStart = System.nanoTime();
+        var sendStatus = Map.of(connectionId, deliver(connectionId, payload.get()));
+        var statuses = awaitAll(sendStatus, invocationMetrics, fanOutStart);
+        if (statuses.containsKey(SendStatus.SENT)) {
+            return responseEvent(HTTP_OK_STATUS_CODE);
+        }
+        if (statuses.containsKey(SendStatus.GONE)) {
+            return responseEvent(HTTP_GONE_STATUS_CODE);
+        }
+        return responseEvent(HTTP_PARTIAL_CONTENT_STATUS_CODE);
+    }
+
+    /**
+     * Sends the given message body to every one of <code>connectionIds</code> of its json body concurrently, at
+     * most {@value #MAX_MULTICAST_CONNECTIONS} recipients are allowed so that large audiences use a room instead
+     *
+     * @param body a message body naming its recipients
+     * @param invocationMetrics an invocation metrics to record into
+     *
+     * @return an api gateway response event with status code 200 if every live recipient got the message, 400 if
+     *     message body names no recipient or too many of them and 413 if message is too large
+     */
+    private ProxyResponseEvent multicast(Object body, InvocationMetrics invocationMetrics) {
+        var connectionIds = message(body).map(Message::getConnectionIds).orElse(List.of());
+        if (connectionIds.isEmpty() || connectionIds.size() > MAX_MULTICAST_CONNECTIONS) {
+            LOGGER.error("Multicast message body should have 1 to {} connectionIds", MAX_MULTICAST_CONNECTIONS);
+            return responseEvent(HTTP_BAD_RESPONSE_STATUS_CODE);
+        }
+
+        var payload = payload(body).flatMap(this::coalescable);
+        if (payload.isEmpty()) {
+            return responseEvent(HTTP_PAYLOAD_TOO_LARGE_STATUS_CODE);
+        }
+
+        var fanOutStart = System.nanoTime();
+        final Map<String, CompletableFuture<SendStatus>> sendStatuses = new LinkedHashMap<>();
+        connectionIds.stream().distinct().forEach(connectionId -> sendStatuses.put(
+            connectionId,
+            deliver(connectionId, payload.get())
+        ));
+
+        var failed = awaitAll(sendStatuses, invocationMetrics, fanOutStart).containsKey(SendStatus.FAILED);
+        return responseEvent(failed ? HTTP_PARTIAL_CONTENT_STATUS_CODE : HTTP_OK_STATUS_CODE);
+    }
+
+    /**
+     * Waits for every given post to connection and removes the connections reported as gone, counting the posts
+     * and the fan-out time into given invocation metrics
+     *
+     * @param sendStatuses a pending send status of each connection id
+     * @param invocationMetrics an invocation metrics to record into
+     * @param fanOutStart a value of {@link System#nanoTime()} when first post was submitted
+     *
+     * @return a connection ids grouped by their send status
+     */
+    private Map<SendStatus, List<String>> awaitAll(
+        Map<String, CompletableFuture<SendStatus>> sendStatuses,
+        InvocationMetrics invocationMetrics,
+        long fanOutStart
+    ) {
+        var statuses = sendStatuses.entrySet().stream()
+            .collect(Collectors.groupingBy(
+                entry -> entry.getValue().join(),
+                Collectors.mapping(Map.Entry::getKey, Collectors.toList())
+            ));
+        if (!sendStatuses.isEmpty()) {
+            invocationMetrics.record(Phase.FAN_OUT, fanOutStart);
+        }
+        invocationMetrics.addPosts(
+            statuses.getOrDefault(SendStatus.SENT, List.of()).size(),
+            statuses.getOrDefault(SendStatus.FAILED, List.of()).size(),
+            statuses.getOrDefault(SendStatus.GONE, List.of()).size()
         );
-        return responseEvent(status.get() ? HTTP_OK_STATUS_CODE : HTTP_PARTIAL_CONTENT_STATUS_CODE);
+        removeGoneConnections(statuses.getOrDefault(SendStatus.GONE, List.of()), invocationMetrics);
+        return statuses;
+    }
+
+    /**
+     * Removes the given gone connections from connection store at once
+     *
+     * @param goneConnectionIds a connection ids to remove
+     * @param invocationMetrics an invocation metrics to record into
+     */
+    private void removeGoneConnections(List<String> goneConnectionIds, InvocationMetrics invocationMetrics) {
+        if (goneConnectionIds.isEmpty()) {
+            return;
+        }
+
+        LOGGER.info("Pruning {} gone connections", goneConnectionIds.size());
+        var storeStart = System.nanoTime();
+        try {
+            connectionStore.removeAll(goneConnectionIds);
+        }
+        catch (ConnectionStoreException connectionStoreException) {
+            LOGGER.error("Unable to prune some gone connections", connectionStoreException);
+        }
+        finally {
+            invocationMetrics.record(Phase.CONNECTION_STORE, storeStart);
+        }
     }
 
     /**
-     * Send the given message body to given webSocket connection id
+     * Encodes the given message body once so that the same payload is posted to every recipient
      *
-     * @param toConnectionId a webSocket connection to send given message body
-     * @param body a message body to be sent to given connection id
+     * @param body a message body to encode
      *
-     * @return <code>true</code> if successful otherwise <code>false</code>
+     * @return an optional payload, empty if encoded payload is larger than api gateway allows
      */
-    private boolean sendMessage(final String toConnectionId, Object body) {
+    private Optional<SdkBytes> payload(Object body) {
+        try {
+            return Optional.of(payloadEncoder.encode(body));
+        }
+        catch (PayloadTooLargeException payloadTooLargeException) {
+            LOGGER.error("Unable to send message because of {}", payloadTooLargeException.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Encodes the given payload once per message into the json value frames of message coalescer hold, so that every
+     * recipient shares the encoded payload, the payload is kept as is if coalescing is off
+     *
+     * @param payload a message payload to encode
+     *
+     * @return an optional payload, empty if encoded payload doesn't fit a coalesced frame
+     */
+    private Optional<SdkBytes> coalescable(SdkBytes payload) {
+        if (messageCoalescer == null) {
+            return Optional.of(payload);
+        }
+
+        try {
+            return Optional.of(messageCoalescer.encode(payload));
+        }
+        catch (PayloadTooLargeException payloadTooLargeException) {
+            LOGGER.error("Unable to coalesce message because of {}", payloadTooLargeException.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Delivers the given payload to given webSocket connection id on broadcast executor, or through message
+     * coalescer if coalescing is on in which case the payload is already encoded by {@link #coalescable(SdkBytes)}
+     *
+     * @param toConnectionId a webSocket connection to send given payload
+     * @param payload an encoded message payload shared by all recipients
+     *
+     * @return a future completed with the status of sending
+     */
+    private CompletableFuture<SendStatus> deliver(String toConnectionId, SdkBytes payload) {
+        if (messageCoalescer != null) {
+            return messageCoalescer.submit(toConnectionId, payload).exceptionally(throwable -> {
+                LOGGER.error("Unable to send message to {} because of {}", toConnectionId, throwable.getMessage());
+                return SendStatus.FAILED;
+            });
+        }
+        return CompletableFuture.supplyAsync(() -> sendMessage(toConnectionId, payload), broadcastExecutor);
+    }
+
+    /**
+     * Send the given payload to given webSocket connection id
+     *
+     * @param toConnectionId a webSocket connection to send given payload
+     * @param payload an encoded message payload shared by all recipients
+     *
+     * @return a status of sending, {@link SendStatus#GONE} if given connection no longer exists
+     */
+    private SendStatus sendMessage(final String toConnectionId, SdkBytes payload) {
         var connectionRequest = PostToConnectionRequest
             .builder()
             .connectionId(toConnectionId)
-            .data(SdkBytes.fromUtf8String(body.toString()))
+            .data(payload)
             .build();
 
         try {
             var sdkResponse = apiGatewayManagementClient.postToConnection(connectionRequest).sdkHttpResponse();
             if (sdkResponse == null) {
-                return false;
+                return SendStatus.FAILED;
             }
 
             sdkResponse.statusText().ifPresent(statusText ->
@@ -237,11 +897,15 @@ public class WebSocketService {
                     statusText
                 )
             );
-            return sdkResponse.isSuccessful();
+            return sdkResponse.isSuccessful() ? SendStatus.SENT : SendStatus.FAILED;
+        }
+        catch (GoneException goneException) {
+            LOGGER.debug("Connection {} is gone", toConnectionId);
+            return SendStatus.GONE;
         }
         catch (Exception exception) {
             LOGGER.error("Unable to send message to {} with exception", toConnectionId, exception);
-            return false;
+            return SendStatus.FAILED;
         }
     }
 
@@ -262,15 +926,41 @@ public class WebSocketService {
     }
 
     /**
-     * Builds a webSocket index body from given connection id
+     * Builds a webSocket connection document from given connection id and room
      *
      * @param connectionId a connection id to set
+     * @param room a room to set, null if none
      *
-     * @return a newly created index body instance
+     * @return a newly created connection instance
      */
-    private IndexBody connection(String connectionId) {
-        var connection = new IndexBody();
+    private Connection connection(String connectionId, String room) {
+        var connection = new Connection();
         connection.setId(connectionId);
+        connection.setRoom(room);
         return connection;
     }
+
+    /**
+     * Parses the given json message body
+     *
+     * @param body a message body, either raw json string or already parsed object
+     *
+     * @return an optional message, empty if body is not a json object
+     */
+    private Optional<Message> message(Object body) {
+        if (body == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.ofNullable(body instanceof String ?
+                OBJECT_MAPPER.readValue((String) body, Message.class) :
+                OBJECT_MAPPER.convertValue(body, Message.class)
+            );
+        }
+        catch (JsonProcessingException | IllegalArgumentException exception) {
+            LOGGER.debug("Message body is not a json object {}", BoundedToString.lazy(body));
+            return Optional.empty();
+        }
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory of executors for blocking I/O tasks such as elasticsearch requests and api gateway posts.
+ * <p>
+ * This is the Java 11 variant which hands out a bounded pool of daemon platform threads, every platform thread
+ * reserves its own stack so the pool is capped at {@value #PLATFORM_THREAD_LIMIT} threads regardless of requested
+ * concurrency. The multi release jar carries a Java 21 variant under <code>META-INF/versions/21</code> which runs
+ * every task on its own virtual thread instead.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 24, 2022
+ */
+public final class ExecutorFactory {
+    private static final int PLATFORM_THREAD_LIMIT = 32;
+    private static final long KEEP_ALIVE_SECONDS = 30L;
+
+    private ExecutorFactory() {
+    }
+
+    /**
+     * Creates a new executor for blocking I/O tasks which runs at most given number of tasks at once. Idle threads
+     * are released after a while so that a warm lambda container doesn't hold them between invocations.
+     *
+     * @param name a name prefix of executor threads
+     * @param maxConcurrency a maximum number of tasks to run at once
+     *
+     * @return a newly created executor
+     *
+     * @throws IllegalArgumentException if max concurrency is not positive
+     */
+    public static ExecutorService newIoExecutor(String name, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency should be positive");
+        }
+
+        var threads = Math.min(maxConcurrency, PLATFORM_THREAD_LIMIT);
+        var threadCount = new AtomicInteger(0);
+        var executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                var thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Checks whether executors of this factory run tasks on virtual threads
+     *
+     * @return false for this Java 11 variant
+     */
+    public static boolean isVirtual() {
+        return false;
+    }
+}
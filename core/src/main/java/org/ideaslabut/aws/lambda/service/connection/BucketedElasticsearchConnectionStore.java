@@ -0,0 +1,305 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.connection;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toSet;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.GetResponse;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.TypedSourceHits;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.CreateRequest;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.GetRequest;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.IndexRequest;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.SearchRequest;
+import org.ideaslabut.aws.lambda.domain.websocket.Connection;
+import org.ideaslabut.aws.lambda.domain.websocket.ConnectionBucket;
+import org.ideaslabut.aws.lambda.service.ElasticsearchService;
+
+import java.net.http.HttpResponse;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A connection store packing connections into a fixed number of bucket documents of an elasticsearch index. A
+ * connection lives in the bucket its id hashes into, whatever room it is in, so joining a room rewrites the same
+ * bucket. Reading connections fetches every bucket with a single search, which keeps a broadcast at one round trip
+ * regardless of the number of connections where one document per connection needs a scroll request per page.
+ * <p>
+ * Buckets are written with optimistic concurrency, a bucket is read along with its sequence number and primary term
+ * and only written back if it hasn't changed since, otherwise the update is retried on a fresh copy after a short
+ * random pause so that writers racing for the same bucket spread out. Updates of the same bucket made through this
+ * store are serialized, so conflicts only come from other processes. Number of buckets must stay the same for the
+ * life of an index, connections of buckets beyond it are never read.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 31, 2022
+ */
+public class BucketedElasticsearchConnectionStore implements ConnectionStore {
+    private static final int HTTP_NOT_FOUND_STATUS_CODE = 404;
+    private static final int HTTP_CONFLICT_STATUS_CODE = 409;
+    private static final int MAX_UPDATE_ATTEMPTS = 10;
+    private static final long MAX_BACKOFF_MILLIS = 64;
+    private static final String BUCKET_ID_PREFIX = "bucket-";
+
+    private final ElasticsearchService elasticsearchService;
+    private final String indexName;
+    private final int bucketCount;
+    private final Object[] bucketLocks;
+
+    /**
+     * Creates a new instance of {@link BucketedElasticsearchConnectionStore}
+     *
+     * @param elasticsearchService an elasticsearch service to use
+     * @param indexName a name of index holding connection buckets
+     * @param bucketCount a number of buckets to spread connections over
+     *
+     * @throws IllegalArgumentException if bucket count is not positive
+     */
+    public BucketedElasticsearchConnectionStore(
+        ElasticsearchService elasticsearchService,
+        String indexName,
+        int bucketCount
+    ) {
+        if (bucketCount <= 0) {
+            throw new IllegalArgumentException("Bucket count must be positive but was " + bucketCount);
+        }
+
+        this.elasticsearchService = requireNonNull(elasticsearchService);
+        this.indexName = requireNonNull(indexName);
+        this.bucketCount = bucketCount;
+        this.bucketLocks = new Object[bucketCount];
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            this.bucketLocks[bucket] = new Object();
+        }
+    }
+
+    @Override
+    public void add(Connection connection) {
+        var connectionId = requireNonNull(connection.getId());
+        update(bucket(connectionId), connections -> {
+            var existing = connections.stream().filter(member -> connectionId.equals(member.getId())).findFirst();
+            if (existing.isPresent() && Objects.equals(existing.get().getRoom(), connection.getRoom())) {
+                return false;
+            }
+            existing.ifPresent(connections::remove);
+            connections.add(connection);
+            return true;
+        });
+    }
+
+    @Override
+    public void remove(String connectionId) {
+        removeAll(List.of(connectionId));
+    }
+
+    /**
+     * Removes every connection with given ids, rewriting each bucket holding any of them once
+     *
+     * @param connectionIds a connection ids to remove
+     */
+    @Override
+    public void removeAll(Collection<String> connectionIds) {
+        connectionIds.stream()
+            .collect(groupingBy(this::bucket, toSet()))
+            .forEach((bucket, removedIds) -> update(
+                bucket,
+                connections -> connections.removeIf(connection -> removedIds.contains(connection.getId()))
+            ));
+    }
+
+    @Override
+    public void forEach(String room, Consumer<Connection> consumer) {
+        var failure = new AtomicReference<Object>();
+        var response = elasticsearchService.search(
+            SearchRequest.builder()
+                .withSize(bucketCount)
+                .withIndex(indexName)
+                .withoutScroll()
+                .onHttpError(httpResponse -> {
+                    if (httpResponse.statusCode() != HTTP_NOT_FOUND_STATUS_CODE) {
+                        failure.set(httpResponse.statusCode());
+                    }
+                })
+                .onException(failure::set)
+                .build(),
+            ConnectionBucket.class
+        );
+        check(failure, "read connections of room " + room);
+
+        response.stream()
+            .flatMap(typedResponse -> typedResponse.getHits().getHits().stream())
+            .map(TypedSourceHits::getSource)
+            .flatMap(bucket -> bucket.getConnections().stream())
+            .filter(connection -> room == null || room.equals(connection.getRoom()))
+            .forEach(consumer);
+    }
+
+    /**
+     * Counts connections of given room, which reads every bucket as connections are not indexed individually
+     *
+     * @param room a room to count, null to count every connection
+     *
+     * @return a number of connections
+     */
+    @Override
+    public long count(String room) {
+        var count = new long[1];
+        forEach(room, connection -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Applies the given change to connections of given bucket and writes the bucket back only if nobody else wrote
+     * it in between, retrying on a fresh copy otherwise
+     *
+     * @param bucket a number of bucket to update
+     * @param change a change to apply to connections of bucket, returns whether connections are changed
+     *
+     * @throws ConnectionStoreException if bucket cannot be read or written or keeps conflicting
+     */
+    private void update(int bucket, Predicate<List<Connection>> change) {
+        synchronized (bucketLocks[bucket]) {
+            update(BUCKET_ID_PREFIX + bucket, change);
+        }
+    }
+
+    /**
+     * Performs the optimistic update of given bucket
+     *
+     * @param bucketId an id of bucket to update
+     * @param change a change to apply to connections of bucket, returns whether connections are changed
+     *
+     * @throws ConnectionStoreException if bucket cannot be read or written or keeps conflicting
+     */
+    private void update(String bucketId, Predicate<List<Connection>> change) {
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            if (attempt > 0) {
+                backoff(attempt, bucketId);
+            }
+
+            var current = read(bucketId);
+            var bucket = current.map(GetResponse::getSource).orElseGet(ConnectionBucket::new);
+            bucket.setId(bucketId);
+            if (!change.test(bucket.getConnections())) {
+                return;
+            }
+
+            var failure = new AtomicReference<Object>();
+            Consumer<HttpResponse<String>> errorConsumer = response -> failure.set(response.statusCode());
+            if (current.isEmpty()) {
+                elasticsearchService.create(CreateRequest.<ConnectionBucket>builder()
+                    .withIndex(indexName)
+                    .withBody(bucket)
+                    .onHttpError(errorConsumer)
+                    .onException(failure::set)
+                    .build()
+                );
+            }
+            else {
+                elasticsearchService.index(IndexRequest.<ConnectionBucket>builder()
+                    .withIndex(indexName)
+                    .withBody(bucket)
+                    .withIfSeqNo(current.get().getSeqNo())
+                    .withIfPrimaryTerm(current.get().getPrimaryTerm())
+                    .onHttpError(errorConsumer)
+                    .onException(failure::set)
+                    .build()
+                );
+            }
+
+            if (!Integer.valueOf(HTTP_CONFLICT_STATUS_CODE).equals(failure.get())) {
+                check(failure, "update connection bucket " + bucketId);
+                return;
+            }
+        }
+        throw new ConnectionStoreException(
+            "Unable to update connection bucket " + bucketId + " after " + MAX_UPDATE_ATTEMPTS + " conflicts"
+        );
+    }
+
+    /**
+     * Sleeps for a random time which grows with given attempt up to {@value #MAX_BACKOFF_MILLIS} milliseconds
+     *
+     * @param attempt a number of attempts made so far
+     * @param bucketId an id of bucket being updated
+     *
+     * @throws ConnectionStoreException if interrupted while sleeping
+     */
+    private void backoff(int attempt, String bucketId) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(Math.min(1L << attempt, MAX_BACKOFF_MILLIS) + 1));
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new ConnectionStoreException("Interrupted while updating connection bucket " + bucketId, exception);
+        }
+    }
+
+    /**
+     * Reads the given bucket along with its sequence number and primary term
+     *
+     * @param bucketId an id of bucket to read
+     *
+     * @return an optional get response, empty if bucket doesn't exist yet
+     *
+     * @throws ConnectionStoreException if bucket cannot be read
+     */
+    private Optional<GetResponse<ConnectionBucket>> read(String bucketId) {
+        var bucket = new ConnectionBucket();
+        bucket.setId(bucketId);
+
+        var failure = new AtomicReference<Object>();
+        var response = elasticsearchService.get(
+            GetRequest.<ConnectionBucket>builder()
+                .withIndex(indexName)
+                .withBody(bucket)
+                .onHttpError(httpResponse -> {
+                    if (httpResponse.statusCode() != HTTP_NOT_FOUND_STATUS_CODE) {
+                        failure.set(httpResponse.statusCode());
+                    }
+                })
+                .onException(failure::set)
+                .build(),
+            ConnectionBucket.class
+        );
+        check(failure, "read connection bucket " + bucketId);
+        return response.filter(GetResponse::isFound);
+    }
+
+    /**
+     * Gets the number of bucket given connection id hashes into
+     *
+     * @param connectionId a connection id
+     *
+     * @return a bucket number
+     */
+    private int bucket(String connectionId) {
+        return Math.floorMod(connectionId.hashCode(), bucketCount);
+    }
+
+    /**
+     * Throws if given failure is set, a failure is either a http status code or an exception
+     *
+     * @param failure a failure of request
+     * @param operation a description of operation
+     *
+     * @throws ConnectionStoreException if failure is set
+     */
+    private void check(AtomicReference<Object> failure, String operation) {
+        var cause = failure.get();
+        if (cause instanceof Throwable) {
+            throw new ConnectionStoreException("Unable to " + operation, (Throwable) cause);
+        }
+        if (cause != null) {
+            throw new ConnectionStoreException("Unable to " + operation + " due to status code " + cause);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.connection;
+
+import org.ideaslabut.aws.lambda.domain.websocket.Connection;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A store of live websocket connections along with the room each of them is a member of. Routing logic of
+ * websocket service only talks to this interface so that connection tracking can live in whichever store is
+ * fastest for the deployment.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 30, 2022
+ */
+public interface ConnectionStore extends Closeable {
+    /**
+     * Adds the given connection, replacing the stored one with same id if any i.e. a connection moving to a room
+     *
+     * @param connection a connection to add
+     *
+     * @throws ConnectionStoreException if connection cannot be stored
+     */
+    void add(Connection connection);
+
+    /**
+     * Removes the connection with given id, removing a connection which isn't stored is not an error
+     *
+     * @param connectionId a connection id to remove
+     *
+     * @throws ConnectionStoreException if connection cannot be removed
+     */
+    void remove(String connectionId);
+
+    /**
+     * Removes every connection with given ids, as a single round trip if the store supports it
+     *
+     * @param connectionIds a connection ids to remove
+     *
+     * @throws ConnectionStoreException if any connection cannot be removed
+     */
+    default void removeAll(Collection<String> connectionIds) {
+        connectionIds.forEach(this::remove);
+    }
+
+    /**
+     * Passes every connection of given room to given consumer as soon as it is read, so a caller can act on the
+     * first connections while the rest are still being read
+     *
+     * @param room a room to iterate, null to iterate every connection
+     * @param consumer a consumer of each connection
+     *
+     * @throws ConnectionStoreException if connections cannot be read
+     */
+    void forEach(String room, Consumer<Connection> consumer);
+
+    /**
+     * Lists every connection of given room
+     *
+     * @param room a room to list, null to list every connection
+     *
+     * @return a connections of given room
+     *
+     * @throws ConnectionStoreException if connections cannot be read
+     */
+    default List<Connection> list(String room) {
+        var connections = new ArrayList<Connection>();
+        forEach(room, connections::add);
+        return connections;
+    }
+
+    /**
+     * Counts the connections of given room
+     *
+     * @param room a room to count, null to count every connection
+     *
+     * @return a number of connections
+     *
+     * @throws ConnectionStoreException if connections cannot be counted
+     */
+    long count(String room);
+
+    /**
+     * Releases any resource held by this store, nothing by default
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.connection;
+
+/**
+ * Thrown when a connection store cannot complete an operation
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 30, 2022
+ */
+public class ConnectionStoreException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new instance of {@link ConnectionStoreException}
+     *
+     * @param message a detail message
+     */
+    public ConnectionStoreException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates a new instance of {@link ConnectionStoreException}
+     *
+     * @param message a detail message
+     * @param cause a cause of failure
+     */
+    public ConnectionStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
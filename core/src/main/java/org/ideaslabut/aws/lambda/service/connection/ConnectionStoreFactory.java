@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.connection;
+
+import static software.amazon.awssdk.regions.Region.US_EAST_2;
+
+import org.ideaslabut.aws.lambda.service.ElasticsearchService;
+
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Factory of the connection store selected by <code>WEBSOCKET_CONNECTION_STORE</code> environment variable, one of
+ * <ul>
+ *     <li><code>elasticsearch</code>, the default, keeps connections in <code>socket</code> index</li>
+ *     <li><code>bucketed</code> packs connections into <code>socket-buckets</code> index as many bucket documents as
+ *     <code>WEBSOCKET_CONNECTION_BUCKETS</code>, default 16</li>
+ *     <li><code>dynamodb</code> keeps connections in the table named by <code>WEBSOCKET_CONNECTION_TABLE</code> and
+ *     reads rooms from its index named by <code>WEBSOCKET_CONNECTION_ROOM_INDEX</code></li>
+ *     <li><code>memory</code> keeps connections in memory of this jvm only</li>
+ * </ul>
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 30, 2022
+ */
+public final class ConnectionStoreFactory {
+    public static final String ELASTICSEARCH_STORE = "elasticsearch";
+    public static final String BUCKETED_STORE = "bucketed";
+    public static final String DYNAMODB_STORE = "dynamodb";
+    public static final String MEMORY_STORE = "memory";
+    public static final String WEB_SOCKET_INDEX_NAME = "socket";
+    public static final String WEB_SOCKET_BUCKET_INDEX_NAME = "socket-buckets";
+
+    private static final String WEBSOCKET_CONNECTION_STORE = "WEBSOCKET_CONNECTION_STORE";
+    private static final String WEBSOCKET_CONNECTION_TABLE = "WEBSOCKET_CONNECTION_TABLE";
+    private static final String WEBSOCKET_CONNECTION_ROOM_INDEX = "WEBSOCKET_CONNECTION_ROOM_INDEX";
+    private static final String WEBSOCKET_CONNECTION_BUCKETS = "WEBSOCKET_CONNECTION_BUCKETS";
+    private static final String DEFAULT_CONNECTION_TABLE = "websocket-connections";
+    private static final String DEFAULT_CONNECTION_ROOM_INDEX = "room-index";
+    private static final String DEFAULT_CONNECTION_BUCKETS = "16";
+
+    private ConnectionStoreFactory() {
+    }
+
+    /**
+     * Creates the connection store selected by environment variables
+     *
+     * @return a newly created connection store
+     *
+     * @throws IllegalArgumentException if selected store is unknown
+     */
+    public static ConnectionStore fromEnvironment() {
+        return newConnectionStore(environment(WEBSOCKET_CONNECTION_STORE, ELASTICSEARCH_STORE));
+    }
+
+    /**
+     * Creates the connection store of given type, any other setting is read from environment variables
+     *
+     * @param type a type of store i.e. {@value #ELASTICSEARCH_STORE}, {@value #BUCKETED_STORE},
+     *     {@value #DYNAMODB_STORE} or {@value #MEMORY_STORE}
+     *
+     * @return a newly created connection store
+     *
+     * @throws IllegalArgumentException if given type is unknown or number of buckets is invalid
+     */
+    public static ConnectionStore newConnectionStore(String type) {
+        switch (type.toLowerCase(Locale.ROOT)) {
+            case ELASTICSEARCH_STORE:
+                return new ElasticsearchConnectionStore(ElasticsearchService.getInstance(), WEB_SOCKET_INDEX_NAME);
+            case BUCKETED_STORE:
+                return new BucketedElasticsearchConnectionStore(
+                    ElasticsearchService.getInstance(),
+                    WEB_SOCKET_BUCKET_INDEX_NAME,
+                    Integer.parseInt(environment(WEBSOCKET_CONNECTION_BUCKETS, DEFAULT_CONNECTION_BUCKETS))
+                );
+            case DYNAMODB_STORE:
+                return new DynamoDbConnectionStore(
+                    DynamoDbClient.builder()
+                        .region(US_EAST_2)
+                        .httpClientBuilder(UrlConnectionHttpClient.builder())
+                        .build(),
+                    environment(WEBSOCKET_CONNECTION_TABLE, DEFAULT_CONNECTION_TABLE),
+                    environment(WEBSOCKET_CONNECTION_ROOM_INDEX, DEFAULT_CONNECTION_ROOM_INDEX)
+                );
+            case MEMORY_STORE:
+                return new InMemoryConnectionStore();
+            default:
+                throw new IllegalArgumentException("Unknown connection store " + type);
+        }
+    }
+
+    /**
+     * Gets the value of given environment variable
+     *
+     * @param name a name of environment variable
+     * @param defaultValue a value to use if variable is not set
+     *
+     * @return a value of environment variable or given default value
+     */
+    private static String environment(String name, String defaultValue) {
+        return Optional.ofNullable(System.getenv(name)).orElse(defaultValue);
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.connection;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+
+import org.ideaslabut.aws.lambda.domain.websocket.Connection;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * A connection store keeping one item per connection in a dynamodb table keyed by <code>connectionId</code>. Room
+ * members are read with a query on a global secondary index keyed by <code>room</code>, connections without a room
+ * are not projected into that index which keeps it as small as the rooms are. Every operation is a single key
+ * lookup or a paged query, so latency stays flat as the number of connections grows.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 30, 2022
+ */
+public class DynamoDbConnectionStore implements ConnectionStore {
+    private static final String CONNECTION_ID = "connectionId";
+    private static final String ROOM = "room";
+    private static final int MAX_BATCH_WRITE_ITEMS = 25;
+    private static final int MAX_BATCH_WRITE_ATTEMPTS = 3;
+    private static final long BASE_BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 1000;
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+    private final String roomIndexName;
+
+    /**
+     * Creates a new instance of {@link DynamoDbConnectionStore}
+     *
+     * @param dynamoDbClient a dynamodb client to use
+     * @param tableName a name of table holding connections
+     * @param roomIndexName a name of global secondary index keyed by room
+     */
+    public DynamoDbConnectionStore(DynamoDbClient dynamoDbClient, String tableName, String roomIndexName) {
+        this.dynamoDbClient = requireNonNull(dynamoDbClient);
+        this.tableName = requireNonNull(tableName);
+        this.roomIndexName = requireNonNull(roomIndexName);
+    }
+
+    @Override
+    public void add(Connection connection) {
+        var item = new HashMap<String, AttributeValue>();
+        item.put(CONNECTION_ID, AttributeValue.builder().s(requireNonNull(connection.getId())).build());
+        if (connection.getRoom() != null) {
+            item.put(ROOM, AttributeValue.builder().s(connection.getRoom()).build());
+        }
+
+        try {
+            dynamoDbClient.putItem(builder -> builder.tableName(tableName).item(item));
+        }
+        catch (SdkException exception) {
+            throw new ConnectionStoreException("Unable to add connection " + connection.getId(), exception);
+        }
+    }
+
+    @Override
+    public void remove(String connectionId) {
+        try {
+            dynamoDbClient.deleteItem(builder -> builder.tableName(tableName).key(key(connectionId)));
+        }
+        catch (SdkException exception) {
+            throw new ConnectionStoreException("Unable to remove connection " + connectionId, exception);
+        }
+    }
+
+    /**
+     * Removes every connection with given ids in batches of {@value #MAX_BATCH_WRITE_ITEMS}, which is the most a
+     * batch write accepts, retrying the items dynamodb left unprocessed after an exponential backoff
+     *
+     * @param connectionIds a connection ids to remove
+     */
+    @Override
+    public void removeAll(Collection<String> connectionIds) {
+        var writeRequests = connectionIds.stream()
+            .map(connectionId -> WriteRequest.builder()
+                .deleteRequest(DeleteRequest.builder().key(key(connectionId)).build())
+                .build())
+            .collect(toList());
+
+        try {
+            for (int from = 0; from < writeRequests.size(); from += MAX_BATCH_WRITE_ITEMS) {
+                var to = Math.min(from + MAX_BATCH_WRITE_ITEMS, writeRequests.size());
+                List<WriteRequest> batch = writeRequests.subList(from, to);
+                for (int attempt = 0; !batch.isEmpty(); attempt++) {
+                    if (attempt == MAX_BATCH_WRITE_ATTEMPTS) {
+                        throw new ConnectionStoreException("Unable to remove " + batch.size() + " connections");
+                    }
+                    if (attempt > 0) {
+                        backoff(attempt);
+                    }
+                    var requestItems = Map.of(tableName, batch);
+                    batch = dynamoDbClient.batchWriteItem(builder -> builder.requestItems(requestItems))
+                        .unprocessedItems()
+                        .getOrDefault(tableName, List.of());
+                }
+            }
+        }
+        catch (SdkException exception) {
+            throw new ConnectionStoreException("Unable to remove " + connectionIds.size() + " connections", exception);
+        }
+    }
+
+    @Override
+    public void forEach(String room, Consumer<Connection> consumer) {
+        pages(room, null, items -> items.stream().map(this::connection).forEach(consumer));
+    }
+
+    @Override
+    public long count(String room) {
+        return pages(room, Select.COUNT, items -> {});
+    }
+
+    /**
+     * Closes underlying dynamodb client
+     */
+    @Override
+    public void close() {
+        dynamoDbClient.close();
+    }
+
+    /**
+     * Reads every page of given room, querying room index if room is given otherwise scanning the table
+     *
+     * @param room a room to read, null to read every connection
+     * @param select an attributes to select, null for all of them
+     * @param pageConsumer a consumer of items of each page, no items are read if only count is selected
+     *
+     * @return a number of matching items
+     */
+    private long pages(String room, Select select, Consumer<List<Map<String, AttributeValue>>> pageConsumer) {
+        Map<String, AttributeValue> startKey = null;
+        var count = 0L;
+        try {
+            do {
+                List<Map<String, AttributeValue>> items;
+                int pageCount;
+                if (room == null) {
+                    var response = dynamoDbClient.scan(ScanRequest.builder()
+                        .tableName(tableName)
+                        .select(select)
+                        .exclusiveStartKey(startKey)
+                        .build());
+                    items = response.items();
+                    pageCount = response.count();
+                    startKey = response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null;
+                }
+                else {
+                    var response = dynamoDbClient.query(QueryRequest.builder()
+                        .tableName(tableName)
+                        .indexName(roomIndexName)
+                        .keyConditionExpression("#room = :room")
+                        .expressionAttributeNames(Map.of("#room", ROOM))
+                        .expressionAttributeValues(Map.of(":room", AttributeValue.builder().s(room).build()))
+                        .select(select)
+                        .exclusiveStartKey(startKey)
+                        .build());
+                    items = response.items();
+                    pageCount = response.count();
+                    startKey = response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null;
+                }
+
+                pageConsumer.accept(items);
+                count += pageCount;
+            } while (startKey != null && !startKey.isEmpty());
+        }
+        catch (SdkException exception) {
+            throw new ConnectionStoreException("Unable to read connections of room " + room, exception);
+        }
+        return count;
+    }
+
+    /**
+     * Builds the primary key of given connection id
+     *
+     * @param connectionId a connection id
+     *
+     * @return a primary key
+     */
+    private Map<String, AttributeValue> key(String connectionId) {
+        return Map.of(CONNECTION_ID, AttributeValue.builder().s(requireNonNull(connectionId)).build());
+    }
+
+    /**
+     * Maps the given item to a connection
+     *
+     * @param item a dynamodb item
+     *
+     * @return a connection
+     */
+    private Connection connection(Map<String, AttributeValue> item) {
+        var connection = new Connection();
+        connection.setId(item.get(CONNECTION_ID).s());
+        connection.setRoom(item.containsKey(ROOM) ? item.get(ROOM).s() : null);
+        return connection;
+    }
+
+    /**
+     * Sleeps for a random time which grows exponentially with given attempt up to {@value #MAX_BACKOFF_MILLIS}
+     * milliseconds
+     *
+     * @param attempt a number of attempts made so far
+     *
+     * @throws ConnectionStoreException if interrupted while sleeping
+     */
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(
+                Math.min(BASE_BACKOFF_MILLIS << attempt, MAX_BACKOFF_MILLIS) + 1
+            ));
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new ConnectionStoreException("Interrupted while removing connections", exception);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.connection;
+
+import static java.util.Objects.requireNonNull;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.BulkResponse;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.CountResponse;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.TypedResponse;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.BulkRequest;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.DeleteRequest;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.IndexRequest;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.SearchRequest;
+import org.ideaslabut.aws.lambda.domain.websocket.Connection;
+import org.ideaslabut.aws.lambda.service.ElasticsearchService;
+
+import java.net.http.HttpResponse;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * A connection store keeping one document per connection in an elasticsearch index. Room members are looked up
+ * with a term query on the keyword sub field of <code>room</code> so that a lookup only scrolls the members of that
+ * room.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 30, 2022
+ */
+public class ElasticsearchConnectionStore implements ConnectionStore {
+    private static final int HTTP_NOT_FOUND_STATUS_CODE = 404;
+    private static final String ROOM_KEYWORD_FIELD = "room.keyword";
+    private static final int SCROLL_SIZE = 10;
+
+    private final ElasticsearchService elasticsearchService;
+    private final String indexName;
+
+    /**
+     * Creates a new instance of {@link ElasticsearchConnectionStore}
+     *
+     * @param elasticsearchService an elasticsearch service to use
+     * @param indexName a name of index holding connections
+     */
+    public ElasticsearchConnectionStore(ElasticsearchService elasticsearchService, String indexName) {
+        this.elasticsearchService = requireNonNull(elasticsearchService);
+        this.indexName = requireNonNull(indexName);
+    }
+
+    @Override
+    public void add(Connection connection) {
+        var failure = new AtomicReference<Object>();
+        elasticsearchService.index(IndexRequest
+            .builder()
+            .withIndex(indexName)
+            .withBody(connection)
+            .onHttpError(response -> failure.set(response.statusCode()))
+            .onException(failure::set)
+            .build()
+        );
+        check(failure, "add connection " + connection.getId());
+    }
+
+    @Override
+    public void remove(String connectionId) {
+        var connection = new Connection();
+        connection.setId(connectionId);
+
+        var failure = new AtomicReference<Object>();
+        Consumer<HttpResponse<String>> errorConsumer = response -> {
+            if (response.statusCode() != HTTP_NOT_FOUND_STATUS_CODE) {
+                failure.set(response.statusCode());
+            }
+        };
+        elasticsearchService.delete(DeleteRequest
+            .builder()
+            .withIndex(indexName)
+            .withBody(connection)
+            .onHttpError(errorConsumer)
+            .onException(failure::set)
+            .build()
+        );
+        check(failure, "remove connection " + connectionId);
+    }
+
+    /**
+     * Removes every connection with given ids in a single bulk request, connections which aren't stored are ignored
+     *
+     * @param connectionIds a connection ids to remove
+     */
+    @Override
+    public void removeAll(Collection<String> connectionIds) {
+        if (connectionIds.isEmpty()) {
+            return;
+        }
+
+        var bulkRequest = BulkRequest.builder().withIndex(indexName);
+        connectionIds.forEach(bulkRequest::delete);
+        var failed = elasticsearchService.bulk(bulkRequest.build())
+            .map(BulkResponse::getItems)
+            .map(items -> items.stream()
+                .flatMap(item -> item.values().stream())
+                .anyMatch(result -> result.getStatus() >= 400 && result.getStatus() != HTTP_NOT_FOUND_STATUS_CODE)
+            )
+            .orElse(true);
+        if (failed) {
+            throw new ConnectionStoreException("Unable to remove some of " + connectionIds.size() + " connections");
+        }
+    }
+
+    @Override
+    public void forEach(String room, Consumer<Connection> consumer) {
+        var failure = new AtomicReference<Object>();
+        var firstPageArrived = new AtomicBoolean();
+        Consumer<TypedResponse<Connection>> responseConsumer = response -> {
+            firstPageArrived.set(true);
+            response.getHits().getHits().forEach(hit -> consumer.accept(hit.getSource()));
+        };
+
+        elasticsearchService.searchAll(
+            SearchRequest.builder().withSize(SCROLL_SIZE)
+                .withIndex(indexName)
+                .withScroll("1m")
+                .withQuery(query(room))
+                .onHttpError(response -> {
+                    // A missing index only means no connection yet, a missing scroll context loses the rest
+                    if (response.statusCode() != HTTP_NOT_FOUND_STATUS_CODE || firstPageArrived.get()) {
+                        failure.set(response.statusCode());
+                    }
+                })
+                .onException(failure::set)
+                .build(),
+            Connection.class,
+            responseConsumer,
+            null
+        );
+        check(failure, "read connections of room " + room);
+    }
+
+    @Override
+    public long count(String room) {
+        var failure = new AtomicReference<Object>();
+        var countResponse = elasticsearchService.count(SearchRequest.builder()
+            .withIndex(indexName)
+            .withQuery(query(room))
+            .onHttpError(response -> {
+                if (response.statusCode() != HTTP_NOT_FOUND_STATUS_CODE) {
+                    failure.set(response.statusCode());
+                }
+            })
+            .onException(failure::set)
+            .build()
+        );
+        check(failure, "count connections of room " + room);
+        return countResponse.map(CountResponse::getCount).orElse(0L);
+    }
+
+    /**
+     * Builds the query matching the connections of given room
+     *
+     * @param room a room to match, null to match every connection
+     *
+     * @return a term query, null if room is null
+     */
+    private Map<String, Object> query(String room) {
+        return room == null ? null : Map.of("term", Map.of(ROOM_KEYWORD_FIELD, room));
+    }
+
+    /**
+     * Throws if given failure is set, a failure is either a http status code or an exception
+     *
+     * @param failure a failure of request
+     * @param operation a description of operation
+     *
+     * @throws ConnectionStoreException if failure is set
+     */
+    private void check(AtomicReference<Object> failure, String operation) {
+        var cause = failure.get();
+        if (cause instanceof Throwable) {
+            throw new ConnectionStoreException("Unable to " + operation, (Throwable) cause);
+        }
+        if (cause != null) {
+            throw new ConnectionStoreException("Unable to " + operation + " due to status code " + cause);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.connection;
+
+import static java.util.Objects.requireNonNull;
+
+import org.ideaslabut.aws.lambda.domain.websocket.Connection;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * A connection store held in memory of a single jvm, for tests and load runs where every route is served by the
+ * same process. A lambda deployment shouldn't use it since every container would see its own connections only.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 30, 2022
+ */
+public class InMemoryConnectionStore implements ConnectionStore {
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+
+    @Override
+    public void add(Connection connection) {
+        connections.put(requireNonNull(connection.getId()), connection);
+    }
+
+    @Override
+    public void remove(String connectionId) {
+        connections.remove(requireNonNull(connectionId));
+    }
+
+    @Override
+    public void forEach(String room, Consumer<Connection> consumer) {
+        connections.values().stream()
+            .filter(connection -> room == null || Objects.equals(room, connection.getRoom()))
+            .forEach(consumer);
+    }
+
+    @Override
+    public long count(String room) {
+        return room == null ?
+            connections.size() :
+            connections.values().stream().filter(connection -> Objects.equals(room, connection.getRoom())).count();
+    }
+}
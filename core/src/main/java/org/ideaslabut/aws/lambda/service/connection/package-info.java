@@ -0,0 +1,8 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+/**
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 30, 2022
+ */
+package org.ideaslabut.aws.lambda.service.connection;
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A metrics publisher which prints every invocation metrics as one CloudWatch embedded metric format json line.
+ * Lambda ships standard output to CloudWatch Logs as it is, where metrics are extracted from the line, so publishing
+ * costs no api call on the hot path. Timings are published in milliseconds under <code>Route</code> dimension,
+ * status code is published as a property so that it can be searched but doesn't multiply metrics. Events which
+ * don't resolve to a route are published under <code>unknown</code> route.
+ * <p>
+ * A line doesn't go through the logger as any prefix added by the log layout makes it unreadable to CloudWatch.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 01, 2022
+ */
+public class EmfMetricsPublisher implements MetricsPublisher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmfMetricsPublisher.class);
+    private static final String ROUTE_DIMENSION = "Route";
+    private static final String UNKNOWN_ROUTE = "unknown";
+    private static final String MILLISECONDS = "Milliseconds";
+    private static final String COUNT = "Count";
+    private static final String TOTAL_TIME = "TotalTime";
+    private static final String RECIPIENTS = "Recipients";
+    private static final String POSTS_SUCCEEDED = "PostsSucceeded";
+    private static final String POSTS_FAILED = "PostsFailed";
+    private static final String POSTS_GONE = "PostsGone";
+    private static final String STATUS_CODE = "StatusCode";
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private final String namespace;
+    private final PrintStream printStream;
+    private final ObjectMapper objectMapper;
+    private final List<Map<String, String>> metricDefinitions;
+
+    /**
+     * Creates a new instance of {@link EmfMetricsPublisher}
+     *
+     * @param namespace a CloudWatch namespace of metrics
+     * @param printStream a stream to print metrics line to, standard output in lambda
+     * @param objectMapper an object mapper to write metrics line with
+     */
+    public EmfMetricsPublisher(String namespace, PrintStream printStream, ObjectMapper objectMapper) {
+        this.namespace = requireNonNull(namespace);
+        this.printStream = requireNonNull(printStream);
+        this.objectMapper = requireNonNull(objectMapper);
+
+        var definitions = new ArrayList<Map<String, String>>();
+        for (var phase : InvocationMetrics.Phase.values()) {
+            definitions.add(Map.of("Name", phase.getMetricName(), "Unit", MILLISECONDS));
+        }
+        definitions.add(Map.of("Name", TOTAL_TIME, "Unit", MILLISECONDS));
+        definitions.add(Map.of("Name", RECIPIENTS, "Unit", COUNT));
+        definitions.add(Map.of("Name", POSTS_SUCCEEDED, "Unit", COUNT));
+        definitions.add(Map.of("Name", POSTS_FAILED, "Unit", COUNT));
+        definitions.add(Map.of("Name", POSTS_GONE, "Unit", COUNT));
+        this.metricDefinitions = List.copyOf(definitions);
+    }
+
+    @Override
+    public void publish(InvocationMetrics invocationMetrics) {
+        var metadata = Map.of(
+            "Timestamp", System.currentTimeMillis(),
+            "CloudWatchMetrics", List.of(Map.of(
+                "Namespace", namespace,
+                "Dimensions", List.of(List.of(ROUTE_DIMENSION)),
+                "Metrics", metricDefinitions
+            ))
+        );
+
+        var line = new LinkedHashMap<String, Object>();
+        line.put("_aws", metadata);
+        line.put(ROUTE_DIMENSION, Optional.ofNullable(invocationMetrics.getRoute()).orElse(UNKNOWN_ROUTE));
+        for (var phase : InvocationMetrics.Phase.values()) {
+            line.put(phase.getMetricName(), millis(invocationMetrics.getPhaseNanos(phase)));
+        }
+        line.put(TOTAL_TIME, millis(invocationMetrics.getTotalNanos()));
+        line.put(RECIPIENTS, invocationMetrics.getRecipients());
+        line.put(POSTS_SUCCEEDED, invocationMetrics.getPostsSucceeded());
+        line.put(POSTS_FAILED, invocationMetrics.getPostsFailed());
+        line.put(POSTS_GONE, invocationMetrics.getPostsGone());
+        line.put(STATUS_CODE, invocationMetrics.getStatusCode());
+
+        try {
+            printStream.println(objectMapper.writeValueAsString(line));
+        }
+        catch (JsonProcessingException exception) {
+            LOGGER.error("Unable to write invocation metrics", exception);
+        }
+    }
+
+    /**
+     * Converts the given nanoseconds to milliseconds
+     *
+     * @param nanos a nanoseconds to convert
+     *
+     * @return a milliseconds with fraction
+     */
+    private double millis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+}
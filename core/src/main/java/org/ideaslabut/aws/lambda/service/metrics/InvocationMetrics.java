@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Metrics of a single websocket invocation i.e. time spent in each phase of it, number of recipients and outcome of
+ * posts to them. Phases are timed on the invocation thread only, so this class is not thread safe.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 01, 2022
+ */
+public class InvocationMetrics {
+    /**
+     * A timed phase of invocation along with its metric name
+     */
+    public enum Phase {
+        /**
+         * Checking event and resolving its route
+         */
+        VALIDATION("ValidationTime"),
+        /**
+         * Reading or writing connection store, which is elasticsearch unless configured otherwise
+         */
+        CONNECTION_STORE("ConnectionStoreTime"),
+        /**
+         * Posting to every recipient, from first post submitted to last post completed. Connection lookup of a
+         * broadcast overlaps with it as posts are submitted while connections are still being read
+         */
+        FAN_OUT("FanOutTime");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private final long startNanos;
+    private final Map<Phase, Long> phaseNanos;
+    private long totalNanos;
+    private String route;
+    private Integer statusCode;
+    private int recipients;
+    private int postsSucceeded;
+    private int postsFailed;
+    private int postsGone;
+
+    /**
+     * Creates a new instance of {@link InvocationMetrics} starting the invocation clock now
+     */
+    public InvocationMetrics() {
+        this.startNanos = System.nanoTime();
+        this.phaseNanos = new EnumMap<>(Phase.class);
+    }
+
+    /**
+     * Adds the time elapsed since given start to given phase, a phase entered more than once sums up
+     *
+     * @param phase a phase to add elapsed time to
+     * @param phaseStartNanos a value of {@link System#nanoTime()} when phase started
+     */
+    public void record(Phase phase, long phaseStartNanos) {
+        phaseNanos.merge(phase, System.nanoTime() - phaseStartNanos, Long::sum);
+    }
+
+    /**
+     * Stops the invocation clock with given status code of response
+     *
+     * @param statusCode a status code of response, null if invocation failed without response
+     */
+    public void complete(Integer statusCode) {
+        this.totalNanos = System.nanoTime() - startNanos;
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Counts the outcome of posts to recipients
+     *
+     * @param succeeded a number of recipients which got the message
+     * @param failed a number of recipients which didn't get the message
+     * @param gone a number of recipients which are no longer connected
+     */
+    public void addPosts(int succeeded, int failed, int gone) {
+        this.recipients += succeeded + failed + gone;
+        this.postsSucceeded += succeeded;
+        this.postsFailed += failed;
+        this.postsGone += gone;
+    }
+
+    /**
+     * Gets the time spent in given phase
+     *
+     * @param phase a phase
+     *
+     * @return a time spent in nanoseconds, 0 if phase never happened
+     */
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos.getOrDefault(phase, 0L);
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public void setRoute(String route) {
+        this.route = route;
+    }
+
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    public int getRecipients() {
+        return recipients;
+    }
+
+    public int getPostsSucceeded() {
+        return postsSucceeded;
+    }
+
+    public int getPostsFailed() {
+        return postsFailed;
+    }
+
+    public int getPostsGone() {
+        return postsGone;
+    }
+}
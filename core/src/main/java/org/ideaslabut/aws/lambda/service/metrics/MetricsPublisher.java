@@ -0,0 +1,25 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.metrics;
+
+/**
+ * A publisher of metrics of a single invocation, called once when the invocation is done
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 01, 2022
+ */
+@FunctionalInterface
+public interface MetricsPublisher {
+    /**
+     * A publisher which drops every metrics
+     */
+    MetricsPublisher NONE = invocationMetrics -> {};
+
+    /**
+     * Publishes the given invocation metrics, it must not throw as metrics are never worth failing an invocation
+     *
+     * @param invocationMetrics an invocation metrics to publish
+     */
+    void publish(InvocationMetrics invocationMetrics);
+}
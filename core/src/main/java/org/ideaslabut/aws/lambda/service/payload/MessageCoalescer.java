@@ -0,0 +1,277 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.payload;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.core.SdkBytes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Buffers outgoing payloads per destination connection for a short window and delivers everything buffered for a
+ * connection as one frame, trading a few milliseconds of latency for fewer post to connection requests under bursty
+ * load. A window starts with the first payload buffered for a connection. Every frame is a json array of its payloads,
+ * even a frame of a single payload, so that a payload which is itself a json array cannot be mistaken for a frame.
+ * A payload which is not json text becomes a json string. Payloads are encoded into json values once per message with
+ * {@link #encode(SdkBytes)} before being submitted for each recipient. A batch is delivered early once adding a
+ * payload would make the frame exceed the maximum frame size, payloads are sized as encoded into the frame.
+ *
+ * @param <R> a type of send result
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 28, 2022
+ */
+public class MessageCoalescer<R> implements Closeable {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper(JSON_FACTORY);
+
+    /**
+     * Payloads buffered for a single connection, already encoded as json values, along with the futures of their
+     * senders
+     */
+    private final class Batch {
+        private final List<byte[]> payloads = new ArrayList<>();
+        private final List<CompletableFuture<R>> futures = new ArrayList<>();
+        private int bytes = 1;
+        private ScheduledFuture<?> timer;
+    }
+
+    private final Duration window;
+    private final int maxBytes;
+    private final BiFunction<String, SdkBytes, R> sender;
+    private final Executor executor;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Map<String, Batch> batches;
+
+    /**
+     * Creates a new instance of {@link MessageCoalescer}
+     *
+     * @param window a time to buffer payloads of a connection for
+     * @param maxBytes a maximum size of a delivered frame in bytes
+     * @param sender a function which posts a frame to a connection
+     * @param executor an executor to run sender on
+     */
+    public MessageCoalescer(Duration window, int maxBytes, BiFunction<String, SdkBytes, R> sender, Executor executor) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Coalescing window should be positive");
+        }
+
+        this.window = window;
+        this.maxBytes = maxBytes;
+        this.sender = requireNonNull(sender);
+        this.executor = requireNonNull(executor);
+        this.batches = new HashMap<>();
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            var thread = new Thread(runnable, "message-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Encodes the given payload as the json value it is framed as, json text is kept as is, anything else becomes a
+     * json string which may be longer than the payload once escaped. A message is encoded once and the encoded
+     * payload is submitted for every recipient.
+     *
+     * @param payload a payload to encode
+     *
+     * @return an encoded payload
+     *
+     * @throws PayloadTooLargeException if a frame of the encoded payload alone exceeds the maximum frame size
+     */
+    public SdkBytes encode(SdkBytes payload) {
+        var encoded = encode(payload.asByteArrayUnsafe());
+        if (encoded.length + 2 > maxBytes) {
+            throw new PayloadTooLargeException(encoded.length + 2, maxBytes);
+        }
+        return SdkBytes.fromByteArrayUnsafe(encoded);
+    }
+
+    /**
+     * Buffers the given encoded payload for given connection
+     *
+     * @param connectionId a connection id to deliver to
+     * @param payload a payload encoded with {@link #encode(SdkBytes)} to deliver
+     *
+     * @return a future completed with the send result of the frame holding given payload, completed exceptionally
+     *     with {@link PayloadTooLargeException} if a frame of given payload alone exceeds the maximum frame size
+     */
+    public CompletableFuture<R> submit(String connectionId, SdkBytes payload) {
+        var future = new CompletableFuture<R>();
+        var encoded = payload.asByteArrayUnsafe();
+        var length = encoded.length;
+        if (length + 2 > maxBytes) {
+            future.completeExceptionally(new PayloadTooLargeException(length + 2, maxBytes));
+            return future;
+        }
+
+        Batch full = null;
+
+        synchronized (batches) {
+            var batch = batches.get(connectionId);
+            if (batch != null && batch.bytes + length + 1 > maxBytes) {
+                full = batches.remove(connectionId);
+                full.timer.cancel(false);
+                batch = null;
+            }
+
+            if (batch == null) {
+                var newBatch = new Batch();
+                newBatch.timer = scheduler.schedule(() -> flush(connectionId, newBatch), window.toNanos(), TimeUnit.NANOSECONDS);
+                batches.put(connectionId, newBatch);
+                batch = newBatch;
+            }
+
+            batch.payloads.add(encoded);
+            batch.futures.add(future);
+            batch.bytes += length + 1;
+        }
+
+        if (full != null) {
+            dispatch(connectionId, full);
+        }
+        return future;
+    }
+
+    /**
+     * Delivers every buffered payload right away without waiting for their window to end
+     */
+    public void flush() {
+        Map<String, Batch> pending;
+        synchronized (batches) {
+            pending = new HashMap<>(batches);
+            batches.clear();
+        }
+
+        pending.forEach((connectionId, batch) -> {
+            batch.timer.cancel(false);
+            dispatch(connectionId, batch);
+        });
+    }
+
+    /**
+     * Delivers every buffered payload and stops the window timer
+     */
+    @Override
+    public void close() {
+        flush();
+        scheduler.shutdown();
+    }
+
+    /**
+     * Delivers the given batch of given connection once its window has ended, unless it was already delivered
+     *
+     * @param connectionId a connection id of batch
+     * @param batch a batch whose window has ended
+     */
+    private void flush(String connectionId, Batch batch) {
+        synchronized (batches) {
+            if (!batches.remove(connectionId, batch)) {
+                return;
+            }
+        }
+        dispatch(connectionId, batch);
+    }
+
+    /**
+     * Sends the frame of given batch on executor and completes the futures of its payloads with the send result
+     *
+     * @param connectionId a connection id to send to
+     * @param batch a batch to send
+     */
+    private void dispatch(String connectionId, Batch batch) {
+        CompletableFuture.supplyAsync(() -> sender.apply(connectionId, frame(batch.payloads)), executor)
+            .whenComplete((result, throwable) -> batch.futures.forEach(future -> {
+                if (throwable != null) {
+                    future.completeExceptionally(throwable);
+                }
+                else {
+                    future.complete(result);
+                }
+            }));
+    }
+
+    /**
+     * Builds a single json array frame from given encoded payloads
+     *
+     * @param payloads an encoded payloads to combine
+     *
+     * @return a frame of payloads
+     */
+    private static SdkBytes frame(List<byte[]> payloads) {
+        var outputStream = new ByteArrayOutputStream();
+        outputStream.write('[');
+        for (int index = 0; index < payloads.size(); index++) {
+            if (index > 0) {
+                outputStream.write(',');
+            }
+            outputStream.writeBytes(payloads.get(index));
+        }
+        outputStream.write(']');
+        return SdkBytes.fromByteArrayUnsafe(outputStream.toByteArray());
+    }
+
+    /**
+     * Encodes the given payload bytes as a json value of a frame
+     *
+     * @param bytes a payload bytes to encode
+     *
+     * @return an encoded payload
+     */
+    private static byte[] encode(byte[] bytes) {
+        if (isJson(bytes)) {
+            return bytes;
+        }
+
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(new String(bytes, UTF_8));
+        }
+        catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    /**
+     * Checks whether given bytes are a single well formed json value
+     *
+     * @param bytes a bytes to check
+     *
+     * @return true if json otherwise false
+     */
+    private static boolean isJson(byte[] bytes) {
+        try (var parser = JSON_FACTORY.createParser(bytes)) {
+            var token = parser.nextToken();
+            if (token == null) {
+                return false;
+            }
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            }
+            return parser.nextToken() == null;
+        }
+        catch (IOException ioe) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.payload;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.core.SdkBytes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes a websocket message body once into an immutable payload which is shared by every recipient of the
+ * message. A raw string body is taken as is since api gateway already hands over the json text, any other body is
+ * serialized as json. Payloads are optionally gzip compressed and checked against the api gateway message limit.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 27, 2022
+ */
+public class PayloadEncoder {
+    /**
+     * A maximum size of a websocket message accepted by api gateway post to connection
+     */
+    public static final int MAX_MESSAGE_BYTES = 128 * 1024;
+
+    private static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+    /**
+     * A builder for {@link PayloadEncoder}
+     */
+    public static class Builder {
+        private ObjectMapper objectMapper;
+        private int maxBytes;
+        private boolean gzip;
+        private int compressionThreshold;
+
+        /**
+         * Creates a new instance of payload encoder {@link Builder}
+         */
+        private Builder() {
+            this.maxBytes = MAX_MESSAGE_BYTES;
+            this.compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+        }
+
+        /**
+         * Sets the object mapper used to serialize non string bodies for this builder
+         *
+         * @param objectMapper an object mapper to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withObjectMapper(ObjectMapper objectMapper) {
+            this.objectMapper = requireNonNull(objectMapper);
+            return this;
+        }
+
+        /**
+         * Sets the maximum size of an encoded payload for this builder, default is {@value #MAX_MESSAGE_BYTES}
+         *
+         * @param maxBytes a maximum size in bytes to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withMaxBytes(int maxBytes) {
+            if (maxBytes <= 0) {
+                throw new IllegalArgumentException("Max bytes should be positive");
+            }
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * Sets whether payloads are gzip compressed for this builder, compressed payloads reach clients as binary
+         * frames so only enable it for clients which inflate them
+         *
+         * @param gzip true to compress payloads
+         *
+         * @return a reference of this builder
+         */
+        public Builder withGzip(boolean gzip) {
+            this.gzip = gzip;
+            return this;
+        }
+
+        /**
+         * Sets the minimum size of a payload to be compressed for this builder, smaller payloads are not worth it
+         *
+         * @param compressionThreshold a minimum size in bytes to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withCompressionThreshold(int compressionThreshold) {
+            this.compressionThreshold = compressionThreshold;
+            return this;
+        }
+
+        /**
+         * Builds a new instance of {@link PayloadEncoder}
+         *
+         * @return a newly created payload encoder
+         */
+        public PayloadEncoder build() {
+            return new PayloadEncoder(this);
+        }
+    }
+
+    /**
+     * Creates a new instance of payload encoder {@link Builder}
+     *
+     * @return a newly created builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int maxBytes;
+    private final boolean gzip;
+    private final int compressionThreshold;
+
+    /**
+     * Creates a new instance of {@link PayloadEncoder}
+     *
+     * @param builder a builder to use
+     */
+    private PayloadEncoder(Builder builder) {
+        this.objectMapper = builder.objectMapper == null ? new ObjectMapper() : builder.objectMapper;
+        this.maxBytes = builder.maxBytes;
+        this.gzip = builder.gzip;
+        this.compressionThreshold = builder.compressionThreshold;
+    }
+
+    /**
+     * Checks whether this encoder may compress payloads
+     *
+     * @return true if gzip compression is enabled otherwise false
+     */
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    /**
+     * Encodes the given message body into a payload to be posted to every recipient
+     *
+     * @param body a message body to encode
+     *
+     * @return an immutable payload which must not be modified by its users
+     *
+     * @throws PayloadTooLargeException if encoded payload exceeds maximum size
+     * @throws IllegalArgumentException if given body cannot be serialized as json
+     */
+    public SdkBytes encode(Object body) {
+        requireNonNull(body, "A valid message body is required");
+        byte[] bytes;
+        try {
+            bytes = body instanceof String ? ((String) body).getBytes(UTF_8) : objectMapper.writeValueAsBytes(body);
+        }
+        catch (JsonProcessingException exception) {
+            throw new IllegalArgumentException("Unable to serialize message body", exception);
+        }
+
+        if (gzip && bytes.length >= compressionThreshold) {
+            var compressed = gzip(bytes);
+            if (compressed.length < bytes.length) {
+                bytes = compressed;
+            }
+        }
+
+        if (bytes.length > maxBytes) {
+            throw new PayloadTooLargeException(bytes.length, maxBytes);
+        }
+
+        // Nothing else holds this array so sharing it without a defensive copy is safe
+        return SdkBytes.fromByteArrayUnsafe(bytes);
+    }
+
+    /**
+     * Compresses the given bytes with gzip
+     *
+     * @param bytes a bytes to compress
+     *
+     * @return a compressed bytes
+     */
+    private static byte[] gzip(byte[] bytes) {
+        var outputStream = new ByteArrayOutputStream(bytes.length / 2);
+        try (var gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(bytes);
+        }
+        catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+        return outputStream.toByteArray();
+    }
+}
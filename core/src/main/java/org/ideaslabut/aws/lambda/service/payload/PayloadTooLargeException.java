@@ -0,0 +1,37 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.payload;
+
+/**
+ * Thrown when an encoded websocket payload exceeds the maximum message size accepted by api gateway
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 27, 2022
+ */
+public class PayloadTooLargeException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int size;
+    private final int maxSize;
+
+    /**
+     * Creates a new instance of {@link PayloadTooLargeException}
+     *
+     * @param size a size of encoded payload in bytes
+     * @param maxSize a maximum allowed size in bytes
+     */
+    public PayloadTooLargeException(int size, int maxSize) {
+        super(String.format("Payload of %d bytes exceeds maximum of %d bytes", size, maxSize));
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
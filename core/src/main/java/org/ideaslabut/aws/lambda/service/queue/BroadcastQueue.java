@@ -0,0 +1,43 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.queue;
+
+import org.ideaslabut.aws.lambda.domain.websocket.BroadcastJob;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * A queue of broadcast jobs which decouples the sender invocation from the fan-out. The sender only enqueues a job
+ * and returns while a separate worker drains jobs and performs the fan-out.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 29, 2022
+ */
+public interface BroadcastQueue extends Closeable {
+    /**
+     * Adds the given job at the tail of this queue
+     *
+     * @param broadcastJob a broadcast job to add
+     *
+     * @throws java.io.UncheckedIOException if job cannot be stored
+     */
+    void enqueue(BroadcastJob broadcastJob);
+
+    /**
+     * Removes up to given number of jobs from the head of this queue without waiting for more jobs
+     *
+     * @param maxJobs a maximum number of jobs to remove
+     *
+     * @return a removed jobs in queue order, empty if queue is empty
+     */
+    List<BroadcastJob> drain(int maxJobs);
+
+    /**
+     * Releases any resource held by this queue, nothing by default
+     */
+    @Override
+    default void close() {
+    }
+}
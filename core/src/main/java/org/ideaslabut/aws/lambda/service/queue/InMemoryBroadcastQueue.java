@@ -0,0 +1,43 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.queue;
+
+import static java.util.Objects.requireNonNull;
+
+import org.ideaslabut.aws.lambda.domain.websocket.BroadcastJob;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * An unbounded in-memory broadcast queue for tests and load runs where sender and worker share one jvm
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 29, 2022
+ */
+public class InMemoryBroadcastQueue implements BroadcastQueue {
+    private final LinkedBlockingQueue<BroadcastJob> jobs = new LinkedBlockingQueue<>();
+
+    @Override
+    public void enqueue(BroadcastJob broadcastJob) {
+        jobs.add(requireNonNull(broadcastJob));
+    }
+
+    @Override
+    public List<BroadcastJob> drain(int maxJobs) {
+        var drained = new ArrayList<BroadcastJob>(Math.min(maxJobs, jobs.size()));
+        jobs.drainTo(drained, maxJobs);
+        return drained;
+    }
+
+    /**
+     * Gets the number of jobs waiting in this queue
+     *
+     * @return a number of jobs
+     */
+    public int size() {
+        return jobs.size();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.queue;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.util.Objects.requireNonNull;
+
+import org.ideaslabut.aws.lambda.domain.websocket.BroadcastJob;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A broadcast queue backed by a local file holding one json job per line, jobs survive a restart of the jvm which
+ * makes it handy for local runs where sender and worker are separate processes started one after another. Access is
+ * serialized within a jvm only, so a single process should use the file at a time.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 29, 2022
+ */
+public class LocalFileBroadcastQueue implements BroadcastQueue {
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Creates a new instance of {@link LocalFileBroadcastQueue}
+     *
+     * @param path a path of queue file, created on first enqueue if missing
+     * @param objectMapper an object mapper to serialize jobs with
+     */
+    public LocalFileBroadcastQueue(Path path, ObjectMapper objectMapper) {
+        this.path = requireNonNull(path);
+        this.objectMapper = requireNonNull(objectMapper);
+    }
+
+    @Override
+    public synchronized void enqueue(BroadcastJob broadcastJob) {
+        try {
+            var parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            var line = objectMapper.writeValueAsString(requireNonNull(broadcastJob)) + System.lineSeparator();
+            Files.writeString(path, line, UTF_8, CREATE, APPEND);
+        }
+        catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    @Override
+    public synchronized List<BroadcastJob> drain(int maxJobs) {
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+
+        try {
+            var lines = Files.readAllLines(path, UTF_8);
+            var count = Math.min(maxJobs, lines.size());
+            var drained = new ArrayList<BroadcastJob>(count);
+            for (var line : lines.subList(0, count)) {
+                drained.add(objectMapper.readValue(line, BroadcastJob.class));
+            }
+            Files.write(path, lines.subList(count, lines.size()), UTF_8);
+            return drained;
+        }
+        catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+}
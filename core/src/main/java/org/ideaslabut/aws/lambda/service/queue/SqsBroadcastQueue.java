@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.queue;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+
+import org.ideaslabut.aws.lambda.domain.websocket.BroadcastJob;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A broadcast queue backed by an amazon sqs queue. In production the jobs are drained by the lambda sqs event source
+ * which invokes the broadcast job handler with a batch, {@link #drain(int)} is for workers polling on their own.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 29, 2022
+ */
+public class SqsBroadcastQueue implements BroadcastQueue {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqsBroadcastQueue.class);
+    private static final int MAX_RECEIVE_MESSAGES = 10;
+
+    private final SqsClient sqsClient;
+    private final String queueUrl;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Creates a new instance of {@link SqsBroadcastQueue}
+     *
+     * @param sqsClient an sqs client to use
+     * @param queueUrl an url of sqs queue
+     * @param objectMapper an object mapper to serialize jobs with
+     */
+    public SqsBroadcastQueue(SqsClient sqsClient, String queueUrl, ObjectMapper objectMapper) {
+        this.sqsClient = requireNonNull(sqsClient);
+        this.queueUrl = requireNonNull(queueUrl);
+        this.objectMapper = requireNonNull(objectMapper);
+    }
+
+    @Override
+    public void enqueue(BroadcastJob broadcastJob) {
+        try {
+            var body = objectMapper.writeValueAsString(requireNonNull(broadcastJob));
+            sqsClient.sendMessage(builder -> builder.queueUrl(queueUrl).messageBody(body));
+        }
+        catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Receives up to given number of jobs, at most 10 per call as sqs allows, and deletes every received message
+     * whether or not its body is a valid job
+     *
+     * @param maxJobs a maximum number of jobs to remove
+     *
+     * @return a received jobs, empty if queue is empty
+     */
+    @Override
+    public List<BroadcastJob> drain(int maxJobs) {
+        var messages = sqsClient.receiveMessage(builder -> builder
+            .queueUrl(queueUrl)
+            .maxNumberOfMessages(Math.min(maxJobs, MAX_RECEIVE_MESSAGES))
+        ).messages();
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+
+        var drained = new ArrayList<BroadcastJob>(messages.size());
+        for (var message : messages) {
+            try {
+                drained.add(objectMapper.readValue(message.body(), BroadcastJob.class));
+            }
+            catch (JsonProcessingException exception) {
+                LOGGER.error("Dropping malformed broadcast job {}", message.messageId(), exception);
+            }
+        }
+
+        var entries = IntStream.range(0, messages.size())
+            .mapToObj(index -> DeleteMessageBatchRequestEntry.builder()
+                .id(Integer.toString(index))
+                .receiptHandle(messages.get(index).receiptHandle())
+                .build())
+            .collect(toList());
+        sqsClient.deleteMessageBatch(builder -> builder.queueUrl(queueUrl).entries(entries));
+        return drained;
+    }
+
+    /**
+     * Releases underlying sqs client
+     */
+    @Override
+    public void close() {
+        sqsClient.close();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.transport;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.net.ssl.SSLSession;
+
+/**
+ * A transport response fully held in a byte array, used by transports which don't go through
+ * {@link HttpClient}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 21, 2022
+ */
+public class ByteArrayTransportResponse implements TransportResponse {
+    private final TransportRequest request;
+    private final int statusCode;
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    /**
+     * Creates a new instance of {@link ByteArrayTransportResponse}
+     *
+     * @param request a transport request which produced this response
+     * @param statusCode a http status code to set
+     * @param headers a response headers to set
+     * @param body a response body to set, null if response has no body
+     */
+    public ByteArrayTransportResponse(TransportRequest request, int statusCode, Map<String, String> headers, byte[] body) {
+        this.request = requireNonNull(request);
+        this.statusCode = statusCode;
+        this.headers = requireNonNull(headers);
+        this.body = body;
+    }
+
+    @Override
+    public int statusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public InputStream body() {
+        return body == null ? null : new ByteArrayInputStream(body);
+    }
+
+    @Override
+    public HttpResponse<String> toHttpResponse() {
+        return new HttpResponse<>() {
+            @Override
+            public int statusCode() {
+                return statusCode;
+            }
+
+            @Override
+            public HttpRequest request() {
+                var bodyPublisher = request.getBody() == null ?
+                    HttpRequest.BodyPublishers.noBody() :
+                    HttpRequest.BodyPublishers.ofByteArray(request.getBody());
+                var builder = HttpRequest.newBuilder(request.getUri()).method(request.getMethod(), bodyPublisher);
+                request.getHeaders().forEach(builder::setHeader);
+                return builder.build();
+            }
+
+            @Override
+            public Optional<HttpResponse<String>> previousResponse() {
+                return Optional.empty();
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                var headerValues = headers.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> List.of(entry.getValue())));
+                return HttpHeaders.of(headerValues, (name, value) -> true);
+            }
+
+            @Override
+            public String body() {
+                return body == null ? null : new String(body, UTF_8);
+            }
+
+            @Override
+            public Optional<SSLSession> sslSession() {
+                return Optional.empty();
+            }
+
+            @Override
+            public URI uri() {
+                return request.getUri();
+            }
+
+            @Override
+            public HttpClient.Version version() {
+                return HttpClient.Version.HTTP_1_1;
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A transport which carries elasticsearch rest requests to the cluster and brings its responses back.
+ * The elasticsearch service only builds request bytes and parses response bytes, so any transport
+ * can be plugged in per deployment or for benchmarks.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 21, 2022
+ */
+@FunctionalInterface
+public interface ElasticsearchTransport extends Closeable {
+    /**
+     * Sends the given transport request and waits for its response
+     *
+     * @param request a transport request to send
+     *
+     * @return a transport response of given request
+     *
+     * @throws IOException if the request cannot be sent or response cannot be received
+     * @throws InterruptedException if interrupted while waiting for the response
+     */
+    TransportResponse send(TransportRequest request) throws IOException, InterruptedException;
+
+    /**
+     * Releases any underlying connections held by this transport
+     *
+     * @throws IOException if any
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
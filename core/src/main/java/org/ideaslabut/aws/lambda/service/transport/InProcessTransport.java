@@ -0,0 +1,33 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.transport;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.Function;
+
+/**
+ * A transport which never leaves the process, every request is answered by the given handler. It is meant
+ * to benchmark the elasticsearch client logic i.e. request building and response parsing without any socket
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 21, 2022
+ */
+public class InProcessTransport implements ElasticsearchTransport {
+    private final Function<TransportRequest, TransportResponse> handler;
+
+    /**
+     * Creates a new instance of {@link InProcessTransport}
+     *
+     * @param handler a handler which answers each transport request
+     */
+    public InProcessTransport(Function<TransportRequest, TransportResponse> handler) {
+        this.handler = requireNonNull(handler);
+    }
+
+    @Override
+    public TransportResponse send(TransportRequest request) {
+        return handler.apply(request);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.transport;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+
+/**
+ * The default transport which sends elasticsearch requests through JDK {@link HttpClient}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 21, 2022
+ */
+public class JdkHttpTransport implements ElasticsearchTransport {
+    private final HttpClient httpClient;
+
+    /**
+     * Creates a new instance of {@link JdkHttpTransport} with a new default http client
+     */
+    public JdkHttpTransport() {
+        this(HttpClient.newHttpClient());
+    }
+
+    /**
+     * Creates a new instance of {@link JdkHttpTransport}
+     *
+     * @param httpClient a http client to use
+     */
+    public JdkHttpTransport(HttpClient httpClient) {
+        this.httpClient = requireNonNull(httpClient);
+    }
+
+    @Override
+    public TransportResponse send(TransportRequest request) throws IOException, InterruptedException {
+        var bodyPublisher = request.getBody() == null ?
+            BodyPublishers.noBody() :
+            BodyPublishers.ofByteArray(request.getBody());
+        var httpRequestBuilder = HttpRequest.newBuilder().method(request.getMethod(), bodyPublisher).uri(request.getUri());
+        request.getHeaders().forEach(httpRequestBuilder::setHeader);
+
+        var httpResponse = httpClient.send(httpRequestBuilder.build(), BodyHandlers.ofString());
+        return new TransportResponse() {
+            @Override
+            public int statusCode() {
+                return httpResponse.statusCode();
+            }
+
+            @Override
+            public InputStream body() {
+                var body = httpResponse.body();
+                return body == null ? null : new ByteArrayInputStream(body.getBytes(UTF_8));
+            }
+
+            @Override
+            public HttpResponse<String> toHttpResponse() {
+                return httpResponse;
+            }
+        };
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.transport;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * A low overhead HTTP/1.1 transport written directly on top of blocking {@link SocketChannel}. Connections are
+ * kept alive and pooled per host, each with its own direct read buffer, so a steady stream of requests costs
+ * neither a new handshake nor the per request machinery of {@link java.net.http.HttpClient}.
+ * <p>
+ * This transport speaks plain <code>http</code> only, it is meant for clusters reached through a local proxy
+ * or inside a private network as well as for load tests against a local server. It doesn't apply read timeouts,
+ * so the caller's own deadline (i.e. lambda timeout) bounds a stuck request.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 21, 2022
+ */
+public class NioTransport implements ElasticsearchTransport {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final String HTTP_SCHEME = "http";
+    private static final int DEFAULT_HTTP_PORT = 80;
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "PUT", "DELETE", "OPTIONS");
+
+    /**
+     * A single kept alive connection to an elasticsearch host
+     */
+    private static class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer buffer;
+
+        /**
+         * Opens a new connection to given uri host
+         *
+         * @param uri a uri to connect to
+         * @param bufferSize a size of direct read buffer
+         *
+         * @return a newly opened connection
+         *
+         * @throws IOException if connection cannot be opened
+         */
+        private static Connection open(URI uri, int bufferSize) throws IOException {
+            var channel = SocketChannel.open(new InetSocketAddress(uri.getHost(), port(uri)));
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            return new Connection(channel, ByteBuffer.allocateDirect(bufferSize));
+        }
+
+        /**
+         * Creates a new instance of {@link Connection}
+         *
+         * @param channel a connected socket channel
+         * @param buffer a read buffer to set
+         */
+        private Connection(SocketChannel channel, ByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.buffer.flip();
+        }
+
+        /**
+         * Writes the given request head and body with a single gathering write whenever possible
+         *
+         * @param head a request line and headers
+         * @param body a request body, null if none
+         *
+         * @throws IOException if any
+         */
+        private void write(byte[] head, byte[] body) throws IOException {
+            var buffers = body == null ?
+                new ByteBuffer[] {ByteBuffer.wrap(head)} :
+                new ByteBuffer[] {ByteBuffer.wrap(head), ByteBuffer.wrap(body)};
+            while (buffers[buffers.length - 1].hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+
+        /**
+         * Reads a single CRLF terminated line without the line terminator
+         *
+         * @return a line read
+         *
+         * @throws IOException if any
+         */
+        private String readLine() throws IOException {
+            var line = new ByteArrayOutputStream(64);
+            while (true) {
+                if (!buffer.hasRemaining()) {
+                    fill();
+                }
+
+                var value = buffer.get();
+                if (value == '\n') {
+                    var bytes = line.toByteArray();
+                    var length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                    return new String(bytes, 0, length, ISO_8859_1);
+                }
+                line.write(value);
+            }
+        }
+
+        /**
+         * Reads exactly given number of bytes
+         *
+         * @param length a number of bytes to read
+         *
+         * @return a bytes read
+         *
+         * @throws IOException if any
+         */
+        private byte[] readFully(int length) throws IOException {
+            var bytes = new byte[length];
+            var offset = 0;
+            while (offset < length) {
+                if (!buffer.hasRemaining()) {
+                    fill();
+                }
+
+                var count = Math.min(buffer.remaining(), length - offset);
+                buffer.get(bytes, offset, count);
+                offset += count;
+            }
+            return bytes;
+        }
+
+        /**
+         * Reads a chunked transfer encoded body
+         *
+         * @return a decoded body
+         *
+         * @throws IOException if any
+         */
+        private byte[] readChunked() throws IOException {
+            var body = new ByteArrayOutputStream();
+            while (true) {
+                var sizeLine = readLine();
+                var extension = sizeLine.indexOf(';');
+                int size;
+                try {
+                    size = Integer.parseInt((extension < 0 ? sizeLine : sizeLine.substring(0, extension)).trim(), 16);
+                }
+                catch (NumberFormatException numberFormatException) {
+                    throw new IOException("Malformed chunk size " + sizeLine, numberFormatException);
+                }
+                if (size == 0) {
+                    // Skip optional trailers up to the final empty line
+                    while (!readLine().isEmpty()) {
+                        continue;
+                    }
+                    return body.toByteArray();
+                }
+                body.write(readFully(size));
+                readLine();
+            }
+        }
+
+        /**
+         * Reads the body until server closes the connection
+         *
+         * @return a body read
+         *
+         * @throws IOException if any
+         */
+        private byte[] readToEnd() throws IOException {
+            var body = new ByteArrayOutputStream();
+            while (true) {
+                while (buffer.hasRemaining()) {
+                    body.write(buffer.get());
+                }
+
+                buffer.clear();
+                if (channel.read(buffer) == -1) {
+                    buffer.flip();
+                    return body.toByteArray();
+                }
+                buffer.flip();
+            }
+        }
+
+        /**
+         * Refills the empty read buffer from the socket channel
+         *
+         * @throws IOException if any or if server closed the connection
+         */
+        private void fill() throws IOException {
+            buffer.clear();
+            var read = channel.read(buffer);
+            buffer.flip();
+            if (read == -1) {
+                throw new EOFException("Connection closed by server");
+            }
+        }
+
+        /**
+         * Closes this connection quietly
+         */
+        private void close() {
+            try {
+                channel.close();
+            }
+            catch (IOException ignored) {
+                // Nothing to do with a connection which is already broken
+            }
+        }
+    }
+
+    private final int bufferSize;
+    private final Map<String, Deque<Connection>> idleConnections;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new instance of {@link NioTransport} with 64 KB read buffer per connection
+     */
+    public NioTransport() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new instance of {@link NioTransport}
+     *
+     * @param bufferSize a size of direct read buffer per connection
+     */
+    public NioTransport(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size should be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.idleConnections = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Sends the given request over a pooled connection if available otherwise over a new connection. If a pooled
+     * connection turns out to be closed by the server, the request is retried once over a new connection as long as
+     * the request was not written yet or its method is idempotent, as a non idempotent request such as
+     * <code>_bulk</code> may already have been applied by the server.
+     *
+     * @param request a transport request to send
+     *
+     * @return a transport response
+     *
+     * @throws IOException if request cannot be sent or if request uri is not plain http
+     */
+    @Override
+    public TransportResponse send(TransportRequest request) throws IOException {
+        if (closed) {
+            throw new IOException("Transport is closed");
+        }
+
+        var uri = request.getUri();
+        if (!HTTP_SCHEME.equalsIgnoreCase(uri.getScheme())) {
+            throw new IOException("NIO transport supports plain http only, unable to send " + uri);
+        }
+
+        var authority = uri.getHost() + ":" + port(uri);
+        var pool = idleConnections.computeIfAbsent(authority, key -> new ConcurrentLinkedDeque<>());
+        var head = requestHead(request, authority);
+        var pooledConnection = pool.pollFirst();
+        if (pooledConnection != null) {
+            try {
+                pooledConnection.write(head, request.getBody());
+            }
+            catch (IOException staleConnection) {
+                // Server cannot have applied a request which was not written entirely, hence safe to retry
+                pooledConnection.close();
+                pooledConnection = null;
+            }
+        }
+
+        if (pooledConnection != null) {
+            try {
+                return readResponse(pooledConnection, pool, request);
+            }
+            catch (IOException staleConnection) {
+                if (!IDEMPOTENT_METHODS.contains(request.getMethod())) {
+                    throw staleConnection;
+                }
+            }
+        }
+
+        var connection = Connection.open(uri, bufferSize);
+        try {
+            connection.write(head, request.getBody());
+        }
+        catch (IOException ioe) {
+            connection.close();
+            throw ioe;
+        }
+        return readResponse(connection, pool, request);
+    }
+
+    /**
+     * Closes all the idle connections, connections in use are closed once their exchange completes
+     */
+    @Override
+    public void close() {
+        closed = true;
+        idleConnections.values().forEach(pool -> {
+            Connection connection;
+            while ((connection = pool.pollFirst()) != null) {
+                connection.close();
+            }
+        });
+    }
+
+    /**
+     * Reads the response of the request written over given connection and hands the connection back to the pool
+     * once the whole response is read if server allows to keep it alive, otherwise closes the connection
+     *
+     * @param connection a connection the request is written to
+     * @param pool an idle connection pool of the connection host
+     * @param request a transport request written
+     *
+     * @return a transport response
+     *
+     * @throws IOException if response cannot be read or is malformed
+     */
+    private TransportResponse readResponse(
+        Connection connection,
+        Deque<Connection> pool,
+        TransportRequest request
+    ) throws IOException {
+        var keepAlive = false;
+        try {
+            var statusLine = connection.readLine();
+            var statusParts = statusLine.split(" ", 3);
+            if (statusParts.length < 2) {
+                throw new IOException("Malformed response status line " + statusLine);
+            }
+            var statusCode = Integer.parseInt(statusParts[1]);
+
+            var headers = new LinkedHashMap<String, String>();
+            for (var line = connection.readLine(); !line.isEmpty(); line = connection.readLine()) {
+                var separator = line.indexOf(':');
+                if (separator <= 0) {
+                    throw new IOException("Malformed response header " + line);
+                }
+                headers.put(line.substring(0, separator).trim().toLowerCase(Locale.ROOT), line.substring(separator + 1).trim());
+            }
+
+            var reusable = statusLine.startsWith("HTTP/1.1") && !"close".equalsIgnoreCase(headers.get("connection"));
+
+            byte[] body;
+            if ("HEAD".equals(request.getMethod()) || statusCode == 204 || statusCode == 304 || statusCode < 200) {
+                body = null;
+            }
+            else if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+                body = connection.readChunked();
+            }
+            else if (headers.containsKey("content-length")) {
+                body = connection.readFully(Integer.parseInt(headers.get("content-length")));
+            }
+            else {
+                body = connection.readToEnd();
+                reusable = false;
+            }
+
+            // Connection is only reusable once the whole body is read
+            keepAlive = reusable;
+            return new ByteArrayTransportResponse(request, statusCode, headers, body);
+        }
+        finally {
+            if (keepAlive && !closed) {
+                pool.offerFirst(connection);
+            }
+            else {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Builds the request line and headers of given request
+     *
+     * @param request a transport request
+     * @param authority a host and port of the request
+     *
+     * @return a request head bytes
+     */
+    private byte[] requestHead(TransportRequest request, String authority) {
+        var uri = request.getUri();
+        var path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        var head = new StringBuilder(256)
+            .append(request.getMethod()).append(' ').append(path);
+        if (uri.getRawQuery() != null) {
+            head.append('?').append(uri.getRawQuery());
+        }
+        head.append(" HTTP/1.1\r\nHost: ").append(authority).append("\r\n");
+
+        if (request.getBody() != null) {
+            head.append("Content-Length: ").append(request.getBody().length).append("\r\n");
+        }
+        request.getHeaders().forEach((name, value) -> head.append(name).append(": ").append(value).append("\r\n"));
+        return head.append("\r\n").toString().getBytes(ISO_8859_1);
+    }
+
+    /**
+     * Gets the port of given uri falling back to default http port
+     *
+     * @param uri a uri to use
+     *
+     * @return a port number
+     */
+    private static int port(URI uri) {
+        return uri.getPort() == -1 ? DEFAULT_HTTP_PORT : uri.getPort();
+    }
+}
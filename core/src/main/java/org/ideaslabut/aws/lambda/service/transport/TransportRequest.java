@@ -0,0 +1,142 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.transport;
+
+import static java.util.Objects.requireNonNull;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A transport neutral http request holding method, uri, headers and raw body bytes
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 21, 2022
+ */
+public class TransportRequest {
+    /**
+     * A builder for {@link TransportRequest}
+     */
+    public static class Builder {
+        private String method;
+        private URI uri;
+        private final Map<String, String> headers;
+        private byte[] body;
+
+        /**
+         * Creates a new instance of transport request {@link Builder}
+         */
+        private Builder() {
+            this.method = "GET";
+            this.headers = new LinkedHashMap<>();
+        }
+
+        /**
+         * Sets the http method for this transport request builder
+         *
+         * @param method a http method to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withMethod(String method) {
+            this.method = requireNonNull(method);
+            return this;
+        }
+
+        /**
+         * Sets the absolute uri for this transport request builder
+         *
+         * @param uri an absolute uri to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withUri(URI uri) {
+            this.uri = requireNonNull(uri);
+            return this;
+        }
+
+        /**
+         * Sets the given header for this transport request builder replacing any previous value
+         *
+         * @param name a name of header
+         * @param value a value of header
+         *
+         * @return a reference of this builder
+         */
+        public Builder withHeader(String name, String value) {
+            this.headers.put(requireNonNull(name), requireNonNull(value));
+            return this;
+        }
+
+        /**
+         * Sets the raw body bytes for this transport request builder
+         *
+         * @param body a body to set, null for no body
+         *
+         * @return a reference of this builder
+         */
+        public Builder withBody(byte[] body) {
+            this.body = body;
+            return this;
+        }
+
+        /**
+         * Builds a new instance of {@link TransportRequest}
+         *
+         * @return a newly created transport request
+         */
+        public TransportRequest build() {
+            requireNonNull(uri, "Uri is required");
+            return new TransportRequest(this);
+        }
+    }
+
+    /**
+     * Creates a new instance of transport request {@link Builder}
+     *
+     * @return a newly created builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final String method;
+    private final URI uri;
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    /**
+     * Creates a new instance of {@link TransportRequest}
+     *
+     * @param builder a builder to use
+     */
+    private TransportRequest(Builder builder) {
+        this.method = builder.method;
+        this.uri = builder.uri;
+        this.headers = Map.copyOf(builder.headers);
+        this.body = builder.body;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + uri;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+
+/**
+ * A transport neutral http response
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 21, 2022
+ */
+public interface TransportResponse {
+    /**
+     * Gets the http status code of this response
+     *
+     * @return a http status code
+     */
+    int statusCode();
+
+    /**
+     * Gets the response body as a stream so that it can be parsed without intermediate string copy
+     *
+     * @return a response body stream or null if response has no body
+     *
+     * @throws IOException if any
+     */
+    InputStream body() throws IOException;
+
+    /**
+     * Gets this response as {@link HttpResponse} with string body which is handed to elasticsearch request
+     * success and error consumers
+     *
+     * @return a http response view of this response
+     */
+    HttpResponse<String> toHttpResponse();
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.concurrent;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Factory of executors for blocking I/O tasks such as elasticsearch requests and api gateway posts.
+ * <p>
+ * This is the Java 21 variant packed under <code>META-INF/versions/21</code> of the multi release jar. Every task
+ * runs on its own virtual thread which unmounts from its carrier while blocked on I/O, so thousands of blocking
+ * calls can be in flight without a platform thread stack for each of them.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 24, 2022
+ */
+public final class ExecutorFactory {
+    /**
+     * A virtual thread per task executor which still caps the number of tasks running at once, so that a large
+     * fan-out doesn't trip downstream throttling
+     */
+    private static final class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        private BoundedVirtualThreadExecutor(String name, int maxConcurrency) {
+            this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+            this.permits = new Semaphore(maxConcurrency);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    command.run();
+                }
+                finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+
+    private ExecutorFactory() {
+    }
+
+    /**
+     * Creates a new executor for blocking I/O tasks which runs at most given number of tasks at once
+     *
+     * @param name a name prefix of executor threads
+     * @param maxConcurrency a maximum number of tasks to run at once
+     *
+     * @return a newly created executor
+     *
+     * @throws IllegalArgumentException if max concurrency is not positive
+     */
+    public static ExecutorService newIoExecutor(String name, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency should be positive");
+        }
+        return new BoundedVirtualThreadExecutor(name, maxConcurrency);
+    }
+
+    /**
+     * Checks whether executors of this factory run tasks on virtual threads
+     *
+     * @return true for this Java 21 variant
+     */
+    public static boolean isVirtual() {
+        return true;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.Response;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.Scroll;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.SearchBody;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.TypedResponse;
+import org.ideaslabut.aws.lambda.domain.websocket.Connection;
+import org.ideaslabut.aws.lambda.domain.websocket.ProxyRequestEvent;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit test for {@link ObjectDeserializer} implementations and the serializers of request bodies
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 03, 2022
+ */
+class ObjectDeserializerTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    void response() throws IOException {
+        var response = OBJECT_MAPPER.readValue(
+            "{\"_scroll_id\":\"abc\",\"took\":3,\"_shards\":{\"total\":1},\"hits\":{\"total\":{\"value\":2,"
+                + "\"relation\":\"eq\"},\"max_score\":1.0,\"hits\":[{\"_id\":\"1\",\"_source\":{\"name\":\"a\","
+                + "\"count\":4,\"tags\":[\"x\",\"y\"],\"empty\":null}},{\"_id\":\"2\",\"_source\":{}}]}}",
+            Response.class
+        );
+
+        assertEquals("abc", response.getScrollId());
+        assertEquals(2, response.getHits().getTotal().getValue());
+        assertEquals(2, response.getHits().getHits().size());
+        var source = response.getHits().getHits().get(0).getSource();
+        assertEquals("a", source.get("name"));
+        assertEquals("4", source.get("count"));
+        assertEquals("[\"x\",\"y\"]", source.get("tags"));
+        assertNull(source.get("empty"));
+        assertEquals(Map.of(), response.getHits().getHits().get(1).getSource());
+
+        var legacyResponse = OBJECT_MAPPER.readValue("{\"hits\":{\"total\":7,\"hits\":null}}", Response.class);
+        assertEquals(7, legacyResponse.getHits().getTotal().getValue());
+        assertNull(legacyResponse.getHits().getHits());
+        assertNull(OBJECT_MAPPER.readValue("{\"hits\":null}", Response.class).getHits());
+
+        assertThrows(JsonMappingException.class, () -> OBJECT_MAPPER.readValue("[]", Response.class));
+        assertThrows(
+            JsonMappingException.class,
+            () -> OBJECT_MAPPER.readValue("{\"hits\":{\"hits\":{}}}", Response.class)
+        );
+    }
+
+    @Test
+    void typedResponse() throws IOException {
+        TypedResponse<Connection> response = OBJECT_MAPPER.readerFor(new TypeReference<TypedResponse<Connection>>() {})
+            .readValue(
+                "{\"_scroll_id\":\"abc\",\"hits\":{\"total\":{\"value\":2},\"hits\":[{\"_id\":\"alice\","
+                    + "\"_source\":{\"connectionId\":\"alice\",\"room\":\"wearables\"}},{\"_id\":\"bob\","
+                    + "\"_source\":{\"connectionId\":\"bob\"}}]}}"
+            );
+
+        assertEquals("abc", response.getScrollId());
+        assertEquals(2, response.getHits().getTotal().getValue());
+        var hits = response.getHits().getHits();
+        assertEquals("alice", hits.get(0).getSource().getId());
+        assertEquals("wearables", hits.get(0).getSource().getRoom());
+        assertEquals("bob", hits.get(1).getSource().getId());
+        assertNull(hits.get(1).getSource().getRoom());
+    }
+
+    @Test
+    void proxyRequestEvent() throws IOException {
+        var event = OBJECT_MAPPER.readValue(
+            "{\"resource\":\"/\",\"headers\":{\"Host\":\"example\"},\"requestContext\":{\"connectionId\":\"abc\","
+                + "\"routeKey\":\"sendMessage\",\"domainName\":\"example.com\",\"stage\":\"dev\","
+                + "\"identity\":{\"sourceIp\":\"127.0.0.1\"}},\"queryStringParameters\":{\"room\":\"lobby\"},"
+                + "\"body\":\"{\\\"message\\\":\\\"hi\\\"}\",\"isBase64Encoded\":false}",
+            ProxyRequestEvent.class
+        );
+
+        assertEquals("abc", event.getRequestContext().getConnectionId());
+        assertEquals("sendMessage", event.getRequestContext().getRouteKey());
+        assertEquals("example.com", event.getRequestContext().getDomainName());
+        assertEquals("dev", event.getRequestContext().getStage());
+        assertEquals(Map.of("room", "lobby"), event.getQueryStringParameters());
+        assertEquals("{\"message\":\"hi\"}", event.getBody());
+
+        var objectBody = OBJECT_MAPPER.readValue("{\"body\":{\"message\":[1]}}", ProxyRequestEvent.class);
+        assertEquals(Map.of("message", List.of(1)), objectBody.getBody());
+        assertNull(objectBody.getRequestContext());
+    }
+
+    @Test
+    void requestBodies() throws IOException {
+        var scroll = new Scroll();
+        scroll.setScrollId("abc");
+        assertEquals("{\"scroll_id\":\"abc\"}", OBJECT_MAPPER.writeValueAsString(scroll));
+
+        var searchBody = new SearchBody();
+        assertEquals("{}", OBJECT_MAPPER.writeValueAsString(searchBody));
+
+        searchBody.setSize(0L);
+        searchBody.setTrackTotalHits(true);
+        searchBody.setQuery(Map.of("term", Map.of("room.keyword", "lobby")));
+        searchBody.setSort(List.of(Map.of("timestamp", "asc")));
+        assertEquals(
+            "{\"size\":0,\"track_total_hits\":true,\"query\":{\"term\":{\"room.keyword\":\"lobby\"}},"
+                + "\"sort\":[{\"timestamp\":\"asc\"}]}",
+            OBJECT_MAPPER.writeValueAsString(searchBody)
+        );
+    }
+}
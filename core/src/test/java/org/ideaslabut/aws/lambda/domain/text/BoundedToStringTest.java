@@ -0,0 +1,118 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.domain.text;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.Hits;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.Response;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.SourceHits;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.SearchRequest;
+import org.ideaslabut.aws.lambda.domain.websocket.Connection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Unit test for {@link BoundedToString}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 02, 2022
+ */
+class BoundedToStringTest {
+    @Test
+    void fields() {
+        assertEquals("{}", BoundedToString.builder().build());
+        assertEquals(
+            "{\"name\":\"a \\\"quoted\\\"\\nline\",\"count\":3,\"flag\":true,\"none\":null,\"bytes\":\"<5 bytes>\"}",
+            BoundedToString.builder()
+                .append("name", "a \"quoted\"\nline")
+                .append("count", 3)
+                .append("flag", true)
+                .append("none", null)
+                .append("bytes", new byte[5])
+                .build()
+        );
+    }
+
+    @Test
+    void boundedValues() {
+        var string = BoundedToString.builder().append("body", "x".repeat(1000)).build();
+        assertEquals(
+            "{\"body\":\"" + "x".repeat(BoundedToString.MAX_STRING_LENGTH) + "...(744 more chars)\"}",
+            string
+        );
+
+        var list = IntStream.range(0, 25).boxed().collect(Collectors.toList());
+        assertEquals(
+            "{\"items\":[0,1,2,3,4,5,6,7,8,9,\"...15 more\"]}",
+            BoundedToString.builder().append("items", list).build()
+        );
+
+        Object nested = "leaf";
+        for (int depth = 0; depth < 10; depth++) {
+            nested = List.of(nested);
+        }
+        assertEquals("[[[[\"...\"]]]]", BoundedToString.lazy(nested).toString());
+        assertEquals("{\"key\":[1,2]}", BoundedToString.lazy(Map.of("key", new Object[] {1, 2})).toString());
+    }
+
+    @Test
+    void domainObjects() {
+        var hits = IntStream.range(0, 1000)
+            .mapToObj(index -> {
+                var sourceHits = new SourceHits();
+                sourceHits.setSource(Map.of("value", "hit-" + index));
+                return sourceHits;
+            })
+            .collect(Collectors.toList());
+        var response = new Response();
+        response.setHits(new Hits());
+        response.getHits().setHits(hits);
+
+        var string = response.toString();
+        assertTrue(string.contains("\"...990 more\""), string);
+        assertFalse(string.contains("hit-10\""), string);
+        assertTrue(string.length() < 1000, string);
+
+        var connection = new Connection();
+        connection.setId("alice");
+        connection.setRoom("wearables");
+        assertEquals("{\"id\":\"alice\",\"room\":\"wearables\"}", connection.toString());
+
+        var searchRequest = SearchRequest.builder()
+            .withIndex("socket")
+            .withSize(10)
+            .onHttpError(httpResponse -> {})
+            .build();
+        assertEquals(
+            "{\"index\":\"socket\",\"scroll\":\"1m\",\"size\":10,\"query\":null,\"sort\":null}",
+            searchRequest.toString()
+        );
+    }
+
+    @Test
+    void lazy() {
+        var rendered = new AtomicInteger();
+        var value = new Object() {
+            @Override
+            public String toString() {
+                rendered.incrementAndGet();
+                return "value";
+            }
+        };
+
+        var lazy = BoundedToString.lazy(List.of(value));
+        assertEquals(0, rendered.get(), "Value should not be rendered until lazy wrapper is");
+        assertEquals("[value]", lazy.toString());
+        assertEquals(1, rendered.get());
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.ideaslabut.aws.lambda.domain.elasticsearch.IndexBody;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.Response;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.BulkRequest;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.CreateRequest;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.DeleteRequest;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.MultiSearchRequest;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.SearchRequest;
+import org.ideaslabut.aws.lambda.fixtures.FakeOpenSearchServer;
+import org.ideaslabut.aws.lambda.service.transport.ElasticsearchTransport;
+import org.ideaslabut.aws.lambda.service.transport.JdkHttpTransport;
+import org.ideaslabut.aws.lambda.service.transport.NioTransport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Integration test for {@link ElasticsearchService} against {@link FakeOpenSearchServer} over real http
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 22, 2022
+ */
+class ElasticsearchServiceIntegrationTest {
+    private FakeOpenSearchServer fakeOpenSearchServer;
+    private ElasticsearchTransport transport;
+
+    @BeforeEach
+    void setup() throws IOException {
+        fakeOpenSearchServer = FakeOpenSearchServer.builder()
+            .withSensorIndex("heartrate", 2_345)
+            .withSensorIndex("rating", 3)
+            .start();
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        transport.close();
+        fakeOpenSearchServer.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jdk", "nio"})
+    void searchAllScrollsEveryDocument(String transportName) {
+        var elasticsearchService = elasticsearchService(transportName);
+        var count = new AtomicLong(0);
+        var completed = new AtomicBoolean(false);
+
+        var searchRequest = SearchRequest.builder().withIndex("heartrate").withSize(1000).withScroll("1m").build();
+        elasticsearchService.searchAll(
+            searchRequest,
+            (Response response) -> count.addAndGet(response.getHits().getHits().size()),
+            () -> completed.set(true)
+        );
+
+        assertEquals(2_345, count.get(), "Every document should be scrolled");
+        assertTrue(completed.get(), "Search all should complete");
+        assertEquals(1, fakeOpenSearchServer.getRequestCount(FakeOpenSearchServer.SEARCH));
+        assertEquals(3, fakeOpenSearchServer.getRequestCount(FakeOpenSearchServer.SCROLL));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jdk", "nio"})
+    void multiSearchWithQuery(String transportName) {
+        var elasticsearchService = elasticsearchService(transportName);
+        var totals = new HashMap<String, Long>();
+        var rangeQuery = Map.<String, Object>of(
+            "range", Map.of("timestamp", Map.of("gt", fakeOpenSearchServer.getDocuments("heartrate").values().stream()
+                .skip(2_000).findFirst().orElseThrow().get("timestamp")))
+        );
+
+        var multiSearchRequest = MultiSearchRequest.builder()
+            .add(SearchRequest.builder().withIndex("heartrate").withSize(0).withQuery(rangeQuery).build(),
+                response -> totals.put("heartrate", response.getHits().getTotal().getValue()))
+            .add(SearchRequest.builder().withIndex("rating").withSize(0).build(),
+                response -> totals.put("rating", response.getHits().getTotal().getValue()))
+            .add(SearchRequest.builder().withIndex("missing").withSize(0).build(),
+                response -> totals.put("missing", response.getHits().getTotal().getValue()))
+            .build();
+
+        elasticsearchService.multiSearch(multiSearchRequest);
+
+        assertEquals(Map.of("heartrate", 344L, "rating", 3L), totals, "Missing index should not be consumed");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jdk", "nio"})
+    void createAndDelete(String transportName) {
+        var elasticsearchService = elasticsearchService(transportName);
+        var indexBody = new IndexBody();
+        indexBody.setId("abc");
+
+        elasticsearchService.create(CreateRequest.builder().withIndex("socket").withBody(indexBody).build());
+        assertTrue(fakeOpenSearchServer.getDocuments("socket").containsKey("abc"), "Document should be created");
+
+        elasticsearchService.delete(DeleteRequest.builder().withIndex("socket").withBody(indexBody).build());
+        assertFalse(fakeOpenSearchServer.getDocuments("socket").containsKey("abc"), "Document should be deleted");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jdk", "nio"})
+    void bulkIndexAndDelete(String transportName) {
+        var elasticsearchService = elasticsearchService(transportName);
+        var first = new IndexBody();
+        first.setId("first");
+        var second = new IndexBody();
+        second.setId("second");
+
+        var indexResponse = elasticsearchService.bulk(
+            BulkRequest.builder().withIndex("socket").index(first).index(second).build()
+        ).orElseThrow();
+        assertFalse(indexResponse.isErrors(), "Bulk index should not fail");
+        assertEquals(2, fakeOpenSearchServer.getDocuments("socket").size());
+
+        var deleteResponse = elasticsearchService.bulk(
+            BulkRequest.builder().withIndex("socket").delete("first").delete("missing").build()
+        ).orElseThrow();
+        assertEquals(200, deleteResponse.getItems().get(0).get(BulkRequest.DELETE_ACTION).getStatus());
+        assertEquals(404, deleteResponse.getItems().get(1).get(BulkRequest.DELETE_ACTION).getStatus());
+        assertEquals(List.of("second"), List.copyOf(fakeOpenSearchServer.getDocuments("socket").keySet()));
+        assertEquals(2, fakeOpenSearchServer.getRequestCount(FakeOpenSearchServer.BULK));
+        assertTrue(elasticsearchService.bulk(BulkRequest.builder().withIndex("socket").build()).isEmpty());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jdk", "nio"})
+    void injectedErrors(String transportName) {
+        var elasticsearchService = elasticsearchService(transportName);
+        final List<Integer> statusCodes = new ArrayList<>();
+        fakeOpenSearchServer.failNext(1);
+
+        var searchRequest = SearchRequest.builder()
+            .withIndex("rating")
+            .withSize(1)
+            .onHttpError(response -> statusCodes.add(response.statusCode()))
+            .build();
+
+        assertTrue(elasticsearchService.search(searchRequest).isEmpty(), "Injected failure should be empty");
+        assertEquals(List.of(503), statusCodes);
+        assertEquals(3L, elasticsearchService.search(searchRequest).orElseThrow().getHits().getTotal().getValue());
+    }
+
+    private ElasticsearchService elasticsearchService(String transportName) {
+        transport = "nio".equals(transportName) ? new NioTransport() : new JdkHttpTransport();
+        return ElasticsearchService.builder()
+            .withTransport(transport)
+            .withUrl(fakeOpenSearchServer.getUrl())
+            .withAuthenticationKey("abcde")
+            .build();
+    }
+}
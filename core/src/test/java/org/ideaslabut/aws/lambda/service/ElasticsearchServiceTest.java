@@ -3,6 +3,7 @@
  */
 package org.ideaslabut.aws.lambda.service;
 
+import static com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES;
 import static java.util.Arrays.stream;
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -27,9 +28,12 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.openMocks;
 
+import org.ideaslabut.aws.lambda.domain.elasticsearch.IndexBody;
 import org.ideaslabut.aws.lambda.domain.elasticsearch.Response;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.MultiSearchRequest;
 import org.ideaslabut.aws.lambda.domain.elasticsearch.request.SearchRequest;
 import org.ideaslabut.aws.lambda.domain.sneaky.NoArgConsumer;
+import org.ideaslabut.aws.lambda.service.transport.JdkHttpTransport;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.hamcrest.FeatureMatcher;
@@ -41,7 +45,6 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 
@@ -50,6 +53,7 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -70,7 +74,6 @@ class ElasticsearchServiceTest {
 
     @Mock
     private HttpClient httpClient;
-    @InjectMocks
     private ElasticsearchService elasticsearchService;
     @Captor
     private ArgumentCaptor<HttpRequest> httpRequestArgumentCaptor;
@@ -80,6 +83,10 @@ class ElasticsearchServiceTest {
     @BeforeEach
     void setup() {
         openMocks(this);
+        elasticsearchService = ElasticsearchService.builder()
+            .withTransport(new JdkHttpTransport(httpClient))
+            .withObjectMapper(objectMapper)
+            .build();
     }
 
     @AfterEach
@@ -148,6 +155,85 @@ class ElasticsearchServiceTest {
         );
     }
 
+    @Test
+    void searchWithQuery() throws IOException, InterruptedException {
+        mockError();
+
+        var searchRequest = SearchRequest.builder()
+            .withIndex("query-index")
+            .withQuery(Map.of("range", Map.of("timestamp", Map.of("gt", "100"))))
+            .withSort(List.of(Map.of("timestamp", "asc")))
+            .onHttpError(this::errorConsumer)
+            .build();
+
+        verifyWithError(
+            () -> elasticsearchService.search(searchRequest),
+            httpRequestMatcher("GET", "query-index/_search?size=10&scroll=1m")
+        );
+
+        var expectedBody = "{\"query\":{\"range\":{\"timestamp\":{\"gt\":\"100\"}}},\"sort\":[{\"timestamp\":\"asc\"}]}";
+        var actualRequest = httpRequestArgumentCaptor.getValue();
+        assertTrue(actualRequest.bodyPublisher().isPresent(), "Search body should be present");
+        assertEquals(expectedBody.length(), actualRequest.bodyPublisher().get().contentLength(), "Search body length");
+    }
+
+    @Test
+    void typedSearch() throws IOException, InterruptedException {
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.body()).thenReturn(
+            "{\"_scroll_id\":\"scroll-1\",\"hits\":{\"total\":{\"value\":2},\"hits\":[" +
+                "{\"_id\":\"a\",\"_source\":{\"connectionId\":\"id-1\"}}," +
+                "{\"_id\":\"b\",\"_source\":{\"connectionId\":\"id-2\",\"unknown\":1}}]}}"
+        );
+        when(httpClient.send(any(), ArgumentMatchers.<HttpResponse.BodyHandler<String>>any())).thenReturn(httpResponse);
+        objectMapper.configure(FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        var response = elasticsearchService.search(SearchRequest.builder().withIndex("socket").build(), IndexBody.class);
+
+        assertTrue(response.isPresent(), "Typed response should be present");
+        assertEquals("scroll-1", response.get().getScrollId(), "Scroll id");
+        assertEquals(2L, response.get().getHits().getTotal().getValue(), "Total hits");
+        assertThat(
+            response.get().getHits().getHits().stream().map(hit -> hit.getSource().getId()).collect(toList()),
+            containsInAnyOrder("id-1", "id-2")
+        );
+    }
+
+    @Test
+    void multiSearch() throws IOException, InterruptedException {
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.body()).thenReturn(
+            "{\"responses\":[{\"hits\":{\"total\":{\"value\":7},\"hits\":[]}}," +
+                "{\"error\":{\"type\":\"index_not_found_exception\"},\"status\":404}," +
+                "{\"hits\":{\"total\":{\"value\":3},\"hits\":[]}}]}"
+        );
+        when(httpClient.send(any(), ArgumentMatchers.<HttpResponse.BodyHandler<String>>any())).thenReturn(httpResponse);
+        objectMapper.configure(FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        final Map<String, Long> totals = new HashMap<>();
+        var multiSearchRequest = MultiSearchRequest.builder()
+            .add(SearchRequest.builder().withIndex("first").withSize(0).build(), response -> totals.put("first", response.getHits().getTotal().getValue()))
+            .add(SearchRequest.builder().withIndex("missing").withSize(0).build(), response -> totals.put("missing", response.getHits().getTotal().getValue()))
+            .add(SearchRequest.builder().withIndex("third").withSize(0).build(), response -> totals.put("third", response.getHits().getTotal().getValue()))
+            .build();
+
+        var response = elasticsearchService.multiSearch(multiSearchRequest);
+
+        assertTrue(response.isPresent(), "Multi search response should be present");
+        assertEquals(Map.of("first", 7L, "third", 3L), totals, "Only successful searches are handed back");
+        assertEquals(
+            "index_not_found_exception",
+            response.get().getResponses().get(1).getErrorType(),
+            "Failed search should hold its error type"
+        );
+
+        verify(httpClient).send(httpRequestArgumentCaptor.capture(), any());
+        var actualRequest = httpRequestArgumentCaptor.getValue();
+        assertThat(actualRequest, allOf(httpMethod("POST"), withUri("_msearch")));
+        assertEquals(Optional.of("application/x-ndjson"), actualRequest.headers().firstValue("Content-Type"), "Content type");
+        assertTrue(elasticsearchService.multiSearch(MultiSearchRequest.builder().build()).isEmpty(), "Nothing to search");
+    }
+
     @SuppressWarnings("unchecked")
     private void mockThrowExceptions() throws IOException, InterruptedException {
         when(httpClient.send(any(), any()))
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static software.amazon.awssdk.regions.Region.US_EAST_2;
+
+import org.ideaslabut.aws.lambda.domain.websocket.BroadcastJob;
+import org.ideaslabut.aws.lambda.domain.websocket.Connection;
+import org.ideaslabut.aws.lambda.domain.websocket.ProxyRequestEvent;
+import org.ideaslabut.aws.lambda.domain.websocket.RequestContext;
+import org.ideaslabut.aws.lambda.domain.websocket.RouteKey;
+import org.ideaslabut.aws.lambda.fixtures.FakeApiGatewayManagementServer;
+import org.ideaslabut.aws.lambda.fixtures.FakeOpenSearchServer;
+import org.ideaslabut.aws.lambda.service.connection.ConnectionStoreException;
+import org.ideaslabut.aws.lambda.service.connection.InMemoryConnectionStore;
+import org.ideaslabut.aws.lambda.service.metrics.InvocationMetrics;
+import org.ideaslabut.aws.lambda.service.metrics.InvocationMetrics.Phase;
+import org.ideaslabut.aws.lambda.service.payload.PayloadEncoder;
+import org.ideaslabut.aws.lambda.service.queue.InMemoryBroadcastQueue;
+import org.ideaslabut.aws.lambda.service.transport.JdkHttpTransport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.services.apigatewaymanagementapi.ApiGatewayManagementApiClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Integration test for {@link WebSocketService} against {@link FakeOpenSearchServer} and
+ * {@link FakeApiGatewayManagementServer} over real http
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 25, 2022
+ */
+class WebSocketServiceIntegrationTest {
+    private FakeOpenSearchServer fakeOpenSearchServer;
+    private FakeApiGatewayManagementServer fakeManagementServer;
+    private JdkHttpTransport transport;
+    private WebSocketService webSocketService;
+
+    @BeforeEach
+    void setup() throws IOException {
+        fakeOpenSearchServer = FakeOpenSearchServer.builder().start();
+        fakeManagementServer = FakeApiGatewayManagementServer.builder().start();
+        transport = new JdkHttpTransport();
+
+        webSocketService = WebSocketService.builder()
+            .withManagementUrl(fakeManagementServer.getUrl())
+            .withElasticsearchService(ElasticsearchService.builder()
+                .withTransport(transport)
+                .withUrl(fakeOpenSearchServer.getUrl())
+                .withAuthenticationKey("abcde")
+                .build())
+            .withApiGatewayManagementClient(apiGatewayManagementClient())
+            .build();
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        transport.close();
+        fakeManagementServer.close();
+        fakeOpenSearchServer.close();
+    }
+
+    @Test
+    void sendMessagePrunesGoneConnections() {
+        for (var connectionId : Set.of("sender", "live", "gone-1", "gone-2")) {
+            assertEquals(201, webSocketService.processEvent(event(RouteKey.CONNECT, connectionId, null)).getStatusCode());
+        }
+        fakeManagementServer.markGone("gone-1");
+        fakeManagementServer.markGone("gone-2");
+
+        var response = webSocketService.processEvent(event(RouteKey.SEND_MESSAGE, "sender", "hello"));
+
+        assertEquals(200, response.getStatusCode(), "Gone connections should not fail the broadcast");
+        assertEquals(1, fakeManagementServer.getMessages("live").size());
+        assertEquals(Set.of("sender", "live"), fakeOpenSearchServer.getDocuments("socket").keySet());
+        assertEquals(1, fakeOpenSearchServer.getRequestCount(FakeOpenSearchServer.BULK));
+
+        webSocketService.processEvent(event(RouteKey.SEND_MESSAGE, "sender", "hello again"));
+        assertEquals(2, fakeManagementServer.getMessages("live").size());
+        assertEquals(4, fakeManagementServer.getPostCount(), "Pruned connections should not be posted to again");
+        assertEquals(1, fakeOpenSearchServer.getRequestCount(FakeOpenSearchServer.BULK));
+    }
+
+    @Test
+    void sendMessageTargetsRoom() {
+        var connect = event(RouteKey.CONNECT, "alice", null);
+        connect.setQueryStringParameters(Map.of("room", "wearables"));
+        webSocketService.processEvent(connect);
+        webSocketService.processEvent(event(RouteKey.CONNECT, "bob", null));
+        webSocketService.processEvent(event(RouteKey.CONNECT, "carol", null));
+
+        var joinRoom = webSocketService.processEvent(event(RouteKey.JOIN_ROOM, "bob", "{\"room\":\"wearables\"}"));
+        assertEquals(200, joinRoom.getStatusCode());
+        assertEquals(400, webSocketService.processEvent(event(RouteKey.JOIN_ROOM, "carol", "{}")).getStatusCode());
+
+        var message = "{\"action\":\"sendMessage\",\"room\":\"wearables\",\"message\":\"hi\"}";
+        assertEquals(200, webSocketService.processEvent(event(RouteKey.SEND_MESSAGE, "alice", message)).getStatusCode());
+        assertEquals(1, fakeManagementServer.getMessages("bob").size());
+        assertEquals(0, fakeManagementServer.getMessages("carol").size(), "Other rooms should not get the message");
+
+        webSocketService.processEvent(event(RouteKey.SEND_MESSAGE, "alice", "everyone"));
+        assertEquals(2, fakeManagementServer.getMessages("bob").size());
+        assertEquals(1, fakeManagementServer.getMessages("carol").size(), "Message without room goes to everyone");
+    }
+
+    @Test
+    void unicastAndMulticastSkipLookup() {
+        for (var connectionId : Set.of("alice", "bob", "carol", "gone")) {
+            webSocketService.processEvent(event(RouteKey.CONNECT, connectionId, null));
+        }
+        fakeManagementServer.markGone("gone");
+        var searches = fakeOpenSearchServer.getRequestCount(FakeOpenSearchServer.SEARCH);
+
+        var unicast = "{\"action\":\"unicast\",\"connectionId\":\"bob\",\"message\":\"hi\"}";
+        assertEquals(200, webSocketService.processEvent(event(RouteKey.UNICAST, "alice", unicast)).getStatusCode());
+        assertEquals(1, fakeManagementServer.getMessages("bob").size());
+        assertEquals(0, fakeManagementServer.getMessages("carol").size());
+
+        var unicastGone = "{\"action\":\"unicast\",\"connectionId\":\"gone\"}";
+        assertEquals(410, webSocketService.processEvent(event(RouteKey.UNICAST, "alice", unicastGone)).getStatusCode());
+        assertEquals(Set.of("alice", "bob", "carol"), fakeOpenSearchServer.getDocuments("socket").keySet());
+
+        var multicast = "{\"action\":\"multicast\",\"connectionIds\":[\"bob\",\"carol\",\"bob\"]}";
+        assertEquals(200, webSocketService.processEvent(event(RouteKey.MULTICAST, "alice", multicast)).getStatusCode());
+        assertEquals(2, fakeManagementServer.getMessages("bob").size());
+        assertEquals(1, fakeManagementServer.getMessages("carol").size());
+        assertEquals(0, fakeManagementServer.getMessages("alice").size());
+
+        assertEquals(400, webSocketService.processEvent(event(RouteKey.UNICAST, "alice", "{}")).getStatusCode());
+        assertEquals(400, webSocketService.processEvent(event(RouteKey.MULTICAST, "alice", "bob")).getStatusCode());
+        assertEquals(searches, fakeOpenSearchServer.getRequestCount(FakeOpenSearchServer.SEARCH), "No lookup expected");
+    }
+
+    @Test
+    void sendMessageEncodesPayloadOnce() {
+        webSocketService.processEvent(event(RouteKey.CONNECT, "alice", null));
+        webSocketService.processEvent(event(RouteKey.CONNECT, "bob", null));
+
+        var body = Map.of("action", "unicast", "connectionId", "bob");
+        assertEquals(200, webSocketService.processEvent(event(RouteKey.UNICAST, "alice", body)).getStatusCode());
+        assertEquals(
+            "{\"action\":\"unicast\",\"connectionId\":\"bob\"}".length(),
+            fakeManagementServer.getMessages("bob").get(0).length,
+            "Map body should be posted as json"
+        );
+
+        var tooLarge = "x".repeat(PayloadEncoder.MAX_MESSAGE_BYTES + 1);
+        assertEquals(413, webSocketService.processEvent(event(RouteKey.SEND_MESSAGE, "alice", tooLarge)).getStatusCode());
+        assertEquals(1, fakeManagementServer.getPostCount());
+    }
+
+    @Test
+    void coalescingBatchesConcurrentMessages() throws InterruptedException {
+        webSocketService = WebSocketService.builder()
+            .withManagementUrl(fakeManagementServer.getUrl())
+            .withElasticsearchService(ElasticsearchService.builder()
+                .withTransport(transport)
+                .withUrl(fakeOpenSearchServer.getUrl())
+                .withAuthenticationKey("abcde")
+                .build())
+            .withApiGatewayManagementClient(apiGatewayManagementClient())
+            .withCoalescingWindow(Duration.ofMillis(200))
+            .build();
+
+        var senders = new ArrayList<Thread>();
+        for (int index = 0; index < 5; index++) {
+            var message = String.format("{\"connectionId\":\"bob\",\"n\":%d}", index);
+            senders.add(new Thread(() -> webSocketService.processEvent(event(RouteKey.UNICAST, "alice", message))));
+        }
+        senders.forEach(Thread::start);
+        for (var sender : senders) {
+            sender.join();
+        }
+
+        assertTrue(fakeManagementServer.getPostCount() < 5, "Concurrent messages should share frames");
+        var delivered = fakeManagementServer.getMessages("bob").stream()
+            .mapToLong(frame -> new String(frame).split("\"n\"").length - 1)
+            .sum();
+        assertEquals(5, delivered, "Every message should be delivered");
+    }
+
+    @Test
+    void sendMessageOffloadsBroadcastToQueue() {
+        var broadcastQueue = new InMemoryBroadcastQueue();
+        webSocketService = WebSocketService.builder()
+            .withManagementUrl(fakeManagementServer.getUrl())
+            .withElasticsearchService(ElasticsearchService.builder()
+                .withTransport(transport)
+                .withUrl(fakeOpenSearchServer.getUrl())
+                .withAuthenticationKey("abcde")
+                .build())
+            .withApiGatewayManagementClient(apiGatewayManagementClient())
+            .withBroadcastQueue(broadcastQueue)
+            .build();
+        webSocketService.processEvent(event(RouteKey.CONNECT, "alice", null));
+        webSocketService.processEvent(event(RouteKey.CONNECT, "bob", null));
+        var searches = fakeOpenSearchServer.getRequestCount(FakeOpenSearchServer.SEARCH);
+
+        var message = "{\"action\":\"sendMessage\",\"message\":\"hi\"}";
+        assertEquals(202, webSocketService.processEvent(event(RouteKey.SEND_MESSAGE, "alice", message)).getStatusCode());
+        assertEquals(searches, fakeOpenSearchServer.getRequestCount(FakeOpenSearchServer.SEARCH), "No lookup expected");
+        assertEquals(0, fakeManagementServer.getPostCount());
+        assertEquals(1, broadcastQueue.size());
+
+        var broadcastJobs = broadcastQueue.drain(10);
+        assertEquals("alice", broadcastJobs.get(0).getSenderConnectionId());
+        assertTrue(webSocketService.broadcast(broadcastJobs.get(0)));
+        assertEquals(message, new String(fakeManagementServer.getMessages("bob").get(0), UTF_8));
+        assertEquals(0, fakeManagementServer.getMessages("alice").size());
+    }
+
+    @Test
+    void broadcastLookupFailureAfterPostsIsNotRepeated() {
+        var failBeforePost = new AtomicBoolean(false);
+        var connectionStore = new InMemoryConnectionStore() {
+            @Override
+            public void forEach(String room, Consumer<Connection> consumer) {
+                if (failBeforePost.get()) {
+                    throw new ConnectionStoreException("Connection lookup failed");
+                }
+                super.forEach(room, connection -> {
+                    consumer.accept(connection);
+                    throw new ConnectionStoreException("Connection lookup failed");
+                });
+            }
+        };
+        var bob = new Connection();
+        bob.setId("bob");
+        connectionStore.add(bob);
+        webSocketService = WebSocketService.builder()
+            .withManagementUrl(fakeManagementServer.getUrl())
+            .withConnectionStore(connectionStore)
+            .withApiGatewayManagementClient(apiGatewayManagementClient())
+            .build();
+
+        var broadcastJob = new BroadcastJob();
+        broadcastJob.setSenderConnectionId("alice");
+        broadcastJob.setPayload("hi".getBytes(UTF_8));
+        assertFalse(webSocketService.broadcast(broadcastJob), "Lookup failure after a post is a partial delivery");
+        assertEquals(1, fakeManagementServer.getMessages("bob").size());
+
+        failBeforePost.set(true);
+        assertThrows(
+            ConnectionStoreException.class,
+            () -> webSocketService.broadcast(broadcastJob),
+            "Lookup failure before any post should be redelivered"
+        );
+    }
+
+    @Test
+    void processEventPublishesInvocationMetrics() {
+        var published = new ArrayList<InvocationMetrics>();
+        webSocketService = WebSocketService.builder()
+            .withManagementUrl(fakeManagementServer.getUrl())
+            .withElasticsearchService(ElasticsearchService.builder()
+                .withTransport(transport)
+                .withUrl(fakeOpenSearchServer.getUrl())
+                .withAuthenticationKey("abcde")
+                .build())
+            .withApiGatewayManagementClient(apiGatewayManagementClient())
+            .withMetricsPublisher(published::add)
+            .build();
+        for (var connectionId : List.of("sender", "live", "gone")) {
+            webSocketService.processEvent(event(RouteKey.CONNECT, connectionId, null));
+        }
+        fakeManagementServer.markGone("gone");
+
+        webSocketService.processEvent(event(RouteKey.SEND_MESSAGE, "sender", "hello"));
+        assertEquals(4, published.size(), "Every invocation should publish its metrics once");
+        var connect = published.get(0);
+        assertEquals("$connect", connect.getRoute());
+        assertEquals(201, connect.getStatusCode());
+        assertTrue(connect.getPhaseNanos(Phase.CONNECTION_STORE) > 0);
+        assertEquals(0, connect.getRecipients());
+
+        var sendMessage = published.get(3);
+        assertEquals("sendMessage", sendMessage.getRoute());
+        assertEquals(200, sendMessage.getStatusCode());
+        assertEquals(2, sendMessage.getRecipients());
+        assertEquals(1, sendMessage.getPostsSucceeded());
+        assertEquals(1, sendMessage.getPostsGone());
+        assertEquals(0, sendMessage.getPostsFailed());
+        assertTrue(sendMessage.getPhaseNanos(Phase.FAN_OUT) > 0);
+        assertTrue(sendMessage.getTotalNanos() >= sendMessage.getPhaseNanos(Phase.CONNECTION_STORE));
+
+        var invalid = event(RouteKey.SEND_MESSAGE, "sender", "hello");
+        invalid.getRequestContext().setRouteKey("unknown");
+        assertEquals(400, webSocketService.processEvent(invalid).getStatusCode());
+        assertNull(published.get(4).getRoute());
+        assertEquals(400, published.get(4).getStatusCode());
+    }
+
+    private ApiGatewayManagementApiClient apiGatewayManagementClient() {
+        return ApiGatewayManagementApiClient.builder()
+            .region(US_EAST_2)
+            .httpClientBuilder(UrlConnectionHttpClient.builder())
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("key", "secret")))
+            .endpointOverride(URI.create(fakeManagementServer.getUrl()))
+            .build();
+    }
+
+    private ProxyRequestEvent event(RouteKey routeKey, String connectionId, Object body) {
+        var requestContext = new RequestContext();
+        requestContext.setConnectionId(connectionId);
+        requestContext.setRouteKey(routeKey.getAction());
+        requestContext.setDomainName("127.0.0.1");
+        requestContext.setStage("test");
+
+        var proxyRequestEvent = new ProxyRequestEvent();
+        proxyRequestEvent.setRequestContext(requestContext);
+        proxyRequestEvent.setBody(body);
+        return proxyRequestEvent;
+    }
+}
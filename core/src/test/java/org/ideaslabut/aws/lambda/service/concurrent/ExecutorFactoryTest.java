@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit test for {@link ExecutorFactory}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 24, 2022
+ */
+class ExecutorFactoryTest {
+    @Test
+    void newIoExecutorBoundsConcurrency() throws InterruptedException, ExecutionException {
+        var executorService = ExecutorFactory.newIoExecutor("test", 3);
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var started = new CountDownLatch(3);
+
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int index = 0; index < 12; index++) {
+                futures.add(executorService.submit(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    started.countDown();
+                    try {
+                        Thread.sleep(20);
+                    }
+                    catch (InterruptedException interruptedException) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                }));
+            }
+
+            assertTrue(started.await(5, TimeUnit.SECONDS), "Tasks should run concurrently");
+            for (var future : futures) {
+                future.get();
+            }
+            assertEquals(3, maxRunning.get());
+        }
+        finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void newIoExecutorRejectsInvalidConcurrency() {
+        assertThrows(IllegalArgumentException.class, () -> ExecutorFactory.newIoExecutor("test", 0));
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.connection;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.ideaslabut.aws.lambda.domain.websocket.Connection;
+import org.ideaslabut.aws.lambda.fixtures.FakeOpenSearchServer;
+import org.ideaslabut.aws.lambda.service.ElasticsearchService;
+import org.ideaslabut.aws.lambda.service.transport.JdkHttpTransport;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Unit test for {@link ConnectionStore} implementations
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 30, 2022
+ */
+class ConnectionStoreTest {
+    @Test
+    void inMemory() {
+        verifyStore(new InMemoryConnectionStore());
+    }
+
+    @Test
+    void elasticsearch() throws IOException {
+        try (
+            var fakeOpenSearchServer = FakeOpenSearchServer.builder().start();
+            var transport = new JdkHttpTransport()
+        ) {
+            var connectionStore = new ElasticsearchConnectionStore(
+                elasticsearchService(fakeOpenSearchServer, transport),
+                "socket"
+            );
+            assertEquals(0, connectionStore.count(null), "Missing index should have no connection");
+
+            verifyStore(connectionStore);
+            assertEquals(1, fakeOpenSearchServer.getRequestCount(FakeOpenSearchServer.BULK));
+        }
+    }
+
+    @Test
+    void elasticsearchScrollExpired() throws IOException {
+        try (
+            var fakeOpenSearchServer = FakeOpenSearchServer.builder().start();
+            var transport = new JdkHttpTransport()
+        ) {
+            var connectionStore = new ElasticsearchConnectionStore(
+                elasticsearchService(fakeOpenSearchServer, transport),
+                "socket"
+            );
+            IntStream.range(0, 15).forEach(index -> connectionStore.add(connection("user-" + index, "lobby")));
+
+            assertThrows(
+                ConnectionStoreException.class,
+                () -> connectionStore.forEach("lobby", connection -> fakeOpenSearchServer.expireScrollContexts()),
+                "Expired scroll context should not end the lookup quietly"
+            );
+            assertEquals(1, fakeOpenSearchServer.getRequestCount(FakeOpenSearchServer.SCROLL));
+        }
+    }
+
+    @Test
+    void bucketed() throws IOException {
+        try (
+            var fakeOpenSearchServer = FakeOpenSearchServer.builder().start();
+            var transport = new JdkHttpTransport()
+        ) {
+            var connectionStore = new BucketedElasticsearchConnectionStore(
+                elasticsearchService(fakeOpenSearchServer, transport),
+                "socket-buckets",
+                2
+            );
+            assertEquals(0, connectionStore.count(null), "Missing index should have no connection");
+
+            verifyStore(connectionStore);
+            var searches = fakeOpenSearchServer.getRequestCount(FakeOpenSearchServer.SEARCH);
+            IntStream.range(0, 50).forEach(index -> connectionStore.add(connection("user-" + index, "lobby")));
+            assertEquals(50, connectionStore.count("lobby"));
+            assertEquals(searches + 1, fakeOpenSearchServer.getRequestCount(FakeOpenSearchServer.SEARCH));
+            assertEquals(0, fakeOpenSearchServer.getRequestCount(FakeOpenSearchServer.SCROLL));
+            assertEquals(0, fakeOpenSearchServer.getOpenScrollContextCount(), "Bucket reads should not open a scroll");
+            assertEquals(Set.of("bucket-0", "bucket-1"), fakeOpenSearchServer.getDocuments("socket-buckets").keySet());
+        }
+    }
+
+    @Test
+    void bucketedConcurrentUpdates() throws Exception {
+        try (
+            var fakeOpenSearchServer = FakeOpenSearchServer.builder().start();
+            var transport = new JdkHttpTransport()
+        ) {
+            var elasticsearchService = elasticsearchService(fakeOpenSearchServer, transport);
+            var connectionStores = List.of(
+                new BucketedElasticsearchConnectionStore(elasticsearchService, "socket-buckets", 1),
+                new BucketedElasticsearchConnectionStore(elasticsearchService, "socket-buckets", 1)
+            );
+            var executorService = Executors.newFixedThreadPool(8);
+            try {
+                var futures = IntStream.range(0, 40)
+                    .mapToObj(index -> executorService.submit(
+                        () -> connectionStores.get(index % 2).add(connection("user-" + index, null))
+                    ))
+                    .collect(Collectors.toList());
+                for (var future : futures) {
+                    future.get();
+                }
+            }
+            finally {
+                executorService.shutdown();
+            }
+            assertEquals(40, connectionStores.get(0).count(null), "Conflicting bucket writes should be retried, not lost");
+        }
+    }
+
+    @Test
+    void elasticsearchUnreachable() {
+        var elasticsearchService = ElasticsearchService.builder()
+            .withUrl("http://127.0.0.1:1")
+            .withAuthenticationKey("abcde")
+            .build();
+        var connectionStore = new ElasticsearchConnectionStore(elasticsearchService, "socket");
+
+        assertThrows(ConnectionStoreException.class, () -> connectionStore.add(connection("alice", null)));
+        assertThrows(ConnectionStoreException.class, () -> connectionStore.list(null));
+    }
+
+    @Test
+    void dynamoDb() {
+        var dynamoDbClient = mock(DynamoDbClient.class, CALLS_REAL_METHODS);
+        doReturn(PutItemResponse.builder().build()).when(dynamoDbClient).putItem(any(PutItemRequest.class));
+        doReturn(
+            QueryResponse.builder()
+                .items(List.of(item("alice", "wearables")))
+                .count(1)
+                .lastEvaluatedKey(Map.of("connectionId", AttributeValue.builder().s("alice").build()))
+                .build(),
+            QueryResponse.builder().items(List.of(item("bob", "wearables"))).count(1).build()
+        ).when(dynamoDbClient).query(any(QueryRequest.class));
+        doReturn(BatchWriteItemResponse.builder().build())
+            .when(dynamoDbClient).batchWriteItem(any(BatchWriteItemRequest.class));
+
+        var connectionStore = new DynamoDbConnectionStore(dynamoDbClient, "connections", "room-index");
+        connectionStore.add(connection("alice", "wearables"));
+        var putCaptor = ArgumentCaptor.forClass(PutItemRequest.class);
+        verify(dynamoDbClient).putItem(putCaptor.capture());
+        assertEquals(item("alice", "wearables"), putCaptor.getValue().item());
+
+        assertEquals(Set.of("alice", "bob"), ids(connectionStore.list("wearables")));
+        var queryCaptor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient, times(2)).query(queryCaptor.capture());
+        assertEquals("room-index", queryCaptor.getValue().indexName());
+        assertEquals("alice", queryCaptor.getValue().exclusiveStartKey().get("connectionId").s());
+
+        connectionStore.removeAll(IntStream.range(0, 30).mapToObj(String::valueOf).collect(Collectors.toList()));
+        var batchCaptor = ArgumentCaptor.forClass(BatchWriteItemRequest.class);
+        verify(dynamoDbClient, times(2)).batchWriteItem(batchCaptor.capture());
+        assertEquals(
+            List.of(25, 5),
+            batchCaptor.getAllValues().stream().map(request -> request.requestItems().get("connections").size())
+                .collect(Collectors.toList()),
+            "Batch write accepts at most 25 items"
+        );
+    }
+
+    @Test
+    void dynamoDbUnprocessedItems() {
+        var dynamoDbClient = mock(DynamoDbClient.class, CALLS_REAL_METHODS);
+        var key = Map.of("connectionId", AttributeValue.builder().s("1").build());
+        var unprocessed = WriteRequest.builder().deleteRequest(DeleteRequest.builder().key(key).build()).build();
+        doReturn(
+            BatchWriteItemResponse.builder().unprocessedItems(Map.of("connections", List.of(unprocessed))).build(),
+            BatchWriteItemResponse.builder().build()
+        ).when(dynamoDbClient).batchWriteItem(any(BatchWriteItemRequest.class));
+
+        var connectionStore = new DynamoDbConnectionStore(dynamoDbClient, "connections", "room-index");
+        connectionStore.removeAll(List.of("0", "1"));
+        var batchCaptor = ArgumentCaptor.forClass(BatchWriteItemRequest.class);
+        verify(dynamoDbClient, times(2)).batchWriteItem(batchCaptor.capture());
+        assertEquals(List.of(unprocessed), batchCaptor.getValue().requestItems().get("connections"));
+
+        doReturn(BatchWriteItemResponse.builder().unprocessedItems(Map.of("connections", List.of(unprocessed))).build())
+            .when(dynamoDbClient).batchWriteItem(any(BatchWriteItemRequest.class));
+        assertThrows(ConnectionStoreException.class, () -> connectionStore.removeAll(List.of("1")));
+    }
+
+    @Test
+    void dynamoDbCount() {
+        var dynamoDbClient = mock(DynamoDbClient.class, CALLS_REAL_METHODS);
+        doReturn(QueryResponse.builder().count(42).build()).when(dynamoDbClient).query(any(QueryRequest.class));
+
+        assertEquals(42, new DynamoDbConnectionStore(dynamoDbClient, "connections", "room-index").count("wearables"));
+        var queryCaptor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient).query(queryCaptor.capture());
+        assertEquals(Select.COUNT, queryCaptor.getValue().select());
+    }
+
+    @Test
+    void factory() {
+        assertEquals(InMemoryConnectionStore.class, ConnectionStoreFactory.newConnectionStore("MEMORY").getClass());
+        assertEquals(
+            BucketedElasticsearchConnectionStore.class,
+            ConnectionStoreFactory.newConnectionStore(ConnectionStoreFactory.BUCKETED_STORE).getClass()
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new BucketedElasticsearchConnectionStore(ElasticsearchService.builder().build(), "socket-buckets", 0)
+        );
+        assertThrows(IllegalArgumentException.class, () -> ConnectionStoreFactory.newConnectionStore("redis"));
+    }
+
+    private ElasticsearchService elasticsearchService(FakeOpenSearchServer fakeOpenSearchServer, JdkHttpTransport transport) {
+        return ElasticsearchService.builder()
+            .withTransport(transport)
+            .withUrl(fakeOpenSearchServer.getUrl())
+            .withAuthenticationKey("abcde")
+            .build();
+    }
+
+    private void verifyStore(ConnectionStore connectionStore) {
+        connectionStore.add(connection("alice", "wearables"));
+        connectionStore.add(connection("bob", null));
+        connectionStore.add(connection("carol", "wearables"));
+        connectionStore.add(connection("dave", null));
+
+        assertEquals(4, connectionStore.count(null));
+        assertEquals(2, connectionStore.count("wearables"));
+        assertEquals(Set.of("alice", "carol"), ids(connectionStore.list("wearables")));
+
+        connectionStore.add(connection("bob", "wearables"));
+        assertEquals(Set.of("alice", "bob", "carol"), ids(connectionStore.list("wearables")));
+
+        connectionStore.remove("alice");
+        connectionStore.remove("alice");
+        connectionStore.removeAll(List.of("carol", "dave", "unknown"));
+        assertEquals(Set.of("bob"), ids(connectionStore.list(null)));
+        assertEquals(0, connectionStore.count("lobby"));
+    }
+
+    private Connection connection(String connectionId, String room) {
+        var connection = new Connection();
+        connection.setId(connectionId);
+        connection.setRoom(room);
+        return connection;
+    }
+
+    private Map<String, AttributeValue> item(String connectionId, String room) {
+        return Map.of(
+            "connectionId", AttributeValue.builder().s(connectionId).build(),
+            "room", AttributeValue.builder().s(room).build()
+        );
+    }
+
+    private Set<String> ids(List<Connection> connections) {
+        return connections.stream().map(Connection::getId).collect(toSet());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.metrics;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit test for {@link EmfMetricsPublisher}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 01, 2022
+ */
+class EmfMetricsPublisherTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void publishPrintsOneEmbeddedMetricLine() throws IOException {
+        var output = new ByteArrayOutputStream();
+        var printStream = new PrintStream(output, true, UTF_8);
+        var metricsPublisher = new EmfMetricsPublisher("Test/WebSocket", printStream, objectMapper);
+
+        var invocationMetrics = new InvocationMetrics();
+        invocationMetrics.setRoute("sendMessage");
+        invocationMetrics.record(InvocationMetrics.Phase.CONNECTION_STORE, System.nanoTime() - 2_500_000);
+        invocationMetrics.addPosts(3, 1, 2);
+        invocationMetrics.complete(206);
+        metricsPublisher.publish(invocationMetrics);
+
+        var lines = output.toString(UTF_8).split("\n");
+        assertEquals(1, lines.length, "Metrics should be a single line");
+
+        var line = objectMapper.readTree(lines[0]);
+        var directive = line.at("/_aws/CloudWatchMetrics/0");
+        assertEquals("Test/WebSocket", directive.get("Namespace").asText());
+        assertEquals("Route", directive.at("/Dimensions/0/0").asText());
+        var names = new ArrayList<String>();
+        directive.get("Metrics").forEach(metric -> {
+            names.add(metric.get("Name").asText());
+            assertTrue(line.has(metric.get("Name").asText()), "Every declared metric should have a value");
+        });
+        assertEquals(
+            List.of("ValidationTime", "ConnectionStoreTime", "FanOutTime", "TotalTime", "Recipients", "PostsSucceeded",
+                "PostsFailed", "PostsGone"),
+            names
+        );
+        assertTrue(line.get("_aws").get("Timestamp").isNumber());
+
+        assertEquals("sendMessage", line.get("Route").asText());
+        assertTrue(line.get("ConnectionStoreTime").asDouble() >= 2.5);
+        assertEquals(0, line.get("FanOutTime").asDouble());
+        assertEquals(6, line.get("Recipients").asInt());
+        assertEquals(1, line.get("PostsFailed").asInt());
+        assertEquals(206, line.get("StatusCode").asInt());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.payload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Unit test for {@link MessageCoalescer}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 28, 2022
+ */
+class MessageCoalescerTest {
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final Map<String, List<String>> frames = new ConcurrentHashMap<>();
+
+    @AfterEach
+    void teardown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void coalescePerConnection() {
+        var coalescer = coalescer(Duration.ofMillis(50), 1024);
+
+        var first = coalescer.submit("a", coalescer.encode(SdkBytes.fromUtf8String("{\"n\":1}")));
+        var second = coalescer.submit("a", coalescer.encode(SdkBytes.fromUtf8String("hello")));
+        var third = coalescer.submit("b", coalescer.encode(SdkBytes.fromUtf8String("{\"n\":3}")));
+
+        assertEquals("a", first.join());
+        assertEquals("a", second.join());
+        assertEquals("b", third.join());
+        assertEquals(List.of("[{\"n\":1},\"hello\"]"), frames.get("a"), "Non json payload should be quoted");
+        assertEquals(List.of("[{\"n\":3}]"), frames.get("b"), "Single payload should be framed as well");
+    }
+
+    @Test
+    void deliverEarlyWhenFull() {
+        var coalescer = coalescer(Duration.ofMinutes(1), 16);
+
+        var first = coalescer.submit("a", coalescer.encode(SdkBytes.fromUtf8String("\"0123456\"")));
+        coalescer.submit("a", coalescer.encode(SdkBytes.fromUtf8String("\"789\"")));
+        assertEquals("a", first.join(), "Full batch should not wait for its window");
+
+        var last = coalescer.submit("a", coalescer.encode(SdkBytes.fromUtf8String("\"ab\"")));
+        coalescer.flush();
+        last.join();
+        assertEquals(List.of("[\"0123456\"]", "[\"789\",\"ab\"]"), frames.get("a"));
+    }
+
+    @Test
+    void sizeByEncodedLength() {
+        var coalescer = coalescer(Duration.ofMinutes(1), 20);
+
+        var first = coalescer.submit("a", coalescer.encode(SdkBytes.fromUtf8String("say \"hi\"")));
+        var second = coalescer.submit("a", coalescer.encode(SdkBytes.fromUtf8String("say \"hi\"")));
+        coalescer.flush();
+        first.join();
+        second.join();
+
+        assertEquals(List.of("[\"say \\\"hi\\\"\"]", "[\"say \\\"hi\\\"\"]"), frames.get("a"));
+        assertTrue(frames.get("a").stream().allMatch(frame -> frame.length() <= 20), "Frame should fit max bytes");
+    }
+
+    @Test
+    void rejectTooLargePayload() {
+        var coalescer = coalescer(Duration.ofMinutes(1), 8);
+
+        assertThrows(PayloadTooLargeException.class, () -> coalescer.encode(SdkBytes.fromUtf8String("a\"b\"")));
+        var future = coalescer.submit("a", SdkBytes.fromUtf8String("\"0123456\""));
+        var exception = assertThrows(CompletionException.class, future::join);
+        assertTrue(exception.getCause() instanceof PayloadTooLargeException, "Frame over max bytes should be rejected");
+        coalescer.close();
+        assertTrue(frames.isEmpty(), "Nothing should be sent");
+    }
+
+    @Test
+    void arrayPayloadStaysDistinct() {
+        var coalescer = coalescer(Duration.ofMinutes(1), 1024);
+        var future = coalescer.submit("a", coalescer.encode(SdkBytes.fromUtf8String("[1,2]")));
+        coalescer.close();
+        future.join();
+        assertEquals(List.of("[[1,2]]"), frames.get("a"), "Array payload should not be mistaken for a frame");
+    }
+
+    @Test
+    void closeFlushesEverything() {
+        var coalescer = coalescer(Duration.ofMinutes(1), 1024);
+        var future = coalescer.submit("a", coalescer.encode(SdkBytes.fromUtf8String("1")));
+        coalescer.close();
+        assertEquals("a", future.join());
+        assertTrue(frames.containsKey("a"));
+        assertThrows(IllegalArgumentException.class, () -> coalescer(Duration.ZERO, 1024));
+    }
+
+    private MessageCoalescer<String> coalescer(Duration window, int maxBytes) {
+        return new MessageCoalescer<>(window, maxBytes, (connectionId, frame) -> {
+            frames.computeIfAbsent(connectionId, key -> new CopyOnWriteArrayList<>()).add(frame.asUtf8String());
+            return connectionId;
+        }, executorService);
+    }
+}
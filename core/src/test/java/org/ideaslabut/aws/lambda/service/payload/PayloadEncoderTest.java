@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.payload;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Unit test for {@link PayloadEncoder}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 27, 2022
+ */
+class PayloadEncoderTest {
+    @Test
+    void encodeStringAsIs() {
+        var payload = PayloadEncoder.builder().build().encode("{\"action\":\"sendMessage\"}");
+        assertEquals("{\"action\":\"sendMessage\"}", payload.asUtf8String());
+    }
+
+    @Test
+    void encodeObjectAsJson() {
+        var body = new LinkedHashMap<String, Object>();
+        body.put("action", "sendMessage");
+        body.put("values", List.of(1, 2));
+
+        var payload = PayloadEncoder.builder().build().encode(body);
+        assertEquals("{\"action\":\"sendMessage\",\"values\":[1,2]}", payload.asUtf8String());
+    }
+
+    @Test
+    void encodeTooLarge() {
+        var encoder = PayloadEncoder.builder().withMaxBytes(8).build();
+        var exception = assertThrows(PayloadTooLargeException.class, () -> encoder.encode("0123456789"));
+        assertEquals(10, exception.getSize());
+        assertEquals(8, exception.getMaxSize());
+        assertEquals(8, encoder.encode("01234567").asByteArrayUnsafe().length);
+    }
+
+    @Test
+    void encodeGzip() throws IOException {
+        var encoder = PayloadEncoder.builder().withGzip(true).withCompressionThreshold(16).withMaxBytes(1024).build();
+        var body = "a".repeat(4096);
+
+        var payload = encoder.encode(body).asByteArray();
+        assertTrue(payload.length < 1024, "Limit should apply to compressed payload");
+        try (var gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            assertEquals(body, new String(gzipInputStream.readAllBytes()));
+        }
+
+        assertArrayEquals("short".getBytes(), encoder.encode("short").asByteArray(), "Below threshold is not compressed");
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.queue;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.ideaslabut.aws.lambda.domain.websocket.BroadcastJob;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Unit test for {@link BroadcastQueue} implementations
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 29, 2022
+ */
+class BroadcastQueueTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void inMemoryDrainsInOrder() {
+        var broadcastQueue = new InMemoryBroadcastQueue();
+        broadcastQueue.enqueue(broadcastJob("alice"));
+        broadcastQueue.enqueue(broadcastJob("bob"));
+        broadcastQueue.enqueue(broadcastJob("carol"));
+
+        assertEquals(List.of("alice", "bob"), senders(broadcastQueue.drain(2)));
+        assertEquals(1, broadcastQueue.size());
+        assertEquals(List.of("carol"), senders(broadcastQueue.drain(2)));
+        assertTrue(broadcastQueue.drain(2).isEmpty());
+    }
+
+    @Test
+    void localFileKeepsUndrainedJobs(@TempDir Path directory) {
+        var path = directory.resolve("queue").resolve("broadcast.jsonl");
+        var broadcastQueue = new LocalFileBroadcastQueue(path, objectMapper);
+        assertTrue(broadcastQueue.drain(2).isEmpty(), "Missing file should be an empty queue");
+
+        broadcastQueue.enqueue(broadcastJob("alice"));
+        broadcastQueue.enqueue(broadcastJob("bob"));
+        broadcastQueue.enqueue(broadcastJob("carol"));
+
+        var drained = broadcastQueue.drain(2);
+        assertEquals(List.of("alice", "bob"), senders(drained));
+        assertEquals("wearables", drained.get(0).getRoom());
+        assertArrayEquals("hi alice".getBytes(StandardCharsets.UTF_8), drained.get(0).getPayload());
+
+        var reopened = new LocalFileBroadcastQueue(path, objectMapper);
+        assertEquals(List.of("carol"), senders(reopened.drain(10)));
+        assertTrue(reopened.drain(10).isEmpty());
+    }
+
+    @Test
+    void sqsDeletesReceivedMessages() throws Exception {
+        var sqsClient = mock(SqsClient.class, CALLS_REAL_METHODS);
+        doReturn(SendMessageResponse.builder().build()).when(sqsClient).sendMessage(any(SendMessageRequest.class));
+        doReturn(ReceiveMessageResponse.builder()
+            .messages(
+                Message.builder().messageId("1").receiptHandle("r1")
+                    .body(objectMapper.writeValueAsString(broadcastJob("alice"))).build(),
+                Message.builder().messageId("2").receiptHandle("r2").body("not a job").build()
+            )
+            .build()
+        ).when(sqsClient).receiveMessage(any(ReceiveMessageRequest.class));
+        doReturn(DeleteMessageBatchResponse.builder().build())
+            .when(sqsClient).deleteMessageBatch(any(DeleteMessageBatchRequest.class));
+
+        var broadcastQueue = new SqsBroadcastQueue(sqsClient, "https://fake-queue-url", objectMapper);
+        broadcastQueue.enqueue(broadcastJob("alice"));
+        var sendCaptor = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(sqsClient).sendMessage(sendCaptor.capture());
+        assertEquals("https://fake-queue-url", sendCaptor.getValue().queueUrl());
+        assertEquals("alice", objectMapper.readValue(sendCaptor.getValue().messageBody(), BroadcastJob.class)
+            .getSenderConnectionId());
+
+        assertEquals(List.of("alice"), senders(broadcastQueue.drain(50)));
+        var receiveCaptor = ArgumentCaptor.forClass(ReceiveMessageRequest.class);
+        verify(sqsClient).receiveMessage(receiveCaptor.capture());
+        assertEquals(10, receiveCaptor.getValue().maxNumberOfMessages(), "Sqs receives at most 10 messages");
+
+        var deleteCaptor = ArgumentCaptor.forClass(DeleteMessageBatchRequest.class);
+        verify(sqsClient).deleteMessageBatch(deleteCaptor.capture());
+        assertEquals(2, deleteCaptor.getValue().entries().size(), "Malformed job should be deleted too");
+    }
+
+    private BroadcastJob broadcastJob(String sender) {
+        var broadcastJob = new BroadcastJob();
+        broadcastJob.setSenderConnectionId(sender);
+        broadcastJob.setRoom("wearables");
+        broadcastJob.setPayload(("hi " + sender).getBytes(StandardCharsets.UTF_8));
+        return broadcastJob;
+    }
+
+    private List<String> senders(List<BroadcastJob> broadcastJobs) {
+        return broadcastJobs.stream().map(BroadcastJob::getSenderConnectionId).collect(toList());
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.service.transport;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit test for {@link NioTransport}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 21, 2022
+ */
+class NioTransportTest {
+    private final AtomicInteger connections = new AtomicInteger(0);
+    private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+    private ServerSocket serverSocket;
+    private NioTransport nioTransport;
+
+    @BeforeEach
+    void setup() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        nioTransport = new NioTransport(16);
+        var serverThread = new Thread(this::serve);
+        serverThread.setDaemon(true);
+        serverThread.start();
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        nioTransport.close();
+        serverSocket.close();
+    }
+
+    @Test
+    void keepAliveAndChunkedBody() throws IOException {
+        var first = nioTransport.send(request("/index/_search", "{\"size\":1}"));
+        assertEquals(200, first.statusCode());
+        assertEquals("{\"took\":1}", new String(first.body().readAllBytes(), UTF_8));
+
+        var second = nioTransport.send(request("/index/_search?chunked=true", null));
+        assertEquals(200, second.statusCode());
+        assertEquals("{\"took\":2}", second.toHttpResponse().body());
+
+        assertEquals(1, connections.get(), "Connection should be reused");
+        assertEquals(List.of("{\"size\":1}", ""), requestBodies);
+    }
+
+    @Test
+    void malformedHeader() throws IOException {
+        assertThrows(IOException.class, () -> nioTransport.send(request("/index/_search?malformed=true", null)));
+    }
+
+    @Test
+    void halfReadConnectionNotReused() throws IOException {
+        assertThrows(IOException.class, () -> nioTransport.send(request("/index/_search?badchunk=true", null)));
+
+        assertEquals(200, nioTransport.send(request("/index/_search", null)).statusCode());
+        assertEquals(2, connections.get(), "Connection with unread body should not be reused");
+    }
+
+    @Test
+    void nonIdempotentRequestNotRetried() throws IOException {
+        assertEquals(200, nioTransport.send(request("/_bulk", "{}")).statusCode());
+        assertThrows(IOException.class, () -> nioTransport.send(request("/_bulk?drop=true", "{}")));
+        assertEquals(1, connections.get(), "Request which may be applied already should not be retried");
+    }
+
+    @Test
+    void idempotentRequestRetried() throws IOException {
+        assertEquals(200, nioTransport.send(request("/index/_search", null)).statusCode());
+
+        var retried = TransportRequest.builder()
+            .withUri(URI.create("http://127.0.0.1:" + serverSocket.getLocalPort() + "/index/_doc/1?drop=true"))
+            .build();
+        assertThrows(IOException.class, () -> nioTransport.send(retried));
+        assertEquals(2, connections.get(), "Idempotent request should be retried over a new connection");
+    }
+
+    @Test
+    void httpsNotSupported() {
+        var request = TransportRequest.builder().withUri(URI.create("https://fake-url/index/_search")).build();
+        assertThrows(IOException.class, () -> nioTransport.send(request));
+    }
+
+    private TransportRequest request(String path, String body) {
+        return TransportRequest.builder()
+            .withMethod("POST")
+            .withUri(URI.create("http://127.0.0.1:" + serverSocket.getLocalPort() + path))
+            .withHeader("Content-Type", "application/json")
+            .withBody(body == null ? null : body.getBytes(UTF_8))
+            .build();
+    }
+
+    private void serve() {
+        try {
+            while (true) {
+                var socket = serverSocket.accept();
+                connections.incrementAndGet();
+                var connectionThread = new Thread(() -> serve(socket));
+                connectionThread.setDaemon(true);
+                connectionThread.start();
+            }
+        }
+        catch (IOException ignored) {
+            // Server socket is closed once the test completes
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), ISO_8859_1));
+            var output = socket.getOutputStream();
+            String requestLine;
+            while ((requestLine = reader.readLine()) != null) {
+                var contentLength = 0;
+                for (var line = reader.readLine(); !line.isEmpty(); line = reader.readLine()) {
+                    if (line.toLowerCase().startsWith("content-length:")) {
+                        contentLength = Integer.parseInt(line.substring(15).trim());
+                    }
+                }
+                var body = new char[contentLength];
+                var read = 0;
+                while (read < contentLength) {
+                    read += reader.read(body, read, contentLength - read);
+                }
+                requestBodies.add(new String(body));
+
+                if (requestLine.contains("drop=true")) {
+                    return;
+                }
+
+                String response;
+                if (requestLine.contains("chunked=true")) {
+                    response = "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n5\r\n{\"too\r\n5\r\nk\":2}\r\n0\r\n\r\n";
+                }
+                else if (requestLine.contains("badchunk=true")) {
+                    response = "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\nzz\r\n{\"took\":3}";
+                }
+                else if (requestLine.contains("malformed=true")) {
+                    response = "HTTP/1.1 200 OK\r\nContent-Length\r\n\r\n";
+                }
+                else {
+                    response = "HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\n{\"took\":1}";
+                }
+                output.write(response.getBytes(ISO_8859_1));
+                output.flush();
+            }
+        }
+        catch (IOException ignored) {
+            // Client closes the connection once the test completes
+        }
+    }
+}
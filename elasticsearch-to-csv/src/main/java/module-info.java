@@ -9,4 +9,7 @@ module ideaslabut.aws.lambda.elasticsearch.to.csv {
     requires ideaslabut.aws.lambda.core;
     requires ideaslabut.aws.lambda.extractor.util;
     requires org.slf4j;
+    requires software.amazon.awssdk.http.urlconnection;
+    requires software.amazon.awssdk.regions;
+    requires software.amazon.awssdk.services.s3;
 }
\ No newline at end of file
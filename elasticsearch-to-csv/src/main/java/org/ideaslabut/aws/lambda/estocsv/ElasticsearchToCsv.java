@@ -4,18 +4,45 @@
 package org.ideaslabut.aws.lambda.estocsv;
 
 import static java.util.stream.Collectors.toList;
+import static software.amazon.awssdk.regions.Region.US_EAST_2;
 
+import org.ideaslabut.aws.lambda.domain.elasticsearch.MultiSearchResponse;
 import org.ideaslabut.aws.lambda.domain.elasticsearch.Response;
 import org.ideaslabut.aws.lambda.domain.elasticsearch.SourceHits;
+import org.ideaslabut.aws.lambda.domain.elasticsearch.request.MultiSearchRequest;
 import org.ideaslabut.aws.lambda.domain.elasticsearch.request.SearchRequest;
 import org.ideaslabut.aws.lambda.domain.sneaky.NoArgUncheckedIOConsumer;
 import org.ideaslabut.aws.lambda.domain.sneaky.UncheckedIOConsumer;
 import org.ideaslabut.aws.lambda.extractor.util.CSVWriter;
+import org.ideaslabut.aws.lambda.extractor.util.FlushPolicy;
 import org.ideaslabut.aws.lambda.extractor.util.ProgressBar;
+import org.ideaslabut.aws.lambda.extractor.util.sink.CsvSinkFactory;
 import org.ideaslabut.aws.lambda.service.ElasticsearchService;
+import org.ideaslabut.aws.lambda.service.concurrent.ExecutorFactory;
 
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.stream.Stream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * A class with main method to convert elasticsearch response to csv format
@@ -25,6 +52,25 @@ import java.util.stream.Stream;
  */
 public class ElasticsearchToCsv {
     private static final ElasticsearchService ELASTICSEARCH_SERVICE = ElasticsearchService.getInstance();
+    private static final String INCREMENTAL_OPTION = "--incremental";
+    private static final String PARALLELISM_OPTION = "--parallelism";
+    private static final String SINK_OPTION = "--sink";
+    private static final String BUFFER_SIZE_OPTION = "--buffer-size";
+    private static final String FLUSH_BYTES_OPTION = "--flush-bytes";
+    private static final String FLUSH_ROWS_OPTION = "--flush-rows";
+    private static final String FLUSH_INTERVAL_OPTION = "--flush-interval-ms";
+    private static final String FSYNC_OPTION = "--fsync";
+    private static final String ASYNC_BUFFERS_OPTION = "--async-buffers";
+    private static final String MAX_PART_BYTES_OPTION = "--max-part-bytes";
+    private static final String MAX_PART_ROWS_OPTION = "--max-part-rows";
+    private static final String S3_BUCKET_OPTION = "--s3-bucket";
+    private static final String S3_PREFIX_OPTION = "--s3-prefix";
+    private static final String S3_ENDPOINT_OPTION = "--s3-endpoint";
+    private static final String S3_UPLOADS_OPTION = "--s3-uploads";
+    private static final String DEFAULT_S3_PREFIX = "elasticsearch/";
+    private static final String DEFAULT_WATERMARK_FIELD = "timestamp";
+    private static final String INDEX_NOT_FOUND_ERROR = "index_not_found_exception";
+    private static final Path WATERMARK_PATH = Path.of("build/elasticsearch/watermark.properties");
 
     /**
      * A pojo which holds default search request size for elasticsearch index
@@ -39,31 +85,68 @@ public class ElasticsearchToCsv {
          * @return a newly created instance of index map
          */
         public static IndexMap of(String indexName, int size) {
-            return new IndexMap(indexName, size);
+            return new IndexMap(indexName, size, DEFAULT_WATERMARK_FIELD);
         }
 
         private final String indexName;
         private final int size;
+        private final String watermarkField;
 
         /**
          * Creates a new instance of index map
          *
          * @param indexName a name of index to set
          * @param size a default size to set
+         * @param watermarkField a monotonically increasing document field used as export high watermark
          */
-        private IndexMap(String indexName, int size) {
+        private IndexMap(String indexName, int size, String watermarkField) {
             this.indexName = indexName;
             this.size = size;
+            this.watermarkField = watermarkField;
         }
     }
 
     /**
      * Entry point for the conversion of elasticsearch data to csv fromat
+     * <p>
+     * With <code>--incremental</code> option only the documents newer than the high watermark persisted by previous
+     * run are exported into a new part file <code>{indexName}-{epochMillis}.csv</code>
+     * <p>
+     * With <code>--parallelism N</code> option up to N indexes are exported at once, on virtual threads when running
+     * on Java 21 or later. Progress bars are replaced by a single summary line per index in that case so that
+     * concurrent exports don't garble each other's output.
+     * <p>
+     * With <code>--sink writer|channel|mapped</code> option csv files are written through the given sink, see
+     * {@link CsvSinkFactory}, and <code>--buffer-size N</code> option overrides the buffer size of that sink.
+     * <p>
+     * Csv files are flushed once the sink buffer is full and when the export of an index completes, unless any of
+     * <code>--flush-bytes N</code>, <code>--flush-rows N</code> or <code>--flush-interval-ms N</code> options asks
+     * for more, see {@link FlushPolicy}. With <code>--fsync</code> option every csv file is also forced to the
+     * storage device once complete, before its watermark is persisted.
+     * <p>
+     * With <code>--async-buffers N</code> option csv files are written on a dedicated thread per index through a
+     * ring of N buffers, so that scroll requests keep going while rows are written.
+     * <p>
+     * With <code>--max-part-bytes N</code> or <code>--max-part-rows N</code> option rows of an index are rolled over
+     * to numbered part files of about that size, listed by a manifest written once the index is exported, so that
+     * downstream jobs can load parts in parallel.
+     * <p>
+     * With <code>--s3-bucket B</code> option csv files are streamed straight to objects of that bucket under
+     * <code>--s3-prefix P</code>, <code>elasticsearch/</code> by default, through multipart uploads of
+     * <code>--buffer-size N</code> bytes parts with up to <code>--s3-uploads N</code> parts of a file uploaded at once,
+     * so nothing but the watermark is written to local disk. <code>--s3-endpoint URL</code> option points the upload
+     * at an s3 compatible store with path style access instead.
      *
      * @param args a command line arguments to use
+     *
+     * @throws InterruptedException if interrupted while waiting for parallel exports
      */
-    public static void main(String[] args) {
-        Stream.of(
+    public static void main(String[] args) throws InterruptedException {
+        var watermarkStore = Arrays.asList(args).contains(INCREMENTAL_OPTION) ?
+            WatermarkStore.load(WATERMARK_PATH) :
+            null;
+
+        var indexMaps = List.of(
             IndexMap.of("accelerometer", 1000),
             IndexMap.of("bvp", 1000),
             IndexMap.of("gyroscope", 1000),
@@ -72,62 +155,330 @@ public class ElasticsearchToCsv {
             IndexMap.of("ibi", 5),
             IndexMap.of("temperature", 5),
             IndexMap.of("rating", 1)
-        ).forEach(ElasticsearchToCsv::searchAll);
+        );
+
+        var sink = option(args, SINK_OPTION).orElse(CsvSinkFactory.WRITER_SINK);
+        var bufferSize = option(args, BUFFER_SIZE_OPTION).map(Integer::parseInt);
+        var asyncBuffers = option(args, ASYNC_BUFFERS_OPTION).map(Integer::parseInt);
+        var maxPartBytes = option(args, MAX_PART_BYTES_OPTION).map(Long::parseLong);
+        var maxPartRows = option(args, MAX_PART_ROWS_OPTION).map(Long::parseLong);
+        var s3Bucket = option(args, S3_BUCKET_OPTION);
+        var s3Prefix = option(args, S3_PREFIX_OPTION).orElse(DEFAULT_S3_PREFIX);
+        var s3Uploads = option(args, S3_UPLOADS_OPTION).map(Integer::parseInt);
+        var s3Client = s3Bucket.map(bucket -> s3Client(args));
+        var flushPolicy = flushPolicy(args);
+        Supplier<CSVWriter.Builder> csvWriterBuilder = () -> {
+            var builder = CSVWriter.builder().withDelimiter(",").withSink(sink).withFlushPolicy(flushPolicy);
+            bufferSize.ifPresent(builder::withBufferSize);
+            asyncBuffers.ifPresent(builder::withAsyncBuffers);
+            maxPartBytes.ifPresent(builder::withMaxPartBytes);
+            maxPartRows.ifPresent(builder::withMaxPartRows);
+            s3Client.ifPresent(client -> builder.withS3Output(client, s3Bucket.get(), s3Prefix));
+            s3Uploads.ifPresent(builder::withS3Uploads);
+            return builder;
+        };
+
+        try {
+            exportAll(indexMaps, watermarkStore, csvWriterBuilder, parallelism(args));
+        }
+        finally {
+            s3Client.ifPresent(S3Client::close);
+        }
+    }
+
+    /**
+     * Exports every given index map whose documents could be counted, up to given number of indexes at once
+     *
+     * @param indexMaps a list of index maps to export
+     * @param watermarkStore a watermark store for incremental export, null for full export
+     * @param csvWriterBuilder a supplier of csv writer builder configured with sink to use
+     * @param parallelism a number of indexes to export at once
+     *
+     * @throws InterruptedException if interrupted while waiting for parallel exports
+     * @throws IllegalStateException if documents of given index maps cannot be counted at all
+     */
+    private static void exportAll(
+        List<IndexMap> indexMaps,
+        WatermarkStore watermarkStore,
+        Supplier<CSVWriter.Builder> csvWriterBuilder,
+        int parallelism
+    ) throws InterruptedException {
+        var totals = totalElements(indexMaps, watermarkStore);
+        var countedIndexMaps = indexMaps.stream()
+            .filter(indexMap -> totals.containsKey(indexMap.indexName))
+            .collect(toList());
+        if (parallelism == 1) {
+            countedIndexMaps.forEach(indexMap ->
+                searchAll(indexMap, totals.get(indexMap.indexName), watermarkStore, csvWriterBuilder, true)
+            );
+            return;
+        }
+
+        var executorService = ExecutorFactory.newIoExecutor("elasticsearch-to-csv", parallelism);
+        try {
+            var futures = new ArrayList<Future<?>>(countedIndexMaps.size());
+            countedIndexMaps.forEach(indexMap -> futures.add(executorService.submit(() ->
+                searchAll(indexMap, totals.get(indexMap.indexName), watermarkStore, csvWriterBuilder, false)
+            )));
+
+            for (var future : futures) {
+                try {
+                    future.get();
+                }
+                catch (ExecutionException executionException) {
+                    System.out.printf("Export failed: %s%s", executionException.getCause(), System.lineSeparator());
+                }
+            }
+        }
+        finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Builds the s3 client csv files are streamed with from given command line arguments, credentials are resolved
+     * by the default provider chain
+     *
+     * @param args a command line arguments to use
+     *
+     * @return a newly created s3 client
+     */
+    private static S3Client s3Client(String[] args) {
+        var builder = S3Client.builder().region(US_EAST_2).httpClientBuilder(UrlConnectionHttpClient.builder());
+        option(args, S3_ENDPOINT_OPTION).ifPresent(endpoint -> builder
+            .endpointOverride(URI.create(endpoint))
+            .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+        );
+        return builder.build();
+    }
+
+    /**
+     * Parses the value of <code>--parallelism</code> option from given command line arguments
+     *
+     * @param args a command line arguments to use
+     *
+     * @return a number of indexes to export at once, 1 if option is absent
+     *
+     * @throws IllegalArgumentException if option value is missing or not positive
+     */
+    private static int parallelism(String[] args) {
+        var parallelism = option(args, PARALLELISM_OPTION).map(Integer::parseInt).orElse(1);
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism should be positive");
+        }
+        return parallelism;
+    }
+
+    /**
+     * Builds the flush policy of csv writers from given command line arguments
+     *
+     * @param args a command line arguments to use
+     *
+     * @return a newly created flush policy
+     *
+     * @throws IllegalArgumentException if any threshold is missing or not positive
+     */
+    private static FlushPolicy flushPolicy(String[] args) {
+        var flushPolicy = FlushPolicy.builder().withSyncOnCheckpoint(Arrays.asList(args).contains(FSYNC_OPTION));
+        option(args, FLUSH_BYTES_OPTION).map(Long::parseLong).ifPresent(flushPolicy::withBytes);
+        option(args, FLUSH_ROWS_OPTION).map(Long::parseLong).ifPresent(flushPolicy::withRows);
+        option(args, FLUSH_INTERVAL_OPTION)
+            .map(millis -> Duration.ofMillis(Long.parseLong(millis)))
+            .ifPresent(flushPolicy::withInterval);
+        return flushPolicy.build();
+    }
+
+    /**
+     * Finds the value of given option from given command line arguments
+     *
+     * @param args a command line arguments to use
+     * @param option a name of option
+     *
+     * @return a value of option, empty if option is absent
+     *
+     * @throws IllegalArgumentException if option value is missing
+     */
+    private static Optional<String> option(String[] args, String option) {
+        var index = Arrays.asList(args).indexOf(option);
+        if (index < 0) {
+            return Optional.empty();
+        }
+        if (index + 1 >= args.length) {
+            throw new IllegalArgumentException("Missing value of option " + option);
+        }
+        return Optional.of(args[index + 1]);
+    }
+
+    /**
+     * Finds the total number of documents to export for each of given index maps using a single multi search
+     * request instead of one search request per index. An index which doesn't exist or whose count failed is reported
+     * and left out.
+     *
+     * @param indexMaps a list of index maps to plan
+     * @param watermarkStore a watermark store for incremental export, null for full export
+     *
+     * @return a map of index name to total document count of every counted index
+     *
+     * @throws IllegalStateException if multi search request itself fails
+     */
+    private static Map<String, Long> totalElements(List<IndexMap> indexMaps, WatermarkStore watermarkStore) {
+        final var totals = new HashMap<String, Long>();
+        var multiSearchRequest = MultiSearchRequest.builder();
+        indexMaps.forEach(indexMap -> multiSearchRequest.add(
+            SearchRequest.builder()
+                .withSize(0)
+                .withIndex(indexMap.indexName)
+                .withQuery(watermarkQuery(indexMap, watermarkStore))
+                .build(),
+            response -> totals.put(indexMap.indexName, response.getHits().getTotal().getValue())
+        ));
+
+        var responses = ELASTICSEARCH_SERVICE.multiSearch(multiSearchRequest.build())
+            .map(MultiSearchResponse::getResponses)
+            .orElseThrow(() -> new IllegalStateException("Unable to count documents, multi search request failed"));
+
+        for (int index = 0; index < indexMaps.size(); index++) {
+            var indexName = indexMaps.get(index).indexName;
+            if (totals.containsKey(indexName)) {
+                continue;
+            }
+
+            var errorType = index < responses.size() && responses.get(index) != null ?
+                responses.get(index).getErrorType() :
+                null;
+            if (INDEX_NOT_FOUND_ERROR.equals(errorType)) {
+                System.out.printf("Index %s doesn't exist%s", indexName, System.lineSeparator());
+            }
+            else {
+                System.out.printf(
+                    "Unable to count documents of index %s because of %s%s",
+                    indexName,
+                    errorType,
+                    System.lineSeparator()
+                );
+            }
+        }
+        return totals;
     }
 
     /**
      * Performs search all elasticsearch operation for given index map
      *
      * @param indexMap an index map to perform
+     * @param totalElement a total number of documents to export
+     * @param watermarkStore a watermark store for incremental export, null for full export
+     * @param csvWriterBuilder a supplier of csv writer builder configured with sink to use
+     * @param showProgress whether to print progress bar, otherwise a summary line is printed once done
      */
-    private static void searchAll(IndexMap indexMap) {
+    private static void searchAll(
+        IndexMap indexMap,
+        long totalElement,
+        WatermarkStore watermarkStore,
+        Supplier<CSVWriter.Builder> csvWriterBuilder,
+        boolean showProgress
+    ) {
         var startTime = Instant.now();
-        System.out.println();
+        if (showProgress) {
+            System.out.println();
+        }
 
         String indexName = indexMap.indexName;
         int size = indexMap.size;
 
-        var totalElementSearch = SearchRequest.builder().withSize(1).withIndex(indexName).build();
-        var totalElementSearchRequest = ELASTICSEARCH_SERVICE.search(totalElementSearch);
-
-        if (totalElementSearchRequest.isEmpty()) {
-            System.out.printf("Index %s doesn't exist%s", indexName, System.lineSeparator());
-            return;
-        }
-
-        if (totalElementSearchRequest.get().getHits().getTotal().getValue() == 0) {
-            System.out.printf("Index %s has no document to search%s", indexName, System.lineSeparator());
+        if (totalElement == 0) {
+            System.out.printf("Index %s has no new document to search%s", indexName, System.lineSeparator());
             return;
         }
 
         final var progressBar = ProgressBar.builder()
-            .withPrintStream(System.out)
+            .withPrintStream(showProgress ? System.out : new PrintStream(OutputStream.nullOutputStream()))
             .withPrefix("Downloading: " + indexName)
-            .withTotalElement(totalElementSearchRequest.get().getHits().getTotal().getValue())
+            .withTotalElement(totalElement)
             .withMaxStep(100)
             .build();
 
-        final var csvWriter = CSVWriter.builder().withDelimiter(",").withFileName(indexName).build();
+        var watermark = Optional.ofNullable(watermarkStore).flatMap(store -> store.get(indexName));
+        var fileName = watermark.isPresent() ? String.format("%s-%d", indexName, startTime.toEpochMilli()) : indexName;
+        final var csvWriter = csvWriterBuilder.get().withFileName(fileName).build();
+        final var consumed = new AtomicLong();
 
         var consumer = UncheckedIOConsumer.wrap((Response response) -> {
             var hits = response.getHits().getHits();
             progressBar.updateBy(hits.size());
-            csvWriter.writeRows(hits.stream().map(SourceHits::getSource).collect(toList()));
-            csvWriter.flush();
+            consumed.addAndGet(hits.size());
+            var rows = hits.stream().map(SourceHits::getSource).collect(toList());
+            csvWriter.writeRows(rows);
+
+            if (watermarkStore != null) {
+                rows.forEach(row -> watermarkStore.advance(indexName, row.get(indexMap.watermarkField)));
+            }
         });
 
+        // Search stops early without completing if it fails or finds no hit, writer is closed anyway so that
+        // buffered rows are written and its sink released, but the watermark is only committed once completed
+        final var completed = new AtomicBoolean();
         var onComplete = NoArgUncheckedIOConsumer.wrap(() -> {
-            csvWriter.flush();
-            csvWriter.close();
+            csvWriter.checkpoint();
+            completed.set(true);
         });
 
         var searchRequest = SearchRequest.builder()
             .withSize(size)
             .withScroll("1m")
             .withIndex(indexName)
+            .withQuery(watermarkQuery(indexMap, watermarkStore))
             .build();
 
         progressBar.initStartTime(startTime);
-        ELASTICSEARCH_SERVICE.searchAll(searchRequest, consumer, onComplete);
+        try (csvWriter) {
+            ELASTICSEARCH_SERVICE.searchAll(searchRequest, consumer, onComplete);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        // Scroll is unordered, so watermark of an export which stopped early may be ahead of documents which
+        // were never fetched and is only committed once every counted document is written
+        if (watermarkStore != null) {
+            if (completed.get() && consumed.get() >= totalElement) {
+                watermarkStore.commit(indexName);
+            }
+            else {
+                System.out.printf(
+                    "Export of %s stopped after %d of %d documents, watermark is not saved%s",
+                    indexName,
+                    consumed.get(),
+                    totalElement,
+                    System.lineSeparator()
+                );
+            }
+        }
+
+        if (!showProgress) {
+            System.out.printf(
+                "Downloaded: %s %d documents in %d ms%s",
+                indexName,
+                consumed.get(),
+                Duration.between(startTime, Instant.now()).toMillis(),
+                System.lineSeparator()
+            );
+        }
+    }
+
+    /**
+     * Builds an elasticsearch range query which matches documents of given index map newer than its persisted
+     * high watermark. Range is exclusive, as wearable indexes are append only with increasing timestamps, a document
+     * indexed late with the very same watermark value as the last exported one is not exported.
+     *
+     * @param indexMap an index map to use
+     * @param watermarkStore a watermark store for incremental export, null for full export
+     *
+     * @return a newly created range query DSL node, null if full export or index was never exported
+     */
+    private static Map<String, Object> watermarkQuery(IndexMap indexMap, WatermarkStore watermarkStore) {
+        return Optional.ofNullable(watermarkStore)
+            .flatMap(store -> store.get(indexMap.indexName))
+            .map(watermark -> Map.<String, Object>of("range", Map.of(indexMap.watermarkField, Map.of("gt", watermark))))
+            .orElse(null);
     }
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.estocsv;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * A file backed store which holds the per index high watermark of previous exports. Wearable indexes are append only
+ * so every document newer than the watermark of an index is a document which is not yet exported. A single store is
+ * shared by indexes exported in parallel, hence updates and saves are synchronized. Watermarks advanced during an
+ * export are kept pending per index and only the completed index is committed, so that saving one index never
+ * persists the in progress watermark of another one.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 18, 2022
+ */
+final class WatermarkStore {
+    /**
+     * Loads the watermark store from given properties file, missing file is treated as empty store
+     *
+     * @param path a path of watermark properties file
+     *
+     * @return a newly created watermark store
+     *
+     * @throws UncheckedIOException if given file exists but cannot be read
+     */
+    static WatermarkStore load(Path path) {
+        var properties = new Properties();
+        if (Files.exists(requireNonNull(path))) {
+            try (var reader = Files.newBufferedReader(path, UTF_8)) {
+                properties.load(reader);
+            }
+            catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        }
+        return new WatermarkStore(path, properties);
+    }
+
+    /**
+     * Compares the given watermark values numerically if both of them are numbers otherwise lexicographically
+     * which keeps ISO-8601 timestamps in chronological order
+     *
+     * @param first a first watermark value to compare
+     * @param second a second watermark value to compare
+     *
+     * @return a negative integer, zero, or a positive integer as first value is less than, equal to,
+     *     or greater than second value
+     */
+    static int compare(String first, String second) {
+        try {
+            return new BigDecimal(first).compareTo(new BigDecimal(second));
+        }
+        catch (NumberFormatException ignored) {
+            return first.compareTo(second);
+        }
+    }
+
+    private final Path path;
+    private final Properties properties;
+    private final Map<String, String> pending;
+
+    /**
+     * Creates a new instance of {@link WatermarkStore}
+     *
+     * @param path a path of watermark properties file to set
+     * @param properties a loaded watermark properties to set
+     */
+    private WatermarkStore(Path path, Properties properties) {
+        this.path = path;
+        this.properties = properties;
+        this.pending = new HashMap<>();
+    }
+
+    /**
+     * Gets the committed high watermark of given index
+     *
+     * @param indexName a name of index
+     *
+     * @return an optional watermark, empty if given index was never exported
+     */
+    Optional<String> get(String indexName) {
+        return Optional.ofNullable(properties.getProperty(indexName));
+    }
+
+    /**
+     * Raises the pending high watermark of given index to given value if given value is newer than both pending and
+     * committed watermark
+     *
+     * @param indexName a name of index
+     * @param watermark a candidate watermark to set
+     */
+    synchronized void advance(String indexName, String watermark) {
+        if (watermark == null) {
+            return;
+        }
+
+        var current = pending.getOrDefault(indexName, properties.getProperty(indexName));
+        if (current == null || compare(watermark, current) > 0) {
+            pending.put(indexName, watermark);
+        }
+    }
+
+    /**
+     * Commits the pending high watermark of given index once its export is complete and persists committed watermarks
+     * of all indexes into underlying properties file, pending watermarks of other indexes are left out
+     *
+     * @param indexName a name of exported index
+     *
+     * @throws UncheckedIOException if underlying file cannot be written
+     */
+    synchronized void commit(String indexName) {
+        var watermark = pending.remove(indexName);
+        if (watermark != null) {
+            properties.setProperty(indexName, watermark);
+        }
+        save();
+    }
+
+    /**
+     * Persists committed watermarks into underlying properties file
+     *
+     * @throws UncheckedIOException if underlying file cannot be written
+     */
+    private void save() {
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            try (var writer = Files.newBufferedWriter(path, UTF_8)) {
+                properties.store(writer, "Elasticsearch export high watermarks");
+            }
+        }
+        catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.estocsv;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Unit test for {@link WatermarkStore}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 10, 2022
+ */
+class WatermarkStoreTest {
+    @Test
+    void loadMissingFile(@TempDir Path directory) {
+        var watermarkStore = WatermarkStore.load(directory.resolve("watermarks.properties"));
+        assertFalse(watermarkStore.get("wearable-empatica").isPresent());
+    }
+
+    @Test
+    void loadExistingFile(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("watermarks.properties");
+        Files.writeString(path, "wearable-empatica=2022-07-18T10\\:15\\:00Z\n", UTF_8);
+
+        var watermarkStore = WatermarkStore.load(path);
+        assertEquals(Optional.of("2022-07-18T10:15:00Z"), watermarkStore.get("wearable-empatica"));
+        assertFalse(watermarkStore.get("wearable-e4").isPresent());
+    }
+
+    @Test
+    void advanceOnlyRaises(@TempDir Path directory) {
+        var watermarkStore = WatermarkStore.load(directory.resolve("watermarks.properties"));
+        watermarkStore.advance("wearable-empatica", "2022-07-18T10:15:00Z");
+        watermarkStore.advance("wearable-empatica", "2022-07-18T09:15:00Z");
+        watermarkStore.advance("wearable-empatica", null);
+        assertFalse(watermarkStore.get("wearable-empatica").isPresent(), "Advanced watermark should be pending");
+
+        watermarkStore.commit("wearable-empatica");
+        assertEquals(Optional.of("2022-07-18T10:15:00Z"), watermarkStore.get("wearable-empatica"));
+
+        watermarkStore.advance("wearable-e4", "900");
+        watermarkStore.advance("wearable-e4", "1000");
+        watermarkStore.advance("wearable-e4", "950");
+        watermarkStore.commit("wearable-e4");
+        assertEquals(Optional.of("1000"), watermarkStore.get("wearable-e4"), "Numbers are compared numerically");
+
+        watermarkStore.advance("wearable-e4", "800");
+        watermarkStore.commit("wearable-e4");
+        assertEquals(Optional.of("1000"), watermarkStore.get("wearable-e4"), "Committed watermark should not go back");
+    }
+
+    @Test
+    void commitAndReload(@TempDir Path directory) {
+        var path = directory.resolve("state").resolve("watermarks.properties");
+        var watermarkStore = WatermarkStore.load(path);
+        watermarkStore.advance("wearable-empatica", "2022-07-18T10:15:00Z");
+        watermarkStore.advance("wearable-e4", "1000");
+        watermarkStore.commit("wearable-empatica");
+
+        assertTrue(Files.exists(path), "Missing parent directory should be created");
+        var reloaded = WatermarkStore.load(path);
+        assertEquals(Optional.of("2022-07-18T10:15:00Z"), reloaded.get("wearable-empatica"));
+        assertFalse(reloaded.get("wearable-e4").isPresent(), "Watermark of index still exporting should not be saved");
+
+        watermarkStore.commit("wearable-e4");
+        reloaded = WatermarkStore.load(path);
+        assertEquals(Optional.of("2022-07-18T10:15:00Z"), reloaded.get("wearable-empatica"));
+        assertEquals(Optional.of("1000"), reloaded.get("wearable-e4"));
+    }
+
+    @Test
+    void compare() {
+        assertTrue(WatermarkStore.compare("1000", "900") > 0);
+        assertTrue(WatermarkStore.compare("1.5", "1.50") == 0);
+        assertTrue(WatermarkStore.compare("2022-07-18T09:15:00Z", "2022-07-18T10:15:00Z") < 0);
+    }
+}
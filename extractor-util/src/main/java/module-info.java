@@ -7,5 +7,9 @@
  */
 module ideaslabut.aws.lambda.extractor.util {
     exports org.ideaslabut.aws.lambda.extractor.util;
+    exports org.ideaslabut.aws.lambda.extractor.util.sink;
     requires ideaslabut.aws.lambda.core;
+    requires transitive software.amazon.awssdk.services.s3;
+    requires software.amazon.awssdk.core;
+    requires software.amazon.awssdk.http;
 }
\ No newline at end of file
@@ -3,28 +3,37 @@
  */
 package org.ideaslabut.aws.lambda.extractor.util;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.nio.file.StandardOpenOption.CREATE;
-import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
-import static java.nio.file.StandardOpenOption.WRITE;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.joining;
 
 import org.ideaslabut.aws.lambda.domain.sneaky.UncheckedIOFunction;
+import org.ideaslabut.aws.lambda.extractor.util.sink.CsvSink;
+import org.ideaslabut.aws.lambda.extractor.util.sink.CsvSinkFactory;
+
+import software.amazon.awssdk.services.s3.S3Client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.Flushable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 /**
  * A writer that can write data in UTF-8 encoding CSV format
+ * <p>
+ * With a maximum part size in bytes or rows, rows are rolled over to numbered part files
+ * <code>{fileName}-part-00000.csv</code>, each with its own headers, and a manifest
+ * <code>{fileName}.manifest.json</code> listing every part along with its rows and bytes is written on close
+ * <p>
+ * With an s3 output, every file is streamed to an object under the given key prefix instead of the output directory
  *
  * @author Prakash Khadka <br>
  *     Created on: Jan 30, 2022
@@ -33,6 +42,9 @@ public class CSVWriter implements AutoCloseable, Flushable {
     private static final String UTF8_BOM = "\ufeff";
     private static final String DEFAULT_WRITER_DIRECTORY = "build/elasticsearch";
     private static final String CSV_EXTENSION = "csv";
+    private static final String PART_FILE_FORMAT = "%s-part-%05d.%s";
+    private static final String MANIFEST_FILE_FORMAT = "%s.manifest.json";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     /**
      * A builder for {@link CSVWriter}
@@ -42,6 +54,16 @@ public class CSVWriter implements AutoCloseable, Flushable {
         private String delimiter;
         private Set<String> headers;
         private Path outputDirectory;
+        private String sinkType;
+        private Integer bufferSize;
+        private int asyncBuffers;
+        private FlushPolicy flushPolicy;
+        private long maxPartBytes;
+        private long maxPartRows;
+        private S3Client s3Client;
+        private String s3Bucket;
+        private String s3KeyPrefix;
+        private int s3Uploads;
 
         /**
          * Creates a new instance of csv writer {@link Builder}
@@ -51,6 +73,12 @@ public class CSVWriter implements AutoCloseable, Flushable {
             this.fileName = "temp";
             this.headers = new HashSet<>();
             this.outputDirectory = Path.of(DEFAULT_WRITER_DIRECTORY);
+            this.sinkType = CsvSinkFactory.WRITER_SINK;
+            this.asyncBuffers = 0;
+            this.flushPolicy = FlushPolicy.onClose();
+            this.maxPartBytes = 0;
+            this.maxPartRows = 0;
+            this.s3Uploads = CsvSinkFactory.DEFAULT_UPLOADS;
         }
 
         /**
@@ -102,24 +130,167 @@ public class CSVWriter implements AutoCloseable, Flushable {
             return this;
         }
 
+        /**
+         * Sets the type of sink csv text is written to for this csv writer builder, see {@link CsvSinkFactory}
+         *
+         * @param sinkType a type of sink to set, {@value CsvSinkFactory#WRITER_SINK} by default
+         *
+         * @return a reference to this csv writer builder
+         */
+        public Builder withSink(String sinkType) {
+            this.sinkType = requireNonNull(sinkType);
+            return this;
+        }
+
+        /**
+         * Sets the buffer size of sink for this csv writer builder
+         *
+         * @param bufferSize a buffer size to set, in characters for {@value CsvSinkFactory#WRITER_SINK} sink and in
+         *     bytes otherwise
+         *
+         * @return a reference to this csv writer builder
+         */
+        public Builder withBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of buffers rows are handed over through to a dedicated writer thread for this csv writer
+         * builder, rows are written on the calling thread if none
+         *
+         * @param asyncBuffers a number of buffers to set, at least 2, or 0 to write on the calling thread
+         *
+         * @return a reference to this csv writer builder
+         *
+         * @throws IllegalArgumentException if given buffers is negative or 1
+         */
+        public Builder withAsyncBuffers(int asyncBuffers) {
+            if (asyncBuffers < 0 || asyncBuffers == 1) {
+                throw new IllegalArgumentException("Async buffers should be 0 or at least 2");
+            }
+
+            this.asyncBuffers = asyncBuffers;
+            return this;
+        }
+
+        /**
+         * Sets the policy deciding when rows are flushed and whether checkpoints sync for this csv writer builder
+         *
+         * @param flushPolicy a flush policy to set, {@link FlushPolicy#onClose()} by default
+         *
+         * @return a reference to this csv writer builder
+         */
+        public Builder withFlushPolicy(FlushPolicy flushPolicy) {
+            this.flushPolicy = requireNonNull(flushPolicy);
+            return this;
+        }
+
+        /**
+         * Sets the size in bytes after which rows are rolled over to next part file for this csv writer builder, a
+         * row is never split so a part ends with the row which reaches this size
+         *
+         * @param maxPartBytes a maximum part size in bytes to set
+         *
+         * @return a reference to this csv writer builder
+         *
+         * @throws IllegalArgumentException if given size is not positive
+         */
+        public Builder withMaxPartBytes(long maxPartBytes) {
+            if (maxPartBytes <= 0) {
+                throw new IllegalArgumentException("Max part bytes should be positive");
+            }
+
+            this.maxPartBytes = maxPartBytes;
+            return this;
+        }
+
+        /**
+         * Sets the number of rows after which rows are rolled over to next part file for this csv writer builder
+         *
+         * @param maxPartRows a maximum part size in rows to set
+         *
+         * @return a reference to this csv writer builder
+         *
+         * @throws IllegalArgumentException if given rows is not positive
+         */
+        public Builder withMaxPartRows(long maxPartRows) {
+            if (maxPartRows <= 0) {
+                throw new IllegalArgumentException("Max part rows should be positive");
+            }
+
+            this.maxPartRows = maxPartRows;
+            return this;
+        }
+
+        /**
+         * Sets the s3 bucket files are streamed to instead of the output directory for this csv writer builder, each
+         * file is uploaded as an object keyed by given prefix followed by file name. Buffer size, if set, is the part
+         * size of multipart uploads in bytes.
+         *
+         * @param s3Client an s3 client to upload with
+         * @param bucket a name of bucket to set
+         * @param keyPrefix a key prefix to set, empty for none
+         *
+         * @return a reference to this csv writer builder
+         */
+        public Builder withS3Output(S3Client s3Client, String bucket, String keyPrefix) {
+            this.s3Client = requireNonNull(s3Client);
+            this.s3Bucket = requireNonNull(bucket);
+            this.s3KeyPrefix = requireNonNull(keyPrefix);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of parts of a file uploaded at once to s3 output for this csv writer builder
+         *
+         * @param s3Uploads a maximum number of uploads to set, {@value CsvSinkFactory#DEFAULT_UPLOADS} by default
+         *
+         * @return a reference to this csv writer builder
+         *
+         * @throws IllegalArgumentException if given uploads is not positive
+         */
+        public Builder withS3Uploads(int s3Uploads) {
+            if (s3Uploads <= 0) {
+                throw new IllegalArgumentException("S3 uploads should be positive");
+            }
+
+            this.s3Uploads = s3Uploads;
+            return this;
+        }
+
         /**
          * Builds the new {@link CSVWriter}
          * <p>
-         * This will also truncate or recreate the file name provided in this builder and opens that file
-         * to print writer as csv writer
+         * This will also truncate or recreate the file name provided in this builder, or its first part file if
+         * rows are rolled over, and opens that file to the sink of this builder as csv writer
          *
          * @return a newly created csv writer
+         *
+         * @throws IllegalArgumentException if sink type is unknown or buffer size is too small
          */
         public CSVWriter build() {
-            var bufferedWriterFactory = UncheckedIOFunction.wrap((String fileName) -> {
+            var sinkOpener = UncheckedIOFunction.wrap((String name) -> {
+                if (s3Client != null) {
+                    var sink = CsvSinkFactory.newS3CsvSink(
+                        s3Client,
+                        s3Bucket,
+                        s3KeyPrefix + name,
+                        bufferSize == null ? CsvSinkFactory.DEFAULT_PART_SIZE : bufferSize,
+                        s3Uploads
+                    );
+                    return asyncBuffers == 0 ? sink : CsvSinkFactory.newAsyncCsvSink(sink, asyncBuffers);
+                }
+
                 Path path = Files.createDirectories(outputDirectory);
-                return Files.newBufferedWriter(
-                    Path.of(String.format("%s/%s.%s", path.toString(), fileName, CSV_EXTENSION)),
-                    UTF_8, CREATE, TRUNCATE_EXISTING, WRITE
-                );
+                var filePath = Path.of(String.format("%s/%s", path.toString(), name));
+                var sink = bufferSize == null ?
+                    CsvSinkFactory.newCsvSink(sinkType, filePath) :
+                    CsvSinkFactory.newCsvSink(sinkType, filePath, bufferSize);
+                return asyncBuffers == 0 ? sink : CsvSinkFactory.newAsyncCsvSink(sink, asyncBuffers);
             });
 
-            var csvWriter = new CSVWriter(this, bufferedWriterFactory.apply(fileName));
+            var csvWriter = new CSVWriter(this, sinkOpener);
             if (!headers.isEmpty()) {
                 csvWriter.writeHeaders();
             }
@@ -136,20 +307,43 @@ public class CSVWriter implements AutoCloseable, Flushable {
         return new Builder();
     }
 
+    private final String fileName;
     private final String delimiter;
-    private final Writer printWriter;
+    private final Function<String, CsvSink> sinkOpener;
+    private final StringBuilder line;
+    private final FlushPolicy flushPolicy;
+    private final long maxPartBytes;
+    private final long maxPartRows;
+    private final List<Map<String, Object>> parts;
+    private CsvSink sink;
     private Set<String> headers;
+    private long partRows;
+    private long rowsSinceFlush;
+    private long bytesAtFlush;
+    private long lastFlushNanos;
+    private boolean closed;
+    private Exception closeFailure;
 
     /**
-     * Creates a new instance of {@link CSVWriter}
+     * Creates a new instance of {@link CSVWriter} and opens its first file
      *
      * @param builder a builder to use to build this instance
-     * @param printWriter a print writer to set
+     * @param sinkOpener a function opening a csv sink for given file name
      */
-    private CSVWriter(Builder builder, Writer printWriter) {
+    private CSVWriter(Builder builder, Function<String, CsvSink> sinkOpener) {
+        this.fileName = builder.fileName;
         this.delimiter = builder.delimiter;
-        this.printWriter = printWriter;
+        this.sinkOpener = sinkOpener;
+        this.line = new StringBuilder();
+        this.flushPolicy = builder.flushPolicy;
+        this.maxPartBytes = builder.maxPartBytes;
+        this.maxPartRows = builder.maxPartRows;
+        this.parts = new ArrayList<>();
         this.headers = builder.headers;
+        this.partRows = 0;
+        this.closed = false;
+        this.sink = sinkOpener.apply(isRolling() ? partFileName() : fileName + "." + CSV_EXTENSION);
+        resetFlushCounters();
     }
 
     /**
@@ -191,8 +385,12 @@ public class CSVWriter implements AutoCloseable, Flushable {
      * generated by first element from property map assuming that all list as same set of keys
      * <p>
      * It is the callers responsibility to make sure that same sets of keys are used as csv property map
+     * <p>
+     * Rows are flushed afterwards if the flush policy of this writer says so
      *
      * @param csvRows a list csv rows with value mapped into csv headers as key
+     *
+     * @throws UncheckedIOException a wrapper around checked {@link IOException} if any
      */
     public void writeRows(List<Map<String, String>> csvRows) {
         if (csvRows == null || csvRows.isEmpty()) {
@@ -203,9 +401,137 @@ public class CSVWriter implements AutoCloseable, Flushable {
             writeHeaders(csvRows.get(0).keySet());
         }
 
-        csvRows.stream()
-            .map(csvRow -> headers.stream().map(csvRow::get).collect(joining(delimiter)))
-            .forEach(this::writeLine);
+        for (var csvRow : csvRows) {
+            if (isPartFull()) {
+                rollOver();
+            }
+
+            line.setLength(0);
+            var separator = "";
+            for (var header : headers) {
+                line.append(separator).append(csvRow.get(header));
+                separator = delimiter;
+            }
+            write(line.append(System.lineSeparator()));
+            partRows++;
+        }
+
+        rowsSinceFlush += csvRows.size();
+        if (flushPolicy.hasThreshold() && flushPolicy.isFlushDue(
+            sink.getBytesWritten() - bytesAtFlush,
+            rowsSinceFlush,
+            System.nanoTime() - lastFlushNanos
+        )) {
+            try {
+                flush();
+            }
+            catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        }
+    }
+
+    /**
+     * Marks a point every row written so far has to survive, e.g. before recording export progress elsewhere.
+     * Rows are flushed and, if the flush policy of this writer syncs on checkpoint, forced to the storage device.
+     *
+     * @throws IOException if rows cannot be flushed or forced
+     */
+    public void checkpoint() throws IOException {
+        if (flushPolicy.isSyncOnCheckpoint()) {
+            sink.sync();
+            resetFlushCounters();
+        }
+        else {
+            flush();
+        }
+    }
+
+    /**
+     * Closes the current part file and opens the next one with its own headers. The current part is synced before
+     * close if the flush policy of this writer syncs on checkpoint, so a checkpoint covers every part.
+     *
+     * @throws UncheckedIOException a wrapper around checked {@link IOException} if any
+     */
+    private void rollOver() {
+        try {
+            if (flushPolicy.isSyncOnCheckpoint()) {
+                sink.sync();
+            }
+            closePart();
+        }
+        catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+
+        sink = sinkOpener.apply(partFileName());
+        resetFlushCounters();
+        writeHeaders();
+    }
+
+    /**
+     * Closes the current sink and records it as a part if rows are rolled over
+     *
+     * @throws IOException if sink cannot be closed
+     */
+    private void closePart() throws IOException {
+        var bytes = sink.getBytesWritten();
+        sink.close();
+        if (isRolling()) {
+            var part = new LinkedHashMap<String, Object>();
+            part.put("file", partFileName());
+            part.put("rows", partRows);
+            part.put("bytes", bytes);
+            parts.add(part);
+            partRows = 0;
+        }
+    }
+
+    /**
+     * Writes the manifest listing every part file along with its rows and bytes
+     *
+     * @throws IOException if manifest cannot be written
+     */
+    private void writeManifest() throws IOException {
+        var manifest = new LinkedHashMap<String, Object>();
+        manifest.put("file", fileName);
+        manifest.put("rows", parts.stream().mapToLong(part -> (long) part.get("rows")).sum());
+        manifest.put("bytes", parts.stream().mapToLong(part -> (long) part.get("bytes")).sum());
+        manifest.put("parts", parts);
+
+        try (var manifestSink = sinkOpener.apply(String.format(MANIFEST_FILE_FORMAT, fileName))) {
+            manifestSink.write(OBJECT_MAPPER.writeValueAsString(manifest));
+        }
+    }
+
+    /**
+     * Gets the file name of current part, parts are numbered in the order they are written
+     *
+     * @return a file name of current part
+     */
+    private String partFileName() {
+        return String.format(PART_FILE_FORMAT, fileName, parts.size(), CSV_EXTENSION);
+    }
+
+    /**
+     * Gets whether the current part has reached its maximum size in rows or bytes
+     *
+     * @return true if the current part is full, otherwise false
+     */
+    private boolean isPartFull() {
+        return partRows > 0 && (
+            (maxPartRows > 0 && partRows >= maxPartRows) ||
+            (maxPartBytes > 0 && sink.getBytesWritten() >= maxPartBytes)
+        );
+    }
+
+    /**
+     * Gets whether rows are rolled over to part files
+     *
+     * @return true if a maximum part size is set, otherwise false
+     */
+    private boolean isRolling() {
+        return maxPartBytes > 0 || maxPartRows > 0;
     }
 
     /**
@@ -216,7 +542,7 @@ public class CSVWriter implements AutoCloseable, Flushable {
     }
 
     /**
-     * Writes the given value to the underlying print writer as csv row
+     * Writes the given value to the underlying sink as csv row
      * This will not validate if the given value is valid csv row assuming that it is valid
      * It is always the caller responsibility to pass the valid csv row
      *
@@ -224,9 +550,9 @@ public class CSVWriter implements AutoCloseable, Flushable {
      *
      * @throws UncheckedIOException a wrapper around checked {@link IOException} if any
      */
-    private void write(String value) {
+    private void write(CharSequence value) {
         try {
-            printWriter.write(value);
+            sink.write(value);
         }
         catch (IOException ioe) {
             throw new UncheckedIOException(ioe);
@@ -234,32 +560,63 @@ public class CSVWriter implements AutoCloseable, Flushable {
     }
 
     /**
-     * Writes the given value (concatenating with extra line separator) as csv row to underlying print writer
-     * assuming that given value is valid csv row. It is always the caller responsibility to pass valid csv row
+     * Writes the given value followed by line separator as csv row to underlying sink assuming that given value
+     * is valid csv row. It is always the caller responsibility to pass valid csv row
      *
      * @param value a csv value to write
      */
-    private void writeLine(String value) {
-        write(value + System.lineSeparator());
+    private void writeLine(CharSequence value) {
+        write(value);
+        write(System.lineSeparator());
     }
 
     /**
-     * Flushes the underlining print writer
+     * Flushes the underlining sink
      *
      * @throws IOException if any
      */
     @Override
     public void flush() throws IOException {
-        printWriter.flush();
+        sink.flush();
+        resetFlushCounters();
     }
 
     /**
-     * Closes the underlying csv print writer
+     * Starts counting rows, bytes and time for flush policy over again
+     */
+    private void resetFlushCounters() {
+        rowsSinceFlush = 0;
+        bytesAtFlush = sink.getBytesWritten();
+        lastFlushNanos = System.nanoTime();
+    }
+
+    /**
+     * Closes the underlying csv sink, and writes the manifest of part files if rows are rolled over. If the first
+     * close fails every later close fails too, so a caller closing twice never mistakes a partial output for a
+     * complete one.
      *
-     * @throws IOException if any
+     * @throws IOException if any, or if a previous close failed
      */
     @Override
     public void close() throws IOException {
-        printWriter.close();
+        if (closed) {
+            if (closeFailure != null) {
+                throw new IOException("Unable to close " + fileName + " as its previous close failed", closeFailure);
+            }
+            sink.close();
+            return;
+        }
+
+        closed = true;
+        try {
+            closePart();
+            if (isRolling()) {
+                writeManifest();
+            }
+        }
+        catch (IOException | RuntimeException exception) {
+            closeFailure = exception;
+            throw exception;
+        }
     }
 }
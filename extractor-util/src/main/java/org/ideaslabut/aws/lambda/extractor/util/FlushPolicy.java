@@ -0,0 +1,190 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.extractor.util;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+/**
+ * A policy deciding when {@link CSVWriter} flushes its sink on its own. Rows are flushed once any of the enabled
+ * thresholds, i.e. bytes, rows or time since the last flush, is reached, and otherwise only when the sink buffer
+ * is full or the writer is closed. Flushing only hands bytes over to the operating system, with sync on checkpoint
+ * every {@link CSVWriter#checkpoint()} also forces them to the storage device.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 07, 2022
+ */
+public class FlushPolicy {
+    private static final FlushPolicy ON_CLOSE = builder().build();
+
+    /**
+     * A builder for {@link FlushPolicy}
+     */
+    public static class Builder {
+        private long bytes;
+        private long rows;
+        private Duration interval;
+        private boolean syncOnCheckpoint;
+
+        /**
+         * Creates a new instance of flush policy {@link Builder} which has no threshold enabled
+         */
+        private Builder() {
+            this.bytes = 0;
+            this.rows = 0;
+            this.interval = null;
+            this.syncOnCheckpoint = false;
+        }
+
+        /**
+         * Sets the number of bytes written since last flush which triggers a flush
+         *
+         * @param bytes a number of bytes to set
+         *
+         * @return a reference to this flush policy builder
+         *
+         * @throws IllegalArgumentException if given bytes is not positive
+         */
+        public Builder withBytes(long bytes) {
+            this.bytes = requirePositive(bytes, "Bytes");
+            return this;
+        }
+
+        /**
+         * Sets the number of rows written since last flush which triggers a flush
+         *
+         * @param rows a number of rows to set
+         *
+         * @return a reference to this flush policy builder
+         *
+         * @throws IllegalArgumentException if given rows is not positive
+         */
+        public Builder withRows(long rows) {
+            this.rows = requirePositive(rows, "Rows");
+            return this;
+        }
+
+        /**
+         * Sets the time since last flush after which the next write triggers a flush
+         *
+         * @param interval an interval to set
+         *
+         * @return a reference to this flush policy builder
+         *
+         * @throws IllegalArgumentException if given interval is not positive
+         */
+        public Builder withInterval(Duration interval) {
+            requirePositive(requireNonNull(interval).toNanos(), "Interval");
+            this.interval = interval;
+            return this;
+        }
+
+        /**
+         * Sets whether every checkpoint forces written bytes to the storage device
+         *
+         * @param syncOnCheckpoint a sync on checkpoint to set
+         *
+         * @return a reference to this flush policy builder
+         */
+        public Builder withSyncOnCheckpoint(boolean syncOnCheckpoint) {
+            this.syncOnCheckpoint = syncOnCheckpoint;
+            return this;
+        }
+
+        /**
+         * Builds the new {@link FlushPolicy}
+         *
+         * @return a newly created flush policy
+         */
+        public FlushPolicy build() {
+            return new FlushPolicy(this);
+        }
+
+        /**
+         * Validates that given threshold is positive
+         *
+         * @param value a threshold to validate
+         * @param name a name of threshold
+         *
+         * @return a validated threshold
+         *
+         * @throws IllegalArgumentException if threshold is not positive
+         */
+        private static long requirePositive(long value, String name) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " should be positive");
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Creates a new instance of flush policy {@link Builder}
+     *
+     * @return a newly created builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the policy which never flushes on its own nor syncs on checkpoint
+     *
+     * @return a flush policy
+     */
+    public static FlushPolicy onClose() {
+        return ON_CLOSE;
+    }
+
+    private final long bytes;
+    private final long rows;
+    private final long intervalNanos;
+    private final boolean syncOnCheckpoint;
+
+    /**
+     * Creates a new instance of {@link FlushPolicy}
+     *
+     * @param builder a builder to use to build this instance
+     */
+    private FlushPolicy(Builder builder) {
+        this.bytes = builder.bytes;
+        this.rows = builder.rows;
+        this.intervalNanos = builder.interval == null ? 0 : builder.interval.toNanos();
+        this.syncOnCheckpoint = builder.syncOnCheckpoint;
+    }
+
+    /**
+     * Gets whether a flush is due for given writes since last flush
+     *
+     * @param writtenBytes a number of bytes written since last flush
+     * @param writtenRows a number of rows written since last flush
+     * @param elapsedNanos a time elapsed since last flush in nanoseconds
+     *
+     * @return true if any enabled threshold is reached, otherwise false
+     */
+    public boolean isFlushDue(long writtenBytes, long writtenRows, long elapsedNanos) {
+        return (bytes > 0 && writtenBytes >= bytes) ||
+            (rows > 0 && writtenRows >= rows) ||
+            (intervalNanos > 0 && elapsedNanos >= intervalNanos);
+    }
+
+    /**
+     * Gets whether a flush may ever be due, so that the writer can skip tracking writes otherwise
+     *
+     * @return true if any threshold is enabled, otherwise false
+     */
+    public boolean hasThreshold() {
+        return bytes > 0 || rows > 0 || intervalNanos > 0;
+    }
+
+    /**
+     * Gets whether every checkpoint forces written bytes to the storage device
+     *
+     * @return true if sync on checkpoint, otherwise false
+     */
+    public boolean isSyncOnCheckpoint() {
+        return syncOnCheckpoint;
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.extractor.util.sink;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A csv sink which hands csv text over to a dedicated writer thread, so that the thread producing rows doesn't stall
+ * on disk. Text is collected into one of a bounded ring of buffers, a full buffer is queued for the writer thread
+ * which writes it to the underlying sink and puts it back to the ring. Once every buffer is queued the producing
+ * thread waits for the writer thread to hand one back.
+ * <p>
+ * The underlying sink is only ever used by the writer thread. A failure of the writer thread fails every following
+ * write, flush, sync and close of this sink, text queued after the failure is dropped.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 08, 2022
+ */
+public class AsyncCsvSink implements CsvSink {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger(0);
+
+    private final CsvSink sink;
+    private final int chunkSize;
+    private final BlockingQueue<StringBuilder> ring;
+    private final BlockingQueue<Runnable> queue;
+    private volatile IOException failure;
+    private volatile boolean stopped;
+    private StringBuilder chunk;
+    private long bytesWritten;
+    private boolean closed;
+
+    /**
+     * Creates a new instance of {@link AsyncCsvSink} and starts its writer thread
+     *
+     * @param sink an underlying sink to write to
+     * @param buffers a number of buffers in the ring, at least 2
+     * @param chunkSize a number of characters collected into a buffer before it is handed over
+     *
+     * @throws IllegalArgumentException if there are less than 2 buffers or chunk size is not positive
+     */
+    public AsyncCsvSink(CsvSink sink, int buffers, int chunkSize) {
+        if (buffers < 2) {
+            throw new IllegalArgumentException("Buffers should be at least 2");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size should be positive");
+        }
+
+        this.sink = sink;
+        this.chunkSize = chunkSize;
+        this.ring = new ArrayBlockingQueue<>(buffers);
+        for (int buffer = 1; buffer < buffers; buffer++) {
+            ring.add(new StringBuilder(chunkSize));
+        }
+        this.queue = new LinkedBlockingQueue<>();
+        this.chunk = new StringBuilder(chunkSize);
+        this.bytesWritten = 0;
+        this.closed = false;
+        this.stopped = false;
+
+        var writerThread = new Thread(this::drain, "csv-writer-" + THREAD_COUNT.incrementAndGet());
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Collects the given csv text, it is handed over to writer thread once the current buffer is full
+     *
+     * @param value a csv text to write
+     *
+     * @throws IOException if this sink is closed or writer thread has failed
+     */
+    @Override
+    public void write(CharSequence value) throws IOException {
+        ensureOpen();
+        chunk.append(value);
+        bytesWritten += Utf8.length(value);
+        if (chunk.length() >= chunkSize) {
+            handOver();
+        }
+    }
+
+    /**
+     * Hands over the text collected so far and waits until writer thread has flushed the underlying sink
+     *
+     * @throws IOException if this sink is closed or writer thread has failed
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        handOver();
+        await(() -> {
+            throwFailure();
+            sink.flush();
+            return null;
+        });
+    }
+
+    /**
+     * Hands over the text collected so far and waits until writer thread has synced the underlying sink
+     *
+     * @throws IOException if this sink is closed or writer thread has failed
+     */
+    @Override
+    public void sync() throws IOException {
+        ensureOpen();
+        handOver();
+        await(() -> {
+            throwFailure();
+            sink.sync();
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Hands over the text collected so far, waits until writer thread has closed the underlying sink and stops the
+     * writer thread, the underlying sink is closed even if writer thread has failed. Closing again has no effect.
+     *
+     * @throws IOException if writer thread has failed or the underlying sink cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        try {
+            handOver();
+        }
+        finally {
+            await(() -> {
+                stopped = true;
+                sink.close();
+                throwFailure();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Queues the current buffer for writer thread if it has any text and takes the next buffer from the ring,
+     * waiting for writer thread to hand one back if ring is empty
+     *
+     * @throws IOException if writer thread has failed or interrupted while waiting
+     */
+    private void handOver() throws IOException {
+        throwFailure();
+        if (chunk.length() == 0) {
+            return;
+        }
+
+        var text = chunk;
+        queue.add(() -> write(text));
+        try {
+            chunk = ring.take();
+        }
+        catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for csv writer thread");
+        }
+    }
+
+    /**
+     * Runs the given action on writer thread after every text queued before and waits for it
+     *
+     * @param action an action on the underlying sink
+     *
+     * @throws IOException if the action fails
+     */
+    private void await(Callable<Void> action) throws IOException {
+        var task = new FutureTask<>(action);
+        queue.add(task);
+        try {
+            task.get();
+        }
+        catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for csv writer thread");
+        }
+        catch (ExecutionException executionException) {
+            var cause = executionException.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    /**
+     * Writes the given text to the underlying sink unless writer thread has failed before, and puts the buffer back
+     * to the ring. Runs on writer thread.
+     *
+     * @param text a buffer holding text to write
+     */
+    private void write(StringBuilder text) {
+        try {
+            if (failure == null) {
+                sink.write(text);
+            }
+        }
+        catch (IOException ioe) {
+            failure = ioe;
+        }
+        catch (RuntimeException runtimeException) {
+            failure = new IOException(runtimeException);
+        }
+        finally {
+            text.setLength(0);
+            ring.add(text);
+        }
+    }
+
+    /**
+     * Runs queued writes and actions in order until this sink is closed, an interrupt fails this sink but queued
+     * actions still run so that nobody waits for them forever. Runs on writer thread.
+     */
+    private void drain() {
+        while (!stopped) {
+            try {
+                queue.take().run();
+            }
+            catch (InterruptedException interruptedException) {
+                failure = new InterruptedIOException("Csv writer thread interrupted");
+            }
+        }
+    }
+
+    /**
+     * Throws the failure of writer thread if any
+     *
+     * @throws IOException if writer thread has failed
+     */
+    private void throwFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Csv writer thread failed", failure);
+        }
+    }
+
+    /**
+     * Ensures that this sink is not closed yet and writer thread has not failed
+     *
+     * @throws IOException if this sink is closed or writer thread has failed
+     */
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        throwFailure();
+    }
+}
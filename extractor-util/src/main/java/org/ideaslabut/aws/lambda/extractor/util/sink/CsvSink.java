@@ -0,0 +1,39 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.extractor.util.sink;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * A destination of UTF-8 encoded csv text written by {@link org.ideaslabut.aws.lambda.extractor.util.CSVWriter}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 06, 2022
+ */
+public interface CsvSink extends Closeable, Flushable {
+    /**
+     * Writes the given csv text, it may stay buffered until this sink is flushed or closed
+     *
+     * @param value a csv text to write
+     *
+     * @throws IOException if this sink is closed or value cannot be written
+     */
+    void write(CharSequence value) throws IOException;
+
+    /**
+     * Flushes this sink and forces every byte written so far to the storage device
+     *
+     * @throws IOException if this sink is closed or bytes cannot be forced
+     */
+    void sync() throws IOException;
+
+    /**
+     * Gets the number of UTF-8 bytes written to this sink so far, including bytes which are still buffered
+     *
+     * @return a number of bytes written
+     */
+    long getBytesWritten();
+}
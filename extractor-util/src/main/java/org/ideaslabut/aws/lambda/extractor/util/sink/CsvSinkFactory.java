@@ -0,0 +1,151 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.extractor.util.sink;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Factory of the csv sink of a given type, one of
+ * <ul>
+ *     <li><code>writer</code>, the default, buffers characters in a {@link BufferedWriter} of
+ *     {@value #DEFAULT_WRITER_BUFFER_SIZE} characters, same as {@link Files#newBufferedWriter}</li>
+ *     <li><code>channel</code> encodes into a direct buffer of {@value #DEFAULT_BUFFER_SIZE} bytes written to a
+ *     file channel once full</li>
+ *     <li><code>mapped</code> encodes into memory mapped regions of {@value #DEFAULT_BUFFER_SIZE} bytes</li>
+ * </ul>
+ * Csv text can also be streamed straight to an s3 object through an {@link S3MultipartCsvSink} uploading parts of
+ * {@value #DEFAULT_PART_SIZE} bytes, {@value #DEFAULT_UPLOADS} at once by default. Any of them can be wrapped into an
+ * {@link AsyncCsvSink} so that it is written on a dedicated thread.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 06, 2022
+ */
+public final class CsvSinkFactory {
+    public static final String WRITER_SINK = "writer";
+    public static final String FILE_CHANNEL_SINK = "channel";
+    public static final String MAPPED_SINK = "mapped";
+    public static final int DEFAULT_WRITER_BUFFER_SIZE = 8192;
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+    public static final int DEFAULT_PART_SIZE = 8 << 20;
+    public static final int DEFAULT_UPLOADS = 4;
+
+    private static final int MIN_BUFFER_SIZE = 64;
+
+    private CsvSinkFactory() {
+    }
+
+    /**
+     * Creates the csv sink of given type with its default buffer size, truncating or creating the given file
+     *
+     * @param type a type of sink i.e. {@value #WRITER_SINK}, {@value #FILE_CHANNEL_SINK} or {@value #MAPPED_SINK}
+     * @param path a path of file to write
+     *
+     * @return a newly created csv sink
+     *
+     * @throws IOException if file cannot be opened
+     * @throws IllegalArgumentException if given type is unknown
+     */
+    public static CsvSink newCsvSink(String type, Path path) throws IOException {
+        var bufferSize = WRITER_SINK.equalsIgnoreCase(type) ? DEFAULT_WRITER_BUFFER_SIZE : DEFAULT_BUFFER_SIZE;
+        return newCsvSink(type, path, bufferSize);
+    }
+
+    /**
+     * Creates the csv sink of given type, truncating or creating the given file
+     *
+     * @param type a type of sink i.e. {@value #WRITER_SINK}, {@value #FILE_CHANNEL_SINK} or {@value #MAPPED_SINK}
+     * @param path a path of file to write
+     * @param bufferSize a size of buffer, in characters for {@value #WRITER_SINK} sink and in bytes otherwise
+     *
+     * @return a newly created csv sink
+     *
+     * @throws IOException if file cannot be opened
+     * @throws IllegalArgumentException if given type is unknown or buffer size is less than 64
+     */
+    public static CsvSink newCsvSink(String type, Path path, int bufferSize) throws IOException {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer size should be at least " + MIN_BUFFER_SIZE);
+        }
+
+        switch (type.toLowerCase(Locale.ROOT)) {
+            case WRITER_SINK:
+                var channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, WRITE);
+                return new WriterCsvSink(
+                    new BufferedWriter(
+                        new OutputStreamWriter(Channels.newOutputStream(channel), UTF_8.newEncoder()),
+                        bufferSize
+                    ),
+                    channel
+                );
+            case FILE_CHANNEL_SINK:
+                return new FileChannelCsvSink(path, bufferSize);
+            case MAPPED_SINK:
+                return new MappedCsvSink(path, bufferSize);
+            default:
+                throw new IllegalArgumentException("Unknown csv sink " + type);
+        }
+    }
+
+    /**
+     * Creates the csv sink streaming to given s3 object through a multipart upload of {@value #DEFAULT_PART_SIZE}
+     * bytes parts, {@value #DEFAULT_UPLOADS} parts at once
+     *
+     * @param s3Client an s3 client to upload with
+     * @param bucket a name of bucket to upload to
+     * @param key a key of object to upload
+     *
+     * @return a newly created s3 csv sink
+     */
+    public static CsvSink newS3CsvSink(S3Client s3Client, String bucket, String key) {
+        return newS3CsvSink(s3Client, bucket, key, DEFAULT_PART_SIZE, DEFAULT_UPLOADS);
+    }
+
+    /**
+     * Creates the csv sink streaming to given s3 object through a multipart upload, holding at most
+     * <code>(uploads + 1) * partSize</code> bytes in memory
+     *
+     * @param s3Client an s3 client to upload with
+     * @param bucket a name of bucket to upload to
+     * @param key a key of object to upload
+     * @param partSize a size of each part in bytes, at least {@value S3MultipartCsvSink#MIN_PART_SIZE}
+     * @param uploads a maximum number of parts to upload at once
+     *
+     * @return a newly created s3 csv sink
+     *
+     * @throws IllegalArgumentException if part size is too small or uploads is not positive
+     */
+    public static CsvSink newS3CsvSink(S3Client s3Client, String bucket, String key, int partSize, int uploads) {
+        return new S3MultipartCsvSink(s3Client, bucket, key, partSize, uploads);
+    }
+
+    /**
+     * Wraps the given sink so that it is written on a dedicated thread through a ring of given number of buffers,
+     * each of {@value #DEFAULT_CHUNK_SIZE} characters
+     *
+     * @param sink a sink to wrap
+     * @param buffers a number of buffers in the ring, at least 2
+     *
+     * @return a newly created asynchronous csv sink
+     *
+     * @throws IllegalArgumentException if there are less than 2 buffers
+     */
+    public static CsvSink newAsyncCsvSink(CsvSink sink, int buffers) {
+        return new AsyncCsvSink(sink, buffers, DEFAULT_CHUNK_SIZE);
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.extractor.util.sink;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+
+/**
+ * A csv sink which encodes csv text as UTF-8 into a byte buffer, the buffer is handed over to the implementation
+ * once it is full. Text is encoded array to array through a small staging buffer, which keeps the encoder on its
+ * fast path, and copied into the byte buffer in bulk. Like {@link java.nio.file.Files#newBufferedWriter}, text which
+ * cannot be encoded fails the write instead of being replaced.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 06, 2022
+ */
+abstract class EncodingCsvSink implements CsvSink {
+    private static final int STAGING_SIZE = 8192;
+
+    private final CharsetEncoder encoder;
+    private final ByteBuffer staging;
+    private char[] chars;
+    private ByteBuffer buffer;
+    private long bytesWritten;
+    private boolean closed;
+
+    /**
+     * Creates a new instance of {@link EncodingCsvSink}
+     *
+     * @param buffer a buffer to encode into
+     */
+    protected EncodingCsvSink(ByteBuffer buffer) {
+        this.encoder = UTF_8.newEncoder();
+        this.staging = ByteBuffer.allocate(STAGING_SIZE);
+        this.chars = new char[STAGING_SIZE];
+        this.buffer = buffer;
+        this.bytesWritten = 0;
+        this.closed = false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(CharSequence value) throws IOException {
+        ensureOpen();
+        var length = value.length();
+        if (length > chars.length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        if (value instanceof String) {
+            ((String) value).getChars(0, length, chars, 0);
+        }
+        else if (value instanceof StringBuilder) {
+            ((StringBuilder) value).getChars(0, length, chars, 0);
+        }
+        else {
+            for (int index = 0; index < length; index++) {
+                chars[index] = value.charAt(index);
+            }
+        }
+
+        var source = CharBuffer.wrap(chars, 0, length);
+        try {
+            var result = encoder.encode(source, staging, true);
+            while (result.isOverflow()) {
+                transfer();
+                result = encoder.encode(source, staging, true);
+            }
+
+            if (result.isError()) {
+                staging.clear();
+                result.throwException();
+            }
+            transfer();
+        }
+        finally {
+            encoder.reset();
+        }
+    }
+
+    /**
+     * Flushes the bytes encoded so far
+     *
+     * @throws IOException if this sink is closed or bytes cannot be written
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        flush(buffer);
+    }
+
+    /**
+     * Writes the bytes encoded so far and forces them to the storage device
+     *
+     * @throws IOException if this sink is closed or bytes cannot be forced
+     */
+    @Override
+    public void sync() throws IOException {
+        ensureOpen();
+        sync(buffer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Writes the bytes encoded so far and closes this sink, closing again has no effect
+     *
+     * @throws IOException if bytes cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        close(buffer);
+    }
+
+    /**
+     * Hands over the given full buffer
+     *
+     * @param buffer a buffer which has no room left
+     *
+     * @return a buffer to continue encoding into
+     *
+     * @throws IOException if bytes cannot be written
+     */
+    protected abstract ByteBuffer next(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Flushes the given buffer holding bytes encoded so far
+     *
+     * @param buffer a buffer to flush
+     *
+     * @throws IOException if bytes cannot be written
+     */
+    protected abstract void flush(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Writes the given buffer holding bytes encoded so far and forces every written byte to the storage device
+     *
+     * @param buffer a buffer to sync
+     *
+     * @throws IOException if bytes cannot be forced
+     */
+    protected abstract void sync(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Writes the given buffer holding bytes encoded so far and releases underlying resources
+     *
+     * @param buffer a buffer to write
+     *
+     * @throws IOException if bytes cannot be written
+     */
+    protected abstract void close(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Copies the bytes of staging buffer into the byte buffer, handing over the byte buffer every time it is full
+     *
+     * @throws IOException if bytes cannot be written
+     */
+    private void transfer() throws IOException {
+        staging.flip();
+        bytesWritten += staging.remaining();
+        while (staging.hasRemaining()) {
+            if (!buffer.hasRemaining()) {
+                buffer = next(buffer);
+            }
+
+            var limit = staging.limit();
+            staging.limit(staging.position() + Math.min(staging.remaining(), buffer.remaining()));
+            buffer.put(staging);
+            staging.limit(limit);
+        }
+        staging.clear();
+    }
+
+    /**
+     * Ensures that this sink is not closed yet
+     *
+     * @throws IOException if this sink is closed
+     */
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
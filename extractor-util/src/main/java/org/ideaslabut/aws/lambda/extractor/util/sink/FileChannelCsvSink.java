@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.extractor.util.sink;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * A csv sink encoding into a direct byte buffer which is written to a {@link FileChannel} whenever it is full, so
+ * there is one write call per buffer and no copy into a temporary direct buffer on the way to the file
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 06, 2022
+ */
+public class FileChannelCsvSink extends EncodingCsvSink {
+    private final FileChannel channel;
+
+    /**
+     * Creates a new instance of {@link FileChannelCsvSink}, truncating or creating the given file
+     *
+     * @param path a path of file to write
+     * @param bufferSize a size of buffer in bytes
+     *
+     * @throws IOException if file cannot be opened
+     */
+    public FileChannelCsvSink(Path path, int bufferSize) throws IOException {
+        super(ByteBuffer.allocateDirect(bufferSize));
+        this.channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, WRITE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected ByteBuffer next(ByteBuffer buffer) throws IOException {
+        drain(buffer);
+        return buffer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void flush(ByteBuffer buffer) throws IOException {
+        drain(buffer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void sync(ByteBuffer buffer) throws IOException {
+        drain(buffer);
+        channel.force(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void close(ByteBuffer buffer) throws IOException {
+        try (channel) {
+            drain(buffer);
+        }
+    }
+
+    /**
+     * Writes the bytes of given buffer to file channel and clears the buffer
+     *
+     * @param buffer a buffer to drain
+     *
+     * @throws IOException if bytes cannot be written
+     */
+    private void drain(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
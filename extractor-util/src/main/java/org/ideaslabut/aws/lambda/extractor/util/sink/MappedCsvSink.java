@@ -0,0 +1,149 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.extractor.util.sink;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A csv sink encoding straight into memory mapped regions of the file, a next region is mapped right after the
+ * bytes of the previous one once it is full. Encoded bytes are in the page cache as soon as they are written, so
+ * there is neither a write call nor a copy per buffer.
+ * <p>
+ * The file grows a region at a time and is cut down to the bytes actually written on close, until then it has
+ * trailing zero bytes.
+ * <p>
+ * A region stays mapped until it is garbage collected, as Java has no way to unmap it. This sink only keeps
+ * references to the current region and to at most {@value #MAX_UNFORCED_REGIONS} finished regions not yet forced,
+ * so that sync can force each of them. Once there are more, the oldest one is forced and dropped right away, so a
+ * growing file doesn't pin its mapped regions.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 06, 2022
+ */
+public class MappedCsvSink extends EncodingCsvSink {
+    private static final int MAX_UNFORCED_REGIONS = 16;
+
+    private final FileChannel channel;
+    private final int regionSize;
+    private final Deque<MappedByteBuffer> unforcedRegions;
+    private long regionStart;
+
+    /**
+     * Creates a new instance of {@link MappedCsvSink}, truncating or creating the given file
+     *
+     * @param path a path of file to write
+     * @param regionSize a size of each mapped region in bytes
+     *
+     * @throws IOException if file cannot be opened or mapped
+     */
+    public MappedCsvSink(Path path, int regionSize) throws IOException {
+        this(FileChannel.open(path, CREATE, TRUNCATE_EXISTING, READ, WRITE), regionSize);
+    }
+
+    /**
+     * Creates a new instance of {@link MappedCsvSink} mapping the first region of given channel
+     *
+     * @param channel a file channel to map
+     * @param regionSize a size of each mapped region in bytes
+     *
+     * @throws IOException if file cannot be mapped
+     */
+    private MappedCsvSink(FileChannel channel, int regionSize) throws IOException {
+        super(map(channel, 0, regionSize));
+        this.channel = channel;
+        this.regionSize = regionSize;
+        this.unforcedRegions = new ArrayDeque<>();
+        this.regionStart = 0;
+    }
+
+    /**
+     * Maps the next region right after the given full region, which is kept to be forced on sync
+     *
+     * @param buffer a full mapped region
+     *
+     * @return a newly mapped region
+     *
+     * @throws IOException if region cannot be mapped
+     */
+    @Override
+    protected ByteBuffer next(ByteBuffer buffer) throws IOException {
+        unforcedRegions.addLast((MappedByteBuffer) buffer);
+        if (unforcedRegions.size() > MAX_UNFORCED_REGIONS) {
+            unforcedRegions.removeFirst().force();
+        }
+
+        regionStart += buffer.position();
+        return map(channel, regionStart, regionSize);
+    }
+
+    /**
+     * Nothing to flush as mapped bytes are already visible to every reader of the file
+     *
+     * @param buffer a mapped region
+     */
+    @Override
+    protected void flush(ByteBuffer buffer) {
+    }
+
+    /**
+     * Forces every finished region not yet forced, dropping them once forced, then the current region and the file
+     *
+     * @param buffer a current mapped region
+     *
+     * @throws IOException if bytes cannot be forced
+     */
+    @Override
+    protected void sync(ByteBuffer buffer) throws IOException {
+        while (!unforcedRegions.isEmpty()) {
+            unforcedRegions.peekFirst().force();
+            unforcedRegions.removeFirst();
+        }
+        ((MappedByteBuffer) buffer).force();
+        channel.force(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void close(ByteBuffer buffer) throws IOException {
+        unforcedRegions.clear();
+        try (channel) {
+            channel.truncate(regionStart + buffer.position());
+        }
+    }
+
+    /**
+     * Maps the region of given channel, the channel is closed if region cannot be mapped
+     *
+     * @param channel a file channel to map
+     * @param position a position of region in file
+     * @param size a size of region in bytes
+     *
+     * @return a newly mapped region
+     *
+     * @throws IOException if region cannot be mapped
+     */
+    private static ByteBuffer map(FileChannel channel, long position, int size) throws IOException {
+        try {
+            return channel.map(READ_WRITE, position, size);
+        }
+        catch (IOException | RuntimeException exception) {
+            channel.close();
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.extractor.util.sink;
+
+import static java.util.Objects.requireNonNull;
+
+import org.ideaslabut.aws.lambda.service.concurrent.ExecutorFactory;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * A csv sink streaming csv text straight to an s3 object, so that nothing is written to local disk. Text is encoded
+ * into a part sized buffer, a full buffer is uploaded as the next part of a multipart upload in the background while
+ * encoding continues into another buffer. At most the given number of parts are uploaded at once, once every buffer
+ * is being uploaded the writing thread waits for an upload to finish, so memory stays bounded by
+ * <code>(uploads + 1) * partSize</code> bytes however large the object grows.
+ * <p>
+ * An object which never fills a single part is put at once on close instead. Same as s3 every part but the last one
+ * is at least {@value #MIN_PART_SIZE} bytes, so flush cannot upload a partial part and sync only waits for the parts
+ * handed over so far. The object only becomes visible once this sink is closed, a failed upload is aborted on close
+ * so that no part is left behind.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 09, 2022
+ */
+public class S3MultipartCsvSink extends EncodingCsvSink {
+    public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private static final int MAX_PARTS = 10_000;
+    private static final String CSV_CONTENT_TYPE = "text/csv; charset=utf-8";
+    private static final String JSON_CONTENT_TYPE = "application/json";
+
+    private final S3Client s3Client;
+    private final String bucket;
+    private final String key;
+    private final String contentType;
+    private final int partSize;
+    private final int maxUploads;
+    private final BlockingQueue<ByteBuffer> pool;
+    private final List<Future<CompletedPart>> uploads;
+    private volatile IOException failure;
+    private ExecutorService executorService;
+    private String uploadId;
+    private int allocatedBuffers;
+
+    /**
+     * Creates a new instance of {@link S3MultipartCsvSink}, nothing is sent to s3 until the first part is full
+     *
+     * @param s3Client an s3 client to upload with
+     * @param bucket a name of bucket to upload to
+     * @param key a key of object to upload
+     * @param partSize a size of each part in bytes, at least {@value #MIN_PART_SIZE}
+     * @param maxUploads a maximum number of parts to upload at once, at least 1
+     *
+     * @throws IllegalArgumentException if part size is too small or max uploads is not positive
+     */
+    public S3MultipartCsvSink(S3Client s3Client, String bucket, String key, int partSize, int maxUploads) {
+        super(ByteBuffer.allocate(checkPartSize(partSize)));
+        if (maxUploads <= 0) {
+            throw new IllegalArgumentException("Max uploads should be positive");
+        }
+
+        this.s3Client = requireNonNull(s3Client);
+        this.bucket = requireNonNull(bucket);
+        this.key = requireNonNull(key);
+        this.contentType = key.endsWith(".json") ? JSON_CONTENT_TYPE : CSV_CONTENT_TYPE;
+        this.partSize = partSize;
+        this.maxUploads = maxUploads;
+        this.pool = new ArrayBlockingQueue<>(maxUploads + 1);
+        this.uploads = new ArrayList<>();
+        this.allocatedBuffers = 1;
+    }
+
+    /**
+     * Uploads the given full buffer as the next part and takes a buffer to continue encoding into, waiting for an
+     * upload to finish if every buffer is being uploaded
+     *
+     * @param buffer a buffer which has no room left
+     *
+     * @return a buffer to continue encoding into
+     *
+     * @throws IOException if multipart upload cannot be started or a previous part has failed
+     */
+    @Override
+    protected ByteBuffer next(ByteBuffer buffer) throws IOException {
+        upload(buffer);
+
+        var next = pool.poll();
+        if (next != null) {
+            return next;
+        }
+        if (allocatedBuffers <= maxUploads) {
+            allocatedBuffers++;
+            return ByteBuffer.allocate(partSize);
+        }
+
+        try {
+            return pool.take();
+        }
+        catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for s3 part upload");
+        }
+    }
+
+    /**
+     * Nothing to flush as a part smaller than {@value #MIN_PART_SIZE} bytes can only be the last one, fails if
+     * any part has failed so far
+     *
+     * @param buffer a buffer holding bytes of the current part
+     *
+     * @throws IOException if a part has failed
+     */
+    @Override
+    protected void flush(ByteBuffer buffer) throws IOException {
+        throwFailure();
+    }
+
+    /**
+     * Waits until every part handed over so far is uploaded, bytes of the current part are uploaded on close
+     *
+     * @param buffer a buffer holding bytes of the current part
+     *
+     * @throws IOException if a part has failed
+     */
+    @Override
+    protected void sync(ByteBuffer buffer) throws IOException {
+        awaitUploads();
+    }
+
+    /**
+     * Puts the object at once if no part was uploaded yet, otherwise uploads the last part and completes the
+     * multipart upload. The multipart upload is aborted if any part fails.
+     *
+     * @param buffer a buffer holding bytes of the last part
+     *
+     * @throws IOException if object cannot be uploaded
+     */
+    @Override
+    protected void close(ByteBuffer buffer) throws IOException {
+        try {
+            if (uploadId == null) {
+                var length = buffer.position();
+                s3Client.putObject(
+                    PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(contentType)
+                        .contentLength((long) length)
+                        .build(),
+                    requestBody(buffer, length)
+                );
+                return;
+            }
+
+            if (buffer.position() > 0) {
+                upload(buffer);
+            }
+
+            var parts = awaitUploads();
+            s3Client.completeMultipartUpload(
+                CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build()
+            );
+        }
+        catch (SdkException sdkException) {
+            abort(sdkException);
+            throw new IOException(sdkException);
+        }
+        catch (IOException | RuntimeException exception) {
+            abort(exception);
+            throw exception;
+        }
+        finally {
+            if (executorService != null) {
+                executorService.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Hands over the given buffer to be uploaded as the next part, starting the multipart upload first if needed
+     *
+     * @param buffer a buffer holding bytes of the part
+     *
+     * @throws IOException if multipart upload cannot be started, there are too many parts or a part has failed
+     */
+    private void upload(ByteBuffer buffer) throws IOException {
+        throwFailure();
+        if (uploads.size() == MAX_PARTS) {
+            throw new IOException("S3 object cannot have more than " + MAX_PARTS + " parts, use a larger part size");
+        }
+
+        if (uploadId == null) {
+            try {
+                uploadId = s3Client.createMultipartUpload(
+                    CreateMultipartUploadRequest.builder().bucket(bucket).key(key).contentType(contentType).build()
+                ).uploadId();
+            }
+            catch (SdkException sdkException) {
+                throw new IOException(sdkException);
+            }
+            executorService = ExecutorFactory.newIoExecutor("s3-upload", maxUploads);
+        }
+
+        var partNumber = uploads.size() + 1;
+        var length = buffer.position();
+        uploads.add(executorService.submit(() -> uploadPart(buffer, partNumber, length)));
+    }
+
+    /**
+     * Uploads the given buffer as a part and puts the buffer back to the pool. Runs on upload thread.
+     *
+     * @param buffer a buffer holding bytes of the part
+     * @param partNumber a number of the part, starting from 1
+     * @param length a number of bytes in the part
+     *
+     * @return a completed part
+     *
+     * @throws IOException if part cannot be uploaded
+     */
+    private CompletedPart uploadPart(ByteBuffer buffer, int partNumber, int length) throws IOException {
+        try {
+            var response = s3Client.uploadPart(
+                UploadPartRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .partNumber(partNumber)
+                    .contentLength((long) length)
+                    .build(),
+                requestBody(buffer, length)
+            );
+            return CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build();
+        }
+        catch (RuntimeException runtimeException) {
+            var ioe = new IOException(
+                String.format("Failed to upload part %d of s3://%s/%s", partNumber, bucket, key),
+                runtimeException
+            );
+            failure = ioe;
+            throw ioe;
+        }
+        finally {
+            buffer.clear();
+            pool.add(buffer);
+        }
+    }
+
+    /**
+     * Waits until every part handed over so far is uploaded
+     *
+     * @return a list of completed parts ordered by part number
+     *
+     * @throws IOException if a part has failed or interrupted while waiting
+     */
+    private List<CompletedPart> awaitUploads() throws IOException {
+        var parts = new ArrayList<CompletedPart>(uploads.size());
+        for (var upload : uploads) {
+            try {
+                parts.add(upload.get());
+            }
+            catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for s3 part upload");
+            }
+            catch (ExecutionException executionException) {
+                var cause = executionException.getCause();
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Aborts the multipart upload if any, once parts still being uploaded are done so that none of them outlives
+     * the abort. A failure to abort is added to the given exception as suppressed.
+     *
+     * @param exception an exception which failed the upload
+     */
+    private void abort(Exception exception) {
+        if (uploadId == null) {
+            return;
+        }
+
+        for (var upload : uploads) {
+            try {
+                upload.get();
+            }
+            catch (ExecutionException ignored) {
+                // Failure of the part is the reason of the abort
+            }
+            catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        try {
+            s3Client.abortMultipartUpload(
+                AbortMultipartUploadRequest.builder().bucket(bucket).key(key).uploadId(uploadId).build()
+            );
+        }
+        catch (SdkException sdkException) {
+            exception.addSuppressed(sdkException);
+        }
+    }
+
+    /**
+     * Creates a replayable request body over the given buffer without copying it, so that a retried request sends
+     * the same bytes again
+     *
+     * @param buffer a heap buffer holding the bytes
+     * @param length a number of bytes to send
+     *
+     * @return a newly created request body
+     */
+    private RequestBody requestBody(ByteBuffer buffer, int length) {
+        return RequestBody.fromContentProvider(
+            () -> new ByteArrayInputStream(buffer.array(), buffer.arrayOffset(), length),
+            length,
+            contentType
+        );
+    }
+
+    /**
+     * Throws the failure of any part uploaded so far
+     *
+     * @throws IOException if a part has failed
+     */
+    private void throwFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("S3 part upload failed", failure);
+        }
+    }
+
+    /**
+     * Checks the given part size
+     *
+     * @param partSize a part size to check
+     *
+     * @return the given part size
+     *
+     * @throws IllegalArgumentException if part size is less than {@value #MIN_PART_SIZE} bytes
+     */
+    private static int checkPartSize(int partSize) {
+        if (partSize < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("Part size should be at least " + MIN_PART_SIZE + " bytes");
+        }
+        return partSize;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.extractor.util.sink;
+
+/**
+ * A helper of sinks which count bytes of text before it is encoded
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 08, 2022
+ */
+final class Utf8 {
+    private Utf8() {
+    }
+
+    /**
+     * Gets the number of bytes given value takes once encoded as UTF-8, each half of a surrogate pair counts two
+     *
+     * @param value a value to measure
+     *
+     * @return a number of bytes
+     */
+    static long length(CharSequence value) {
+        long length = value.length();
+        for (int index = 0; index < value.length(); index++) {
+            var character = value.charAt(index);
+            if (Character.isSurrogate(character) || character >= 0x80 && character < 0x800) {
+                length++;
+            }
+            else if (character >= 0x800) {
+                length += 2;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.extractor.util.sink;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A csv sink writing through a {@link Writer}, the default sink which encodes characters as they are buffered
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 06, 2022
+ */
+public class WriterCsvSink implements CsvSink {
+    private final Writer writer;
+    private final FileChannel channel;
+    private long bytesWritten;
+
+    /**
+     * Creates a new instance of {@link WriterCsvSink}
+     *
+     * @param writer a writer to write csv text to
+     * @param channel a file channel the writer writes to, used to force written bytes to the storage device
+     */
+    public WriterCsvSink(Writer writer, FileChannel channel) {
+        this.writer = writer;
+        this.channel = channel;
+        this.bytesWritten = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(CharSequence value) throws IOException {
+        writer.append(value);
+        bytesWritten += Utf8.length(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sync() throws IOException {
+        writer.flush();
+        channel.force(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Flushes the underlying writer
+     *
+     * @throws IOException if any
+     */
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Closes the underlying writer
+     *
+     * @throws IOException if any
+     */
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
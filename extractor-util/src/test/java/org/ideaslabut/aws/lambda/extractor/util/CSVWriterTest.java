@@ -13,15 +13,26 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.ideaslabut.aws.lambda.fixtures.FakeS3Server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
@@ -158,6 +169,160 @@ class CSVWriterTest {
         }
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"writer", "channel", "mapped"})
+    void writeRowsWithSink(String sink) throws IOException {
+        try (var csvWriter = builder.withFileName(sink).withSink(sink).withBufferSize(64).build()) {
+            for (int row = 0; row < 50; row++) {
+                csvWriter.writeRow(Map.of("first", "value" + row, "second", ""));
+            }
+        }
+
+        var lines = Files.readAllLines(Path.of(tempPath.toString(), sink + ".csv"));
+        assertEquals(51, lines.size(), "Lines size");
+        assertTrue(lines.contains("value49,") || lines.contains(",value49"), "Last row should be written");
+    }
+
+    @Test
+    void flushPolicy() throws IOException {
+        var path = Path.of(tempPath.toString(), "policy.csv");
+        var flushPolicy = FlushPolicy.builder().withRows(2).withSyncOnCheckpoint(true).build();
+        try (var csvWriter = builder.withFileName("policy").withFlushPolicy(flushPolicy).build()) {
+            csvWriter.writeRow(Map.of("a", "1"));
+            assertEquals(0, Files.size(path), "Row should stay buffered below the rows threshold");
+
+            csvWriter.writeRow(Map.of("a", "2"));
+            assertEquals(3, Files.readAllLines(path).size(), "Rows should be flushed at the rows threshold");
+
+            csvWriter.writeRow(Map.of("a", "3"));
+            csvWriter.checkpoint();
+            assertEquals(4, Files.readAllLines(path).size(), "Checkpoint should flush every row");
+        }
+
+        assertThrows(NullPointerException.class, () -> CSVWriter.builder().withFlushPolicy(null));
+    }
+
+    @Test
+    void writeRowsAsync() throws IOException {
+        try (var csvWriter = builder.withFileName("async").withAsyncBuffers(2).build()) {
+            for (int row = 0; row < 1000; row++) {
+                csvWriter.writeRow(Map.of("a", "value" + row));
+            }
+            csvWriter.flush();
+            assertEquals(1001, Files.readAllLines(Path.of(tempPath.toString(), "async.csv")).size(), "Lines size");
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> CSVWriter.builder().withAsyncBuffers(1));
+        assertThrows(IllegalArgumentException.class, () -> CSVWriter.builder().withAsyncBuffers(-1));
+    }
+
+    @Test
+    void rollOverByRows() throws IOException {
+        var flushPolicy = FlushPolicy.builder().withSyncOnCheckpoint(true).build();
+        try (var csvWriter = builder.withFileName("rows").withMaxPartRows(2).withFlushPolicy(flushPolicy).build()) {
+            for (int row = 0; row < 5; row++) {
+                csvWriter.writeRow(Map.of("a", String.valueOf(row)));
+            }
+        }
+
+        assertEquals(List.of("\ufeffa", "0", "1"), readLines("rows-part-00000.csv"));
+        assertEquals(List.of("\ufeffa", "2", "3"), readLines("rows-part-00001.csv"));
+        assertEquals(List.of("\ufeffa", "4"), readLines("rows-part-00002.csv"));
+        assertFalse(Files.exists(Path.of(tempPath.toString(), "rows.csv")), "Unnumbered file should not be written");
+
+        var manifest = new ObjectMapper().readTree(Path.of(tempPath.toString(), "rows.manifest.json").toFile());
+        assertEquals("rows", manifest.get("file").asText());
+        assertEquals(5, manifest.get("rows").asLong());
+        assertEquals(3, manifest.get("parts").size());
+        assertEquals("rows-part-00001.csv", manifest.get("parts").get(1).get("file").asText());
+        assertEquals(2, manifest.get("parts").get(1).get("rows").asLong());
+        assertEquals(
+            Files.size(Path.of(tempPath.toString(), "rows-part-00002.csv")),
+            manifest.get("parts").get(2).get("bytes").asLong()
+        );
+    }
+
+    @Test
+    void closeFailure() throws IOException {
+        Files.createDirectories(tempPath.resolve("failed.manifest.json"));
+        var csvWriter = builder.withFileName("failed").withMaxPartRows(1).build();
+        csvWriter.writeRows(List.of(Map.of("a", "0"), Map.of("a", "1")));
+
+        assertThrows(UncheckedIOException.class, csvWriter::close, "Manifest cannot be written over a directory");
+        assertThrows(IOException.class, csvWriter::close, "Later close should not hide the failed one");
+    }
+
+    @Test
+    void rollOverByBytes() throws IOException {
+        try (var csvWriter = builder.withFileName("bytes").withMaxPartBytes(20).withSink("channel").build()) {
+            csvWriter.writeRows(List.of(
+                Map.of("a", "0123456789"),
+                Map.of("a", "0123456789"),
+                Map.of("a", "0123456789")
+            ));
+        }
+
+        var manifest = new ObjectMapper().readTree(Path.of(tempPath.toString(), "bytes.manifest.json").toFile());
+        assertEquals(3, manifest.get("rows").asLong());
+        assertEquals(2, manifest.get("parts").size(), "Part should end with the row which reaches max bytes");
+        assertEquals(2, manifest.get("parts").get(0).get("rows").asLong());
+        assertEquals(1, manifest.get("parts").get(1).get("rows").asLong());
+
+        assertThrows(IllegalArgumentException.class, () -> CSVWriter.builder().withMaxPartBytes(0));
+        assertThrows(IllegalArgumentException.class, () -> CSVWriter.builder().withMaxPartRows(0));
+    }
+
+    @Test
+    void s3Output() throws IOException {
+        try (
+            var fakeS3Server = FakeS3Server.builder().start();
+            var s3Client = S3Client.builder()
+                .region(Region.US_EAST_2)
+                .httpClientBuilder(UrlConnectionHttpClient.builder())
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("access", "secret")))
+                .endpointOverride(URI.create(fakeS3Server.getUrl()))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .build()
+        ) {
+            try (
+                var csvWriter = CSVWriter.builder()
+                    .withOutputDirectory(tempPath)
+                    .withFileName("s3")
+                    .withMaxPartRows(2)
+                    .withS3Output(s3Client, "exports", "elasticsearch/")
+                    .withS3Uploads(2)
+                    .build()
+            ) {
+                csvWriter.writeRows(List.of(Map.of("a", "0"), Map.of("a", "1"), Map.of("a", "2")));
+            }
+
+            var lineSeparator = System.lineSeparator();
+            assertEquals(
+                "\ufeffa" + lineSeparator + "0" + lineSeparator + "1" + lineSeparator,
+                new String(fakeS3Server.getObject("exports", "elasticsearch/s3-part-00000.csv").orElseThrow(), UTF_8)
+            );
+            assertEquals(
+                "\ufeffa" + lineSeparator + "2" + lineSeparator,
+                new String(fakeS3Server.getObject("exports", "elasticsearch/s3-part-00001.csv").orElseThrow(), UTF_8)
+            );
+
+            var manifest = new ObjectMapper().readTree(
+                fakeS3Server.getObject("exports", "elasticsearch/s3.manifest.json").orElseThrow()
+            );
+            assertEquals(3, manifest.get("rows").asLong());
+            assertEquals(2, manifest.get("parts").size());
+            assertFalse(Files.exists(tempPath.resolve("s3.manifest.json")), "Nothing should be written to disk");
+            assertThrows(IllegalArgumentException.class, () -> CSVWriter.builder().withS3Uploads(0));
+        }
+    }
+
+    @Test
+    void invalidSink() {
+        assertThrows(NullPointerException.class, () -> CSVWriter.builder().withSink(null));
+        assertThrows(IllegalArgumentException.class, () -> builder.withSink("unknown").build());
+        assertThrows(IllegalArgumentException.class, () -> builder.withBufferSize(1).build());
+    }
+
     @Test
     void writeInvalidRows() throws IOException {
         try (var csvWriter = builder.build()) {
@@ -166,6 +331,10 @@ class CSVWriterTest {
         }
     }
 
+    private List<String> readLines(String fileName) throws IOException {
+        return Files.readAllLines(Path.of(tempPath.toString(), fileName));
+    }
+
     private void assertHeaders(String fileName, String delimiter, Set<String> expectedHeaders) throws IOException {
         var readBytes = Files.readAllBytes(Path.of(tempPath.toString(), fileName + ".csv"));
         var bom = new byte[3];
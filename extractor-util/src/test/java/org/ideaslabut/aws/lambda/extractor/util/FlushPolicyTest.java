@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.extractor.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+/**
+ * Unit test for {@link FlushPolicy}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 07, 2022
+ */
+class FlushPolicyTest {
+    @Test
+    void onClose() {
+        var flushPolicy = FlushPolicy.onClose();
+        assertFalse(flushPolicy.hasThreshold(), "No threshold should be enabled");
+        assertFalse(flushPolicy.isFlushDue(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE), "Flush is never due");
+        assertFalse(flushPolicy.isSyncOnCheckpoint(), "Checkpoint should not sync");
+    }
+
+    @Test
+    void thresholds() {
+        var flushPolicy = FlushPolicy.builder()
+            .withBytes(1024)
+            .withRows(10)
+            .withInterval(Duration.ofSeconds(1))
+            .withSyncOnCheckpoint(true)
+            .build();
+
+        assertTrue(flushPolicy.hasThreshold(), "Thresholds should be enabled");
+        assertTrue(flushPolicy.isSyncOnCheckpoint(), "Checkpoint should sync");
+        assertFalse(flushPolicy.isFlushDue(1023, 9, Duration.ofMillis(999).toNanos()), "No threshold is reached");
+        assertTrue(flushPolicy.isFlushDue(1024, 0, 0), "Bytes threshold is reached");
+        assertTrue(flushPolicy.isFlushDue(0, 10, 0), "Rows threshold is reached");
+        assertTrue(flushPolicy.isFlushDue(0, 0, Duration.ofSeconds(1).toNanos()), "Interval threshold is reached");
+    }
+
+    @Test
+    void invalidThresholds() {
+        assertThrows(IllegalArgumentException.class, () -> FlushPolicy.builder().withBytes(0));
+        assertThrows(IllegalArgumentException.class, () -> FlushPolicy.builder().withRows(-1));
+        assertThrows(IllegalArgumentException.class, () -> FlushPolicy.builder().withInterval(Duration.ZERO));
+        assertThrows(NullPointerException.class, () -> FlushPolicy.builder().withInterval(null));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.extractor.util.sink;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Unit test for {@link AsyncCsvSink}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 08, 2022
+ */
+class AsyncCsvSinkTest {
+    @TempDir
+    Path tempPath;
+
+    @Test
+    void write() throws IOException {
+        var path = tempPath.resolve("async.csv");
+        var expected = new StringBuilder();
+        try (var sink = new AsyncCsvSink(CsvSinkFactory.newCsvSink(CsvSinkFactory.FILE_CHANNEL_SINK, path), 2, 100)) {
+            for (int row = 0; row < 10_000; row++) {
+                var line = row + ",\u00b0C" + System.lineSeparator();
+                sink.write(line);
+                expected.append(line);
+            }
+
+            sink.sync();
+            assertEquals(expected.toString(), Files.readString(path, UTF_8), "Synced rows should be in the file");
+            assertEquals(expected.toString().getBytes(UTF_8).length, sink.getBytesWritten(), "Bytes written");
+
+            sink.write("last");
+            expected.append("last");
+        }
+
+        assertEquals(expected.toString(), Files.readString(path, UTF_8));
+    }
+
+    @Test
+    void failure() throws IOException {
+        var failure = new IOException("Disk full");
+        var delegate = mock(CsvSink.class);
+        doThrow(failure).when(delegate).write(any());
+
+        var sink = new AsyncCsvSink(delegate, 2, 1);
+        sink.write("a");
+
+        var exception = assertThrows(IOException.class, sink::flush);
+        assertSame(failure, exception.getCause(), "Failure of writer thread should be propagated");
+        verify(delegate, never()).flush();
+        assertThrows(IOException.class, () -> sink.write("b"));
+
+        exception = assertThrows(IOException.class, sink::close);
+        assertSame(failure, exception.getCause(), "Failure of writer thread should be propagated on close");
+        verify(delegate).close();
+        assertDoesNotThrow(sink::close);
+    }
+
+    @Test
+    void invalidRing() {
+        var delegate = mock(CsvSink.class);
+        assertThrows(IllegalArgumentException.class, () -> new AsyncCsvSink(delegate, 1, 100));
+        assertThrows(IllegalArgumentException.class, () -> new AsyncCsvSink(delegate, 2, 0));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.extractor.util.sink;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Unit test for {@link CsvSink} implementations created by {@link CsvSinkFactory}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 06, 2022
+ */
+class CsvSinkTest {
+    @TempDir
+    Path tempPath;
+
+    @ParameterizedTest
+    @ValueSource(strings = {CsvSinkFactory.WRITER_SINK, CsvSinkFactory.FILE_CHANNEL_SINK, CsvSinkFactory.MAPPED_SINK})
+    void write(String type) throws IOException {
+        var path = tempPath.resolve(type + ".csv");
+        var expected = new StringBuilder();
+        try (var sink = CsvSinkFactory.newCsvSink(type, path, 64)) {
+            for (int row = 0; row < 100; row++) {
+                // Multi byte characters keep falling on buffer boundaries
+                var line = new StringBuilder().append(row)
+                    .append(",\u00b0C,\u6e29\u5ea6,\uD83D\uDE00")
+                    .append(System.lineSeparator());
+                sink.write(line);
+                expected.append(line);
+            }
+            assertEquals(expected.toString().getBytes(UTF_8).length, sink.getBytesWritten(), "Bytes written");
+        }
+
+        assertEquals(expected.toString(), Files.readString(path, UTF_8));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {CsvSinkFactory.WRITER_SINK, CsvSinkFactory.FILE_CHANNEL_SINK, CsvSinkFactory.MAPPED_SINK})
+    void sync(String type) throws IOException {
+        var path = tempPath.resolve(type + ".csv");
+        try (var sink = CsvSinkFactory.newCsvSink(type, path)) {
+            sink.write("a,b");
+            sink.sync();
+            assertEquals("a,b", new String(Files.readAllBytes(path), 0, 3, UTF_8), "Synced bytes should be visible");
+        }
+    }
+
+    @Test
+    void syncAcrossMappedRegions() throws IOException {
+        var path = tempPath.resolve("regions.csv");
+        var expected = new StringBuilder();
+        try (var sink = new MappedCsvSink(path, 64)) {
+            for (int row = 0; row < 1000; row++) {
+                var line = row + ",0123456789" + System.lineSeparator();
+                sink.write(line);
+                expected.append(line);
+                if (row % 300 == 0) {
+                    sink.sync();
+                }
+            }
+            sink.sync();
+            assertEquals(
+                expected.toString(),
+                new String(Files.readAllBytes(path), 0, expected.length(), UTF_8),
+                "Every region should be synced"
+            );
+        }
+
+        assertEquals(expected.toString(), Files.readString(path, UTF_8));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {CsvSinkFactory.FILE_CHANNEL_SINK, CsvSinkFactory.MAPPED_SINK})
+    void flushAndClose(String type) throws IOException {
+        var path = tempPath.resolve(type + ".csv");
+        var sink = CsvSinkFactory.newCsvSink(type, path);
+        sink.write("a,b");
+        sink.flush();
+        assertEquals("a,b", new String(Files.readAllBytes(path), 0, 3, UTF_8), "Flushed bytes should be visible");
+
+        sink.close();
+        assertEquals("a,b", Files.readString(path, UTF_8));
+        assertDoesNotThrow(sink::close);
+
+        var exception = assertThrows(IOException.class, () -> sink.write("c"));
+        assertEquals("Stream closed", exception.getMessage());
+        assertThrows(IOException.class, sink::flush);
+    }
+
+    @Test
+    void unmappableCharacter() throws IOException {
+        try (var sink = CsvSinkFactory.newCsvSink(CsvSinkFactory.FILE_CHANNEL_SINK, tempPath.resolve("bad.csv"))) {
+            assertThrows(CharacterCodingException.class, () -> sink.write("\uD83D"));
+            assertDoesNotThrow(() -> sink.write("ok"));
+        }
+        assertEquals("ok", Files.readString(tempPath.resolve("bad.csv"), UTF_8));
+    }
+
+    @Test
+    void invalidSink() {
+        var path = tempPath.resolve("invalid.csv");
+        assertThrows(IllegalArgumentException.class, () -> CsvSinkFactory.newCsvSink("unknown", path));
+        assertThrows(IllegalArgumentException.class, () -> CsvSinkFactory.newCsvSink("channel", path, 16));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.extractor.util.sink;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.ideaslabut.aws.lambda.fixtures.FakeS3Server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Unit test for {@link S3MultipartCsvSink} against {@link FakeS3Server}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 09, 2022
+ */
+class S3MultipartCsvSinkTest {
+    private static final String BUCKET = "exports";
+
+    private FakeS3Server fakeS3Server;
+    private S3Client s3Client;
+
+    @BeforeEach
+    void setup() throws IOException {
+        fakeS3Server = FakeS3Server.builder().withLatency(Duration.ofMillis(300)).start();
+        s3Client = S3Client.builder()
+            .region(Region.US_EAST_2)
+            .httpClientBuilder(UrlConnectionHttpClient.builder())
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("access", "secret")))
+            .endpointOverride(URI.create(fakeS3Server.getUrl()))
+            .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+            .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Client.close();
+        fakeS3Server.close();
+    }
+
+    @Test
+    void putSmallObject() throws IOException {
+        try (var sink = new S3MultipartCsvSink(s3Client, BUCKET, "small.csv", S3MultipartCsvSink.MIN_PART_SIZE, 2)) {
+            sink.write("a,\u00b0C");
+            sink.flush();
+            sink.sync();
+            assertFalse(
+                fakeS3Server.getObject(BUCKET, "small.csv").isPresent(),
+                "Object should not be visible until closed"
+            );
+        }
+
+        assertArrayEquals("a,\u00b0C".getBytes(UTF_8), fakeS3Server.getObject(BUCKET, "small.csv").orElseThrow());
+        assertEquals(1, fakeS3Server.getRequestCount("PutObject"));
+        assertEquals(0, fakeS3Server.getRequestCount("CreateMultipartUpload"), "Small object needs no multipart");
+    }
+
+    @Test
+    void multipartUpload() throws IOException {
+        var expected = new StringBuilder();
+        var sink = new S3MultipartCsvSink(s3Client, BUCKET, "large.csv", S3MultipartCsvSink.MIN_PART_SIZE, 2);
+        fakeS3Server.failNext(1);
+        for (int row = 0; row < 600_000; row++) {
+            var line = row + ",0123456789,\u00b0C" + System.lineSeparator();
+            sink.write(line);
+            expected.append(line);
+        }
+
+        sink.sync();
+        assertEquals(2, fakeS3Server.getMaxConcurrentPartUploads(), "Full parts should be uploaded concurrently");
+        sink.close();
+
+        var bytes = expected.toString().getBytes(UTF_8);
+        assertTrue(bytes.length > 2 * S3MultipartCsvSink.MIN_PART_SIZE, "Object should span at least three parts");
+        assertArrayEquals(bytes, fakeS3Server.getObject(BUCKET, "large.csv").orElseThrow());
+        assertEquals(bytes.length, sink.getBytesWritten(), "Bytes written");
+        assertEquals(1, fakeS3Server.getRequestCount("CreateMultipartUpload"));
+        assertEquals(4, fakeS3Server.getRequestCount("UploadPart"), "Failed part should be retried");
+        assertEquals(1, fakeS3Server.getRequestCount("CompleteMultipartUpload"));
+        assertEquals(0, fakeS3Server.getUploadsInProgress());
+    }
+
+    @Test
+    void abortFailedUpload() {
+        var sink = new S3MultipartCsvSink(s3Client, BUCKET, "failed.csv", S3MultipartCsvSink.MIN_PART_SIZE, 1);
+        fakeS3Server.failNext(Integer.MAX_VALUE);
+
+        var exception = assertThrows(IOException.class, () -> {
+            var line = "0123456789".repeat(100);
+            for (int row = 0; row < 20_000; row++) {
+                sink.write(line);
+            }
+        });
+        assertEquals("S3 part upload failed", exception.getMessage());
+
+        assertThrows(IOException.class, sink::close);
+        assertEquals(1, fakeS3Server.getRequestCount("AbortMultipartUpload"), "Failed upload should be aborted");
+        assertEquals(0, fakeS3Server.getUploadsInProgress(), "No upload should be left behind");
+        assertFalse(fakeS3Server.getObject(BUCKET, "failed.csv").isPresent());
+    }
+
+    @Test
+    void invalidSink() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new S3MultipartCsvSink(s3Client, BUCKET, "key", S3MultipartCsvSink.MIN_PART_SIZE - 1, 1)
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new S3MultipartCsvSink(s3Client, BUCKET, "key", S3MultipartCsvSink.MIN_PART_SIZE, 0)
+        );
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+/**
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 23, 2022
+ */
+module ideaslabut.aws.lambda.load.generator {
+    requires ideaslabut.aws.lambda;
+    requires ideaslabut.aws.lambda.core;
+    requires ideaslabut.aws.lambda.test.fixtures;
+    requires aws.lambda.java.core;
+    requires software.amazon.awssdk.auth;
+    requires software.amazon.awssdk.regions;
+    requires software.amazon.awssdk.http.urlconnection;
+    requires software.amazon.awssdk.services.apigatewaymanagementapi;
+}
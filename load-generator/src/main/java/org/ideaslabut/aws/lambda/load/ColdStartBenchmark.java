@@ -0,0 +1,200 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.load;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compares cold starts of websocket lambda with and without an application class data sharing archive. Every run
+ * launches a fresh jvm with {@link ColdStartProbe} on the given class path, alternating between the default jvm
+ * archive and the given application archive so that both see the same machine state, and reports the median
+ * of time from process launch to probe result, handler init and first invocation.
+ * <p>
+ * The class path has to start with the class path the archive was dumped with, otherwise the jvm refuses the
+ * archive. The archive run uses <code>-Xshare:on</code> so that a refused archive fails the run instead of quietly
+ * measuring the default.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 05, 2022
+ */
+public class ColdStartBenchmark {
+    private static final List<String> JVM_OPTIONS = List.of("-XX:+TieredCompilation", "-XX:TieredStopAtLevel=1");
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    /**
+     * Entry point of cold start benchmark
+     *
+     * @param args a command line options <code>--classpath</code>, <code>--archive</code> and optional
+     *     <code>--runs</code> which defaults to 10
+     *
+     * @throws IOException if a probe jvm cannot be launched or fails
+     * @throws InterruptedException if interrupted while waiting for a probe jvm
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var options = new HashMap<String, String>();
+        for (int index = 0; index < args.length; index += 2) {
+            if (!List.of("--classpath", "--archive", "--runs").contains(args[index]) || index + 1 >= args.length) {
+                throw new IllegalArgumentException("Unknown or incomplete option " + args[index]);
+            }
+            options.put(args[index], args[index + 1]);
+        }
+
+        var classpath = Optional.ofNullable(options.get("--classpath"))
+            .orElseThrow(() -> new IllegalArgumentException("Missing --classpath"));
+        var archive = Path.of(Optional.ofNullable(options.get("--archive"))
+            .orElseThrow(() -> new IllegalArgumentException("Missing --archive")));
+        var runs = Integer.parseInt(options.getOrDefault("--runs", "10"));
+
+        var benchmark = new ColdStartBenchmark(classpath, archive);
+        System.out.printf("Running %d cold starts of each mode with archive %s%s", runs, archive, System.lineSeparator());
+        benchmark.print(benchmark.run(runs), System.out);
+    }
+
+    private final String classpath;
+    private final Path archive;
+    private final String java;
+
+    /**
+     * Creates a new instance of {@link ColdStartBenchmark} launching probes with java of this jvm
+     *
+     * @param classpath a class path of probe jvm
+     * @param archive a class data sharing archive dumped for the class path
+     */
+    public ColdStartBenchmark(String classpath, Path archive) {
+        this.classpath = classpath;
+        this.archive = archive;
+        this.java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    /**
+     * Runs the given number of cold starts of each mode
+     *
+     * @param runs a number of cold starts of each mode
+     *
+     * @return a samples of each mode, each sample holds process, init and first invocation milliseconds
+     *
+     * @throws IOException if a probe jvm cannot be launched or fails
+     * @throws InterruptedException if interrupted while waiting for a probe jvm
+     */
+    public Map<String, List<double[]>> run(int runs) throws IOException, InterruptedException {
+        var samples = Map.<String, List<double[]>>of("default", new ArrayList<>(), "app-cds", new ArrayList<>());
+        for (int run = 0; run < runs; run++) {
+            samples.get("default").add(probe(List.of()));
+            samples.get("app-cds").add(probe(List.of("-Xshare:on", "-XX:SharedArchiveFile=" + archive)));
+        }
+        return samples;
+    }
+
+    /**
+     * Prints the median of samples of each mode
+     *
+     * @param samples a samples of each mode
+     * @param printStream a print stream to print to
+     */
+    public void print(Map<String, List<double[]>> samples, PrintStream printStream) {
+        printStream.printf(
+            "%-9s %6s %12s %9s %22s%s",
+            "mode", "runs", "process ms", "init ms", "first invocation ms", System.lineSeparator()
+        );
+        for (var mode : List.of("default", "app-cds")) {
+            var modeSamples = samples.get(mode);
+            printStream.printf(
+                Locale.ROOT,
+                "%-9s %6d %12.1f %9.1f %22.1f%s",
+                mode,
+                modeSamples.size(),
+                median(modeSamples, 0),
+                median(modeSamples, 1),
+                median(modeSamples, 2),
+                System.lineSeparator()
+            );
+        }
+    }
+
+    /**
+     * Launches a probe jvm with given extra options and reads its result
+     *
+     * @param options a jvm options selecting the archive
+     *
+     * @return a sample of process, init and first invocation milliseconds
+     *
+     * @throws IOException if probe jvm cannot be launched or exits without result
+     * @throws InterruptedException if interrupted while waiting for probe jvm
+     */
+    private double[] probe(List<String> options) throws IOException, InterruptedException {
+        var command = new ArrayList<String>();
+        command.add(java);
+        command.addAll(JVM_OPTIONS);
+        command.addAll(options);
+        command.addAll(List.of("-cp", classpath, ColdStartProbe.class.getName()));
+
+        var start = System.nanoTime();
+        var process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String result = null;
+        var output = new StringBuilder();
+        try (var reader = new BufferedReader(new InputStreamReader(process.getInputStream(), UTF_8))) {
+            for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (result == null && line.startsWith(ColdStartProbe.RESULT_PREFIX)) {
+                    result = line;
+                }
+                else {
+                    output.append(line).append(System.lineSeparator());
+                }
+            }
+        }
+        var processMillis = (System.nanoTime() - start) / NANOS_PER_MILLI;
+
+        var exitCode = process.waitFor();
+        if (exitCode != 0 || result == null) {
+            throw new IOException("Probe " + command + " exited with " + exitCode + System.lineSeparator() + output);
+        }
+        return parse(result, processMillis);
+    }
+
+    /**
+     * Parses the given probe result line
+     *
+     * @param result a result line of probe
+     * @param processMillis a milliseconds from process launch to exit
+     *
+     * @return a sample of process, init and first invocation milliseconds
+     */
+    static double[] parse(String result, double processMillis) {
+        var values = new HashMap<String, Double>();
+        Arrays.stream(result.substring(ColdStartProbe.RESULT_PREFIX.length()).trim().split(" "))
+            .map(pair -> pair.split("="))
+            .forEach(pair -> values.put(pair[0], Double.parseDouble(pair[1])));
+        return new double[] {processMillis, values.get("initMs"), values.get("firstInvocationMs")};
+    }
+
+    /**
+     * Gets the median of given value of samples
+     *
+     * @param samples a samples
+     * @param index an index of value in each sample
+     *
+     * @return a median, zero if there is no sample
+     */
+    static double median(List<double[]> samples, int index) {
+        if (samples.isEmpty()) {
+            return 0;
+        }
+        var values = samples.stream().mapToDouble(sample -> sample[index]).sorted().toArray();
+        var middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+}
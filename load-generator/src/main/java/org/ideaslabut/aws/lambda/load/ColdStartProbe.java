@@ -0,0 +1,165 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.load;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static software.amazon.awssdk.regions.Region.US_EAST_2;
+
+import org.ideaslabut.aws.lambda.domain.websocket.ProxyRequestEvent;
+import org.ideaslabut.aws.lambda.domain.websocket.RequestContext;
+import org.ideaslabut.aws.lambda.domain.websocket.RouteKey;
+import org.ideaslabut.aws.lambda.fixtures.FakeApiGatewayManagementServer;
+import org.ideaslabut.aws.lambda.fixtures.FakeOpenSearchServer;
+import org.ideaslabut.aws.lambda.handlers.WebSocketMessageHandler;
+import org.ideaslabut.aws.lambda.handlers.WebSocketStreamHandler;
+import org.ideaslabut.aws.lambda.service.ElasticsearchService;
+import org.ideaslabut.aws.lambda.service.WebSocketService;
+import org.ideaslabut.aws.lambda.service.connection.ConnectionStoreFactory;
+import org.ideaslabut.aws.lambda.service.connection.ElasticsearchConnectionStore;
+import org.ideaslabut.aws.lambda.service.metrics.EmfMetricsPublisher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.services.apigatewaymanagementapi.ApiGatewayManagementApiClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * Measures the cold start of websocket lambda inside the jvm it is launched in, i.e. the time to build the handler
+ * along with its services and the time of its first invocation. Local stand-ins are started before the clock
+ * starts, so only the work lambda does on a cold start is timed. After the first invocation one event of every
+ * route goes through both {@link WebSocketMessageHandler} and {@link WebSocketStreamHandler}, which makes this
+ * the training run a class data sharing archive is dumped from.
+ * <p>
+ * The result is printed as a single line starting with {@value #RESULT_PREFIX} for {@link ColdStartBenchmark} to
+ * pick up from the output of a fresh jvm.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 05, 2022
+ */
+public class ColdStartProbe {
+    public static final String RESULT_PREFIX = "cold-start";
+
+    private static final String DOMAIN_NAME = "127.0.0.1";
+    private static final String STAGE = "cold-start";
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    /**
+     * Entry point of cold start probe
+     *
+     * @param args no arguments are expected
+     *
+     * @throws IOException if local stand-ins cannot be started
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println(new ColdStartProbe().run());
+    }
+
+    /**
+     * Builds the handler against freshly started local stand-ins and invokes it with every route
+     *
+     * @return a result line holding init and first invocation time in milliseconds
+     *
+     * @throws IOException if local stand-ins cannot be started
+     */
+    public String run() throws IOException {
+        try (
+            var openSearchServer = FakeOpenSearchServer.builder().start();
+            var managementServer = FakeApiGatewayManagementServer.builder().withRecording(false).start()
+        ) {
+            var initStart = System.nanoTime();
+            var elasticsearchService = ElasticsearchService.builder()
+                .withUrl(openSearchServer.getUrl())
+                .withAuthenticationKey("cold-start")
+                .build();
+            var apiGatewayManagementClient = ApiGatewayManagementApiClient.builder()
+                .region(US_EAST_2)
+                .httpClientBuilder(UrlConnectionHttpClient.builder())
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("cold", "start")))
+                .endpointOverride(URI.create(managementServer.getUrl()))
+                .build();
+            var webSocketService = WebSocketService.builder()
+                .withManagementUrl(managementServer.getUrl())
+                .withConnectionStore(new ElasticsearchConnectionStore(
+                    elasticsearchService,
+                    ConnectionStoreFactory.WEB_SOCKET_INDEX_NAME
+                ))
+                .withApiGatewayManagementClient(apiGatewayManagementClient)
+                .withMetricsPublisher(new EmfMetricsPublisher(
+                    STAGE,
+                    new PrintStream(OutputStream.nullOutputStream()),
+                    new ObjectMapper()
+                ))
+                .build();
+            var handler = new WebSocketMessageHandler(webSocketService);
+            var initNanos = System.nanoTime() - initStart;
+
+            var invocationStart = System.nanoTime();
+            handler.handleRequest(event(RouteKey.CONNECT, "alice", null), null);
+            var firstInvocationNanos = System.nanoTime() - invocationStart;
+
+            handler.handleRequest(event(RouteKey.CONNECT, "bob", null), null);
+            handler.handleRequest(event(RouteKey.JOIN_ROOM, "bob", "{\"room\":\"lobby\"}"), null);
+            handler.handleRequest(event(RouteKey.SEND_MESSAGE, "alice", "{\"message\":\"hello\"}"), null);
+            handler.handleRequest(
+                event(RouteKey.UNICAST, "alice", "{\"connectionId\":\"bob\",\"message\":\"hi\"}"),
+                null
+            );
+            handler.handleRequest(
+                event(RouteKey.MULTICAST, "bob", "{\"connectionIds\":[\"alice\"],\"message\":\"hi\"}"),
+                null
+            );
+
+            var streamHandler = new WebSocketStreamHandler(webSocketService);
+            streamHandler.handleRequest(
+                new ByteArrayInputStream(("{\"requestContext\":{\"routeKey\":\"sendMessage\",\"connectionId\":\"bob\","
+                    + "\"domainName\":\"" + DOMAIN_NAME + "\",\"stage\":\"" + STAGE + "\"},"
+                    + "\"body\":\"{\\\"message\\\":\\\"hello\\\"}\",\"isBase64Encoded\":false}").getBytes(UTF_8)),
+                new ByteArrayOutputStream(),
+                null
+            );
+
+            handler.handleRequest(event(RouteKey.DISCONNECT, "alice", null), null);
+            handler.handleRequest(event(RouteKey.DISCONNECT, "bob", null), null);
+
+            return String.format(
+                Locale.ROOT,
+                "%s initMs=%.3f firstInvocationMs=%.3f",
+                RESULT_PREFIX,
+                initNanos / NANOS_PER_MILLI,
+                firstInvocationNanos / NANOS_PER_MILLI
+            );
+        }
+    }
+
+    /**
+     * Builds a websocket proxy request event same as api gateway does
+     *
+     * @param routeKey a route key of event
+     * @param connectionId a connection id of event
+     * @param body a body of event, null if none
+     *
+     * @return a newly created proxy request event
+     */
+    private ProxyRequestEvent event(RouteKey routeKey, String connectionId, String body) {
+        var requestContext = new RequestContext();
+        requestContext.setConnectionId(connectionId);
+        requestContext.setRouteKey(routeKey.getAction());
+        requestContext.setDomainName(DOMAIN_NAME);
+        requestContext.setStage(STAGE);
+
+        var proxyRequestEvent = new ProxyRequestEvent();
+        proxyRequestEvent.setRequestContext(requestContext);
+        proxyRequestEvent.setBody(body);
+        return proxyRequestEvent;
+    }
+}
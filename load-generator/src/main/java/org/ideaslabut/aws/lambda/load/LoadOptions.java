@@ -0,0 +1,305 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.load;
+
+import org.ideaslabut.aws.lambda.service.connection.ConnectionStoreFactory;
+
+import java.time.Duration;
+
+/**
+ * Options of a websocket load run
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 23, 2022
+ */
+public class LoadOptions {
+    /**
+     * A builder for {@link LoadOptions}
+     */
+    public static class Builder {
+        private int connections;
+        private int messages;
+        private int threads;
+        private int messageSize;
+        private Duration elasticsearchLatency;
+        private Duration managementLatency;
+        private Duration coalescingWindow;
+        private String connectionStore;
+
+        /**
+         * Creates a new instance of load options {@link Builder}
+         */
+        private Builder() {
+            this.connections = 200;
+            this.messages = 50;
+            this.threads = 16;
+            this.messageSize = 256;
+            this.elasticsearchLatency = Duration.ZERO;
+            this.managementLatency = Duration.ZERO;
+            this.coalescingWindow = Duration.ZERO;
+            this.connectionStore = ConnectionStoreFactory.ELASTICSEARCH_STORE;
+        }
+
+        /**
+         * Sets the number of websocket connections to open, each message is broadcast to all but its sender
+         *
+         * @param connections a number of connections to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withConnections(int connections) {
+            this.connections = positive(connections, "Connections");
+            return this;
+        }
+
+        /**
+         * Sets the number of sendMessage events to fire
+         *
+         * @param messages a number of messages to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withMessages(int messages) {
+            this.messages = positive(messages, "Messages");
+            return this;
+        }
+
+        /**
+         * Sets the number of concurrent lambda invocations
+         *
+         * @param threads a number of threads to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withThreads(int threads) {
+            this.threads = positive(threads, "Threads");
+            return this;
+        }
+
+        /**
+         * Sets the size of each message payload in bytes
+         *
+         * @param messageSize a message size to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withMessageSize(int messageSize) {
+            this.messageSize = positive(messageSize, "Message size");
+            return this;
+        }
+
+        /**
+         * Sets the latency added to every elasticsearch request
+         *
+         * @param elasticsearchLatency a latency to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withElasticsearchLatency(Duration elasticsearchLatency) {
+            this.elasticsearchLatency = elasticsearchLatency;
+            return this;
+        }
+
+        /**
+         * Sets the latency added to every api gateway management request
+         *
+         * @param managementLatency a latency to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withManagementLatency(Duration managementLatency) {
+            this.managementLatency = managementLatency;
+            return this;
+        }
+
+        /**
+         * Sets the coalescing window of websocket service, zero turns coalescing off
+         *
+         * @param coalescingWindow a coalescing window to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withCoalescingWindow(Duration coalescingWindow) {
+            this.coalescingWindow = coalescingWindow;
+            return this;
+        }
+
+        /**
+         * Sets the connection store of websocket service, either elasticsearch or bucketed backed by fake open search
+         * server or memory
+         *
+         * @param connectionStore a connection store to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withConnectionStore(String connectionStore) {
+            if (!ConnectionStoreFactory.ELASTICSEARCH_STORE.equals(connectionStore) &&
+                !ConnectionStoreFactory.BUCKETED_STORE.equals(connectionStore) &&
+                !ConnectionStoreFactory.MEMORY_STORE.equals(connectionStore)) {
+                throw new IllegalArgumentException("Connection store should be elasticsearch, bucketed or memory");
+            }
+            this.connectionStore = connectionStore;
+            return this;
+        }
+
+        /**
+         * Builds a new instance of {@link LoadOptions}
+         *
+         * @return a newly created load options
+         */
+        public LoadOptions build() {
+            return new LoadOptions(this);
+        }
+
+        /**
+         * Checks that the given option value is positive
+         *
+         * @param value an option value to check
+         * @param name a name of option
+         *
+         * @return a given value
+         *
+         * @throws IllegalArgumentException if given value is not positive
+         */
+        private static int positive(int value, String name) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " should be positive");
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Creates a new instance of load options {@link Builder}
+     *
+     * @return a newly created builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Parses the load options from command line arguments e.g.
+     * <code>--connections 500 --messages 100 --threads 32 --message-size 1024 --es-latency-ms 5
+     * --management-latency-ms 2 --coalescing-window-ms 5 --connection-store memory</code>
+     *
+     * @param args a command line arguments
+     *
+     * @return a parsed load options
+     *
+     * @throws IllegalArgumentException if any option is unknown or its value is missing
+     */
+    public static LoadOptions fromArgs(String[] args) {
+        var builder = builder();
+        for (int index = 0; index < args.length; index += 2) {
+            if (index + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value of option " + args[index]);
+            }
+
+            var value = args[index + 1];
+            switch (args[index]) {
+                case "--connections":
+                    builder.withConnections(Integer.parseInt(value));
+                    break;
+                case "--messages":
+                    builder.withMessages(Integer.parseInt(value));
+                    break;
+                case "--threads":
+                    builder.withThreads(Integer.parseInt(value));
+                    break;
+                case "--message-size":
+                    builder.withMessageSize(Integer.parseInt(value));
+                    break;
+                case "--es-latency-ms":
+                    builder.withElasticsearchLatency(Duration.ofMillis(Long.parseLong(value)));
+                    break;
+                case "--management-latency-ms":
+                    builder.withManagementLatency(Duration.ofMillis(Long.parseLong(value)));
+                    break;
+                case "--coalescing-window-ms":
+                    builder.withCoalescingWindow(Duration.ofMillis(Long.parseLong(value)));
+                    break;
+                case "--connection-store":
+                    builder.withConnectionStore(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[index]);
+            }
+        }
+        return builder.build();
+    }
+
+    private final int connections;
+    private final int messages;
+    private final int threads;
+    private final int messageSize;
+    private final Duration elasticsearchLatency;
+    private final Duration managementLatency;
+    private final Duration coalescingWindow;
+    private final String connectionStore;
+
+    /**
+     * Creates a new instance of {@link LoadOptions}
+     *
+     * @param builder a builder to use
+     */
+    private LoadOptions(Builder builder) {
+        this.connections = builder.connections;
+        this.messages = builder.messages;
+        this.threads = builder.threads;
+        this.messageSize = builder.messageSize;
+        this.elasticsearchLatency = builder.elasticsearchLatency;
+        this.managementLatency = builder.managementLatency;
+        this.coalescingWindow = builder.coalescingWindow;
+        this.connectionStore = builder.connectionStore;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public int getMessages() {
+        return messages;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getMessageSize() {
+        return messageSize;
+    }
+
+    public Duration getElasticsearchLatency() {
+        return elasticsearchLatency;
+    }
+
+    public Duration getManagementLatency() {
+        return managementLatency;
+    }
+
+    public Duration getCoalescingWindow() {
+        return coalescingWindow;
+    }
+
+    public String getConnectionStore() {
+        return connectionStore;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "connections=%d, messages=%d, threads=%d, messageSize=%d, esLatency=%dms, managementLatency=%dms, " +
+                "coalescingWindow=%dms, connectionStore=%s",
+            connections,
+            messages,
+            threads,
+            messageSize,
+            elasticsearchLatency.toMillis(),
+            managementLatency.toMillis(),
+            coalescingWindow.toMillis(),
+            connectionStore
+        );
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.load;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the latency of every request of a single websocket route and summarizes it as throughput and
+ * percentiles. Every latency is kept so that percentiles are exact rather than approximated by buckets.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 23, 2022
+ */
+public class RouteStatistics {
+    private final String route;
+    private long[] latencies;
+    private int count;
+    private int errors;
+    private long elapsedNanos;
+
+    /**
+     * Creates a new instance of {@link RouteStatistics}
+     *
+     * @param route a name of route
+     */
+    public RouteStatistics(String route) {
+        this.route = route;
+        this.latencies = new long[1024];
+    }
+
+    /**
+     * Records a single request
+     *
+     * @param latencyNanos a latency of request in nanoseconds
+     * @param successful whether request was successful
+     */
+    public synchronized void record(long latencyNanos, boolean successful) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (!successful) {
+            errors++;
+        }
+    }
+
+    /**
+     * Sets the wall clock time taken to complete all requests of this route
+     *
+     * @param elapsedNanos an elapsed time in nanoseconds
+     */
+    public synchronized void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized int getErrors() {
+        return errors;
+    }
+
+    /**
+     * Gets the number of requests completed per second of wall clock time
+     *
+     * @return a throughput, zero if nothing recorded
+     */
+    public synchronized double getThroughput() {
+        return elapsedNanos == 0 ? 0 : count / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Gets the given percentile latency using nearest rank method
+     *
+     * @param percentile a percentile between 0 (exclusive) and 100 (inclusive)
+     *
+     * @return a percentile latency in milliseconds, zero if nothing recorded
+     */
+    public synchronized double getPercentileMillis(double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile should be within (0, 100]");
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        var sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        var rank = (int) Math.ceil(percentile / 100 * count);
+        return sorted[Math.max(rank, 1) - 1] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%-14s %9d %7d %12.1f %9.2f %9.2f %9.2f %9.2f",
+            route,
+            getCount(),
+            getErrors(),
+            getThroughput(),
+            getPercentileMillis(50),
+            getPercentileMillis(95),
+            getPercentileMillis(99),
+            getPercentileMillis(100)
+        );
+    }
+}
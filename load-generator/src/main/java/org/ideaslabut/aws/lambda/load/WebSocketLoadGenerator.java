@@ -0,0 +1,253 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.load;
+
+import static software.amazon.awssdk.regions.Region.US_EAST_2;
+
+import org.ideaslabut.aws.lambda.domain.websocket.ProxyRequestEvent;
+import org.ideaslabut.aws.lambda.domain.websocket.RequestContext;
+import org.ideaslabut.aws.lambda.domain.websocket.RouteKey;
+import org.ideaslabut.aws.lambda.fixtures.FakeApiGatewayManagementServer;
+import org.ideaslabut.aws.lambda.fixtures.FakeOpenSearchServer;
+import org.ideaslabut.aws.lambda.handlers.WebSocketMessageHandler;
+import org.ideaslabut.aws.lambda.service.ElasticsearchService;
+import org.ideaslabut.aws.lambda.service.WebSocketService;
+import org.ideaslabut.aws.lambda.service.connection.BucketedElasticsearchConnectionStore;
+import org.ideaslabut.aws.lambda.service.connection.ConnectionStore;
+import org.ideaslabut.aws.lambda.service.connection.ConnectionStoreFactory;
+import org.ideaslabut.aws.lambda.service.connection.ElasticsearchConnectionStore;
+import org.ideaslabut.aws.lambda.service.connection.InMemoryConnectionStore;
+import org.ideaslabut.aws.lambda.service.metrics.MetricsPublisher;
+import org.ideaslabut.aws.lambda.service.transport.JdkHttpTransport;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.services.apigatewaymanagementapi.ApiGatewayManagementApiClient;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Drives {@link WebSocketMessageHandler#handleRequest} with synthesized websocket proxy events against a local
+ * {@link FakeOpenSearchServer} and {@link FakeApiGatewayManagementServer} and reports throughput along with
+ * p50/p95/p99 latency per route. A run has three phases, a connect storm, a burst of sendMessage events each
+ * broadcast to every other connection and a disconnect storm.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 23, 2022
+ */
+public class WebSocketLoadGenerator {
+    private static final String DOMAIN_NAME = "127.0.0.1";
+    private static final String STAGE = "load";
+    private static final int CONNECTION_BUCKETS = 16;
+
+    /**
+     * Entry point of websocket load generator
+     *
+     * @param args a command line options, see {@link LoadOptions#fromArgs(String[])}
+     *
+     * @throws IOException if local stand-ins cannot be started
+     * @throws InterruptedException if interrupted while waiting for invocations
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var options = LoadOptions.fromArgs(args);
+        System.out.printf("Running websocket load with %s%s", options, System.lineSeparator());
+        print(new WebSocketLoadGenerator(options).run(), System.out);
+    }
+
+    /**
+     * Prints the given route statistics as a table
+     *
+     * @param statistics a route statistics to print
+     * @param printStream a print stream to print to
+     */
+    public static void print(List<RouteStatistics> statistics, PrintStream printStream) {
+        printStream.printf(
+            "%-14s %9s %7s %12s %9s %9s %9s %9s%s",
+            "route", "requests", "errors", "requests/s", "p50 ms", "p95 ms", "p99 ms", "max ms", System.lineSeparator()
+        );
+        statistics.forEach(printStream::println);
+    }
+
+    private final LoadOptions options;
+    private final Random random;
+
+    /**
+     * Creates a new instance of {@link WebSocketLoadGenerator}
+     *
+     * @param options a load options to use
+     */
+    public WebSocketLoadGenerator(LoadOptions options) {
+        this.options = options;
+        this.random = new Random(42L);
+    }
+
+    /**
+     * Runs every phase of the load against freshly started local stand-ins
+     *
+     * @return a statistics of each route in the order they ran
+     *
+     * @throws IOException if local stand-ins cannot be started
+     * @throws InterruptedException if interrupted while waiting for invocations
+     */
+    public List<RouteStatistics> run() throws IOException, InterruptedException {
+        try (
+            var openSearchServer = FakeOpenSearchServer.builder()
+                .withLatency(options.getElasticsearchLatency())
+                .start();
+            var managementServer = FakeApiGatewayManagementServer.builder()
+                .withLatency(options.getManagementLatency())
+                .withRecording(false)
+                .start();
+            var transport = new JdkHttpTransport()
+        ) {
+            var elasticsearchService = ElasticsearchService.builder()
+                .withTransport(transport)
+                .withUrl(openSearchServer.getUrl())
+                .withAuthenticationKey("load-test")
+                .build();
+            var apiGatewayManagementClient = ApiGatewayManagementApiClient.builder()
+                .region(US_EAST_2)
+                .httpClientBuilder(UrlConnectionHttpClient.builder())
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("load", "test")))
+                .endpointOverride(URI.create(managementServer.getUrl()))
+                .build();
+            var webSocketService = WebSocketService.builder()
+                .withManagementUrl(managementServer.getUrl())
+                .withConnectionStore(connectionStore(options.getConnectionStore(), elasticsearchService))
+                .withApiGatewayManagementClient(apiGatewayManagementClient)
+                .withCoalescingWindow(options.getCoalescingWindow())
+                .withMetricsPublisher(MetricsPublisher.NONE)
+                .build();
+            var handler = new WebSocketMessageHandler(webSocketService);
+
+            var connectionIds = new ArrayList<String>(options.getConnections());
+            for (int index = 0; index < options.getConnections(); index++) {
+                connectionIds.add(String.format("load-%06d=", index));
+            }
+
+            var payload = "x".repeat(options.getMessageSize());
+            var senders = new ArrayList<String>(options.getMessages());
+            for (int index = 0; index < options.getMessages(); index++) {
+                senders.add(connectionIds.get(random.nextInt(connectionIds.size())));
+            }
+
+            var statistics = new ArrayList<RouteStatistics>();
+            statistics.add(phase(handler, RouteKey.CONNECT, connectionIds, id -> event(RouteKey.CONNECT, id, null)));
+            statistics.add(phase(handler, RouteKey.SEND_MESSAGE, senders, id -> event(RouteKey.SEND_MESSAGE, id, payload)));
+            statistics.add(phase(handler, RouteKey.DISCONNECT, connectionIds, id -> event(RouteKey.DISCONNECT, id, null)));
+            return statistics;
+        }
+    }
+
+    /**
+     * Fires one event per given connection id concurrently and records the latency of each invocation
+     *
+     * @param handler a websocket message handler to invoke
+     * @param routeKey a route key of this phase
+     * @param connectionIds a connection ids to fire event for
+     * @param eventFactory a factory of proxy event for each connection id
+     *
+     * @return a statistics of this phase
+     *
+     * @throws InterruptedException if interrupted while waiting for invocations
+     */
+    private RouteStatistics phase(
+        WebSocketMessageHandler handler,
+        RouteKey routeKey,
+        List<String> connectionIds,
+        Function<String, ProxyRequestEvent> eventFactory
+    ) throws InterruptedException {
+        var statistics = new RouteStatistics(routeKey.getAction());
+        var executorService = Executors.newFixedThreadPool(options.getThreads());
+        try {
+            var futures = new ArrayList<Future<?>>(connectionIds.size());
+            var phaseStart = System.nanoTime();
+            for (var connectionId : connectionIds) {
+                var event = eventFactory.apply(connectionId);
+                futures.add(executorService.submit(() -> {
+                    var start = System.nanoTime();
+                    var successful = false;
+                    try {
+                        var response = handler.handleRequest(event, null);
+                        successful = response != null && response.getStatusCode() < 300;
+                    }
+                    finally {
+                        statistics.record(System.nanoTime() - start, successful);
+                    }
+                }));
+            }
+
+            for (var future : futures) {
+                try {
+                    future.get();
+                }
+                catch (ExecutionException ignored) {
+                    // Already recorded as an error
+                }
+            }
+            statistics.setElapsedNanos(System.nanoTime() - phaseStart);
+            return statistics;
+        }
+        finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Builds the connection store of given type, elasticsearch backed stores use the given service
+     *
+     * @param type a type of connection store
+     * @param elasticsearchService an elasticsearch service backed by fake open search server
+     *
+     * @return a newly created connection store
+     */
+    private ConnectionStore connectionStore(String type, ElasticsearchService elasticsearchService) {
+        switch (type) {
+            case ConnectionStoreFactory.MEMORY_STORE:
+                return new InMemoryConnectionStore();
+            case ConnectionStoreFactory.BUCKETED_STORE:
+                return new BucketedElasticsearchConnectionStore(
+                    elasticsearchService,
+                    ConnectionStoreFactory.WEB_SOCKET_BUCKET_INDEX_NAME,
+                    CONNECTION_BUCKETS
+                );
+            default:
+                return new ElasticsearchConnectionStore(elasticsearchService, ConnectionStoreFactory.WEB_SOCKET_INDEX_NAME);
+        }
+    }
+
+    /**
+     * Builds a websocket proxy request event same as api gateway does
+     *
+     * @param routeKey a route key of event
+     * @param connectionId a connection id of event
+     * @param body a body of event, null if none
+     *
+     * @return a newly created proxy request event
+     */
+    private ProxyRequestEvent event(RouteKey routeKey, String connectionId, Object body) {
+        var requestContext = new RequestContext();
+        requestContext.setConnectionId(connectionId);
+        requestContext.setRouteKey(routeKey.getAction());
+        requestContext.setDomainName(DOMAIN_NAME);
+        requestContext.setStage(STAGE);
+
+        var proxyRequestEvent = new ProxyRequestEvent();
+        proxyRequestEvent.setRequestContext(requestContext);
+        proxyRequestEvent.setBody(body);
+        return proxyRequestEvent;
+    }
+}
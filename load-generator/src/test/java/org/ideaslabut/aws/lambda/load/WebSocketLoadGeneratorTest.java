@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.load;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit test for {@link WebSocketLoadGenerator}
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 23, 2022
+ */
+class WebSocketLoadGeneratorTest {
+    @Test
+    void percentiles() {
+        var statistics = new RouteStatistics("sendMessage");
+        for (int millis = 100; millis >= 1; millis--) {
+            statistics.record(TimeUnit.MILLISECONDS.toNanos(millis), millis != 100);
+        }
+        statistics.setElapsedNanos(TimeUnit.SECONDS.toNanos(2));
+
+        assertEquals(100, statistics.getCount());
+        assertEquals(1, statistics.getErrors());
+        assertEquals(50.0, statistics.getThroughput());
+        assertEquals(50.0, statistics.getPercentileMillis(50));
+        assertEquals(95.0, statistics.getPercentileMillis(95));
+        assertEquals(99.0, statistics.getPercentileMillis(99));
+        assertEquals(100.0, statistics.getPercentileMillis(100));
+        assertThrows(IllegalArgumentException.class, () -> statistics.getPercentileMillis(0));
+    }
+
+    @Test
+    void options() {
+        var options = LoadOptions.fromArgs(new String[] {"--connections", "30", "--es-latency-ms", "3"});
+        assertEquals(30, options.getConnections());
+        assertEquals(3, options.getElasticsearchLatency().toMillis());
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.fromArgs(new String[] {"--unknown", "1"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.fromArgs(new String[] {"--threads"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.fromArgs(new String[] {"--connection-store", "redis"}));
+    }
+
+    @Test
+    void run() throws IOException, InterruptedException {
+        var options = LoadOptions.builder().withConnections(25).withMessages(5).withThreads(4).build();
+        var statistics = new WebSocketLoadGenerator(options).run();
+
+        assertEquals(List.of("$connect", "sendMessage", "$disconnect"), statistics.stream().map(RouteStatistics::getRoute).collect(toList()));
+        assertEquals(List.of(25, 5, 25), statistics.stream().map(RouteStatistics::getCount).collect(toList()));
+        statistics.forEach(routeStatistics -> assertEquals(0, routeStatistics.getErrors(), routeStatistics.getRoute()));
+
+        var output = new ByteArrayOutputStream();
+        WebSocketLoadGenerator.print(statistics, new PrintStream(output));
+        assertTrue(output.toString().contains("p99 ms"), "Report should have percentile header");
+    }
+
+    @Test
+    void coldStartProbe() throws IOException {
+        var result = new ColdStartProbe().run();
+        assertTrue(result.startsWith(ColdStartProbe.RESULT_PREFIX + " initMs="), result);
+
+        var sample = ColdStartBenchmark.parse(result, 10.0);
+        assertEquals(10.0, sample[0]);
+        assertTrue(sample[1] > 0 && sample[2] > 0, result);
+        assertEquals(2.5, ColdStartBenchmark.median(List.of(new double[] {3}, new double[] {1}, new double[] {2}, new double[] {4}), 0));
+    }
+}
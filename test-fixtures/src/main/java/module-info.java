@@ -0,0 +1,13 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+/**
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 22, 2022
+ */
+module ideaslabut.aws.lambda.test.fixtures {
+    requires transitive com.fasterxml.jackson.databind;
+    requires jdk.httpserver;
+
+    exports org.ideaslabut.aws.lambda.fixtures;
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.fixtures;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An in-process fake of api gateway websocket management api which serves
+ * {@code POST @connections/{connectionId}} and {@code DELETE @connections/{connectionId}}. A connection marked
+ * as gone is answered with <code>410</code> same as a connection whose client already went away.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 23, 2022
+ */
+public class FakeApiGatewayManagementServer implements Closeable {
+    private static final String CONNECTIONS_PATH = "/@connections/";
+
+    /**
+     * A builder for {@link FakeApiGatewayManagementServer}
+     */
+    public static class Builder {
+        private int port;
+        private Duration latency;
+        private int threads;
+        private boolean recording;
+
+        /**
+         * Creates a new instance of fake api gateway management server {@link Builder}
+         */
+        private Builder() {
+            this.port = 0;
+            this.latency = Duration.ZERO;
+            this.threads = Runtime.getRuntime().availableProcessors() * 4;
+            this.recording = true;
+        }
+
+        /**
+         * Sets the port to listen on for this builder, default 0 picks any free port
+         *
+         * @param port a port to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withPort(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Sets the latency added to every request for this builder
+         *
+         * @param latency a latency to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withLatency(Duration latency) {
+            this.latency = requireNonNull(latency);
+            return this;
+        }
+
+        /**
+         * Sets the number of request handling threads for this builder
+         *
+         * @param threads a number of threads to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withThreads(int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("Threads should be positive");
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Sets whether every posted message is kept for later inspection for this builder. Load tests should turn
+         * it off so that memory stays flat, counters are kept either way.
+         *
+         * @param recording true to keep posted messages
+         *
+         * @return a reference of this builder
+         */
+        public Builder withRecording(boolean recording) {
+            this.recording = recording;
+            return this;
+        }
+
+        /**
+         * Builds and starts a new instance of {@link FakeApiGatewayManagementServer}
+         *
+         * @return a newly started fake api gateway management server
+         *
+         * @throws IOException if server cannot bind to its port
+         */
+        public FakeApiGatewayManagementServer start() throws IOException {
+            var server = new FakeApiGatewayManagementServer(this);
+            server.httpServer.start();
+            return server;
+        }
+    }
+
+    /**
+     * Creates a new instance of fake api gateway management server {@link Builder}
+     *
+     * @return a newly created builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final Duration latency;
+    private final boolean recording;
+    private final Set<String> goneConnections;
+    private final Map<String, List<byte[]>> messages;
+    private final LongAdder postCount;
+    private final LongAdder postedBytes;
+    private final HttpServer httpServer;
+    private final ExecutorService executorService;
+
+    /**
+     * Creates a new instance of {@link FakeApiGatewayManagementServer}
+     *
+     * @param builder a builder to use
+     *
+     * @throws IOException if server cannot bind to its port
+     */
+    private FakeApiGatewayManagementServer(Builder builder) throws IOException {
+        this.latency = builder.latency;
+        this.recording = builder.recording;
+        this.goneConnections = ConcurrentHashMap.newKeySet();
+        this.messages = new ConcurrentHashMap<>();
+        this.postCount = new LongAdder();
+        this.postedBytes = new LongAdder();
+
+        this.httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), builder.port), 512);
+        this.executorService = Executors.newFixedThreadPool(builder.threads, runnable -> {
+            var thread = new Thread(runnable, "fake-apigateway-management");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpServer.setExecutor(executorService);
+        this.httpServer.createContext("/", this::handle);
+    }
+
+    /**
+     * Gets the base url of this server to be used as <code>WEBSOCKET_MANAGEMENT_URL</code>
+     *
+     * @return a base url without trailing slash
+     */
+    public String getUrl() {
+        return String.format("http://127.0.0.1:%d", httpServer.getAddress().getPort());
+    }
+
+    /**
+     * Marks the given connection as gone so that any further post to it is answered with <code>410</code>
+     *
+     * @param connectionId a connection id to mark
+     */
+    public void markGone(String connectionId) {
+        goneConnections.add(requireNonNull(connectionId));
+    }
+
+    /**
+     * Gets the messages successfully posted to given connection in the order they arrived
+     *
+     * @param connectionId a connection id
+     *
+     * @return a list of raw messages, empty if none or if recording is off
+     */
+    public List<byte[]> getMessages(String connectionId) {
+        return List.copyOf(messages.getOrDefault(connectionId, List.of()));
+    }
+
+    /**
+     * Gets the total number of post to connection requests received including the gone ones
+     *
+     * @return a number of post requests
+     */
+    public long getPostCount() {
+        return postCount.sum();
+    }
+
+    /**
+     * Gets the total number of message bytes received by post to connection requests
+     *
+     * @return a number of bytes posted
+     */
+    public long getPostedBytes() {
+        return postedBytes.sum();
+    }
+
+    /**
+     * Stops this server immediately
+     */
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Handles every incoming request
+     *
+     * @param exchange a http exchange to handle
+     *
+     * @throws IOException if response cannot be written
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            var body = exchange.getRequestBody().readAllBytes();
+            var path = exchange.getRequestURI().getRawPath();
+            sleep();
+
+            if (!path.startsWith(CONNECTIONS_PATH)) {
+                respond(exchange, 404, "{\"message\":\"Not Found\"}");
+                return;
+            }
+
+            var connectionId = URLDecoder.decode(path.substring(CONNECTIONS_PATH.length()), UTF_8);
+            if ("POST".equals(exchange.getRequestMethod())) {
+                postCount.increment();
+            }
+            if (goneConnections.contains(connectionId)) {
+                respond(exchange, 410, "{\"message\":null}");
+                return;
+            }
+
+            switch (exchange.getRequestMethod()) {
+                case "POST":
+                    postedBytes.add(body.length);
+                    if (recording) {
+                        messages.computeIfAbsent(connectionId, key -> new CopyOnWriteArrayList<>()).add(body);
+                    }
+                    respond(exchange, 200, "{}");
+                    break;
+                case "DELETE":
+                    goneConnections.add(connectionId);
+                    respond(exchange, 204, null);
+                    break;
+                default:
+                    respond(exchange, 405, "{\"message\":\"Method Not Allowed\"}");
+                    break;
+            }
+        }
+        finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Writes the given status and json body
+     *
+     * @param exchange a http exchange
+     * @param status a http status
+     * @param json a json body, null if none
+     *
+     * @throws IOException if response cannot be written
+     */
+    private void respond(HttpExchange exchange, int status, String json) throws IOException {
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+
+        var bytes = json.getBytes(UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /**
+     * Sleeps for configured latency
+     */
+    private void sleep() {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency.toMillis());
+        }
+        catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
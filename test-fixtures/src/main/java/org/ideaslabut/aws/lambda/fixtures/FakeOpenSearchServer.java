@@ -0,0 +1,983 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.fixtures;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An in-process fake of OpenSearch rest api which is good enough to load test the elasticsearch service,
+ * elasticsearch to csv extractor and websocket flows on a laptop. Documents are held in memory and following
+ * apis are served
+ * <ul>
+ *     <li>{@code GET|POST {index}/_search} with size, scroll, query and sort</li>
+ *     <li>{@code GET|POST _search/scroll} with scroll id body</li>
+ *     <li>{@code GET|POST {index}/_count} with query</li>
+ *     <li>{@code POST _msearch} with new line delimited body</li>
+ *     <li>{@code POST {index}/_create/{id}}</li>
+ *     <li>{@code PUT|POST|GET|DELETE {index}/_doc/{id}} with if_seq_no and if_primary_term</li>
+ *     <li>{@code POST _bulk} with index, create and delete actions</li>
+ * </ul>
+ * Every request can be slowed down by a fixed latency and a random fraction of requests can be failed with
+ * <code>503</code> to exercise error paths. Authentication header is accepted but never checked. Every write of a
+ * document gives it a new sequence number, primary term is always <code>1</code> as there is a single shard.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 22, 2022
+ */
+public class FakeOpenSearchServer implements Closeable {
+    public static final String SEARCH = "_search";
+    public static final String SCROLL = "_search/scroll";
+    public static final String MULTI_SEARCH = "_msearch";
+    public static final String CREATE = "_create";
+    public static final String DOCUMENT = "_doc";
+    public static final String BULK = "_bulk";
+    public static final String COUNT = "_count";
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+    private static final int DEFAULT_SEARCH_SIZE = 10;
+    private static final long PRIMARY_TERM = 1L;
+
+    /**
+     * A builder for {@link FakeOpenSearchServer}
+     */
+    public static class Builder {
+        private int port;
+        private Duration latency;
+        private double errorRate;
+        private long seed;
+        private int threads;
+        private final Map<String, List<Map<String, Object>>> indices;
+
+        /**
+         * Creates a new instance of fake open search server {@link Builder}
+         */
+        private Builder() {
+            this.port = 0;
+            this.latency = Duration.ZERO;
+            this.errorRate = 0;
+            this.seed = 42L;
+            this.threads = Runtime.getRuntime().availableProcessors() * 4;
+            this.indices = new LinkedHashMap<>();
+        }
+
+        /**
+         * Sets the port to listen on for this builder, default 0 picks any free port
+         *
+         * @param port a port to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withPort(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Sets the latency added to every request for this builder
+         *
+         * @param latency a latency to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withLatency(Duration latency) {
+            this.latency = requireNonNull(latency);
+            return this;
+        }
+
+        /**
+         * Sets the fraction of requests to be failed with <code>503</code> for this builder
+         *
+         * @param errorRate an error rate between 0 and 1 to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withErrorRate(double errorRate) {
+            if (errorRate < 0 || errorRate > 1) {
+                throw new IllegalArgumentException("Error rate should be between 0 and 1");
+            }
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /**
+         * Sets the random seed used for error injection and synthetic data for this builder
+         *
+         * @param seed a random seed to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the number of request handling threads for this builder
+         *
+         * @param threads a number of threads to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withThreads(int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("Threads should be positive");
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Adds an index with given documents for this builder, document ids are their zero padded position
+         *
+         * @param indexName a name of index
+         * @param documents a documents of index
+         *
+         * @return a reference of this builder
+         */
+        public Builder withIndex(String indexName, List<Map<String, Object>> documents) {
+            this.indices.put(requireNonNull(indexName), requireNonNull(documents));
+            return this;
+        }
+
+        /**
+         * Adds an index with given number of synthetic sensor documents for this builder
+         *
+         * @param sensor a name of sensor which is also the name of index
+         * @param documentCount a number of documents to generate
+         *
+         * @return a reference of this builder
+         */
+        public Builder withSensorIndex(String sensor, int documentCount) {
+            var generator = SensorDataGenerator.builder().withSeed(seed).build();
+            return withIndex(sensor, generator.generate(sensor, documentCount));
+        }
+
+        /**
+         * Builds and starts a new instance of {@link FakeOpenSearchServer}
+         *
+         * @return a newly started fake open search server
+         *
+         * @throws IOException if server cannot bind to its port
+         */
+        public FakeOpenSearchServer start() throws IOException {
+            var server = new FakeOpenSearchServer(this);
+            server.start();
+            return server;
+        }
+    }
+
+    /**
+     * Creates a new instance of fake open search server {@link Builder}
+     *
+     * @return a newly created builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Starts a standalone fake server holding synthetic documents for each wearable sensor, so that the extractor
+     * or websocket lambda can be pointed at it with <code>ELASTICSEARCH_URL</code>
+     *
+     * @param args an optional port, documents per sensor and latency in millis
+     *
+     * @throws IOException if server cannot be started
+     * @throws InterruptedException if interrupted while serving
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var port = args.length > 0 ? Integer.parseInt(args[0]) : 9200;
+        var documentCount = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        var latency = args.length > 2 ? Duration.ofMillis(Long.parseLong(args[2])) : Duration.ZERO;
+
+        var builder = builder().withPort(port).withLatency(latency);
+        SensorDataGenerator.WEARABLE_SENSORS.forEach(sensor -> builder.withSensorIndex(sensor, documentCount));
+        var server = builder.start();
+        System.out.printf("Fake OpenSearch listening on %s%s", server.getUrl(), System.lineSeparator());
+
+        // Request threads are daemon threads, keep serving until the process is killed
+        new CountDownLatch(1).await();
+    }
+
+    /**
+     * An open scroll context which holds the remaining hits of a scroll search
+     */
+    private static class ScrollContext {
+        private final String indexName;
+        private final List<Map.Entry<String, Map<String, Object>>> hits;
+        private final int size;
+        private int offset;
+
+        private ScrollContext(String indexName, List<Map.Entry<String, Map<String, Object>>> hits, int size, int offset) {
+            this.indexName = indexName;
+            this.hits = hits;
+            this.size = size;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * A http status along with json body
+     */
+    private static class Reply {
+        private final int status;
+        private final Object body;
+
+        private Reply(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Map<String, Map<String, Object>>> indices;
+    private final Map<String, Long> sequenceNumbers;
+    private final AtomicLong sequenceNumber;
+    private final Map<String, ScrollContext> scrollContexts;
+    private final Map<String, LongAdder> requestCounts;
+    private final AtomicInteger failNext;
+    private final Random random;
+    private final Duration latency;
+    private final double errorRate;
+    private final HttpServer httpServer;
+    private final ExecutorService executorService;
+
+    /**
+     * Creates a new instance of {@link FakeOpenSearchServer}
+     *
+     * @param builder a builder to use
+     *
+     * @throws IOException if server cannot bind to its port
+     */
+    private FakeOpenSearchServer(Builder builder) throws IOException {
+        this.objectMapper = new ObjectMapper();
+        this.indices = new ConcurrentHashMap<>();
+        this.sequenceNumbers = new ConcurrentHashMap<>();
+        this.sequenceNumber = new AtomicLong();
+        this.scrollContexts = new ConcurrentHashMap<>();
+        this.requestCounts = new ConcurrentHashMap<>();
+        this.failNext = new AtomicInteger(0);
+        this.random = new Random(builder.seed);
+        this.latency = builder.latency;
+        this.errorRate = builder.errorRate;
+
+        builder.indices.forEach((indexName, documents) -> {
+            var index = index(indexName);
+            for (int position = 0; position < documents.size(); position++) {
+                var id = String.format("%010d", position);
+                index.put(id, documents.get(position));
+                written(indexName, id);
+            }
+        });
+
+        this.httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), builder.port), 512);
+        this.executorService = Executors.newFixedThreadPool(builder.threads, runnable -> {
+            var thread = new Thread(runnable, "fake-opensearch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpServer.setExecutor(executorService);
+        this.httpServer.createContext("/", this::handle);
+    }
+
+    /**
+     * Gets the base url of this server to be used as <code>ELASTICSEARCH_URL</code>
+     *
+     * @return a base url without trailing slash
+     */
+    public String getUrl() {
+        return String.format("http://127.0.0.1:%d", httpServer.getAddress().getPort());
+    }
+
+    /**
+     * Gets the number of requests served by given endpoint
+     *
+     * @param endpoint an endpoint i.e. one of {@link #SEARCH}, {@link #SCROLL}, {@link #MULTI_SEARCH},
+     *     {@link #CREATE}, {@link #DOCUMENT} or {@link #BULK}
+     *
+     * @return a number of requests served
+     */
+    public long getRequestCount(String endpoint) {
+        return requestCounts.getOrDefault(endpoint, new LongAdder()).sum();
+    }
+
+    /**
+     * Gets the snapshot of documents currently held by given index
+     *
+     * @param indexName a name of index
+     *
+     * @return a map of document id to document source, empty if index doesn't exist
+     */
+    public Map<String, Map<String, Object>> getDocuments(String indexName) {
+        var index = indices.get(indexName);
+        if (index == null) {
+            return Map.of();
+        }
+        synchronized (index) {
+            return new LinkedHashMap<>(index);
+        }
+    }
+
+    /**
+     * Gets the number of scroll contexts opened by searches and not yet exhausted
+     *
+     * @return a number of open scroll contexts
+     */
+    public int getOpenScrollContextCount() {
+        return scrollContexts.size();
+    }
+
+    /**
+     * Drops every open scroll context as if their keep alive had passed, later scroll requests get <code>404</code>
+     */
+    public void expireScrollContexts() {
+        scrollContexts.clear();
+    }
+
+    /**
+     * Fails the next given number of requests with <code>503</code> regardless of error rate
+     *
+     * @param count a number of requests to fail
+     */
+    public void failNext(int count) {
+        failNext.set(count);
+    }
+
+    /**
+     * Stops this server immediately
+     */
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Starts listening for requests
+     */
+    private void start() {
+        httpServer.start();
+    }
+
+    /**
+     * Handles every incoming request
+     *
+     * @param exchange a http exchange to handle
+     *
+     * @throws IOException if response cannot be written
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            var requestBody = exchange.getRequestBody().readAllBytes();
+            var segments = Arrays.stream(exchange.getRequestURI().getPath().split("/"))
+                .filter(segment -> !segment.isEmpty())
+                .map(segment -> URLDecoder.decode(segment, UTF_8))
+                .toArray(String[]::new);
+
+            sleep();
+            Reply reply;
+            if (shouldFail()) {
+                reply = error(503, "fake_injected_exception", "Injected failure");
+            }
+            else {
+                try {
+                    reply = route(exchange.getRequestMethod(), segments, parameters(exchange), requestBody);
+                }
+                catch (IllegalArgumentException | ClassCastException | JsonProcessingException exception) {
+                    reply = error(400, "parsing_exception", String.valueOf(exception.getMessage()));
+                }
+            }
+
+            var responseBody = objectMapper.writeValueAsBytes(reply.body);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+            exchange.sendResponseHeaders(reply.status, responseBody.length);
+            exchange.getResponseBody().write(responseBody);
+        }
+        finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Routes the request to the handler of its api
+     *
+     * @param method a http method
+     * @param segments a decoded path segments
+     * @param parameters a query string parameters
+     * @param body a raw request body
+     *
+     * @return a reply to send
+     *
+     * @throws IOException if request body cannot be parsed
+     */
+    private Reply route(String method, String[] segments, Map<String, String> parameters, byte[] body) throws IOException {
+        if (segments.length == 1 && MULTI_SEARCH.equals(segments[0])) {
+            return multiSearch(body);
+        }
+        if (segments.length == 1 && BULK.equals(segments[0])) {
+            return bulk(body);
+        }
+        if (segments.length == 2 && SEARCH.equals(segments[0]) && "scroll".equals(segments[1])) {
+            return scroll(body);
+        }
+        if (segments.length == 2 && SEARCH.equals(segments[1])) {
+            count(SEARCH);
+            return search(segments[0], parameters, jsonBody(body));
+        }
+        if (segments.length == 2 && COUNT.equals(segments[1])) {
+            count(COUNT);
+            return countDocuments(segments[0], jsonBody(body));
+        }
+        if (segments.length == 3 && CREATE.equals(segments[1])) {
+            return create(segments[0], segments[2], body);
+        }
+        if (segments.length == 3 && DOCUMENT.equals(segments[1])) {
+            return document(method, segments[0], segments[2], parameters, body);
+        }
+        return error(400, "invalid_request_exception", "Unsupported api " + String.join("/", segments));
+    }
+
+    /**
+     * Performs a search on given index opening a scroll context if requested
+     *
+     * @param indexName a name of index
+     * @param parameters a query string parameters
+     * @param searchBody a search body, null if none
+     *
+     * @return a search reply
+     */
+    @SuppressWarnings("unchecked")
+    private Reply search(String indexName, Map<String, String> parameters, Map<String, Object> searchBody) {
+        var index = indices.get(indexName);
+        if (index == null) {
+            return indexNotFound(indexName);
+        }
+
+        var body = searchBody == null ? Map.<String, Object>of() : searchBody;
+        var query = (Map<String, Object>) body.get("query");
+        var sort = QueryMatcher.comparator((List<Object>) body.get("sort"));
+
+        List<Map.Entry<String, Map<String, Object>>> hits = new ArrayList<>();
+        synchronized (index) {
+            for (var entry : index.entrySet()) {
+                if (QueryMatcher.matches(entry.getValue(), query)) {
+                    hits.add(Map.entry(entry.getKey(), entry.getValue()));
+                }
+            }
+        }
+        if (sort != null) {
+            hits.sort((first, second) -> sort.compare(first.getValue(), second.getValue()));
+        }
+
+        var size = body.containsKey("size") ?
+            ((Number) body.get("size")).intValue() :
+            Integer.parseInt(parameters.getOrDefault("size", String.valueOf(DEFAULT_SEARCH_SIZE)));
+
+        String scrollId = null;
+        var scroll = parameters.get("scroll");
+        if (scroll != null && !"null".equals(scroll)) {
+            scrollId = UUID.randomUUID().toString();
+            scrollContexts.put(scrollId, new ScrollContext(indexName, hits, Math.max(size, 1), Math.min(size, hits.size())));
+        }
+
+        return new Reply(200, searchResponse(indexName, scrollId, hits, 0, size));
+    }
+
+    /**
+     * Counts the documents of given index matching the query of given body
+     *
+     * @param indexName a name of index
+     * @param countBody a count body, null if none
+     *
+     * @return a count reply
+     */
+    @SuppressWarnings("unchecked")
+    private Reply countDocuments(String indexName, Map<String, Object> countBody) {
+        var index = indices.get(indexName);
+        if (index == null) {
+            return indexNotFound(indexName);
+        }
+
+        var query = countBody == null ? null : (Map<String, Object>) countBody.get("query");
+        long matches;
+        synchronized (index) {
+            matches = index.values().stream().filter(document -> QueryMatcher.matches(document, query)).count();
+        }
+        return new Reply(200, Map.of("count", matches));
+    }
+
+    /**
+     * Continues a scroll search
+     *
+     * @param body a scroll request body
+     *
+     * @return a scroll reply
+     *
+     * @throws IOException if request body cannot be parsed
+     */
+    private Reply scroll(byte[] body) throws IOException {
+        count(SCROLL);
+        var scrollBody = jsonBody(body);
+        var scrollId = scrollBody == null ? null : (String) scrollBody.get("scroll_id");
+        var context = scrollId == null ? null : scrollContexts.get(scrollId);
+        if (context == null) {
+            return error(404, "search_context_missing_exception", "No search context found for id " + scrollId);
+        }
+
+        List<Map.Entry<String, Map<String, Object>>> page;
+        int offset;
+        synchronized (context) {
+            offset = context.offset;
+            context.offset = Math.min(context.offset + context.size, context.hits.size());
+            page = context.hits;
+        }
+        if (offset >= page.size()) {
+            scrollContexts.remove(scrollId);
+        }
+        return new Reply(200, searchResponse(context.indexName, scrollId, page, offset, context.size));
+    }
+
+    /**
+     * Performs every search of a new line delimited multi search body
+     *
+     * @param body a multi search request body
+     *
+     * @return a multi search reply
+     *
+     * @throws IOException if request body cannot be parsed
+     */
+    private Reply multiSearch(byte[] body) throws IOException {
+        count(MULTI_SEARCH);
+        var lines = lines(body);
+        var responses = new ArrayList<Object>();
+        for (int line = 0; line + 1 < lines.size(); line += 2) {
+            var header = objectMapper.readValue(lines.get(line), MAP_TYPE);
+            var searchBody = objectMapper.readValue(lines.get(line + 1), MAP_TYPE);
+            var reply = search(String.valueOf(header.get("index")), Map.of(), searchBody);
+            responses.add(reply.body);
+        }
+        return new Reply(200, Map.of("took", 1, "responses", responses));
+    }
+
+    /**
+     * Creates a document failing if it already exists
+     *
+     * @param indexName a name of index, created if missing
+     * @param id a document id
+     * @param body a document source
+     *
+     * @return a create reply
+     *
+     * @throws IOException if document cannot be parsed
+     */
+    private Reply create(String indexName, String id, byte[] body) throws IOException {
+        count(CREATE);
+        var source = objectMapper.readValue(body, MAP_TYPE);
+        var index = index(indexName);
+        synchronized (index) {
+            if (index.putIfAbsent(id, source) != null) {
+                return error(409, "version_conflict_engine_exception", String.format("[%s]: version conflict, document already exists", id));
+            }
+            return new Reply(201, versioned(result(indexName, id, "created"), written(indexName, id)));
+        }
+    }
+
+    /**
+     * Gets, indexes or deletes a single document. An index with <code>if_seq_no</code> and
+     * <code>if_primary_term</code> only replaces the document if it still has that sequence number and primary term.
+     *
+     * @param method a http method
+     * @param indexName a name of index
+     * @param id a document id
+     * @param parameters a query string parameters
+     * @param body a document source for index
+     *
+     * @return a document reply
+     *
+     * @throws IOException if document cannot be parsed
+     */
+    private Reply document(String method, String indexName, String id, Map<String, String> parameters, byte[] body)
+        throws IOException {
+        count(DOCUMENT);
+        switch (method) {
+            case "PUT":
+            case "POST":
+                var source = objectMapper.readValue(body, MAP_TYPE);
+                var target = index(indexName);
+                synchronized (target) {
+                    var ifSeqNo = parameters.get("if_seq_no");
+                    var ifPrimaryTerm = parameters.get("if_primary_term");
+                    if ((ifSeqNo != null || ifPrimaryTerm != null) && (
+                        !String.valueOf(sequenceNumbers.get(sequenceKey(indexName, id))).equals(ifSeqNo) ||
+                        !String.valueOf(PRIMARY_TERM).equals(ifPrimaryTerm))) {
+                        return error(
+                            409,
+                            "version_conflict_engine_exception",
+                            String.format("[%s]: version conflict, required seqNo [%s], primary term [%s]", id, ifSeqNo, ifPrimaryTerm)
+                        );
+                    }
+                    var replaced = target.put(id, source) != null;
+                    var reply = result(indexName, id, replaced ? "updated" : "created");
+                    return new Reply(replaced ? 200 : 201, versioned(reply, written(indexName, id)));
+                }
+            case "DELETE":
+                var index = indices.get(indexName);
+                if (index == null) {
+                    return indexNotFound(indexName);
+                }
+                var deleted = index.remove(id) != null;
+                sequenceNumbers.remove(sequenceKey(indexName, id));
+                return new Reply(deleted ? 200 : 404, result(indexName, id, deleted ? "deleted" : "not_found"));
+            case "GET":
+                var existing = indices.get(indexName);
+                var found = new LinkedHashMap<String, Object>();
+                found.put("_index", indexName);
+                found.put("_id", id);
+                Map<String, Object> document = null;
+                if (existing != null) {
+                    synchronized (existing) {
+                        document = existing.get(id);
+                        if (document != null) {
+                            versioned(found, sequenceNumbers.get(sequenceKey(indexName, id)));
+                        }
+                    }
+                }
+                found.put("found", document != null);
+                if (document != null) {
+                    found.put("_source", document);
+                }
+                return new Reply(document == null ? 404 : 200, found);
+            default:
+                return error(405, "method_not_allowed", "Unsupported method " + method);
+        }
+    }
+
+    /**
+     * Performs every action of a new line delimited bulk body
+     *
+     * @param body a bulk request body
+     *
+     * @return a bulk reply
+     *
+     * @throws IOException if request body cannot be parsed
+     */
+    @SuppressWarnings("unchecked")
+    private Reply bulk(byte[] body) throws IOException {
+        count(BULK);
+        var lines = lines(body);
+        var items = new ArrayList<Object>();
+        var errors = false;
+        for (int line = 0; line < lines.size(); line++) {
+            var actionLine = objectMapper.readValue(lines.get(line), MAP_TYPE);
+            var action = actionLine.keySet().iterator().next();
+            var metadata = (Map<String, Object>) actionLine.get(action);
+            var indexName = String.valueOf(metadata.get("_index"));
+            var id = metadata.get("_id") == null ? UUID.randomUUID().toString() : String.valueOf(metadata.get("_id"));
+
+            Map<String, Object> item;
+            switch (action) {
+                case "index":
+                    var replaced = index(indexName).put(id, objectMapper.readValue(lines.get(++line), MAP_TYPE)) != null;
+                    written(indexName, id);
+                    item = bulkItem(indexName, id, replaced ? 200 : 201, replaced ? "updated" : "created");
+                    break;
+                case "create":
+                    var created = index(indexName).putIfAbsent(id, objectMapper.readValue(lines.get(++line), MAP_TYPE)) == null;
+                    item = bulkItem(indexName, id, created ? 201 : 409, created ? "created" : null);
+                    if (created) {
+                        written(indexName, id);
+                    }
+                    else {
+                        item.put("error", Map.of("type", "version_conflict_engine_exception"));
+                        errors = true;
+                    }
+                    break;
+                case "delete":
+                    var index = indices.get(indexName);
+                    var deleted = index != null && index.remove(id) != null;
+                    sequenceNumbers.remove(sequenceKey(indexName, id));
+                    item = bulkItem(indexName, id, deleted ? 200 : 404, deleted ? "deleted" : "not_found");
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported bulk action " + action);
+            }
+            items.add(Map.of(action, item));
+        }
+        return new Reply(200, Map.of("took", 1, "errors", errors, "items", items));
+    }
+
+    /**
+     * Builds a search response body for the given page of hits
+     *
+     * @param indexName a name of index
+     * @param scrollId a scroll id, null if not a scroll search
+     * @param hits a all hits of search
+     * @param offset an offset of page
+     * @param size a size of page
+     *
+     * @return a search response body
+     */
+    private Map<String, Object> searchResponse(
+        String indexName,
+        String scrollId,
+        List<Map.Entry<String, Map<String, Object>>> hits,
+        int offset,
+        int size
+    ) {
+        var pageHits = new ArrayList<Map<String, Object>>();
+        for (int position = offset; position < Math.min(offset + size, hits.size()); position++) {
+            var hit = hits.get(position);
+            var sourceHit = new LinkedHashMap<String, Object>();
+            sourceHit.put("_index", indexName);
+            sourceHit.put("_id", hit.getKey());
+            sourceHit.put("_score", 1.0);
+            sourceHit.put("_source", hit.getValue());
+            pageHits.add(sourceHit);
+        }
+
+        var response = new LinkedHashMap<String, Object>();
+        if (scrollId != null) {
+            response.put("_scroll_id", scrollId);
+        }
+        response.put("took", 1);
+        response.put("timed_out", false);
+        response.put("hits", Map.of(
+            "total", Map.of("value", hits.size(), "relation", "eq"),
+            "hits", pageHits
+        ));
+        return response;
+    }
+
+    /**
+     * Gets the given index creating it if missing, same as automatic index creation of a real cluster
+     *
+     * @param indexName a name of index
+     *
+     * @return an index of document id to document source
+     */
+    private Map<String, Map<String, Object>> index(String indexName) {
+        return indices.computeIfAbsent(indexName, name -> Collections.synchronizedMap(new LinkedHashMap<>()));
+    }
+
+    /**
+     * Gives the given document a new sequence number as it has just been written
+     *
+     * @param indexName a name of index
+     * @param id a document id
+     *
+     * @return a new sequence number of document
+     */
+    private long written(String indexName, String id) {
+        var seqNo = sequenceNumber.incrementAndGet();
+        sequenceNumbers.put(sequenceKey(indexName, id), seqNo);
+        return seqNo;
+    }
+
+    /**
+     * Builds the key of given document in sequence numbers
+     *
+     * @param indexName a name of index
+     * @param id a document id
+     *
+     * @return a sequence number key
+     */
+    private String sequenceKey(String indexName, String id) {
+        return indexName + '/' + id;
+    }
+
+    /**
+     * Adds the given sequence number and primary term to given response body
+     *
+     * @param body a response body
+     * @param seqNo a sequence number of document
+     *
+     * @return the given response body
+     */
+    private Map<String, Object> versioned(Map<String, Object> body, Long seqNo) {
+        body.put("_seq_no", seqNo);
+        body.put("_primary_term", PRIMARY_TERM);
+        return body;
+    }
+
+    /**
+     * Builds a single bulk response item
+     *
+     * @param indexName a name of index
+     * @param id a document id
+     * @param status a http status of the item
+     * @param result a result of the item, null if failed
+     *
+     * @return a bulk response item
+     */
+    private Map<String, Object> bulkItem(String indexName, String id, int status, String result) {
+        var item = result(indexName, id, result);
+        item.put("status", status);
+        return item;
+    }
+
+    /**
+     * Builds a document write result body
+     *
+     * @param indexName a name of index
+     * @param id a document id
+     * @param result a result i.e. created, updated, deleted or not_found
+     *
+     * @return a result body
+     */
+    private Map<String, Object> result(String indexName, String id, String result) {
+        var body = new LinkedHashMap<String, Object>();
+        body.put("_index", indexName);
+        body.put("_id", id);
+        if (result != null) {
+            body.put("result", result);
+        }
+        return body;
+    }
+
+    /**
+     * Builds an index not found error reply
+     *
+     * @param indexName a name of missing index
+     *
+     * @return an error reply
+     */
+    private Reply indexNotFound(String indexName) {
+        return error(404, "index_not_found_exception", "no such index [" + indexName + "]");
+    }
+
+    /**
+     * Builds an elasticsearch style error reply
+     *
+     * @param status a http status
+     * @param type an error type
+     * @param reason an error reason
+     *
+     * @return an error reply
+     */
+    private Reply error(int status, String type, String reason) {
+        return new Reply(status, Map.of("error", Map.of("type", type, "reason", reason), "status", status));
+    }
+
+    /**
+     * Parses the given json body
+     *
+     * @param body a raw body
+     *
+     * @return a parsed body, null if empty
+     *
+     * @throws IOException if body is not a json object
+     */
+    private Map<String, Object> jsonBody(byte[] body) throws IOException {
+        if (body.length == 0) {
+            return null;
+        }
+        return objectMapper.readValue(body, MAP_TYPE);
+    }
+
+    /**
+     * Splits the given new line delimited body into its non blank lines
+     *
+     * @param body a raw body
+     *
+     * @return a list of lines
+     */
+    private List<String> lines(byte[] body) {
+        var lines = new ArrayList<String>();
+        for (var line : new String(body, UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Parses the query string parameters of given exchange
+     *
+     * @param exchange a http exchange
+     *
+     * @return a map of decoded parameters
+     */
+    private Map<String, String> parameters(HttpExchange exchange) {
+        var parameters = new HashMap<String, String>();
+        var rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery != null) {
+            for (var pair : rawQuery.split("&")) {
+                var separator = pair.indexOf('=');
+                if (separator > 0) {
+                    parameters.put(
+                        URLDecoder.decode(pair.substring(0, separator), UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), UTF_8)
+                    );
+                }
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Increments the request count of given endpoint
+     *
+     * @param endpoint an endpoint to count
+     */
+    private void count(String endpoint) {
+        requestCounts.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Decides whether the current request should be failed
+     *
+     * @return true if request should be failed otherwise false
+     */
+    private boolean shouldFail() {
+        if (failNext.getAndUpdate(remaining -> Math.max(remaining - 1, 0)) > 0) {
+            return true;
+        }
+        return errorRate > 0 && random.nextDouble() < errorRate;
+    }
+
+    /**
+     * Sleeps for configured latency
+     */
+    private void sleep() {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency.toMillis());
+        }
+        catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
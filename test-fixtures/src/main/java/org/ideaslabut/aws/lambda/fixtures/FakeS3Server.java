@@ -0,0 +1,653 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.fixtures;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * An in-process fake of s3 which serves path style requests for objects and multipart uploads of any bucket i.e.
+ * {@code PUT /{bucket}/{key}}, {@code GET /{bucket}/{key}}, {@code POST /{bucket}/{key}?uploads},
+ * {@code PUT /{bucket}/{key}?partNumber=N&uploadId=ID}, {@code POST /{bucket}/{key}?uploadId=ID} and
+ * {@code DELETE /{bucket}/{key}?uploadId=ID}. Same as s3 every part but the last one of a completed upload should
+ * be at least {@value #MIN_PART_SIZE} bytes, and request bodies sent with <code>aws-chunked</code> encoding are
+ * decoded. Signatures are not verified.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 09, 2022
+ */
+public class FakeS3Server implements Closeable {
+    public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private static final String S3_NAMESPACE = "http://s3.amazonaws.com/doc/2006-03-01/";
+    private static final String STREAMING_PAYLOAD = "STREAMING-";
+    private static final Pattern PART_NUMBER_PATTERN = Pattern.compile("<PartNumber>(\\d+)</PartNumber>");
+
+    /**
+     * A builder for {@link FakeS3Server}
+     */
+    public static class Builder {
+        private int port;
+        private Duration latency;
+        private int threads;
+
+        /**
+         * Creates a new instance of fake s3 server {@link Builder}
+         */
+        private Builder() {
+            this.port = 0;
+            this.latency = Duration.ZERO;
+            this.threads = Runtime.getRuntime().availableProcessors() * 4;
+        }
+
+        /**
+         * Sets the port to listen on for this builder, default 0 picks any free port
+         *
+         * @param port a port to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withPort(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Sets the latency added to every upload part request for this builder
+         *
+         * @param latency a latency to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withLatency(Duration latency) {
+            this.latency = requireNonNull(latency);
+            return this;
+        }
+
+        /**
+         * Sets the number of request handling threads for this builder
+         *
+         * @param threads a number of threads to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withThreads(int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("Threads should be positive");
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Builds and starts a new instance of {@link FakeS3Server}
+         *
+         * @return a newly started fake s3 server
+         *
+         * @throws IOException if server cannot bind to its port
+         */
+        public FakeS3Server start() throws IOException {
+            var server = new FakeS3Server(this);
+            server.httpServer.start();
+            return server;
+        }
+    }
+
+    /**
+     * Creates a new instance of fake s3 server {@link Builder}
+     *
+     * @return a newly created builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Starts a standalone fake server, so that the extractor can be pointed at it with <code>--s3-endpoint</code>
+     *
+     * @param args an optional port and upload part latency in millis
+     *
+     * @throws IOException if server cannot be started
+     * @throws InterruptedException if interrupted while serving
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var port = args.length > 0 ? Integer.parseInt(args[0]) : 9000;
+        var latency = args.length > 1 ? Duration.ofMillis(Long.parseLong(args[1])) : Duration.ZERO;
+
+        var server = builder().withPort(port).withLatency(latency).start();
+        System.out.printf("Fake S3 listening on %s%s", server.getUrl(), System.lineSeparator());
+
+        // Request threads are daemon threads, keep serving until the process is killed
+        new CountDownLatch(1).await();
+    }
+
+    /**
+     * A multipart upload in progress which holds its uploaded parts by part number
+     */
+    private static class MultipartUpload {
+        private final String path;
+        private final Map<Integer, byte[]> parts;
+
+        /**
+         * Creates a new instance of multipart upload
+         *
+         * @param path a path of object being uploaded
+         */
+        private MultipartUpload(String path) {
+            this.path = path;
+            this.parts = new ConcurrentSkipListMap<>();
+        }
+    }
+
+    private final Duration latency;
+    private final Map<String, byte[]> objects;
+    private final Map<String, MultipartUpload> uploads;
+    private final Map<String, LongAdder> requestCounts;
+    private final AtomicInteger failNext;
+    private final AtomicInteger concurrentPartUploads;
+    private final AtomicInteger maxConcurrentPartUploads;
+    private final HttpServer httpServer;
+    private final ExecutorService executorService;
+
+    /**
+     * Creates a new instance of {@link FakeS3Server}
+     *
+     * @param builder a builder to use
+     *
+     * @throws IOException if server cannot bind to its port
+     */
+    private FakeS3Server(Builder builder) throws IOException {
+        this.latency = builder.latency;
+        this.objects = new ConcurrentHashMap<>();
+        this.uploads = new ConcurrentHashMap<>();
+        this.requestCounts = new ConcurrentHashMap<>();
+        this.failNext = new AtomicInteger(0);
+        this.concurrentPartUploads = new AtomicInteger(0);
+        this.maxConcurrentPartUploads = new AtomicInteger(0);
+
+        this.httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), builder.port), 512);
+        this.executorService = Executors.newFixedThreadPool(builder.threads, runnable -> {
+            var thread = new Thread(runnable, "fake-s3");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpServer.setExecutor(executorService);
+        this.httpServer.createContext("/", this::handle);
+    }
+
+    /**
+     * Gets the base url of this server to be used as s3 endpoint with path style access
+     *
+     * @return a base url without trailing slash
+     */
+    public String getUrl() {
+        return String.format("http://127.0.0.1:%d", httpServer.getAddress().getPort());
+    }
+
+    /**
+     * Gets the content of given object, either put at once or assembled from a completed multipart upload
+     *
+     * @param bucket a name of bucket
+     * @param key a key of object
+     *
+     * @return a content of object, empty if there is no such object
+     */
+    public Optional<byte[]> getObject(String bucket, String key) {
+        return Optional.ofNullable(objects.get(bucket + "/" + key));
+    }
+
+    /**
+     * Gets the number of multipart uploads which are neither completed nor aborted yet
+     *
+     * @return a number of multipart uploads in progress
+     */
+    public int getUploadsInProgress() {
+        return uploads.size();
+    }
+
+    /**
+     * Gets the number of requests received for given operation
+     *
+     * @param operation an operation i.e. <code>PutObject</code>, <code>GetObject</code>,
+     *     <code>CreateMultipartUpload</code>, <code>UploadPart</code>, <code>CompleteMultipartUpload</code> or
+     *     <code>AbortMultipartUpload</code>
+     *
+     * @return a number of requests received
+     */
+    public long getRequestCount(String operation) {
+        return Optional.ofNullable(requestCounts.get(operation)).map(LongAdder::sum).orElse(0L);
+    }
+
+    /**
+     * Gets the highest number of upload part requests which were being served at once
+     *
+     * @return a maximum number of concurrent upload part requests
+     */
+    public int getMaxConcurrentPartUploads() {
+        return maxConcurrentPartUploads.get();
+    }
+
+    /**
+     * Fails the next given number of upload part requests with <code>500</code>
+     *
+     * @param count a number of upload part requests to fail
+     */
+    public void failNext(int count) {
+        failNext.set(count);
+    }
+
+    /**
+     * Stops this server immediately
+     */
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Handles every incoming request
+     *
+     * @param exchange a http exchange to handle
+     *
+     * @throws IOException if response cannot be written
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            var body = readBody(exchange);
+            var path = URLDecoder.decode(exchange.getRequestURI().getRawPath().substring(1), UTF_8);
+            var query = query(exchange.getRequestURI().getRawQuery());
+            if (path.indexOf('/') <= 0) {
+                respondError(exchange, 400, "InvalidRequest", "Only path style object requests are supported");
+                return;
+            }
+
+            switch (exchange.getRequestMethod()) {
+                case "PUT":
+                    if (query.containsKey("uploadId")) {
+                        uploadPart(exchange, path, query, body);
+                    }
+                    else {
+                        putObject(exchange, path, body);
+                    }
+                    break;
+                case "GET":
+                    getObject(exchange, path);
+                    break;
+                case "POST":
+                    if (query.containsKey("uploads")) {
+                        createMultipartUpload(exchange, path);
+                    }
+                    else {
+                        completeMultipartUpload(exchange, path, query, new String(body, UTF_8));
+                    }
+                    break;
+                case "DELETE":
+                    abortMultipartUpload(exchange, path, query);
+                    break;
+                default:
+                    respondError(exchange, 405, "MethodNotAllowed", "Method not allowed");
+                    break;
+            }
+        }
+        finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Stores the given body as object at once
+     *
+     * @param exchange a http exchange
+     * @param path a path of object
+     * @param body a content of object
+     *
+     * @throws IOException if response cannot be written
+     */
+    private void putObject(HttpExchange exchange, String path, byte[] body) throws IOException {
+        count("PutObject");
+        objects.put(path, body);
+        exchange.getResponseHeaders().set("ETag", eTag(body));
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    /**
+     * Answers the content of an object
+     *
+     * @param exchange a http exchange
+     * @param path a path of object
+     *
+     * @throws IOException if response cannot be written
+     */
+    private void getObject(HttpExchange exchange, String path) throws IOException {
+        count("GetObject");
+        var object = objects.get(path);
+        if (object == null) {
+            respondError(exchange, 404, "NoSuchKey", "The specified key does not exist.");
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+        exchange.sendResponseHeaders(200, object.length == 0 ? -1 : object.length);
+        exchange.getResponseBody().write(object);
+    }
+
+    /**
+     * Starts a new multipart upload for given object
+     *
+     * @param exchange a http exchange
+     * @param path a path of object
+     *
+     * @throws IOException if response cannot be written
+     */
+    private void createMultipartUpload(HttpExchange exchange, String path) throws IOException {
+        count("CreateMultipartUpload");
+        var uploadId = UUID.randomUUID().toString();
+        uploads.put(uploadId, new MultipartUpload(path));
+
+        var bucketAndKey = path.split("/", 2);
+        respondXml(exchange, 200, String.format(
+            "<InitiateMultipartUploadResult xmlns=\"%s\"><Bucket>%s</Bucket><Key>%s</Key><UploadId>%s</UploadId>" +
+                "</InitiateMultipartUploadResult>",
+            S3_NAMESPACE,
+            bucketAndKey[0],
+            bucketAndKey[1],
+            uploadId
+        ));
+    }
+
+    /**
+     * Stores the given body as a part of multipart upload, a part uploaded again replaces the previous one
+     *
+     * @param exchange a http exchange
+     * @param path a path of object
+     * @param query a query parameters of request
+     * @param body a content of part
+     *
+     * @throws IOException if response cannot be written
+     */
+    private void uploadPart(HttpExchange exchange, String path, Map<String, String> query, byte[] body)
+        throws IOException {
+        count("UploadPart");
+        var concurrent = concurrentPartUploads.incrementAndGet();
+        maxConcurrentPartUploads.accumulateAndGet(concurrent, Math::max);
+        try {
+            sleep();
+            if (failNext.getAndUpdate(remaining -> Math.max(remaining - 1, 0)) > 0) {
+                respondError(exchange, 500, "InternalError", "We encountered an internal error. Please try again.");
+                return;
+            }
+
+            var upload = uploads.get(query.get("uploadId"));
+            if (upload == null || !upload.path.equals(path)) {
+                respondError(exchange, 404, "NoSuchUpload", "The specified upload does not exist.");
+                return;
+            }
+
+            upload.parts.put(Integer.parseInt(query.get("partNumber")), body);
+            exchange.getResponseHeaders().set("ETag", eTag(body));
+            exchange.sendResponseHeaders(200, -1);
+        }
+        finally {
+            concurrentPartUploads.decrementAndGet();
+        }
+    }
+
+    /**
+     * Assembles the object from the parts listed by given request body in the listed order
+     *
+     * @param exchange a http exchange
+     * @param path a path of object
+     * @param query a query parameters of request
+     * @param body a complete multipart upload request body
+     *
+     * @throws IOException if response cannot be written
+     */
+    private void completeMultipartUpload(HttpExchange exchange, String path, Map<String, String> query, String body)
+        throws IOException {
+        count("CompleteMultipartUpload");
+        var upload = uploads.get(query.get("uploadId"));
+        if (upload == null || !upload.path.equals(path)) {
+            respondError(exchange, 404, "NoSuchUpload", "The specified upload does not exist.");
+            return;
+        }
+
+        var partNumbers = PART_NUMBER_PATTERN.matcher(body).results()
+            .map(result -> Integer.parseInt(result.group(1)))
+            .toArray(Integer[]::new);
+        if (partNumbers.length == 0) {
+            respondError(exchange, 400, "MalformedXML", "The XML you provided was not well-formed.");
+            return;
+        }
+
+        var object = new ByteArrayOutputStream();
+        for (int index = 0; index < partNumbers.length; index++) {
+            var part = upload.parts.get(partNumbers[index]);
+            if (part == null) {
+                respondError(exchange, 400, "InvalidPart", "One or more of the specified parts could not be found.");
+                return;
+            }
+            if (index < partNumbers.length - 1 && part.length < MIN_PART_SIZE) {
+                respondError(exchange, 400, "EntityTooSmall", "Your proposed upload is smaller than the minimum.");
+                return;
+            }
+            object.write(part);
+        }
+
+        uploads.remove(query.get("uploadId"));
+        objects.put(path, object.toByteArray());
+
+        var bucketAndKey = path.split("/", 2);
+        respondXml(exchange, 200, String.format(
+            "<CompleteMultipartUploadResult xmlns=\"%s\"><Location>%s/%s</Location><Bucket>%s</Bucket>" +
+                "<Key>%s</Key><ETag>&quot;%s-%d&quot;</ETag></CompleteMultipartUploadResult>",
+            S3_NAMESPACE,
+            getUrl(),
+            path,
+            bucketAndKey[0],
+            bucketAndKey[1],
+            md5Hex(object.toByteArray()),
+            partNumbers.length
+        ));
+    }
+
+    /**
+     * Discards the given multipart upload along with its parts
+     *
+     * @param exchange a http exchange
+     * @param path a path of object
+     * @param query a query parameters of request
+     *
+     * @throws IOException if response cannot be written
+     */
+    private void abortMultipartUpload(HttpExchange exchange, String path, Map<String, String> query)
+        throws IOException {
+        count("AbortMultipartUpload");
+        var upload = uploads.get(query.get("uploadId"));
+        if (upload == null || !upload.path.equals(path)) {
+            respondError(exchange, 404, "NoSuchUpload", "The specified upload does not exist.");
+            return;
+        }
+
+        uploads.remove(query.get("uploadId"));
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    /**
+     * Reads the request body, decoding <code>aws-chunked</code> encoding in which every chunk is framed as
+     * <code>{hexSize};chunk-signature={signature}\r\n{bytes}\r\n</code> up to a last chunk of size 0
+     *
+     * @param exchange a http exchange
+     *
+     * @return a decoded request body
+     *
+     * @throws IOException if request body cannot be read
+     */
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        var body = exchange.getRequestBody().readAllBytes();
+        var contentSha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        if (contentSha256 == null || !contentSha256.startsWith(STREAMING_PAYLOAD)) {
+            return body;
+        }
+
+        var decoded = new ByteArrayOutputStream(body.length);
+        int position = 0;
+        while (position < body.length) {
+            int lineEnd = position;
+            while (lineEnd + 1 < body.length && !(body[lineEnd] == '\r' && body[lineEnd + 1] == '\n')) {
+                lineEnd++;
+            }
+
+            var header = new String(body, position, lineEnd - position, US_ASCII);
+            var size = Integer.parseInt(header.split(";", 2)[0].trim(), 16);
+            if (size == 0) {
+                break;
+            }
+
+            decoded.write(body, lineEnd + 2, size);
+            position = lineEnd + 2 + size + 2;
+        }
+        return decoded.toByteArray();
+    }
+
+    /**
+     * Parses the given raw query string, a parameter without value is mapped to an empty string
+     *
+     * @param rawQuery a raw query string, null if none
+     *
+     * @return a map of query parameters
+     */
+    private static Map<String, String> query(String rawQuery) {
+        var query = new HashMap<String, String>();
+        if (rawQuery == null) {
+            return query;
+        }
+
+        Arrays.stream(rawQuery.split("&")).filter(parameter -> !parameter.isEmpty()).forEach(parameter -> {
+            var nameAndValue = parameter.split("=", 2);
+            query.put(
+                URLDecoder.decode(nameAndValue[0], UTF_8),
+                nameAndValue.length > 1 ? URLDecoder.decode(nameAndValue[1], UTF_8) : ""
+            );
+        });
+        return query;
+    }
+
+    /**
+     * Writes the given status and xml body
+     *
+     * @param exchange a http exchange
+     * @param status a http status
+     * @param xml a xml body without declaration
+     *
+     * @throws IOException if response cannot be written
+     */
+    private static void respondXml(HttpExchange exchange, int status, String xml) throws IOException {
+        var bytes = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + xml).getBytes(UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /**
+     * Writes the given status and s3 error body
+     *
+     * @param exchange a http exchange
+     * @param status a http status
+     * @param code an s3 error code
+     * @param message an error message
+     *
+     * @throws IOException if response cannot be written
+     */
+    private static void respondError(HttpExchange exchange, int status, String code, String message)
+        throws IOException {
+        respondXml(
+            exchange,
+            status,
+            String.format("<Error><Code>%s</Code><Message>%s</Message></Error>", code, message)
+        );
+    }
+
+    /**
+     * Gets the entity tag of given content, which is its quoted md5 digest same as s3
+     *
+     * @param content a content to tag
+     *
+     * @return a quoted entity tag
+     */
+    private static String eTag(byte[] content) {
+        return "\"" + md5Hex(content) + "\"";
+    }
+
+    /**
+     * Gets the md5 digest of given content as lower case hex
+     *
+     * @param content a content to digest
+     *
+     * @return a hex md5 digest
+     */
+    private static String md5Hex(byte[] content) {
+        try {
+            var hex = new StringBuilder();
+            for (var digestByte : MessageDigest.getInstance("MD5").digest(content)) {
+                hex.append(String.format("%02x", digestByte));
+            }
+            return hex.toString();
+        }
+        catch (NoSuchAlgorithmException noSuchAlgorithmException) {
+            throw new IllegalStateException(noSuchAlgorithmException);
+        }
+    }
+
+    /**
+     * Counts a request of given operation
+     *
+     * @param operation an operation to count
+     */
+    private void count(String operation) {
+        requestCounts.computeIfAbsent(operation, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Sleeps for configured latency
+     */
+    private void sleep() {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency.toMillis());
+        }
+        catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.fixtures;
+
+import static java.util.stream.Collectors.toList;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Evaluates the subset of elasticsearch query DSL used by this project against a document source i.e.
+ * <code>match_all</code>, <code>term</code>, <code>terms</code>, <code>range</code> and <code>bool</code>
+ * with <code>must</code>, <code>filter</code>, <code>should</code> and <code>must_not</code> clauses. A
+ * <code>.keyword</code> sub field of dynamic mapping is resolved to its parent field.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 22, 2022
+ */
+final class QueryMatcher {
+    private static final String KEYWORD_SUFFIX = ".keyword";
+
+    private QueryMatcher() {
+    }
+
+    /**
+     * Checks whether given document source matches the given query
+     *
+     * @param source a document source
+     * @param query a query DSL node, null matches all documents
+     *
+     * @return true if document matches otherwise false
+     *
+     * @throws IllegalArgumentException if query uses an unsupported clause
+     */
+    @SuppressWarnings("unchecked")
+    static boolean matches(Map<String, Object> source, Map<String, Object> query) {
+        if (query == null || query.isEmpty()) {
+            return true;
+        }
+
+        if (query.size() != 1) {
+            throw new IllegalArgumentException("Query should have exactly one clause " + query);
+        }
+
+        var clause = query.entrySet().iterator().next();
+        var body = (Map<String, Object>) clause.getValue();
+        switch (clause.getKey()) {
+            case "match_all":
+                return true;
+            case "term":
+                return fieldClause(body, (value, expected) -> {
+                    var termValue = expected instanceof Map ? ((Map<String, Object>) expected).get("value") : expected;
+                    return value != null && compare(value, termValue) == 0;
+                }, source);
+            case "terms":
+                return fieldClause(body, (value, expected) -> value != null &&
+                    ((Collection<Object>) expected).stream().anyMatch(term -> compare(value, term) == 0), source);
+            case "range":
+                return fieldClause(body, (value, expected) -> value != null && inRange(value, (Map<String, Object>) expected), source);
+            case "bool":
+                return bool(source, body);
+            default:
+                throw new IllegalArgumentException("Unsupported query clause " + clause.getKey());
+        }
+    }
+
+    /**
+     * Builds the comparator for given elasticsearch sort node e.g. <code>[{"timestamp": "desc"}]</code> or
+     * <code>[{"timestamp": {"order": "desc"}}]</code>
+     *
+     * @param sort a sort DSL node, null keeps the documents in index order
+     *
+     * @return a comparator of document sources or null if no sort is given
+     */
+    @SuppressWarnings("unchecked")
+    static Comparator<Map<String, Object>> comparator(List<Object> sort) {
+        if (sort == null || sort.isEmpty()) {
+            return null;
+        }
+
+        Comparator<Map<String, Object>> comparator = (first, second) -> 0;
+        for (var sortNode : sort) {
+            String field;
+            String order = "asc";
+            if (sortNode instanceof String) {
+                field = (String) sortNode;
+            }
+            else {
+                var entry = ((Map<String, Object>) sortNode).entrySet().iterator().next();
+                field = entry.getKey();
+                if (entry.getValue() instanceof Map) {
+                    order = String.valueOf(((Map<String, Object>) entry.getValue()).getOrDefault("order", "asc"));
+                }
+                else {
+                    order = String.valueOf(entry.getValue());
+                }
+            }
+
+            Comparator<Map<String, Object>> fieldComparator = (first, second) -> {
+                var firstValue = first.get(field);
+                var secondValue = second.get(field);
+                if (firstValue == null || secondValue == null) {
+                    return firstValue == null ? (secondValue == null ? 0 : 1) : -1;
+                }
+                return compare(firstValue, secondValue);
+            };
+            comparator = comparator.thenComparing("desc".equals(order) ? fieldComparator.reversed() : fieldComparator);
+        }
+        return comparator;
+    }
+
+    /**
+     * Compares the given values numerically if both of them are numbers otherwise lexicographically
+     *
+     * @param first a first value
+     * @param second a second value
+     *
+     * @return a negative integer, zero, or a positive integer as first value is less than, equal to,
+     *     or greater than second value
+     */
+    static int compare(Object first, Object second) {
+        var firstText = String.valueOf(first);
+        var secondText = String.valueOf(second);
+        try {
+            return new BigDecimal(firstText).compareTo(new BigDecimal(secondText));
+        }
+        catch (NumberFormatException ignored) {
+            return firstText.compareTo(secondText);
+        }
+    }
+
+    /**
+     * A predicate of a single field clause
+     */
+    @FunctionalInterface
+    private interface FieldPredicate {
+        boolean test(Object value, Object expected);
+    }
+
+    /**
+     * Evaluates a single field clause like <code>{"field": expected}</code>
+     *
+     * @param body a clause body
+     * @param predicate a predicate to test field value with
+     * @param source a document source
+     *
+     * @return true if document matches otherwise false
+     */
+    private static boolean fieldClause(Map<String, Object> body, FieldPredicate predicate, Map<String, Object> source) {
+        return body.entrySet().stream().allMatch(entry -> predicate.test(source.get(field(entry.getKey())), entry.getValue()));
+    }
+
+    /**
+     * Resolves the given field name to the document source field holding its value
+     *
+     * @param name a field name of query
+     *
+     * @return a source field name
+     */
+    private static String field(String name) {
+        return name.endsWith(KEYWORD_SUFFIX) ? name.substring(0, name.length() - KEYWORD_SUFFIX.length()) : name;
+    }
+
+    /**
+     * Checks whether given value is within given range bounds
+     *
+     * @param value a value to check
+     * @param bounds a range bounds i.e. gt, gte, lt and lte
+     *
+     * @return true if value is within range otherwise false
+     */
+    private static boolean inRange(Object value, Map<String, Object> bounds) {
+        return bounds.entrySet().stream().allMatch(bound -> {
+            var comparison = compare(value, bound.getValue());
+            switch (bound.getKey()) {
+                case "gt":
+                    return comparison > 0;
+                case "gte":
+                    return comparison >= 0;
+                case "lt":
+                    return comparison < 0;
+                case "lte":
+                    return comparison <= 0;
+                default:
+                    // Parameters like format or time_zone are not evaluated
+                    return true;
+            }
+        });
+    }
+
+    /**
+     * Evaluates a bool query
+     *
+     * @param source a document source
+     * @param body a bool clause body
+     *
+     * @return true if document matches otherwise false
+     */
+    private static boolean bool(Map<String, Object> source, Map<String, Object> body) {
+        var must = clauses(body.get("must"));
+        var filter = clauses(body.get("filter"));
+        var should = clauses(body.get("should"));
+        var mustNot = clauses(body.get("must_not"));
+
+        var required = must.stream().allMatch(query -> matches(source, query)) &&
+            filter.stream().allMatch(query -> matches(source, query)) &&
+            mustNot.stream().noneMatch(query -> matches(source, query));
+
+        if (!required) {
+            return false;
+        }
+
+        // Should clauses are only mandatory when they are the only positive clauses
+        return should.isEmpty() || !must.isEmpty() || !filter.isEmpty() ||
+            should.stream().anyMatch(query -> matches(source, query));
+    }
+
+    /**
+     * Normalizes a bool clause which can be either a single query or a list of queries
+     *
+     * @param node a bool clause node
+     *
+     * @return a list of queries
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> clauses(Object node) {
+        if (node == null) {
+            return List.of();
+        }
+        if (node instanceof Map) {
+            return List.of((Map<String, Object>) node);
+        }
+        return ((List<Object>) node).stream()
+            .filter(Objects::nonNull)
+            .map(query -> (Map<String, Object>) query)
+            .collect(toList());
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.fixtures;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A deterministic generator of synthetic wearable sensor documents. Documents of a sensor are ordered by their
+ * <code>timestamp</code> field which is epoch millis increasing by given sampling interval, same as the documents
+ * pushed by the wearable devices.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 22, 2022
+ */
+public class SensorDataGenerator {
+    /**
+     * Names of wearable sensor indexes exported by elasticsearch to csv extractor
+     */
+    public static final List<String> WEARABLE_SENSORS = List.of(
+        "accelerometer",
+        "bvp",
+        "gyroscope",
+        "gsr",
+        "heartrate",
+        "ibi",
+        "temperature",
+        "rating"
+    );
+
+    private static final int SUBJECT_COUNT = 10;
+
+    /**
+     * A builder for {@link SensorDataGenerator}
+     */
+    public static class Builder {
+        private long seed;
+        private Instant start;
+        private Duration interval;
+
+        /**
+         * Creates a new instance of sensor data generator {@link Builder}
+         */
+        private Builder() {
+            this.seed = 42L;
+            this.start = Instant.parse("2022-01-01T00:00:00Z");
+            this.interval = Duration.ofMillis(20);
+        }
+
+        /**
+         * Sets the random seed for this builder
+         *
+         * @param seed a random seed to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the timestamp of first generated document for this builder
+         *
+         * @param start a start instant to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withStart(Instant start) {
+            this.start = requireNonNull(start);
+            return this;
+        }
+
+        /**
+         * Sets the sampling interval between two consecutive documents for this builder
+         *
+         * @param interval a sampling interval to set
+         *
+         * @return a reference of this builder
+         */
+        public Builder withInterval(Duration interval) {
+            if (requireNonNull(interval).isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("Interval should be positive");
+            }
+            this.interval = interval;
+            return this;
+        }
+
+        /**
+         * Builds a new instance of {@link SensorDataGenerator}
+         *
+         * @return a newly created sensor data generator
+         */
+        public SensorDataGenerator build() {
+            return new SensorDataGenerator(this);
+        }
+    }
+
+    /**
+     * Creates a new instance of sensor data generator {@link Builder}
+     *
+     * @return a newly created builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final long seed;
+    private final long startMillis;
+    private final long intervalMillis;
+
+    /**
+     * Creates a new instance of {@link SensorDataGenerator}
+     *
+     * @param builder a builder to use
+     */
+    private SensorDataGenerator(Builder builder) {
+        this.seed = builder.seed;
+        this.startMillis = builder.start.toEpochMilli();
+        this.intervalMillis = builder.interval.toMillis();
+    }
+
+    /**
+     * Generates given number of documents for given sensor. Same seed and sensor always generate same documents.
+     *
+     * @param sensor a name of sensor i.e. one of {@link #WEARABLE_SENSORS}
+     * @param count a number of documents to generate
+     *
+     * @return a list of generated documents in timestamp order
+     */
+    public List<Map<String, Object>> generate(String sensor, int count) {
+        var random = new Random(seed ^ requireNonNull(sensor).hashCode());
+        var documents = new ArrayList<Map<String, Object>>(count);
+        for (long sequence = 0; sequence < count; sequence++) {
+            documents.add(document(sensor, sequence, random));
+        }
+        return documents;
+    }
+
+    /**
+     * Generates a single document of given sensor
+     *
+     * @param sensor a name of sensor
+     * @param sequence a sequence of document within the sensor
+     * @param random a random to draw readings from
+     *
+     * @return a generated document
+     */
+    private Map<String, Object> document(String sensor, long sequence, Random random) {
+        var document = new LinkedHashMap<String, Object>();
+        document.put("subjectId", "S" + (sequence % SUBJECT_COUNT));
+        document.put("timestamp", startMillis + sequence * intervalMillis);
+        switch (sensor) {
+            case "accelerometer":
+            case "gyroscope":
+                document.put("x", round(random.nextGaussian()));
+                document.put("y", round(random.nextGaussian()));
+                document.put("z", round(random.nextGaussian()));
+                break;
+            case "bvp":
+                document.put("value", round(random.nextGaussian() * 50));
+                break;
+            case "gsr":
+                document.put("value", round(0.1 + random.nextDouble() * 5));
+                break;
+            case "heartrate":
+                document.put("value", round(70 + random.nextGaussian() * 10));
+                break;
+            case "ibi":
+                document.put("value", round(0.6 + random.nextDouble() * 0.4));
+                break;
+            case "temperature":
+                document.put("value", round(32 + random.nextDouble() * 4));
+                break;
+            case "rating":
+                document.put("value", 1 + random.nextInt(5));
+                break;
+            default:
+                document.put("value", round(random.nextDouble()));
+                break;
+        }
+        return document;
+    }
+
+    /**
+     * Rounds the given reading to four decimal places similar to what the devices report
+     *
+     * @param reading a reading to round
+     *
+     * @return a rounded reading
+     */
+    private static double round(double reading) {
+        return Math.round(reading * 10_000) / 10_000.0;
+    }
+}
@@ -9,4 +9,6 @@ module ideaslabut.aws.lambda {
     requires ideaslabut.aws.lambda.core;
     requires aws.lambda.java.core;
     requires org.slf4j;
+
+    exports org.ideaslabut.aws.lambda.handlers;
 }
\ No newline at end of file
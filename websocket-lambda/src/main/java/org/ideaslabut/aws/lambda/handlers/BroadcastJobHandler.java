@@ -0,0 +1,159 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.ideaslabut.aws.lambda.domain.queue.BatchItemFailure;
+import org.ideaslabut.aws.lambda.domain.queue.BatchResponse;
+import org.ideaslabut.aws.lambda.domain.queue.QueueEvent;
+import org.ideaslabut.aws.lambda.domain.queue.QueueMessage;
+import org.ideaslabut.aws.lambda.domain.websocket.BroadcastJob;
+import org.ideaslabut.aws.lambda.service.WebSocketService;
+import org.ideaslabut.aws.lambda.service.concurrent.ExecutorFactory;
+import org.ideaslabut.aws.lambda.service.queue.BroadcastQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * AWS Lambda function request handler which drains a batch of broadcast jobs queued by sendMessage route and
+ * performs their fan-out. Jobs of a batch run concurrently, each of them fanning out with the broadcast concurrency
+ * of websocket service, so a large room doesn't hold up the jobs queued behind it.
+ * <p>
+ * A job is reported back as batch item failure only if it cannot be parsed or its broadcast throws e.g. connection
+ * lookup failed before any connection was reached, so that the queue redelivers it. A broadcast which reached some
+ * connections but not others, including one whose connection lookup failed midway, is not redelivered since that
+ * would send the message twice to the connections which already got it.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Jul 29, 2022
+ */
+public class BroadcastJobHandler implements RequestHandler<QueueEvent, BatchResponse> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BroadcastJobHandler.class);
+    private static final int JOB_CONCURRENCY = 8;
+
+    private final WebSocketService webSocketService;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService jobExecutor;
+
+    /**
+     * Creates a new instance of {@link BroadcastJobHandler} used by aws lambda runtime
+     */
+    public BroadcastJobHandler() {
+        this(WebSocketService.getInstance());
+    }
+
+    /**
+     * Creates a new instance of {@link BroadcastJobHandler} with given websocket service i.e. one which is wired to
+     * local stand-ins while testing
+     *
+     * @param webSocketService a websocket service to use
+     */
+    public BroadcastJobHandler(WebSocketService webSocketService) {
+        this.webSocketService = webSocketService;
+        this.objectMapper = new ObjectMapper();
+        this.jobExecutor = ExecutorFactory.newIoExecutor("broadcast-job", JOB_CONCURRENCY);
+    }
+
+    /**
+     * Handles a batch of queue messages each carrying a broadcast job
+     *
+     * @param event a queue event with batch of messages
+     * @param context a current context for given lambda function
+     *
+     * @return a batch response naming every message to be redelivered
+     */
+    @Override
+    public BatchResponse handleRequest(QueueEvent event, Context context) {
+        var records = Optional.ofNullable(event.getRecords()).orElse(List.of());
+        LOGGER.info("Processing {} broadcast jobs", records.size());
+
+        var broadcasts = new LinkedHashMap<String, CompletableFuture<Boolean>>();
+        for (QueueMessage record : records) {
+            try {
+                var broadcastJob = objectMapper.readValue(record.getBody(), BroadcastJob.class);
+                broadcasts.put(record.getMessageId(), broadcastAsync(broadcastJob));
+            }
+            catch (JsonProcessingException exception) {
+                LOGGER.error("Unable to parse broadcast job {}", record.getMessageId(), exception);
+                broadcasts.put(record.getMessageId(), CompletableFuture.failedFuture(exception));
+            }
+        }
+
+        var batchResponse = new BatchResponse();
+        batchResponse.setBatchItemFailures(failures(broadcasts));
+        return batchResponse;
+    }
+
+    /**
+     * Drains the given local queue until it is empty, performing every job. This is used where sender and worker
+     * share one jvm e.g. tests and load runs backed by an in-memory or local file queue.
+     *
+     * @param broadcastQueue a broadcast queue to drain
+     * @param batchSize a maximum number of jobs to drain at once
+     *
+     * @return a number of jobs performed
+     */
+    public int drain(BroadcastQueue broadcastQueue, int batchSize) {
+        var performed = 0;
+        for (var broadcastJobs = broadcastQueue.drain(batchSize);
+             !broadcastJobs.isEmpty();
+             broadcastJobs = broadcastQueue.drain(batchSize)) {
+            var broadcasts = new LinkedHashMap<String, CompletableFuture<Boolean>>();
+            for (var broadcastJob : broadcastJobs) {
+                broadcasts.put(String.valueOf(performed++), broadcastAsync(broadcastJob));
+            }
+            failures(broadcasts);
+        }
+        return performed;
+    }
+
+    /**
+     * Submits the broadcast of given job to job executor
+     *
+     * @param broadcastJob a broadcast job to perform
+     *
+     * @return a future completed with whether every live connection got the message
+     */
+    private CompletableFuture<Boolean> broadcastAsync(BroadcastJob broadcastJob) {
+        return CompletableFuture.supplyAsync(() -> webSocketService.broadcast(broadcastJob), jobExecutor);
+    }
+
+    /**
+     * Waits for all given broadcasts and collects the ones which failed exceptionally
+     *
+     * @param broadcasts a broadcasts keyed by their queue message id
+     *
+     * @return a batch item failure for every failed broadcast, empty if none failed
+     */
+    private List<BatchItemFailure> failures(Map<String, CompletableFuture<Boolean>> broadcasts) {
+        var failures = new ArrayList<BatchItemFailure>();
+        broadcasts.forEach((messageId, broadcast) -> {
+            try {
+                if (!broadcast.join()) {
+                    LOGGER.warn("Broadcast job {} didn't reach every connection", messageId);
+                }
+            }
+            catch (CompletionException exception) {
+                LOGGER.error("Broadcast job {} failed", messageId, exception.getCause());
+                var failure = new BatchItemFailure();
+                failure.setItemIdentifier(messageId);
+                failures.add(failure);
+            }
+        });
+        return failures;
+    }
+}
@@ -22,9 +22,23 @@ public class WebSocketMessageHandler implements RequestHandler<ProxyRequestEvent
     private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketMessageHandler.class);
     private final WebSocketService webSocketService;
 
+    /**
+     * Creates a new instance of {@link WebSocketMessageHandler} used by aws lambda runtime
+     */
     public WebSocketMessageHandler() {
-        webSocketService = WebSocketService.getInstance();
+        this(WebSocketService.getInstance());
+    }
+
+    /**
+     * Creates a new instance of {@link WebSocketMessageHandler} with given websocket service i.e. one which is
+     * wired to local stand-ins while load testing
+     *
+     * @param webSocketService a websocket service to use
+     */
+    public WebSocketMessageHandler(WebSocketService webSocketService) {
+        this.webSocketService = webSocketService;
     }
+
     /**
      * Handles input request for given
      *
@@ -34,7 +48,7 @@ public class WebSocketMessageHandler implements RequestHandler<ProxyRequestEvent
      */
     @Override
     public ProxyResponseEvent handleRequest(ProxyRequestEvent event, Context context) {
-        LOGGER.info("Processing websocket proxy event {}", event);
+        LOGGER.debug("Processing websocket proxy event {}", event);
         return webSocketService.processEvent(event);
     }
 }
\ No newline at end of file
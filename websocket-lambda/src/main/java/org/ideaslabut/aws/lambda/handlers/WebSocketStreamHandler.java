@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+
+import org.ideaslabut.aws.lambda.domain.websocket.ProxyRequestEvent;
+import org.ideaslabut.aws.lambda.domain.websocket.ProxyResponseEvent;
+import org.ideaslabut.aws.lambda.service.WebSocketService;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * AWS Lambda function stream handler for handling webSocket request context route, an alternative entry point to
+ * {@link WebSocketMessageHandler}. The raw event is read straight from the input stream, only the request context,
+ * query string parameters and body are kept and every other field api gateway sends is skipped without being
+ * materialized. The response is written field by field to the output stream, so neither side goes through the
+ * reflective serializer of lambda runtime.
+ *
+ * @author Prakash Khadka <br>
+ *     Created On: Aug 04, 2022
+ */
+public class WebSocketStreamHandler implements RequestStreamHandler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketStreamHandler.class);
+    private static final int HTTP_BAD_RESPONSE_STATUS_CODE = 400;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ObjectReader EVENT_READER = OBJECT_MAPPER.readerFor(ProxyRequestEvent.class);
+    private static final JsonFactory JSON_FACTORY = OBJECT_MAPPER.getFactory();
+    private static final SerializableString STATUS_CODE = new SerializedString("statusCode");
+    private static final SerializableString IS_BASE64_ENCODED = new SerializedString("isBase64Encoded");
+    private static final SerializableString BODY = new SerializedString("body");
+
+    private final WebSocketService webSocketService;
+
+    /**
+     * Creates a new instance of {@link WebSocketStreamHandler} used by aws lambda runtime
+     */
+    public WebSocketStreamHandler() {
+        this(WebSocketService.getInstance());
+    }
+
+    /**
+     * Creates a new instance of {@link WebSocketStreamHandler} with given websocket service
+     *
+     * @param webSocketService a websocket service to use
+     */
+    public WebSocketStreamHandler(WebSocketService webSocketService) {
+        this.webSocketService = webSocketService;
+    }
+
+    /**
+     * Handles the websocket proxy event read from given input stream and writes its response to given output stream.
+     * An event which is not valid json is answered with status code 400.
+     *
+     * @param input an input stream holding websocket proxy event json
+     * @param output an output stream to write proxy response json to
+     * @param context a current context for given lambda function
+     *
+     * @throws IOException if input cannot be read or response cannot be written
+     */
+    @Override
+    public void handleRequest(InputStream input, OutputStream output, Context context) throws IOException {
+        ProxyResponseEvent responseEvent;
+        try {
+            ProxyRequestEvent event = EVENT_READER.readValue(input);
+            LOGGER.debug("Processing websocket proxy event {}", event);
+            responseEvent = webSocketService.processEvent(event);
+        }
+        catch (JsonProcessingException exception) {
+            LOGGER.error("Unable to read websocket proxy event", exception);
+            responseEvent = new ProxyResponseEvent();
+            responseEvent.setStatusCode(HTTP_BAD_RESPONSE_STATUS_CODE);
+        }
+        writeResponse(responseEvent, output);
+    }
+
+    /**
+     * Writes the given response event as json, fields which are not set are left out
+     *
+     * @param responseEvent a response event to write
+     * @param output an output stream to write to
+     *
+     * @throws IOException if response cannot be written
+     */
+    private void writeResponse(ProxyResponseEvent responseEvent, OutputStream output) throws IOException {
+        try (var generator = JSON_FACTORY.createGenerator(output, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            if (responseEvent != null) {
+                if (responseEvent.getStatusCode() != null) {
+                    generator.writeFieldName(STATUS_CODE);
+                    generator.writeNumber(responseEvent.getStatusCode());
+                }
+                if (responseEvent.getIsBase64Encoded() != null) {
+                    generator.writeFieldName(IS_BASE64_ENCODED);
+                    generator.writeBoolean(responseEvent.getIsBase64Encoded());
+                }
+                if (responseEvent.getBody() != null) {
+                    generator.writeFieldName(BODY);
+                    generator.writeString(responseEvent.getBody());
+                }
+            }
+            generator.writeEndObject();
+        }
+    }
+}
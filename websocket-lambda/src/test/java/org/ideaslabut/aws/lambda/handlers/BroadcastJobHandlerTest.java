@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.ideaslabut.aws.lambda.domain.queue.BatchItemFailure;
+import org.ideaslabut.aws.lambda.domain.queue.QueueEvent;
+import org.ideaslabut.aws.lambda.domain.queue.QueueMessage;
+import org.ideaslabut.aws.lambda.domain.websocket.BroadcastJob;
+import org.ideaslabut.aws.lambda.service.WebSocketService;
+import org.ideaslabut.aws.lambda.service.queue.InMemoryBroadcastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit test for BroadcastJobHandler
+ *
+ * @author Prakash Khadka <br>
+ *         Created on: Jul 29, 2022
+ */
+public class BroadcastJobHandlerTest {
+    @Test
+    void handleRequestReportsFailedJobs() {
+        var webSocketService = mock(WebSocketService.class);
+        when(webSocketService.broadcast(any())).thenReturn(true);
+        when(webSocketService.broadcast(argThat(job -> job != null && "bob".equals(job.getSenderConnectionId()))))
+            .thenThrow(new IllegalStateException("lookup failed"));
+
+        var queueEvent = new QueueEvent();
+        queueEvent.setRecords(List.of(
+            queueMessage("1", "{\"senderConnectionId\":\"alice\",\"payload\":\"aGk=\"}"),
+            queueMessage("2", "{\"senderConnectionId\":\"bob\",\"payload\":\"aGk=\"}"),
+            queueMessage("3", "not a job")
+        ));
+
+        var batchResponse = new BroadcastJobHandler(webSocketService).handleRequest(queueEvent, null);
+        var failedIds = batchResponse.getBatchItemFailures().stream()
+            .map(BatchItemFailure::getItemIdentifier)
+            .collect(Collectors.toList());
+        assertEquals(List.of("2", "3"), failedIds, "Only thrown and malformed jobs should be redelivered");
+    }
+
+    @Test
+    void drainPerformsEveryJob() {
+        var webSocketService = mock(WebSocketService.class);
+        when(webSocketService.broadcast(any())).thenReturn(true);
+
+        var broadcastQueue = new InMemoryBroadcastQueue();
+        for (int index = 0; index < 5; index++) {
+            var broadcastJob = new BroadcastJob();
+            broadcastJob.setSenderConnectionId("sender-" + index);
+            broadcastJob.setPayload(new byte[] {1});
+            broadcastQueue.enqueue(broadcastJob);
+        }
+
+        assertEquals(5, new BroadcastJobHandler(webSocketService).drain(broadcastQueue, 2));
+        assertEquals(0, broadcastQueue.size());
+        verify(webSocketService, times(5)).broadcast(any());
+    }
+
+    private QueueMessage queueMessage(String messageId, String body) {
+        var queueMessage = new QueueMessage();
+        queueMessage.setMessageId(messageId);
+        queueMessage.setBody(body);
+        return queueMessage;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 IDEAS Lab @ University of Toledo. All rights reserved.
+ */
+package org.ideaslabut.aws.lambda.handlers;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.ideaslabut.aws.lambda.domain.websocket.ProxyRequestEvent;
+import org.ideaslabut.aws.lambda.domain.websocket.ProxyResponseEvent;
+import org.ideaslabut.aws.lambda.service.WebSocketService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Unit test for WebSocketStreamHandler
+ *
+ * @author Prakash Khadka <br>
+ *         Created on: Aug 04, 2022
+ */
+public class WebSocketStreamHandlerTest {
+    @Test
+    void handleRequest() throws IOException {
+        var webSocketService = mock(WebSocketService.class);
+        var responseEvent = new ProxyResponseEvent();
+        responseEvent.setStatusCode(200);
+        responseEvent.setBody("sent \"hi\"");
+        when(webSocketService.processEvent(any())).thenReturn(responseEvent);
+
+        var input = "{\"requestContext\":{\"routeKey\":\"sendMessage\",\"connectionId\":\"fake-id\","
+            + "\"domainName\":\"example.com\",\"stage\":\"dev\",\"requestTimeEpoch\":1659571200000,"
+            + "\"identity\":{\"sourceIp\":\"127.0.0.1\"}},\"headers\":{\"Host\":\"example.com\"},"
+            + "\"queryStringParameters\":{\"room\":\"lobby\"},\"body\":\"{\\\"message\\\":\\\"hi\\\"}\","
+            + "\"isBase64Encoded\":false}";
+        var output = new ByteArrayOutputStream();
+        new WebSocketStreamHandler(webSocketService).handleRequest(
+            new ByteArrayInputStream(input.getBytes(UTF_8)),
+            output,
+            null
+        );
+
+        var eventCaptor = ArgumentCaptor.forClass(ProxyRequestEvent.class);
+        verify(webSocketService).processEvent(eventCaptor.capture());
+        var event = eventCaptor.getValue();
+        assertEquals("sendMessage", event.getRequestContext().getRouteKey());
+        assertEquals("fake-id", event.getRequestContext().getConnectionId());
+        assertEquals("example.com", event.getRequestContext().getDomainName());
+        assertEquals("dev", event.getRequestContext().getStage());
+        assertEquals(Map.of("room", "lobby"), event.getQueryStringParameters());
+        assertEquals("{\"message\":\"hi\"}", event.getBody(), "Body should be handed over as raw string");
+
+        assertEquals("{\"statusCode\":200,\"body\":\"sent \\\"hi\\\"\"}", output.toString(UTF_8));
+    }
+
+    @Test
+    void handleMalformedRequest() throws IOException {
+        var webSocketService = mock(WebSocketService.class);
+        var output = new ByteArrayOutputStream();
+        new WebSocketStreamHandler(webSocketService).handleRequest(
+            new ByteArrayInputStream("{\"requestContext\":".getBytes(UTF_8)),
+            output,
+            null
+        );
+
+        verify(webSocketService, never()).processEvent(any());
+        assertEquals("{\"statusCode\":400}", output.toString(UTF_8));
+    }
+}